@@ -14,12 +14,14 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "com.cloudsuites.framework")
 @ComponentScan({"com.cloudsuites.framework.modules", "com.cloudsuites.framework.services", "com.cloudsuites.framework.webapp"})
 @EnableJpaRepositories({"com.cloudsuites.framework.modules"})
 @EntityScan(basePackages = {"com.cloudsuites.framework.services", "com.cloudsuites.framework.modules"})
 @EnableAsync
+@EnableScheduling
 public class CloudsuitesCoreApplication {
 
 	public static void main(String[] args) {
@@ -1,5 +1,6 @@
 package com.cloudsuites.framework.webapp;
 
+import com.cloudsuites.framework.modules.auth.exception.PasswordHashingUnavailableException;
 import com.cloudsuites.framework.services.amenity.entities.booking.AmenityAlreadyExistsException;
 import com.cloudsuites.framework.services.amenity.entities.booking.AmenityNotFoundException;
 import com.cloudsuites.framework.services.amenity.entities.booking.BookingException;
@@ -140,6 +141,22 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(problemDetails);
     }
 
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    protected ResponseEntity<ProblemDetails> handlePasswordHashingUnavailableException(PasswordHashingUnavailableException ex, HttpServletRequest request) {
+        logger.warn("Password hashing saturated: URI={}", request.getRequestURI());
+        ProblemDetails problemDetails = ProblemDetails.builder()
+                .withTitle("Service Unavailable")
+                .withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .withDetail(ex.getMessage())
+                .withInstance(URI.create(request.getRequestURI()).getPath())
+                .withTimestamp(ZonedDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(problemDetails);
+    }
+
     @ExceptionHandler(org.springframework.security.access.AccessDeniedException.class)
     protected ResponseEntity<ProblemDetails> handleAccessDeniedException(org.springframework.security.access.AccessDeniedException ex, HttpServletRequest request) {
         logger.error("AccessDeniedException occurred: URI={}, Message={}", request.getRequestURI(), ex.getMessage(), ex);
@@ -10,7 +10,9 @@ import com.cloudsuites.framework.services.user.UserService;
 import com.cloudsuites.framework.services.user.entities.Admin;
 import com.cloudsuites.framework.services.user.entities.Identity;
 import com.cloudsuites.framework.services.user.entities.UserType;
+import com.cloudsuites.framework.webapp.authentication.util.AuthAuditHelper;
 import com.cloudsuites.framework.webapp.authentication.util.JwtTokenHelper;
+import com.cloudsuites.framework.webapp.authentication.util.TrustedDeviceHelper;
 import com.cloudsuites.framework.webapp.authentication.util.WebAppConstants;
 import com.cloudsuites.framework.webapp.rest.property.dto.Views;
 import com.cloudsuites.framework.webapp.rest.user.dto.AdminDto;
@@ -21,6 +23,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,6 +32,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/auth/admins")
@@ -42,17 +46,22 @@ public class AdminAuthController {
     private final AdminMapper adminMapper;
     private final JwtTokenHelper jwtTokenHelper;
     private final AdminService adminService;
+    private final TrustedDeviceHelper trustedDeviceHelper;
+    private final AuthAuditHelper authAuditHelper;
 
     @Autowired
     public AdminAuthController(JwtTokenProvider jwtTokenProvider, OtpService otpService,
                                UserService userService, AdminMapper adminMapper,
-                               JwtTokenHelper jwtTokenHelper, AdminService adminService) {
+                               JwtTokenHelper jwtTokenHelper, AdminService adminService,
+                               TrustedDeviceHelper trustedDeviceHelper, AuthAuditHelper authAuditHelper) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.otpService = otpService;
         this.userService = userService;
         this.adminMapper = adminMapper;
         this.jwtTokenHelper = jwtTokenHelper;
         this.adminService = adminService;
+        this.trustedDeviceHelper = trustedDeviceHelper;
+        this.authAuditHelper = authAuditHelper;
     }
 
     @Operation(summary = "Register an Admin", description = "Register a new admin with building and unit information")
@@ -69,11 +78,22 @@ public class AdminAuthController {
         return ResponseEntity.ok(adminMapper.convertToDTO(admin));
     }
 
-    @Operation(summary = "Request OTP", description = "Request a new OTP code to be sent to the admin's phone number")
+    @Operation(summary = "Request OTP", description = "Request a new OTP code to be sent to the admin's phone number, or sign in directly with a valid trusted device token")
     @PostMapping("/{adminId}/request-otp")
     public ResponseEntity<Map<String, String>> requestOtp(
-            @PathVariable String adminId) throws NotFoundResponseException, InvalidOperationException {
+            @PathVariable String adminId,
+            @RequestHeader(value = WebAppConstants.TrustedDevice.TOKEN_HEADER, required = false) String trustedDeviceToken,
+            @RequestHeader(value = WebAppConstants.TrustedDevice.FINGERPRINT_HEADER, required = false) String deviceFingerprint,
+            HttpServletRequest request) throws NotFoundResponseException, InvalidOperationException {
         Admin admin = adminService.getAdminById(adminId);
+        String userId = admin.getIdentity().getUserId();
+        Optional<Map<String, String>> trustedLogin = trustedDeviceHelper.tryIssueTrustedLogin(
+                trustedDeviceToken, deviceFingerprint, userId, request, sessionId -> Map.of(
+                        "token", jwtTokenHelper.generateToken(adminId, UserType.ADMIN, userId, sessionId),
+                        "refreshToken", jwtTokenHelper.generateRefreshToken(adminId, UserType.ADMIN, userId, sessionId)));
+        if (trustedLogin.isPresent()) {
+            return ResponseEntity.ok(trustedLogin.get());
+        }
         sendOtpToAdmin(admin);
         return ResponseEntity.ok(Map.of("message", "OTP sent successfully"));
     }
@@ -82,17 +102,23 @@ public class AdminAuthController {
     @PostMapping("/{adminId}/verify-otp")
     public ResponseEntity<Map<String, String>> verifyOtp(
             @PathVariable String adminId,
-            @RequestParam @Parameter(description = "OTP to be verified") String otp) throws NotFoundResponseException, InvalidOperationException {
+            @RequestParam @Parameter(description = "OTP to be verified") String otp,
+            @RequestHeader(value = WebAppConstants.TrustedDevice.FINGERPRINT_HEADER, required = false) String deviceFingerprint,
+            HttpServletRequest request) throws NotFoundResponseException, InvalidOperationException {
 
         Admin admin = adminService.getAdminById(adminId);
 
         Identity identity = admin.getIdentity();
         if (otpService.verifyOtp(identity.getPhoneNumber(), otp)) {
-            String token = jwtTokenHelper.generateToken(adminId, UserType.ADMIN, identity.getUserId());
-            String refreshToken = jwtTokenHelper.generateRefreshToken(adminId, UserType.ADMIN, identity.getUserId());
+            String sessionId = jwtTokenHelper.startSession(identity.getUserId());
+            String token = jwtTokenHelper.generateToken(adminId, UserType.ADMIN, identity.getUserId(), sessionId);
+            String refreshToken = jwtTokenHelper.generateRefreshToken(adminId, UserType.ADMIN, identity.getUserId(), sessionId);
+            authAuditHelper.otpVerified(identity.getUserId(), request);
             logger.debug(WebAppConstants.Otp.OTP_VERIFIED_LOG, identity.getPhoneNumber(), adminId);
-            return ResponseEntity.ok(Map.of("token", token, "refreshToken", refreshToken));
+            return ResponseEntity.ok(trustedDeviceHelper.withTrustedDeviceToken(
+                    Map.of("token", token, "refreshToken", refreshToken), identity.getUserId(), deviceFingerprint));
         } else {
+            authAuditHelper.otpRejected(identity.getUserId(), request);
             logger.error(WebAppConstants.Otp.INVALID_OTP_ERROR, identity.getPhoneNumber());
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid OTP provided"));
         }
@@ -114,7 +140,7 @@ public class AdminAuthController {
 
         Identity identity = userService.getUserById(claims.get(WebAppConstants.Claim.USER_ID, String.class));
         if (admin.getIdentity().getUserId().equals(identity.getUserId())) {
-            String token = jwtTokenHelper.generateToken(adminId, UserType.ADMIN, identity.getUserId());
+            String token = jwtTokenHelper.generateToken(adminId, UserType.ADMIN, identity.getUserId(), jwtTokenHelper.sessionIdOf(claims));
             logger.debug(WebAppConstants.Token.TOKEN_REFRESHED_SUCCESS_LOG, adminId);
             return ResponseEntity.ok(Map.of("token", token, "refreshToken", refreshToken));
         } else {
@@ -12,7 +12,9 @@ import com.cloudsuites.framework.services.property.personas.service.OwnerService
 import com.cloudsuites.framework.services.user.UserService;
 import com.cloudsuites.framework.services.user.entities.Identity;
 import com.cloudsuites.framework.services.user.entities.UserType;
+import com.cloudsuites.framework.webapp.authentication.util.AuthAuditHelper;
 import com.cloudsuites.framework.webapp.authentication.util.JwtTokenHelper;
+import com.cloudsuites.framework.webapp.authentication.util.TrustedDeviceHelper;
 import com.cloudsuites.framework.webapp.authentication.util.WebAppConstants;
 import com.cloudsuites.framework.webapp.rest.property.dto.Views;
 import com.cloudsuites.framework.webapp.rest.user.dto.OwnerDto;
@@ -23,6 +25,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +34,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/auth/buildings/{buildingId}/units/{unitId}")
@@ -45,11 +49,14 @@ public class OwnerAuthController {
     private final OwnerService ownerService;
     private final OwnerMapper ownerMapper;
     private final JwtTokenHelper jwtTokenHelper;
+    private final TrustedDeviceHelper trustedDeviceHelper;
+    private final AuthAuditHelper authAuditHelper;
 
     @Autowired
     public OwnerAuthController(JwtTokenProvider jwtTokenProvider, OtpService otpService,
                                UserService userService, OwnerMapper ownerMapper, UnitService unitService,
-                               OwnerService ownerService, JwtTokenHelper jwtTokenHelper) {
+                               OwnerService ownerService, JwtTokenHelper jwtTokenHelper,
+                               TrustedDeviceHelper trustedDeviceHelper, AuthAuditHelper authAuditHelper) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.otpService = otpService;
         this.userService = userService;
@@ -57,6 +64,8 @@ public class OwnerAuthController {
         this.unitService = unitService;
         this.ownerService = ownerService;
         this.jwtTokenHelper = jwtTokenHelper;
+        this.trustedDeviceHelper = trustedDeviceHelper;
+        this.authAuditHelper = authAuditHelper;
     }
 
     @Operation(summary = "Register an Owner", description = "Register a new owner with building and unit information")
@@ -77,18 +86,29 @@ public class OwnerAuthController {
         return ResponseEntity.ok(ownerMapper.convertToDTO(owner));
     }
 
-    @Operation(summary = "Request OTP", description = "Request a new OTP code to be sent to the owner's phone number")
+    @Operation(summary = "Request OTP", description = "Request a new OTP code to be sent to the owner's phone number, or sign in directly with a valid trusted device token")
     @PostMapping("/owners/{ownerId}/request-otp")
     public ResponseEntity<Map<String, String>> requestOtp(
             @PathVariable String buildingId,
             @PathVariable String unitId,
-            @PathVariable String ownerId) throws NotFoundResponseException, InvalidOperationException {
+            @PathVariable String ownerId,
+            @RequestHeader(value = WebAppConstants.TrustedDevice.TOKEN_HEADER, required = false) String trustedDeviceToken,
+            @RequestHeader(value = WebAppConstants.TrustedDevice.FINGERPRINT_HEADER, required = false) String deviceFingerprint,
+            HttpServletRequest request) throws NotFoundResponseException, InvalidOperationException {
 
         Unit unit = unitService.getUnitById(buildingId, unitId);
         Owner owner = ownerService.getOwnerById(ownerId);
 
         validateOwnerOwnership(unit, ownerId);
 
+        String userId = owner.getIdentity().getUserId();
+        Optional<Map<String, String>> trustedLogin = trustedDeviceHelper.tryIssueTrustedLogin(
+                trustedDeviceToken, deviceFingerprint, userId, request, sessionId -> Map.of(
+                        "token", jwtTokenHelper.generateToken(ownerId, UserType.OWNER, buildingId, unitId, userId, sessionId),
+                        "refreshToken", jwtTokenHelper.generateRefreshToken(ownerId, UserType.OWNER, buildingId, unitId, userId, sessionId)));
+        if (trustedLogin.isPresent()) {
+            return ResponseEntity.ok(trustedLogin.get());
+        }
         sendOtpToOwner(owner);
         return ResponseEntity.ok(Map.of("message", "OTP sent successfully"));
     }
@@ -99,7 +119,9 @@ public class OwnerAuthController {
             @PathVariable String buildingId,
             @PathVariable String unitId,
             @PathVariable String ownerId,
-            @RequestParam @Parameter(description = "OTP to be verified") String otp) throws NotFoundResponseException, InvalidOperationException {
+            @RequestParam @Parameter(description = "OTP to be verified") String otp,
+            @RequestHeader(value = WebAppConstants.TrustedDevice.FINGERPRINT_HEADER, required = false) String deviceFingerprint,
+            HttpServletRequest request) throws NotFoundResponseException, InvalidOperationException {
 
         Unit unit = unitService.getUnitById(buildingId, unitId);
         Owner owner = ownerService.getOwnerById(ownerId);
@@ -108,12 +130,16 @@ public class OwnerAuthController {
 
         Identity identity = owner.getIdentity();
         if (otpService.verifyOtp(identity.getPhoneNumber(), otp)) {
-            String token = jwtTokenHelper.generateToken(ownerId, UserType.OWNER, buildingId, unitId, identity.getUserId());
-            String refreshToken = jwtTokenHelper.generateRefreshToken(ownerId, UserType.OWNER, buildingId, unitId, identity.getUserId());
+            String sessionId = jwtTokenHelper.startSession(identity.getUserId());
+            String token = jwtTokenHelper.generateToken(ownerId, UserType.OWNER, buildingId, unitId, identity.getUserId(), sessionId);
+            String refreshToken = jwtTokenHelper.generateRefreshToken(ownerId, UserType.OWNER, buildingId, unitId, identity.getUserId(), sessionId);
             otpService.verifyOtp(identity.getPhoneNumber(), otp);
+            authAuditHelper.otpVerified(identity.getUserId(), request);
             logger.debug(WebAppConstants.Otp.OTP_VERIFIED_LOG, identity.getPhoneNumber(), ownerId);
-            return ResponseEntity.ok(Map.of("token", token, "refreshToken", refreshToken));
+            return ResponseEntity.ok(trustedDeviceHelper.withTrustedDeviceToken(
+                    Map.of("token", token, "refreshToken", refreshToken), identity.getUserId(), deviceFingerprint));
         } else {
+            authAuditHelper.otpRejected(identity.getUserId(), request);
             logger.error(WebAppConstants.Otp.INVALID_OTP_ERROR, identity.getPhoneNumber());
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid OTP provided")); // Updated message
         }
@@ -140,7 +166,7 @@ public class OwnerAuthController {
 
         Identity identity = userService.getUserById(claims.get(WebAppConstants.Claim.USER_ID, String.class));
         if (owner.getIdentity().getUserId().equals(identity.getUserId())) {
-            String token = jwtTokenHelper.generateToken(ownerId, UserType.OWNER, buildingId, unitId, identity.getUserId());
+            String token = jwtTokenHelper.generateToken(ownerId, UserType.OWNER, buildingId, unitId, identity.getUserId(), jwtTokenHelper.sessionIdOf(claims));
             logger.debug(WebAppConstants.Token.TOKEN_REFRESHED_SUCCESS_LOG, ownerId);
             return ResponseEntity.ok(Map.of("token", token, "refreshToken", refreshToken));
         } else {
@@ -1,12 +1,18 @@
 package com.cloudsuites.framework.webapp.authentication;
 
-import com.cloudsuites.framework.modules.jwt.JwtTokenProvider;
+import com.cloudsuites.framework.modules.auth.config.RateLimitingProperties;
+import com.cloudsuites.framework.modules.auth.service.impl.AuthAnomalyDetector;
+import com.cloudsuites.framework.modules.jwt.TokenRevocationIndex;
+import com.cloudsuites.framework.modules.jwt.VerifiedTokenCache;
 import com.cloudsuites.framework.modules.user.repository.UserRoleRepository;
+import com.cloudsuites.framework.services.auth.RateLimitService;
 import com.cloudsuites.framework.services.property.personas.entities.StaffRole;
 import com.cloudsuites.framework.services.user.entities.AdminRole;
 import com.cloudsuites.framework.webapp.authentication.filter.JwtAuthenticationFilter;
+import com.cloudsuites.framework.webapp.authentication.filter.RateLimitFilter;
 import com.cloudsuites.framework.webapp.authentication.providers.CustomAuthenticationProvider;
 import com.cloudsuites.framework.webapp.authentication.service.CustomUserDetailsService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
@@ -29,18 +35,31 @@ import java.util.Map;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
+@EnableConfigurationProperties(RateLimitingProperties.class)
 public class SecurityConfiguration {
 
-    private final JwtTokenProvider jwtTokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final CustomUserDetailsService userDetailsService;
     private final CustomAuthenticationProvider customAuthenticationProvider;
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final RateLimitService rateLimitService;
+    private final RateLimitingProperties rateLimitingProperties;
+    private final AuthAnomalyDetector anomalyDetector;
 
-    public SecurityConfiguration(JwtTokenProvider jwtTokenProvider,
+    public SecurityConfiguration(VerifiedTokenCache verifiedTokenCache,
                                  CustomUserDetailsService userDetailsService,
-                                 CustomAuthenticationProvider customAuthenticationProvider) {
-        this.jwtTokenProvider = jwtTokenProvider;
+                                 CustomAuthenticationProvider customAuthenticationProvider,
+                                 TokenRevocationIndex tokenRevocationIndex,
+                                 RateLimitService rateLimitService,
+                                 RateLimitingProperties rateLimitingProperties,
+                                 AuthAnomalyDetector anomalyDetector) {
+        this.verifiedTokenCache = verifiedTokenCache;
         this.userDetailsService = userDetailsService;
         this.customAuthenticationProvider = customAuthenticationProvider;
+        this.tokenRevocationIndex = tokenRevocationIndex;
+        this.rateLimitService = rateLimitService;
+        this.rateLimitingProperties = rateLimitingProperties;
+        this.anomalyDetector = anomalyDetector;
     }
 
     @Bean
@@ -152,9 +171,10 @@ public class SecurityConfiguration {
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http, UserRoleRepository userRoleRepository) throws Exception {
         http
-                .csrf(csrf -> csrf.ignoringRequestMatchers("/api/v1/auth/**"))
+                .csrf(csrf -> csrf.ignoringRequestMatchers("/api/v1/auth/**", "/oauth/introspect"))
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers("/api/v1/auth/**").permitAll()
+                        .requestMatchers("/oauth/introspect").permitAll()  // Callers authenticate as introspection clients
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-resources/**", "/webjars/**").permitAll()
                         .requestMatchers("/error").permitAll()  // Allow error pages
@@ -166,8 +186,12 @@ public class SecurityConfiguration {
 
 
         // Add JWT filter before UsernamePasswordAuthenticationFilter
-        http.addFilterBefore(new JwtAuthenticationFilter(jwtTokenProvider, userDetailsService,
-                userRoleRepository), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(new JwtAuthenticationFilter(verifiedTokenCache, userDetailsService,
+                userRoleRepository, tokenRevocationIndex), UsernamePasswordAuthenticationFilter.class);
+
+        // Reject rate-limited requests before authentication, request parsing or controller dispatch
+        http.addFilterBefore(new RateLimitFilter(rateLimitService, rateLimitingProperties, anomalyDetector,
+                verifiedTokenCache), JwtAuthenticationFilter.class);
 
         // Register CustomAuthenticationProvider
         http.authenticationProvider(customAuthenticationProvider);
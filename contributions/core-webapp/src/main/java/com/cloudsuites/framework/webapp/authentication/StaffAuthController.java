@@ -10,7 +10,9 @@ import com.cloudsuites.framework.services.property.personas.service.StaffService
 import com.cloudsuites.framework.services.user.UserService;
 import com.cloudsuites.framework.services.user.entities.Identity;
 import com.cloudsuites.framework.services.user.entities.UserType;
+import com.cloudsuites.framework.webapp.authentication.util.AuthAuditHelper;
 import com.cloudsuites.framework.webapp.authentication.util.JwtTokenHelper;
+import com.cloudsuites.framework.webapp.authentication.util.TrustedDeviceHelper;
 import com.cloudsuites.framework.webapp.authentication.util.WebAppConstants;
 import com.cloudsuites.framework.webapp.rest.property.dto.Views;
 import com.cloudsuites.framework.webapp.rest.user.dto.StaffDto;
@@ -21,6 +23,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,6 +32,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/auth/staff")
@@ -42,17 +46,22 @@ public class StaffAuthController {
     private final StaffMapper staffMapper;
     private final JwtTokenHelper jwtTokenHelper;
     private final StaffService staffService;
+    private final TrustedDeviceHelper trustedDeviceHelper;
+    private final AuthAuditHelper authAuditHelper;
 
     @Autowired
     public StaffAuthController(JwtTokenProvider jwtTokenProvider, OtpService otpService,
                                UserService userService, StaffMapper staffMapper,
-                               JwtTokenHelper jwtTokenHelper, StaffService staffService) {
+                               JwtTokenHelper jwtTokenHelper, StaffService staffService,
+                               TrustedDeviceHelper trustedDeviceHelper, AuthAuditHelper authAuditHelper) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.otpService = otpService;
         this.userService = userService;
         this.staffMapper = staffMapper;
         this.jwtTokenHelper = jwtTokenHelper;
         this.staffService = staffService;
+        this.trustedDeviceHelper = trustedDeviceHelper;
+        this.authAuditHelper = authAuditHelper;
     }
 
     @Operation(summary = "Register a Staff Member", description = "Register a new staff member with identity details")
@@ -70,11 +79,22 @@ public class StaffAuthController {
         return ResponseEntity.ok(staffMapper.convertToDTO(staff));
     }
 
-    @Operation(summary = "Request OTP", description = "Request a new OTP code to be sent to the staff's phone number")
+    @Operation(summary = "Request OTP", description = "Request a new OTP code to be sent to the staff's phone number, or sign in directly with a valid trusted device token")
     @PostMapping("/{staffId}/request-otp")
     public ResponseEntity<Map<String, String>> requestOtp(
-            @PathVariable String staffId) throws NotFoundResponseException, InvalidOperationException {
+            @PathVariable String staffId,
+            @RequestHeader(value = WebAppConstants.TrustedDevice.TOKEN_HEADER, required = false) String trustedDeviceToken,
+            @RequestHeader(value = WebAppConstants.TrustedDevice.FINGERPRINT_HEADER, required = false) String deviceFingerprint,
+            HttpServletRequest request) throws NotFoundResponseException, InvalidOperationException {
         Staff staff = staffService.getStaffById(staffId);
+        String userId = staff.getIdentity().getUserId();
+        Optional<Map<String, String>> trustedLogin = trustedDeviceHelper.tryIssueTrustedLogin(
+                trustedDeviceToken, deviceFingerprint, userId, request, sessionId -> Map.of(
+                        "token", jwtTokenHelper.generateToken(staffId, UserType.STAFF, userId, sessionId),
+                        "refreshToken", jwtTokenHelper.generateRefreshToken(staffId, UserType.STAFF, userId, sessionId)));
+        if (trustedLogin.isPresent()) {
+            return ResponseEntity.ok(trustedLogin.get());
+        }
         sendOtpToStaff(staff);
         return ResponseEntity.ok(Map.of("message", "OTP sent successfully"));
     }
@@ -83,17 +103,23 @@ public class StaffAuthController {
     @PostMapping("/{staffId}/verify-otp")
     public ResponseEntity<Map<String, String>> verifyOtp(
             @PathVariable String staffId,
-            @RequestParam @Parameter(description = "OTP to be verified") String otp) throws NotFoundResponseException, InvalidOperationException {
+            @RequestParam @Parameter(description = "OTP to be verified") String otp,
+            @RequestHeader(value = WebAppConstants.TrustedDevice.FINGERPRINT_HEADER, required = false) String deviceFingerprint,
+            HttpServletRequest request) throws NotFoundResponseException, InvalidOperationException {
 
         Staff staff = staffService.getStaffById(staffId);
 
         Identity identity = staff.getIdentity();
         if (otpService.verifyOtp(identity.getPhoneNumber(), otp)) {
-            String token = jwtTokenHelper.generateToken(staffId, UserType.STAFF, identity.getUserId());
-            String refreshToken = jwtTokenHelper.generateRefreshToken(staffId, UserType.STAFF, identity.getUserId());
+            String sessionId = jwtTokenHelper.startSession(identity.getUserId());
+            String token = jwtTokenHelper.generateToken(staffId, UserType.STAFF, identity.getUserId(), sessionId);
+            String refreshToken = jwtTokenHelper.generateRefreshToken(staffId, UserType.STAFF, identity.getUserId(), sessionId);
+            authAuditHelper.otpVerified(identity.getUserId(), request);
             logger.debug(WebAppConstants.Otp.OTP_VERIFIED_LOG, identity.getPhoneNumber(), staffId);
-            return ResponseEntity.ok(Map.of("token", token, "refreshToken", refreshToken));
+            return ResponseEntity.ok(trustedDeviceHelper.withTrustedDeviceToken(
+                    Map.of("token", token, "refreshToken", refreshToken), identity.getUserId(), deviceFingerprint));
         } else {
+            authAuditHelper.otpRejected(identity.getUserId(), request);
             logger.error(WebAppConstants.Otp.INVALID_OTP_ERROR, identity.getPhoneNumber());
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid OTP provided"));
         }
@@ -115,7 +141,7 @@ public class StaffAuthController {
 
         Identity identity = userService.getUserById(claims.get(WebAppConstants.Claim.USER_ID, String.class));
         if (staff.getIdentity().getUserId().equals(identity.getUserId())) {
-            String token = jwtTokenHelper.generateToken(staffId, UserType.STAFF, identity.getUserId());
+            String token = jwtTokenHelper.generateToken(staffId, UserType.STAFF, identity.getUserId(), jwtTokenHelper.sessionIdOf(claims));
             logger.debug(WebAppConstants.Token.TOKEN_REFRESHED_SUCCESS_LOG, staffId);
             return ResponseEntity.ok(Map.of("token", token, "refreshToken", refreshToken));
         } else {
@@ -16,7 +16,10 @@ import com.cloudsuites.framework.services.property.personas.service.TenantServic
 import com.cloudsuites.framework.services.user.UserService;
 import com.cloudsuites.framework.services.user.entities.Identity;
 import com.cloudsuites.framework.services.user.entities.UserType;
+import com.cloudsuites.framework.webapp.authentication.util.AuthAuditHelper;
 import com.cloudsuites.framework.webapp.authentication.util.JwtTokenHelper;
+import com.cloudsuites.framework.webapp.authentication.util.LoginFlowExecutor;
+import com.cloudsuites.framework.webapp.authentication.util.TrustedDeviceHelper;
 import com.cloudsuites.framework.webapp.authentication.util.WebAppConstants;
 import com.cloudsuites.framework.webapp.rest.property.dto.Views;
 import com.cloudsuites.framework.webapp.rest.user.dto.TenantDto;
@@ -27,6 +30,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,8 +38,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/auth/buildings/{buildingId}/units/{unitId}")
@@ -52,12 +59,17 @@ public class TenantAuthController {
     private final UnitService unitService;
     private final OwnerService ownerService;
     private final JwtTokenHelper jwtTokenHelper;
+    private final TrustedDeviceHelper trustedDeviceHelper;
+    private final AuthAuditHelper authAuditHelper;
+    private final LoginFlowExecutor loginFlowExecutor;
 
     @Autowired
     public TenantAuthController(JwtTokenProvider jwtTokenProvider, OtpService otpService,
                                 TenantService tenantService, UserService userService,
                                 TenantMapper tenantMapper, BuildingService buildingService,
-                                UnitService unitService, OwnerService ownerService, JwtTokenHelper jwtTokenHelper) {
+                                UnitService unitService, OwnerService ownerService, JwtTokenHelper jwtTokenHelper,
+                                TrustedDeviceHelper trustedDeviceHelper, LoginFlowExecutor loginFlowExecutor,
+                                AuthAuditHelper authAuditHelper) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.otpService = otpService;
         this.tenantService = tenantService;
@@ -67,18 +79,35 @@ public class TenantAuthController {
         this.unitService = unitService;
         this.ownerService = ownerService;
         this.jwtTokenHelper = jwtTokenHelper;
+        this.trustedDeviceHelper = trustedDeviceHelper;
+        this.authAuditHelper = authAuditHelper;
+        this.loginFlowExecutor = loginFlowExecutor;
     }
 
     // Request a new OTP for tenant registration
-    @Operation(summary = "Request OTP", description = "Request an OTP for tenant registration")
+    @Operation(summary = "Request OTP", description = "Request an OTP for tenant registration, or sign in directly with a valid trusted device token")
     @PostMapping("/tenants/{tenantId}/request-otp")
     public ResponseEntity<Map<String, String>> requestOtp(
             @PathVariable String buildingId,
             @PathVariable String unitId,
-            @PathVariable String tenantId) throws NotFoundResponseException, InvalidOperationException {
+            @PathVariable String tenantId,
+            @RequestHeader(value = WebAppConstants.TrustedDevice.TOKEN_HEADER, required = false) String trustedDeviceToken,
+            @RequestHeader(value = WebAppConstants.TrustedDevice.FINGERPRINT_HEADER, required = false) String deviceFingerprint,
+            HttpServletRequest request) throws NotFoundResponseException, InvalidOperationException {
+        Tenant tenant = tenantService.getTenantByBuildingIdAndUnitIdAndTenantId(buildingId, unitId, tenantId);
+        // A trusted device passes the same status check as OTP verification
+        String userId = tenant.getIdentity().getUserId();
+        if (tenant.getStatus() != TenantStatus.ACTIVE && tenant.getStatus() != TenantStatus.PENDING) {
+            Optional<Map<String, String>> trustedLogin = trustedDeviceHelper.tryIssueTrustedLogin(
+                    trustedDeviceToken, deviceFingerprint, userId, request, sessionId -> Map.of(
+                            "token", jwtTokenHelper.generateToken(tenantId, UserType.TENANT, buildingId, unitId, userId, sessionId),
+                            "refreshToken", jwtTokenHelper.generateRefreshToken(tenantId, UserType.TENANT, buildingId, unitId, userId, sessionId)));
+            if (trustedLogin.isPresent()) {
+                return ResponseEntity.ok(trustedLogin.get());
+            }
+        }
         // Generate OTP and send to the tenant
         logger.debug("Generating OTP for tenant: {}", tenantId);
-        Tenant tenant = tenantService.getTenantByBuildingIdAndUnitIdAndTenantId(buildingId, unitId, tenantId);
         sendOtpToTenant(tenant);
         return ResponseEntity.ok(Map.of("message", "OTP sent successfully"));
     }
@@ -158,10 +187,21 @@ public class TenantAuthController {
             @PathVariable String buildingId,
             @PathVariable String unitId,
             @PathVariable String tenantId,
-            @RequestParam @Parameter(description = "OTP to be verified") String otp) throws NotFoundResponseException {
+            @RequestParam @Parameter(description = "OTP to be verified") String otp,
+            @RequestHeader(value = WebAppConstants.TrustedDevice.FINGERPRINT_HEADER, required = false) String deviceFingerprint,
+            HttpServletRequest request) throws NotFoundResponseException {
 
-        validateBuildingAndUnit(buildingId, unitId);
-        Tenant tenant = tenantService.getTenantByBuildingIdAndUnitIdAndTenantId(buildingId, unitId, tenantId);
+        // The building, unit and tenant lookups are independent round trips
+        Tenant tenant;
+        try (LoginFlowExecutor.Scope lookups = loginFlowExecutor.open("tenant-verify-otp")) {
+            Supplier<Building> building = lookups.fork("building", () -> buildingService.getBuildingById(buildingId));
+            Supplier<Unit> unit = lookups.fork("unit", () -> unitService.getUnitById(buildingId, unitId));
+            Supplier<Tenant> tenantLookup = lookups.fork("tenant",
+                    () -> tenantService.getTenantByBuildingIdAndUnitIdAndTenantId(buildingId, unitId, tenantId));
+            lookups.join(NotFoundResponseException.class);
+            validateBuildingAndUnit(buildingId, building.get(), unitId, unit.get());
+            tenant = tenantLookup.get();
+        }
         if (tenant.getStatus() == TenantStatus.ACTIVE || tenant.getStatus() == TenantStatus.PENDING) {
             logger.error("Tenant is inactive");
             return ResponseEntity.status(400).body(Map.of("error", "Tenant is inactive"));
@@ -169,11 +209,27 @@ public class TenantAuthController {
         Identity identity = tenant.getIdentity();
 
         if (otpService.verifyOtp(identity.getPhoneNumber(), otp)) {
-            String token = jwtTokenHelper.generateToken(tenantId, UserType.TENANT, buildingId, unitId, identity.getUserId());
-            String refreshToken = jwtTokenHelper.generateRefreshToken(tenantId, UserType.TENANT, buildingId, unitId, identity.getUserId());
+            String userId = identity.getUserId();
+            String sessionId = jwtTokenHelper.startSession(userId);
+            Map<String, String> response;
+            // Signing both tokens and the trusted device lookup do not depend on each other
+            try (LoginFlowExecutor.Scope issue = loginFlowExecutor.open("tenant-issue-tokens")) {
+                Supplier<String> token = issue.fork("access-token",
+                        () -> jwtTokenHelper.generateToken(tenantId, UserType.TENANT, buildingId, unitId, userId, sessionId));
+                Supplier<String> refreshToken = issue.fork("refresh-token",
+                        () -> jwtTokenHelper.generateRefreshToken(tenantId, UserType.TENANT, buildingId, unitId, userId, sessionId));
+                Supplier<Map<String, String>> trustedDevice = issue.fork("trusted-device",
+                        () -> trustedDeviceHelper.withTrustedDeviceToken(Map.of(), userId, deviceFingerprint));
+                issue.join();
+                response = new HashMap<>(trustedDevice.get());
+                response.put("token", token.get());
+                response.put("refreshToken", refreshToken.get());
+            }
+            authAuditHelper.otpVerified(userId, request);
             logger.debug("OTP verified successfully for tenant: {}", tenantId);
-            return ResponseEntity.ok(Map.of("token", token, "refreshToken", refreshToken));
+            return ResponseEntity.ok(response);
         } else {
+            authAuditHelper.otpRejected(identity.getUserId(), request);
             logger.error("Invalid OTP for phone number: {}", identity.getPhoneNumber());
             return ResponseEntity.status(400).body(Map.of("error", "Invalid OTP"));
         }
@@ -203,7 +259,7 @@ public class TenantAuthController {
 
         Identity identity = userService.getUserById(claims.get("userId", String.class));
         if (tenant.getIdentity().getUserId().equals(identity.getUserId())) {
-            String token = jwtTokenHelper.generateToken(tenantId, UserType.TENANT, buildingId, unitId, identity.getUserId());
+            String token = jwtTokenHelper.generateToken(tenantId, UserType.TENANT, buildingId, unitId, identity.getUserId(), jwtTokenHelper.sessionIdOf(claims));
 
             logger.debug("Token refreshed successfully for tenant: {}", tenantId);
             return ResponseEntity.ok(Map.of("token", token, "refreshToken", refreshToken));
@@ -241,7 +297,10 @@ public class TenantAuthController {
     private Unit validateBuildingAndUnit(String buildingId, String unitId) throws NotFoundResponseException {
         Building building = buildingService.getBuildingById(buildingId);
         Unit unit = unitService.getUnitById(buildingId, unitId);
+        return validateBuildingAndUnit(buildingId, building, unitId, unit);
+    }
 
+    private Unit validateBuildingAndUnit(String buildingId, Building building, String unitId, Unit unit) throws NotFoundResponseException {
         if (building == null) {
             logger.error("Building not found for ID: {}", buildingId);
             throw new NotFoundResponseException("Building not found for ID: " + buildingId);
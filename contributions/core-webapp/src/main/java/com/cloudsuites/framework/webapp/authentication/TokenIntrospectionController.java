@@ -0,0 +1,134 @@
+package com.cloudsuites.framework.webapp.authentication;
+
+import com.cloudsuites.framework.modules.jwt.TokenIntrospector;
+import com.cloudsuites.framework.webapp.authentication.util.WebAppConstants;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.tags.Tags;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RFC 7662 token introspection for other CloudSuites services.
+ *
+ * Callers authenticate with HTTP Basic using a client ID and secret from
+ * {@code cloudsuites.security.introspection.clients}. A form-encoded request introspects one
+ * token as in the RFC; a JSON request introspects up to {@code max-batch-size} tokens in one
+ * round trip and answers them in request order.
+ */
+@RestController
+@RequestMapping("/oauth")
+@Tags(value = {@Tag(name = "Token Introspection", description = "Validation of CloudSuites tokens for other services")})
+public class TokenIntrospectionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenIntrospectionController.class);
+
+    public record IntrospectionBatchRequest(List<String> tokens) {
+    }
+
+    private final TokenIntrospector tokenIntrospector;
+
+    private final Map<String, byte[]> clientSecrets = new HashMap<>();
+
+    @Value("${cloudsuites.security.introspection.clients:}")
+    private String[] clients = new String[0];
+
+    @Value("${cloudsuites.security.introspection.max-batch-size:100}")
+    private int maxBatchSize = 100;
+
+    @Autowired
+    public TokenIntrospectionController(TokenIntrospector tokenIntrospector) {
+        this.tokenIntrospector = tokenIntrospector;
+    }
+
+    @PostConstruct
+    public void loadClients() {
+        for (String client : clients) {
+            int separator = client.indexOf(':');
+            if (separator > 0 && separator < client.length() - 1) {
+                clientSecrets.put(client.substring(0, separator).trim(),
+                        client.substring(separator + 1).trim().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        if (clientSecrets.isEmpty()) {
+            logger.warn(WebAppConstants.Introspection.NO_CLIENTS_LOG);
+        }
+    }
+
+    @Operation(summary = "Introspect Token", description = "Report whether a token is active and return its claims (RFC 7662)")
+    @PostMapping(value = "/introspect", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<Map<String, Object>> introspect(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestParam @Parameter(description = "Token to introspect") String token,
+            @RequestParam(value = "token_type_hint", required = false) @Parameter(description = "Ignored; the token type is read from the token") String tokenTypeHint) {
+        if (!isAuthenticatedClient(authorization)) {
+            return unauthorized();
+        }
+        return noStore(tokenIntrospector.introspect(token));
+    }
+
+    @Operation(summary = "Introspect Tokens", description = "Introspect a batch of tokens in one request; results are in request order")
+    @PostMapping(value = "/introspect", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> introspectBatch(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody @Parameter(description = "Tokens to introspect") IntrospectionBatchRequest request) {
+        if (!isAuthenticatedClient(authorization)) {
+            return unauthorized();
+        }
+        if (request == null || request.tokens() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", WebAppConstants.Introspection.INVALID_REQUEST));
+        }
+        if (request.tokens().size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body(Map.of("error", WebAppConstants.Introspection.INVALID_REQUEST,
+                    "error_description", String.format(WebAppConstants.Introspection.BATCH_TOO_LARGE_ERROR, maxBatchSize)));
+        }
+        return noStore(Map.of("results", tokenIntrospector.introspect(request.tokens())));
+    }
+
+    private boolean isAuthenticatedClient(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return false;
+        }
+        String credentials;
+        try {
+            credentials = new String(Base64.getDecoder().decode(authorization.substring(6).trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        int separator = credentials.indexOf(':');
+        if (separator <= 0) {
+            return false;
+        }
+        byte[] expected = clientSecrets.get(credentials.substring(0, separator));
+        byte[] presented = credentials.substring(separator + 1).getBytes(StandardCharsets.UTF_8);
+        return expected != null && MessageDigest.isEqual(expected, presented);
+    }
+
+    private static ResponseEntity<Map<String, Object>> unauthorized() {
+        logger.debug(WebAppConstants.Introspection.CLIENT_REJECTED_LOG);
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .header(HttpHeaders.WWW_AUTHENTICATE, WebAppConstants.Introspection.AUTHENTICATE_HEADER_VALUE)
+                .body(Map.of("error", WebAppConstants.Introspection.INVALID_CLIENT));
+    }
+
+    private static ResponseEntity<Map<String, Object>> noStore(Map<String, Object> body) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(body);
+    }
+}
@@ -1,6 +1,8 @@
 package com.cloudsuites.framework.webapp.authentication.filter;
 
 import com.cloudsuites.framework.modules.jwt.JwtTokenProvider;
+import com.cloudsuites.framework.modules.jwt.TokenRevocationIndex;
+import com.cloudsuites.framework.modules.jwt.VerifiedTokenCache;
 import com.cloudsuites.framework.modules.user.repository.UserRoleRepository;
 import com.cloudsuites.framework.webapp.authentication.service.CustomUserDetails;
 import com.cloudsuites.framework.webapp.authentication.service.CustomUserDetailsService;
@@ -21,14 +23,17 @@ import java.io.IOException;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtTokenProvider jwtTokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final CustomUserDetailsService userDetailsService;
     private final UserRoleRepository userRoleRepository;
+    private final TokenRevocationIndex tokenRevocationIndex;
 
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, CustomUserDetailsService userDetailsService, UserRoleRepository userRoleRepository) {
-        this.jwtTokenProvider = jwtTokenProvider;
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache, CustomUserDetailsService userDetailsService,
+                                   UserRoleRepository userRoleRepository, TokenRevocationIndex tokenRevocationIndex) {
+        this.verifiedTokenCache = verifiedTokenCache;
         this.userDetailsService = userDetailsService;
         this.userRoleRepository = userRoleRepository;
+        this.tokenRevocationIndex = tokenRevocationIndex;
     }
 
     @Override
@@ -36,9 +41,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         String jwt = getJwtFromRequest(request);
 
-        if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-            String personaId = jwtTokenProvider.extractSubject(jwt);
-            Claims claims = jwtTokenProvider.extractAllClaims(jwt);
+        // Signature and expiry are checked once per token and then served from the shared cache
+        Claims claims = StringUtils.hasText(jwt) ? verifiedTokenCache.verify(jwt) : null;
+        if (claims != null) {
+            String personaId = claims.getSubject();
             String userId = claims.get(WebAppConstants.Claim.USER_ID, String.class);
             String userType = claims.get(WebAppConstants.Claim.TYPE, String.class);
             String unitId = claims.get(WebAppConstants.Claim.UNIT_ID, String.class);
@@ -50,6 +56,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Unauthorized");
                 return;
             }
+
+            // Reject tokens whose session was logged out or revoked before they expired
+            String sessionId = claims.get(JwtTokenProvider.CLAIM_SESSION_ID, String.class);
+            if (tokenRevocationIndex.isAccessTokenRevoked(claims.getId(), sessionId)) {
+                logger.warn("Rejected revoked access token for session " + sessionId);
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Unauthorized");
+                return;
+            }
             try {
                 CustomUserDetails userDetails = (CustomUserDetails) userDetailsService.loadUserByUsername(userId);
                 userDetails.setPersonaId(personaId);
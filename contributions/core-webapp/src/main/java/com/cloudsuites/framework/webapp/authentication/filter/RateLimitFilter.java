@@ -0,0 +1,148 @@
+package com.cloudsuites.framework.webapp.authentication.filter;
+
+import com.cloudsuites.framework.modules.auth.config.RateLimitingProperties;
+import com.cloudsuites.framework.modules.auth.service.impl.AuthAnomalyDetector;
+import com.cloudsuites.framework.modules.jwt.VerifiedTokenCache;
+import com.cloudsuites.framework.services.auth.RateLimitService;
+import com.cloudsuites.framework.services.auth.entities.RateLimitResult;
+import com.cloudsuites.framework.services.auth.entities.RateLimitRule;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enforces the path-mapped rate limiting rules from {@code cloudsuites.rate-limiting.configurations}
+ * ahead of authentication, so abusive traffic is rejected with 429 before token validation,
+ * request body parsing or controller dispatch.
+ *
+ * Every matching rule is charged to the client address. A request with a bearer token whose
+ * signature verifies is additionally charged to the token subject, so one account cannot spread
+ * its attempts over many addresses. Unverified credentials never select a bucket: a client that
+ * could pick a fresh key per request would get a fresh budget per request. Client addresses come
+ * from {@code getRemoteAddr()}; deployments behind a proxy should enable
+ * {@code server.forward-headers-strategy} rather than trusting X-Forwarded-For here.
+ *
+ * Addresses flagged by the {@link AuthAnomalyDetector}, directly or through their subnet, are
+ * rejected on the same paths until the flag expires.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String REJECTION_BODY = "{\"error\":\"Too many requests\"}";
+
+    private final RateLimitService rateLimitService;
+    private final AuthAnomalyDetector anomalyDetector;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final List<PathRule> pathRules = new ArrayList<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private record PathRule(String operation, String pattern, int limit, Duration window, double tolerance) {
+    }
+
+    public RateLimitFilter(RateLimitService rateLimitService, RateLimitingProperties properties) {
+        this(rateLimitService, properties, null);
+    }
+
+    public RateLimitFilter(RateLimitService rateLimitService, RateLimitingProperties properties,
+                           AuthAnomalyDetector anomalyDetector) {
+        this(rateLimitService, properties, anomalyDetector, null);
+    }
+
+    public RateLimitFilter(RateLimitService rateLimitService, RateLimitingProperties properties,
+                           AuthAnomalyDetector anomalyDetector, VerifiedTokenCache verifiedTokenCache) {
+        this.rateLimitService = rateLimitService;
+        this.anomalyDetector = anomalyDetector;
+        this.verifiedTokenCache = verifiedTokenCache;
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (Map.Entry<String, RateLimitingProperties.Rule> entry : properties.getConfigurations().entrySet()) {
+            RateLimitingProperties.Rule rule = entry.getValue();
+            for (String pattern : rule.getPaths()) {
+                pathRules.add(new PathRule(entry.getKey(), pattern, rule.getLimit(),
+                        Duration.ofMinutes(rule.getWindowMinutes()), rule.getTolerance()));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return pathRules.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        List<RateLimitRule> rules = null;
+        String clientKey = "ip:" + request.getRemoteAddr();
+        String subjectKey = null;
+        for (PathRule pathRule : pathRules) {
+            if (!pathMatcher.match(pathRule.pattern(), path)) {
+                continue;
+            }
+            if (rules == null) {
+                rules = new ArrayList<>(2);
+                subjectKey = verifiedSubjectKey(request);
+            }
+            rules.add(new RateLimitRule(pathRule.operation() + ":" + clientKey, pathRule.limit(), pathRule.window(),
+                    pathRule.tolerance()));
+            if (subjectKey != null) {
+                rules.add(new RateLimitRule(pathRule.operation() + ":" + subjectKey, pathRule.limit(),
+                        pathRule.window(), pathRule.tolerance()));
+            }
+        }
+
+        if (rules != null) {
+            long retryAfterSeconds = anomalyDetector == null ? 0
+                    : anomalyDetector.blockedForSeconds(request.getRemoteAddr());
+            if (retryAfterSeconds > 0) {
+                logger.warn("Blocked flagged address " + request.getRemoteAddr() + " on " + path);
+                reject(response, retryAfterSeconds);
+                return;
+            }
+            for (RateLimitResult result : rateLimitService.checkAndRecordAll(rules)) {
+                if (!result.isAllowed()) {
+                    retryAfterSeconds = Math.max(retryAfterSeconds, Math.max(1, result.getRetryAfterSeconds()));
+                }
+            }
+            if (retryAfterSeconds > 0) {
+                logger.warn("Rate limit exceeded for " + clientKey + " on " + path);
+                reject(response, retryAfterSeconds);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Returns the bucket key of the bearer token's subject, or null unless its signature verifies.
+     */
+    String verifiedSubjectKey(HttpServletRequest request) {
+        String authorization = request.getHeader("Authorization");
+        if (verifiedTokenCache == null || authorization == null || !authorization.startsWith("Bearer ")) {
+            return null;
+        }
+        Claims claims = verifiedTokenCache.verify(authorization.substring(7));
+        return claims == null || !StringUtils.hasText(claims.getSubject()) ? null : "sub:" + claims.getSubject();
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(REJECTION_BODY);
+    }
+}
@@ -0,0 +1,37 @@
+package com.cloudsuites.framework.webapp.authentication.util;
+
+import com.cloudsuites.framework.services.auth.AuditService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the outcome of persona logins in the audit log, which also feeds the anomaly detector.
+ *
+ * The client address is the socket address, the same one the rate limit filter blocks on, so a
+ * forwarded-for header cannot steer failures onto someone else's address.
+ */
+@Component
+public class AuthAuditHelper {
+
+    private final AuditService auditService;
+
+    public AuthAuditHelper(AuditService auditService) {
+        this.auditService = auditService;
+    }
+
+    public void otpVerified(String userId, HttpServletRequest request) {
+        auditService.logOtpVerification(userId, request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT),
+                true, WebAppConstants.Otp.CHANNEL);
+    }
+
+    public void otpRejected(String userId, HttpServletRequest request) {
+        auditService.logOtpVerification(userId, request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT),
+                false, WebAppConstants.Otp.CHANNEL);
+    }
+
+    public void trustedDeviceLogin(String userId, String sessionId, HttpServletRequest request) {
+        auditService.logSuccessfulLogin(userId, request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT),
+                sessionId);
+    }
+}
@@ -1,6 +1,9 @@
 package com.cloudsuites.framework.webapp.authentication.util;
 
 import com.cloudsuites.framework.modules.jwt.JwtTokenProvider;
+import com.cloudsuites.framework.modules.jwt.TokenRevocationIndex;
+import com.cloudsuites.framework.services.user.RefreshTokenService;
+import com.cloudsuites.framework.services.user.entities.DeviceType;
 import com.cloudsuites.framework.services.user.entities.UserType;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtBuilder;
@@ -9,30 +12,79 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+
 @Component
 public class JwtTokenHelper {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationIndex tokenRevocationIndex;
 
     Logger logger = LoggerFactory.getLogger(JwtTokenHelper.class);
 
-    public JwtTokenHelper(JwtTokenProvider jwtTokenProvider) {
+    public JwtTokenHelper(JwtTokenProvider jwtTokenProvider, RefreshTokenService refreshTokenService,
+                          TokenRevocationIndex tokenRevocationIndex) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationIndex = tokenRevocationIndex;
+    }
+
+    /**
+     * Starts a new login session, stored in user_sessions so that it can be revoked and counts
+     * towards the per-user session cap. The access and refresh tokens issued together share its ID,
+     * and tokens issued on refresh keep it, so revoking the session revokes all of them.
+     */
+    public String startSession(String userId) {
+        return refreshTokenService.createRefreshToken(userId, null, null, DeviceType.WEB,
+                null, null, null, false).getSessionId();
+    }
+
+    /**
+     * Reads the session ID from a refresh token's claims, starting a new session for tokens issued before
+     * session IDs were added.
+     */
+    public String sessionIdOf(Claims claims) {
+        String sessionId = claims.get(JwtTokenProvider.CLAIM_SESSION_ID, String.class);
+        return sessionId != null ? sessionId : startSession(claims.get(WebAppConstants.Claim.USER_ID, String.class));
+    }
+
+    /**
+     * Revokes the session a persona token belongs to, which revokes every token issued for it.
+     *
+     * @return false if the token is invalid, carries no session or the session was not found
+     */
+    public boolean revokeSessionOf(String token) {
+        return claimsOf(token)
+                .map(claims -> claims.get(JwtTokenProvider.CLAIM_SESSION_ID, String.class))
+                .map(refreshTokenService::revokeSessionById)
+                .orElse(false);
     }
 
-    public String generateToken(String personaId, UserType personaType, String buildingId, String unitId, String userId) {
-        JwtBuilder claims = createClaims(personaId, buildingId, unitId, userId, personaType);
+    /**
+     * Reads the user ID from a valid persona token.
+     */
+    public Optional<String> userIdOf(String token) {
+        return claimsOf(token).map(claims -> claims.get(WebAppConstants.Claim.USER_ID, String.class));
+    }
+
+    public String generateToken(String personaId, UserType personaType, String buildingId, String unitId, String userId, String sessionId) {
+        JwtBuilder claims = createClaims(personaId, buildingId, unitId, userId, personaType, sessionId);
         return jwtTokenProvider.generateToken(claims);
     }
 
-    public String generateRefreshToken(String personaId, UserType personaType, String buildingId, String unitId, String userId) {
-        JwtBuilder claims = createClaims(personaId, buildingId, unitId, userId, personaType);
+    public String generateRefreshToken(String personaId, UserType personaType, String buildingId, String unitId, String userId, String sessionId) {
+        JwtBuilder claims = createClaims(personaId, buildingId, unitId, userId, personaType, sessionId);
         return jwtTokenProvider.generateRefreshToken(claims);
     }
 
     public boolean validateTokenClaims(Claims claims, String buildingId, String unitId, String personaId) {
         logger.debug("Validating token claims. {}", claims);
         logger.debug("Validating against buildingId: {}, unitId: {}, personaId: {}", buildingId, unitId, personaId);
+        if (tokenRevocationIndex.isSessionRevoked(claims.get(JwtTokenProvider.CLAIM_SESSION_ID, String.class))) {
+            logger.debug("Session has been revoked.");
+            return false;
+        }
         String ownerIdClaim = claims.getSubject();
         if (!personaId.equals(ownerIdClaim)) {
             logger.debug("Persona ID does not match.");
@@ -61,7 +113,7 @@ public class JwtTokenHelper {
         return false;
     }
 
-    private JwtBuilder createClaims(String personaId, String buildingId, String unitId, String userId, UserType personaType) {
+    private JwtBuilder createClaims(String personaId, String buildingId, String unitId, String userId, UserType personaType, String sessionId) {
         return Jwts.builder()
                 .subject(personaId)
                 .audience().add(WebAppConstants.Claim.AUDIENCE)
@@ -69,29 +121,40 @@ public class JwtTokenHelper {
                 .claim(WebAppConstants.Claim.TYPE, personaType)
                 .claim(WebAppConstants.Claim.BUILDING_ID, buildingId)
                 .claim(WebAppConstants.Claim.UNIT_ID, unitId)
-                .claim(WebAppConstants.Claim.USER_ID, userId);
+                .claim(WebAppConstants.Claim.USER_ID, userId)
+                .claim(JwtTokenProvider.CLAIM_SESSION_ID, sessionId);
     }
 
-    public String generateToken(String adminId, UserType userType, String userId) {
-        JwtBuilder claims = createClaims(adminId, userId, userType);
+    public String generateToken(String adminId, UserType userType, String userId, String sessionId) {
+        JwtBuilder claims = createClaims(adminId, userId, userType, sessionId);
         return jwtTokenProvider.generateToken(claims);
     }
 
-    private JwtBuilder createClaims(String adminId, String userId, UserType userType) {
+    private JwtBuilder createClaims(String adminId, String userId, UserType userType, String sessionId) {
         return Jwts.builder()
                 .subject(adminId)
                 .audience().add(WebAppConstants.Claim.AUDIENCE)
                 .and()
                 .claim(WebAppConstants.Claim.TYPE, userType)
-                .claim(WebAppConstants.Claim.USER_ID, userId);
+                .claim(WebAppConstants.Claim.USER_ID, userId)
+                .claim(JwtTokenProvider.CLAIM_SESSION_ID, sessionId);
     }
 
-    public String generateRefreshToken(String adminId, UserType userType, String userId) {
-        JwtBuilder claims = createClaims(adminId, userId, userType);
+    public String generateRefreshToken(String adminId, UserType userType, String userId, String sessionId) {
+        JwtBuilder claims = createClaims(adminId, userId, userType, sessionId);
         return jwtTokenProvider.generateRefreshToken(claims);
     }
 
     public boolean validateTokenClaims(Claims claims, String adminId) {
         return validateTokenClaims(claims, null, null, adminId);
     }
+
+    private Optional<Claims> claimsOf(String token) {
+        try {
+            return Optional.of(jwtTokenProvider.extractAllClaims(token));
+        } catch (RuntimeException e) {
+            logger.debug("Invalid token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
 }
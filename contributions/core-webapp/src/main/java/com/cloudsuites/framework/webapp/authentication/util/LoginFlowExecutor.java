@@ -0,0 +1,222 @@
+package com.cloudsuites.framework.webapp.authentication.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent lookups of a login flow concurrently on virtual threads.
+ *
+ * A {@link Scope} behaves like a shutdown-on-failure structured task scope: steps are forked,
+ * the caller joins them all before reading any result, the first failure cancels the steps
+ * still running and is rethrown as is, and nothing outlives the try-with-resources block.
+ * Each step is timed, so a login's latency can be broken down by lookup.
+ *
+ * With {@code cloudsuites.login.parallel-lookups} off, steps run one after another on the
+ * calling thread, which keeps the sequential flow available for comparison.
+ */
+@Component
+public class LoginFlowExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginFlowExecutor.class);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${cloudsuites.login.parallel-lookups:true}")
+    private boolean parallelLookups = true;
+
+    /**
+     * Opens a scope for one stage of a login flow. Close it with try-with-resources.
+     */
+    public Scope open(String flow) {
+        return new Scope(flow, parallelLookups ? executor : null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void record(String flow, long elapsedNanos, Map<String, Long> stepNanos) {
+        if (logger.isDebugEnabled()) {
+            Map<String, Long> stepMillis = new LinkedHashMap<>();
+            stepNanos.forEach((step, nanos) -> stepMillis.put(step, TimeUnit.NANOSECONDS.toMillis(nanos)));
+            logger.debug("Login flow {} took {} ms, steps (ms): {}", flow,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), stepMillis);
+        }
+        if (meterRegistry == null) {
+            return;
+        }
+        Timer.builder("cloudsuites.login.flow")
+                .description("Wall time of a login flow stage")
+                .tag("flow", flow)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        stepNanos.forEach((step, nanos) -> Timer.builder("cloudsuites.login.step")
+                .description("Duration of a single login lookup")
+                .tag("flow", flow)
+                .tag("step", step)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * A set of concurrently running login steps that are joined together.
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final String flow;
+        private final ExecutorService stepExecutor;
+        private final long startedNanos = System.nanoTime();
+        private final List<Step<?>> steps = new ArrayList<>();
+        private final CompletableFuture<Void> failure = new CompletableFuture<>();
+        private boolean recorded;
+
+        private Scope(String flow, ExecutorService stepExecutor) {
+            this.flow = flow;
+            this.stepExecutor = stepExecutor;
+        }
+
+        /**
+         * Starts a step. Its result may be read only after {@link #join} has returned.
+         */
+        public <T> Supplier<T> fork(String name, Callable<T> task) {
+            Step<T> step = new Step<>(name);
+            steps.add(step);
+            if (stepExecutor == null) {
+                if (failure.isDone()) {
+                    step.result.cancel(false);
+                } else {
+                    step.run(task, failure);
+                }
+            } else {
+                step.future = stepExecutor.submit(() -> step.run(task, failure));
+            }
+            return step::get;
+        }
+
+        /**
+         * Waits for every step, or for the first failure, which is rethrown if it is a
+         * {@code failureType} or unchecked, and wrapped otherwise.
+         */
+        public <X extends Exception> void join(Class<X> failureType) throws X {
+            CompletableFuture<?>[] results = steps.stream().map(step -> step.result).toArray(CompletableFuture[]::new);
+            try {
+                CompletableFuture.anyOf(CompletableFuture.allOf(results), failure).get();
+            } catch (InterruptedException e) {
+                cancelRunning();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for login flow " + flow, e);
+            } catch (ExecutionException e) {
+                cancelRunning();
+                recordOnce();
+                Throwable cause = e.getCause();
+                if (failureType.isInstance(cause)) {
+                    throw failureType.cast(cause);
+                }
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException("Login flow " + flow + " step failed", cause);
+            }
+            recordOnce();
+        }
+
+        /**
+         * Waits for every step, rethrowing the first unchecked failure.
+         */
+        public void join() {
+            join(RuntimeException.class);
+        }
+
+        /**
+         * Time spent in each step so far, in fork order.
+         */
+        public Map<String, Long> stepNanos() {
+            Map<String, Long> timings = new LinkedHashMap<>();
+            for (Step<?> step : steps) {
+                if (step.elapsedNanos >= 0) {
+                    timings.put(step.name, step.elapsedNanos);
+                }
+            }
+            return timings;
+        }
+
+        @Override
+        public void close() {
+            cancelRunning();
+            recordOnce();
+        }
+
+        private void cancelRunning() {
+            for (Step<?> step : steps) {
+                if (step.future != null && !step.result.isDone()) {
+                    step.future.cancel(true);
+                }
+                step.result.cancel(false);
+            }
+        }
+
+        private void recordOnce() {
+            if (!recorded) {
+                recorded = true;
+                record(flow, System.nanoTime() - startedNanos, stepNanos());
+            }
+        }
+    }
+
+    private static final class Step<T> {
+
+        private final String name;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile long elapsedNanos = -1;
+        private Future<?> future;
+
+        private Step(String name) {
+            this.name = name;
+        }
+
+        private void run(Callable<T> task, CompletableFuture<Void> failure) {
+            long started = System.nanoTime();
+            try {
+                result.complete(task.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+                failure.completeExceptionally(t);
+            } finally {
+                elapsedNanos = System.nanoTime() - started;
+            }
+        }
+
+        private T get() {
+            if (!result.isDone() || result.isCompletedExceptionally()) {
+                throw new IllegalStateException("Login step " + name + " has no result");
+            }
+            return result.join();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.cloudsuites.framework.webapp.authentication.util;
+
+import com.cloudsuites.framework.services.auth.DeviceTrustService;
+import com.cloudsuites.framework.services.auth.entities.TrustedDeviceTokenRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Lets OTP login endpoints skip OTP for a device presenting a valid trusted-device token, and
+ * hand out such a token after a successful OTP verification from a trusted device.
+ */
+@Component
+public class TrustedDeviceHelper {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrustedDeviceHelper.class);
+
+    private final DeviceTrustService deviceTrustService;
+    private final JwtTokenHelper jwtTokenHelper;
+    private final AuthAuditHelper authAuditHelper;
+
+    public TrustedDeviceHelper(DeviceTrustService deviceTrustService, JwtTokenHelper jwtTokenHelper,
+                               AuthAuditHelper authAuditHelper) {
+        this.deviceTrustService = deviceTrustService;
+        this.jwtTokenHelper = jwtTokenHelper;
+        this.authAuditHelper = authAuditHelper;
+    }
+
+    /**
+     * Signs the user in without OTP if the device presents a valid trusted-device token: starts a
+     * session, has {@code tokensForSession} issue the persona's tokens for it and audits the login.
+     *
+     * @return the tokens to return to the client, or empty if the caller has to fall back to OTP
+     */
+    public Optional<Map<String, String>> tryIssueTrustedLogin(String trustedDeviceToken, String deviceFingerprint,
+                                                              String userId, HttpServletRequest request,
+                                                              Function<String, Map<String, String>> tokensForSession) {
+        if (!canSkipOtp(trustedDeviceToken, deviceFingerprint, userId)) {
+            return Optional.empty();
+        }
+        String sessionId = jwtTokenHelper.startSession(userId);
+        Map<String, String> tokens = tokensForSession.apply(sessionId);
+        authAuditHelper.trustedDeviceLogin(userId, sessionId, request);
+        return Optional.of(tokens);
+    }
+
+    private boolean canSkipOtp(String trustedDeviceToken, String deviceFingerprint, String userId) {
+        if (trustedDeviceToken == null || deviceFingerprint == null || userId == null) {
+            return false;
+        }
+        if (deviceTrustService.validateTrustedDeviceToken(trustedDeviceToken, userId, deviceFingerprint)) {
+            logger.debug(WebAppConstants.TrustedDevice.OTP_SKIPPED_LOG, userId);
+            return true;
+        }
+        return false;
+    }
+
+    public Map<String, String> withTrustedDeviceToken(Map<String, String> tokens, String userId, String deviceFingerprint) {
+        if (deviceFingerprint == null || userId == null) {
+            return tokens;
+        }
+        try {
+            String trustedDeviceToken = deviceTrustService.createTrustedDeviceToken(
+                    new TrustedDeviceTokenRequest(userId, deviceFingerprint));
+            Map<String, String> response = new HashMap<>(tokens);
+            response.put(WebAppConstants.TrustedDevice.TOKEN_RESPONSE_KEY, trustedDeviceToken);
+            return response;
+        } catch (SecurityException e) {
+            logger.debug(WebAppConstants.TrustedDevice.TOKEN_NOT_ISSUED_LOG, userId, e.getMessage());
+            return tokens;
+        }
+    }
+}
@@ -110,6 +110,7 @@ public final class WebAppConstants {
         public static final String OTP_SENT_LOG = "Sent OTP to phone number: {}";
         public static final String INVALID_OTP_ERROR = "Invalid OTP provided for phone number: {}"; // Keep as ERROR for API response
         public static final String OTP_VERIFIED_LOG = "OTP verified for phone number: {} and owner: {}";
+        public static final String CHANNEL = "sms";
         private Otp() {
         }
     }
@@ -124,6 +125,29 @@ public final class WebAppConstants {
         }
     }
 
+    // Trusted Device Constants
+    public static class TrustedDevice {
+        public static final String TOKEN_HEADER = "X-Trusted-Device-Token";
+        public static final String FINGERPRINT_HEADER = "X-Device-Fingerprint";
+        public static final String TOKEN_RESPONSE_KEY = "trustedDeviceToken";
+        public static final String OTP_SKIPPED_LOG = "Trusted device token accepted, skipping OTP for user: {}";
+        public static final String TOKEN_NOT_ISSUED_LOG = "Trusted device token not issued for user {}: {}";
+        private TrustedDevice() {
+        }
+    }
+
+    // Token Introspection Constants
+    public static class Introspection {
+        public static final String INVALID_CLIENT = "invalid_client";
+        public static final String INVALID_REQUEST = "invalid_request";
+        public static final String AUTHENTICATE_HEADER_VALUE = "Basic realm=\"introspection\"";
+        public static final String NO_CLIENTS_LOG = "No introspection clients configured; /oauth/introspect will reject every caller";
+        public static final String CLIENT_REJECTED_LOG = "Rejected introspection request from unauthenticated client";
+        public static final String BATCH_TOO_LARGE_ERROR = "At most %d tokens may be introspected per request";
+        private Introspection() {
+        }
+    }
+
     public static class Claim {
         public static final String PERSONA_ID = "personaId";
         public static final String BUILDING_ID = "buildingId";
@@ -3,6 +3,7 @@ package com.cloudsuites.framework.webapp.rest.authentication;
 import com.cloudsuites.framework.services.user.RefreshTokenService;
 import com.cloudsuites.framework.services.user.TokenRotationService;
 import com.cloudsuites.framework.services.user.entities.UserSession;
+import com.cloudsuites.framework.webapp.authentication.util.JwtTokenHelper;
 import com.cloudsuites.framework.webapp.rest.authentication.dto.LogoutRequest;
 import com.cloudsuites.framework.webapp.rest.authentication.dto.TokenRefreshRequest;
 import com.cloudsuites.framework.webapp.rest.authentication.dto.TokenResponse;
@@ -38,6 +39,7 @@ public class AuthenticationController {
 
     private final TokenRotationService tokenRotationService;
     private final RefreshTokenService refreshTokenService;
+    private final JwtTokenHelper jwtTokenHelper;
 
     @Operation(summary = "Refresh access token", 
                description = "Use refresh token to obtain new access and refresh token pair")
@@ -96,10 +98,12 @@ public class AuthenticationController {
             int revokedSessions = 0;
             
             if (request.isLogoutFromAllDevices()) {
-                // Get user ID from refresh token first
-                Optional<UserSession> sessionOpt = refreshTokenService.validateRefreshToken(request.getRefreshToken());
-                if (sessionOpt.isPresent()) {
-                    String userId = sessionOpt.get().getUserId();
+                // Get user ID from refresh token first; persona refresh tokens are not stored, so read it from their claims
+                Optional<String> userIdOpt = refreshTokenService.validateRefreshToken(request.getRefreshToken())
+                        .map(UserSession::getUserId)
+                        .or(() -> jwtTokenHelper.userIdOf(request.getRefreshToken()));
+                if (userIdOpt.isPresent()) {
+                    String userId = userIdOpt.get();
                     revokedSessions = tokenRotationService.revokeAllUserTokens(userId);
                     log.info("Logout from all devices for user: {} ({} sessions revoked)", userId, revokedSessions);
                 } else {
@@ -110,7 +114,9 @@ public class AuthenticationController {
                 boolean revoked = false;
                 
                 if (request.getRefreshToken() != null) {
-                    revoked = tokenRotationService.revokeToken(request.getRefreshToken());
+                    // Persona refresh tokens are not stored; they are revoked through the session they carry
+                    revoked = tokenRotationService.revokeToken(request.getRefreshToken())
+                            || jwtTokenHelper.revokeSessionOf(request.getRefreshToken());
                 } else if (request.getAccessTokenJti() != null) {
                     revoked = tokenRotationService.revokeByAccessToken(request.getAccessTokenJti());
                 }
@@ -0,0 +1,17 @@
+-- V10__create_password_reset_tokens_table.sql
+-- Password reset tokens, stored as SHA-256 hashes so they survive restarts and work across nodes.
+-- Lookup and single-use redemption go through the primary key; the expiry index serves batched purges.
+
+CREATE TABLE password_reset_tokens (
+    token_hash VARCHAR(64) NOT NULL PRIMARY KEY,
+    user_id VARCHAR(36) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    used_at TIMESTAMP
+);
+
+CREATE INDEX idx_password_reset_tokens_expires_at
+    ON password_reset_tokens (expires_at);
+
+CREATE INDEX idx_password_reset_tokens_user_id
+    ON password_reset_tokens (user_id);
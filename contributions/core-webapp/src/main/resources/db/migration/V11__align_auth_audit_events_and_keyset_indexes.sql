@@ -0,0 +1,53 @@
+-- V11__align_auth_audit_events_and_keyset_indexes.sql
+-- Brings auth_audit_events in line with the AuditEvent entity and replaces the
+-- single-column indexes with composite keyset indexes. Audit reports page with
+-- (event_timestamp, audit_id) < (:ts, :id) ORDER BY event_timestamp DESC, audit_id DESC,
+-- so every filter combination is served by an index range scan that stops after
+-- one page, however deep the report goes.
+
+-- Columns written by the entity that V4 never created
+ALTER TABLE auth_audit_events ADD COLUMN event_timestamp TIMESTAMP;
+UPDATE auth_audit_events SET event_timestamp = created_at WHERE event_timestamp IS NULL;
+ALTER TABLE auth_audit_events ALTER COLUMN event_timestamp SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE auth_audit_events ALTER COLUMN event_timestamp SET NOT NULL;
+
+ALTER TABLE auth_audit_events ADD COLUMN success BOOLEAN;
+ALTER TABLE auth_audit_events ADD COLUMN geolocation VARCHAR(100);
+ALTER TABLE auth_audit_events ADD COLUMN device_type VARCHAR(50);
+ALTER TABLE auth_audit_events ALTER COLUMN failure_reason TYPE VARCHAR(500);
+ALTER TABLE auth_audit_events ALTER COLUMN event_description DROP NOT NULL;
+
+-- The enums have outgrown the V4 value lists, and audit rows must be accepted for
+-- unknown or deleted users; one rejected row would otherwise fail a whole batch
+ALTER TABLE auth_audit_events DROP CONSTRAINT IF EXISTS auth_audit_events_event_type_check;
+ALTER TABLE auth_audit_events DROP CONSTRAINT IF EXISTS auth_audit_events_event_category_check;
+ALTER TABLE auth_audit_events DROP CONSTRAINT IF EXISTS fk_auth_audit_user_id;
+
+-- Keyset indexes, one per filter the audit queries lead with
+CREATE INDEX idx_auth_audit_keyset
+    ON auth_audit_events(event_timestamp DESC, audit_id DESC);
+CREATE INDEX idx_auth_audit_user_keyset
+    ON auth_audit_events(user_id, event_timestamp DESC, audit_id DESC)
+    WHERE user_id IS NOT NULL;
+CREATE INDEX idx_auth_audit_user_type_keyset
+    ON auth_audit_events(user_id, event_type, event_timestamp DESC, audit_id DESC)
+    WHERE user_id IS NOT NULL;
+CREATE INDEX idx_auth_audit_type_keyset
+    ON auth_audit_events(event_type, event_timestamp DESC, audit_id DESC);
+CREATE INDEX idx_auth_audit_category_keyset
+    ON auth_audit_events(event_category, event_timestamp DESC, audit_id DESC);
+CREATE INDEX idx_auth_audit_ip_keyset
+    ON auth_audit_events(ip_address, event_timestamp DESC, audit_id DESC)
+    WHERE ip_address IS NOT NULL;
+CREATE INDEX idx_auth_audit_high_risk_keyset
+    ON auth_audit_events(event_timestamp DESC, audit_id DESC)
+    WHERE risk_level IN ('HIGH', 'CRITICAL');
+
+-- Superseded by the leading columns of the keyset indexes above
+DROP INDEX IF EXISTS idx_auth_audit_user_id;
+DROP INDEX IF EXISTS idx_auth_audit_event_type;
+DROP INDEX IF EXISTS idx_auth_audit_risk_level;
+DROP INDEX IF EXISTS idx_auth_audit_ip_address;
+DROP INDEX IF EXISTS idx_auth_audit_event_category;
+
+COMMENT ON COLUMN auth_audit_events.event_timestamp IS 'When the event happened; keyset pagination orders by (event_timestamp, audit_id)';
@@ -0,0 +1,112 @@
+-- V12__partition_audit_tables_by_month.sql
+-- Converts the three audit tables to monthly range partitions so retention drops whole
+-- partitions instead of deleting rows. AuditPartitionManager keeps months ahead created
+-- and drops partitions past retention; both are catalog operations with no table bloat.
+--
+-- Each existing table is renamed and attached as a single "_legacy" partition covering
+-- everything up to the end of the current month, so no rows are copied here. It ages out
+-- through the same retention check once its upper bound passes the cutoff. A DEFAULT
+-- partition catches rows outside the created months, so a late partition job never fails
+-- an insert.
+
+CREATE FUNCTION pg_temp.partition_by_month(tbl TEXT, key_column TEXT, id_column TEXT) RETURNS VOID AS $$
+DECLARE
+    legacy TEXT := tbl || '_legacy';
+    idx RECORD;
+    boundary TIMESTAMP;
+    month_start TIMESTAMP;
+BEGIN
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', tbl, legacy);
+    -- Frees the index names for the partitioned table; matching ones are re-adopted below
+    FOR idx IN SELECT indexname FROM pg_indexes WHERE schemaname = current_schema() AND tablename = legacy LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', idx.indexname, left(idx.indexname, 56) || '_legacy');
+    END LOOP;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING COMMENTS) '
+                   'PARTITION BY RANGE (%I)', tbl, legacy, key_column);
+    -- Unique constraints on a partitioned table must include the partition key
+    EXECUTE format('ALTER TABLE %I ADD PRIMARY KEY (%I, %I)', tbl, id_column, key_column);
+
+    EXECUTE format('SELECT date_trunc(''month'', GREATEST(MAX(%I), LOCALTIMESTAMP)) + INTERVAL ''1 month'' FROM %I',
+                   key_column, legacy) INTO boundary;
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (MINVALUE) TO (%L)', tbl, legacy, boundary);
+
+    FOR i IN 0..2 LOOP
+        month_start := boundary + make_interval(months => i);
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       tbl || '_p' || to_char(month_start, 'YYYY_MM'), tbl, month_start, month_start + INTERVAL '1 month');
+    END LOOP;
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', tbl || '_default', tbl);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Foreign keys and triggers are not copied by LIKE; they are recreated on the partitioned tables
+ALTER TABLE security_violations DROP CONSTRAINT fk_security_violations_user_id;
+ALTER TABLE compliance_audit_log DROP CONSTRAINT fk_compliance_audit_subject_id;
+ALTER TABLE compliance_audit_log DROP CONSTRAINT fk_compliance_audit_controller_id;
+DROP TRIGGER trigger_security_violations_update_timestamp ON security_violations;
+
+SELECT pg_temp.partition_by_month('auth_audit_events', 'event_timestamp', 'audit_id');
+SELECT pg_temp.partition_by_month('security_violations', 'created_at', 'violation_id');
+SELECT pg_temp.partition_by_month('compliance_audit_log', 'created_at', 'compliance_audit_id');
+
+-- auth_audit_events indexes (keyset indexes from V11)
+CREATE INDEX idx_auth_audit_keyset
+    ON auth_audit_events(event_timestamp DESC, audit_id DESC);
+CREATE INDEX idx_auth_audit_user_keyset
+    ON auth_audit_events(user_id, event_timestamp DESC, audit_id DESC)
+    WHERE user_id IS NOT NULL;
+CREATE INDEX idx_auth_audit_user_type_keyset
+    ON auth_audit_events(user_id, event_type, event_timestamp DESC, audit_id DESC)
+    WHERE user_id IS NOT NULL;
+CREATE INDEX idx_auth_audit_type_keyset
+    ON auth_audit_events(event_type, event_timestamp DESC, audit_id DESC);
+CREATE INDEX idx_auth_audit_category_keyset
+    ON auth_audit_events(event_category, event_timestamp DESC, audit_id DESC);
+CREATE INDEX idx_auth_audit_ip_keyset
+    ON auth_audit_events(ip_address, event_timestamp DESC, audit_id DESC)
+    WHERE ip_address IS NOT NULL;
+CREATE INDEX idx_auth_audit_high_risk_keyset
+    ON auth_audit_events(event_timestamp DESC, audit_id DESC)
+    WHERE risk_level IN ('HIGH', 'CRITICAL');
+CREATE INDEX idx_auth_audit_session_id ON auth_audit_events(session_id) WHERE session_id IS NOT NULL;
+CREATE INDEX idx_auth_audit_correlation_id ON auth_audit_events(correlation_id) WHERE correlation_id IS NOT NULL;
+
+-- security_violations indexes
+CREATE INDEX idx_security_violations_user_id ON security_violations(user_id) WHERE user_id IS NOT NULL;
+CREATE INDEX idx_security_violations_type_severity ON security_violations(violation_type, severity);
+CREATE INDEX idx_security_violations_created_at ON security_violations(created_at);
+CREATE INDEX idx_security_violations_status ON security_violations(status) WHERE status = 'OPEN';
+CREATE INDEX idx_security_violations_ip_address ON security_violations(ip_address) WHERE ip_address IS NOT NULL;
+
+-- compliance_audit_log indexes
+CREATE INDEX idx_compliance_audit_framework ON compliance_audit_log(compliance_framework);
+CREATE INDEX idx_compliance_audit_subject_id ON compliance_audit_log(data_subject_id) WHERE data_subject_id IS NOT NULL;
+CREATE INDEX idx_compliance_audit_controller_id ON compliance_audit_log(data_controller_id) WHERE data_controller_id IS NOT NULL;
+CREATE INDEX idx_compliance_audit_created_at ON compliance_audit_log(created_at);
+CREATE INDEX idx_compliance_audit_requirement ON compliance_audit_log(compliance_framework, requirement_id);
+CREATE INDEX idx_compliance_audit_retention ON compliance_audit_log(retention_expires_at) WHERE retention_expires_at IS NOT NULL;
+
+ALTER TABLE security_violations
+    ADD CONSTRAINT fk_security_violations_user_id
+    FOREIGN KEY (user_id) REFERENCES identity(user_id) ON DELETE SET NULL;
+
+ALTER TABLE compliance_audit_log
+    ADD CONSTRAINT fk_compliance_audit_subject_id
+    FOREIGN KEY (data_subject_id) REFERENCES identity(user_id) ON DELETE SET NULL;
+
+ALTER TABLE compliance_audit_log
+    ADD CONSTRAINT fk_compliance_audit_controller_id
+    FOREIGN KEY (data_controller_id) REFERENCES identity(user_id) ON DELETE SET NULL;
+
+CREATE TRIGGER trigger_security_violations_update_timestamp
+    BEFORE UPDATE ON security_violations
+    FOR EACH ROW
+    EXECUTE FUNCTION update_security_violations_timestamp();
+
+-- Row-by-row retention is replaced by partition drops
+DROP FUNCTION IF EXISTS cleanup_audit_logs(INTEGER);
+
+COMMENT ON TABLE auth_audit_events IS 'Comprehensive audit log for all authentication and authorization events (SEC-002), partitioned by month on event_timestamp';
+COMMENT ON TABLE security_violations IS 'Security policy violations and anomalous behavior tracking for threat detection, partitioned by month on created_at';
+COMMENT ON TABLE compliance_audit_log IS 'Compliance-specific audit events for SOC2, GDPR, and other regulatory requirements, partitioned by month on created_at';
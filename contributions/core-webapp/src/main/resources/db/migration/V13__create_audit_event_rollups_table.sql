@@ -0,0 +1,28 @@
+-- V13__create_audit_event_rollups_table.sql
+-- Hourly and daily audit event counters per event type, outcome and building. The audit
+-- writer increments them in the same transaction that inserts the events, so dashboard
+-- statistics read a few hundred bucket rows instead of aggregating the events table.
+
+CREATE TABLE audit_event_rollups (
+    granularity VARCHAR(5) NOT NULL CHECK (granularity IN ('HOUR', 'DAY')),
+    bucket_start TIMESTAMP NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    outcome VARCHAR(10) NOT NULL CHECK (outcome IN ('SUCCESS', 'FAILURE', 'UNKNOWN')),
+    building_id VARCHAR(255) NOT NULL DEFAULT '',  -- empty when the event has no building
+    event_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (granularity, bucket_start, event_type, outcome, building_id)
+);
+
+-- Seed the counters from the events already recorded
+INSERT INTO audit_event_rollups (granularity, bucket_start, event_type, outcome, building_id, event_count)
+SELECT g.granularity,
+       date_trunc(lower(g.granularity), e.event_timestamp),
+       e.event_type,
+       CASE WHEN e.success IS NULL THEN 'UNKNOWN' WHEN e.success THEN 'SUCCESS' ELSE 'FAILURE' END,
+       COALESCE(left(CAST(NULLIF(CAST(e.additional_data AS text), '') AS jsonb) ->> 'buildingId', 255), ''),
+       COUNT(*)
+FROM auth_audit_events e
+CROSS JOIN (VALUES ('HOUR'), ('DAY')) AS g(granularity)
+GROUP BY 1, 2, 3, 4, 5;
+
+COMMENT ON TABLE audit_event_rollups IS 'Incremental hourly and daily counts of auth_audit_events for dashboard statistics';
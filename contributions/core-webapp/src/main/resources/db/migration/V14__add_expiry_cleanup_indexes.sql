@@ -0,0 +1,10 @@
+-- V14__add_expiry_cleanup_indexes.sql
+-- Indexes behind the batched expiry cleanup, so each bounded delete finds its rows without
+-- scanning the table. The other cleanup predicates are already covered by existing indexes.
+
+CREATE INDEX idx_otp_rate_limits_window_end ON otp_rate_limits(window_end);
+
+-- Revoked, expired and soft-deleted devices age out by their last update
+CREATE INDEX idx_device_fingerprints_inactive_updated_at
+    ON device_fingerprints(updated_at)
+    WHERE is_deleted = TRUE OR trust_status <> 'TRUSTED';
@@ -0,0 +1,7 @@
+-- V15__add_user_sessions_revoked_index.sql
+-- Supports the revocation index's delta reload: finding sessions revoked since the last
+-- reload is an index range scan over inactive sessions only.
+
+CREATE INDEX idx_user_sessions_revoked_last_modified
+    ON user_sessions(last_modified_at)
+    WHERE is_active = FALSE;
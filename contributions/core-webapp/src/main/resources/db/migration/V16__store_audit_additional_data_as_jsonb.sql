@@ -0,0 +1,11 @@
+-- V16__store_audit_additional_data_as_jsonb.sql
+-- V7 turned auth_audit_events.additional_data into VARCHAR(2000) to suit a String field.
+-- AuditEvent now maps it as JSON, so it goes back to JSONB: metadata is no longer capped
+-- at 2000 characters and can be queried with the JSON operators. Every value written so
+-- far came from the JSON converter, so each one casts; empty strings become NULL.
+-- ip_address stays VARCHAR(45) as set by V7, matching the entity's String field.
+
+ALTER TABLE auth_audit_events
+    ALTER COLUMN additional_data TYPE JSONB USING NULLIF(btrim(additional_data), '')::jsonb;
+
+COMMENT ON COLUMN auth_audit_events.additional_data IS 'JSON field for extended event context and metadata';
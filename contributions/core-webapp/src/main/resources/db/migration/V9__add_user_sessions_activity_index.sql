@@ -0,0 +1,7 @@
+-- V9__add_user_sessions_activity_index.sql
+-- Supports the session cap: finding a user's N most recently active sessions
+-- is an index range scan instead of a sort over all of the user's sessions.
+
+CREATE INDEX idx_user_sessions_user_last_activity
+    ON user_sessions(user_id, last_activity_at DESC)
+    WHERE is_active = TRUE;
@@ -0,0 +1,130 @@
+package com.cloudsuites.framework.webapp.authentication;
+
+import com.cloudsuites.framework.modules.auth.repository.AuthAuditEventRepository;
+import com.cloudsuites.framework.modules.auth.service.impl.AuditEventWriter;
+import com.cloudsuites.framework.modules.auth.service.impl.AuditRollupService;
+import com.cloudsuites.framework.modules.auth.service.impl.AuditServiceImpl;
+import com.cloudsuites.framework.modules.auth.service.impl.AuthAnomalyDetector;
+import com.cloudsuites.framework.modules.jwt.JwtTokenProvider;
+import com.cloudsuites.framework.services.auth.AuthEventType;
+import com.cloudsuites.framework.services.auth.entities.AuditEvent;
+import com.cloudsuites.framework.services.otp.OtpService;
+import com.cloudsuites.framework.services.user.AdminService;
+import com.cloudsuites.framework.services.user.UserService;
+import com.cloudsuites.framework.services.user.entities.Admin;
+import com.cloudsuites.framework.services.user.entities.Identity;
+import com.cloudsuites.framework.webapp.authentication.util.AuthAuditHelper;
+import com.cloudsuites.framework.webapp.authentication.util.JwtTokenHelper;
+import com.cloudsuites.framework.webapp.authentication.util.TrustedDeviceHelper;
+import com.cloudsuites.framework.webapp.rest.user.mapper.AdminMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives OTP verification through the admin login endpoint and checks that its outcomes reach
+ * the audit log and the anomaly detector.
+ */
+@ExtendWith(MockitoExtension.class)
+class AdminAuthControllerAuditTest {
+
+    private static final String ADMIN_ID = "ADM-1";
+    private static final String USER_ID = "USR-1";
+    private static final String PHONE = "+15555550100";
+
+    @Mock
+    private OtpService otpService;
+
+    @Mock
+    private AdminService adminService;
+
+    @Mock
+    private JwtTokenHelper jwtTokenHelper;
+
+    @Mock
+    private TrustedDeviceHelper trustedDeviceHelper;
+
+    @Mock
+    private AuditEventWriter auditEventWriter;
+
+    private AuthAnomalyDetector anomalyDetector;
+    private AdminAuthController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        anomalyDetector = new AuthAnomalyDetector();
+        ReflectionTestUtils.setField(anomalyDetector, "ipFailureThreshold", 5);
+        anomalyDetector.init();
+        AuditServiceImpl auditService = new AuditServiceImpl(mock(AuthAuditEventRepository.class), auditEventWriter,
+                mock(AuditRollupService.class));
+        ReflectionTestUtils.setField(auditService, "anomalyDetector", anomalyDetector);
+
+        controller = new AdminAuthController(mock(JwtTokenProvider.class), otpService, mock(UserService.class),
+                mock(AdminMapper.class), jwtTokenHelper, adminService, trustedDeviceHelper,
+                new AuthAuditHelper(auditService));
+
+        Identity identity = new Identity();
+        identity.setUserId(USER_ID);
+        identity.setPhoneNumber(PHONE);
+        Admin admin = new Admin();
+        admin.setAdminId(ADMIN_ID);
+        admin.setIdentity(identity);
+        when(adminService.getAdminById(ADMIN_ID)).thenReturn(admin);
+    }
+
+    @Test
+    void testRejectedOtpsFromOneAddressGetItBlocked() throws Exception {
+        when(otpService.verifyOtp(PHONE, "000000")).thenReturn(false);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(HttpStatus.BAD_REQUEST,
+                    controller.verifyOtp(ADMIN_ID, "000000", null, request("203.0.113.7")).getStatusCode());
+        }
+
+        assertTrue(anomalyDetector.blockedForSeconds("203.0.113.7") > 0);
+        assertEquals(0, anomalyDetector.blockedForSeconds("203.0.113.8"));
+        ArgumentCaptor<AuditEvent> submitted = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditEventWriter, times(5)).submit(submitted.capture());
+        AuditEvent event = submitted.getValue();
+        assertEquals(AuthEventType.OTP_VERIFY_FAILURE, event.getEventType());
+        assertEquals(USER_ID, event.getUserId());
+        assertEquals("203.0.113.7", event.getIpAddress());
+        assertEquals("JUnit", event.getUserAgent());
+    }
+
+    @Test
+    void testAcceptedOtpIsAuditedAsSuccess() throws Exception {
+        when(otpService.verifyOtp(PHONE, "123456")).thenReturn(true);
+        when(jwtTokenHelper.startSession(USER_ID)).thenReturn("SES-1");
+        when(jwtTokenHelper.generateToken(eq(ADMIN_ID), any(), eq(USER_ID), eq("SES-1"))).thenReturn("token");
+        when(jwtTokenHelper.generateRefreshToken(eq(ADMIN_ID), any(), eq(USER_ID), eq("SES-1"))).thenReturn("refresh");
+        when(trustedDeviceHelper.withTrustedDeviceToken(anyMap(), eq(USER_ID), isNull()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(HttpStatus.OK,
+                controller.verifyOtp(ADMIN_ID, "123456", null, request("203.0.113.7")).getStatusCode());
+
+        ArgumentCaptor<AuditEvent> submitted = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditEventWriter).submit(submitted.capture());
+        assertEquals(AuthEventType.OTP_VERIFY_SUCCESS, submitted.getValue().getEventType());
+        assertEquals(Boolean.TRUE, submitted.getValue().getSuccess());
+        assertEquals(0, anomalyDetector.blockedForSeconds("203.0.113.7"));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/admins/" + ADMIN_ID + "/verify-otp");
+        request.setRemoteAddr(remoteAddress);
+        request.addHeader("User-Agent", "JUnit");
+        return request;
+    }
+}
@@ -0,0 +1,98 @@
+package com.cloudsuites.framework.webapp.authentication;
+
+import com.cloudsuites.framework.modules.user.repository.AdminRepository;
+import com.cloudsuites.framework.modules.user.repository.UserSessionRepository;
+import com.cloudsuites.framework.services.common.exception.InvalidOperationException;
+import com.cloudsuites.framework.services.common.exception.UserAlreadyExistsException;
+import com.cloudsuites.framework.services.user.AdminService;
+import com.cloudsuites.framework.services.user.RefreshTokenService;
+import com.cloudsuites.framework.services.user.entities.Admin;
+import com.cloudsuites.framework.services.user.entities.AdminRole;
+import com.cloudsuites.framework.services.user.entities.AdminStatus;
+import com.cloudsuites.framework.services.user.entities.DeviceType;
+import com.cloudsuites.framework.services.user.entities.Identity;
+import com.cloudsuites.framework.services.user.entities.UserSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the coalesced session activity UPDATE against the migrated schema, so type mismatches
+ * between the UNNEST arrays and the user_sessions columns fail here rather than in a flush.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionActivityBatchUpdateTest {
+
+    private static final int GRANULARITY_SECONDS = 60;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    private Admin testAdmin;
+
+    @AfterEach
+    void tearDown() {
+        if (testAdmin != null) {
+            userSessionRepository.deleteAll(userSessionRepository.findByUserIdAndActive(testAdmin.getIdentity().getUserId(), true));
+            adminRepository.delete(testAdmin);
+        }
+    }
+
+    @Test
+    void testBatchUpdateAppliesActivityAndSkipsUnchangedRows() throws Exception {
+        testAdmin = createAdmin("session.activity." + System.currentTimeMillis() + "@test.com");
+        UserSession session = refreshTokenService.createRefreshToken(testAdmin.getIdentity().getUserId(),
+                "device-1", "device-1", DeviceType.WEB, "JUnit", "127.0.0.1", "Toronto", false);
+        String sessionId = session.getSessionId();
+        LocalDateTime activityAt = LocalDateTime.now().plusMinutes(5).truncatedTo(ChronoUnit.SECONDS);
+
+        int updated = userSessionRepository.batchUpdateSessionActivity(new String[]{sessionId},
+                new LocalDateTime[]{activityAt}, new String[]{"2001:db8::7"}, new String[]{"JUnit/2"},
+                new String[]{null}, GRANULARITY_SECONDS);
+
+        assertThat(updated).isEqualTo(1);
+        UserSession stored = userSessionRepository.findById(sessionId).orElseThrow();
+        assertThat(stored.getLastActivityAt()).isEqualTo(activityAt);
+        assertThat(stored.getIpAddress()).isEqualTo("2001:db8::7");
+        assertThat(stored.getUserAgent()).isEqualTo("JUnit/2");
+        assertThat(stored.getLocation()).isEqualTo("Toronto");
+
+        // Same address within the granularity window: the row is left alone
+        assertThat(userSessionRepository.batchUpdateSessionActivity(new String[]{sessionId},
+                new LocalDateTime[]{activityAt.plusSeconds(1)}, new String[]{"2001:db8::7"}, new String[]{null},
+                new String[]{null}, GRANULARITY_SECONDS)).isZero();
+
+        // A new address is written even within the window
+        assertThat(userSessionRepository.batchUpdateSessionActivity(new String[]{sessionId},
+                new LocalDateTime[]{activityAt.plusSeconds(2)}, new String[]{"203.0.113.9"}, new String[]{null},
+                new String[]{null}, GRANULARITY_SECONDS)).isEqualTo(1);
+        assertThat(userSessionRepository.findById(sessionId).orElseThrow().getIpAddress()).isEqualTo("203.0.113.9");
+    }
+
+    private Admin createAdmin(String email) throws UserAlreadyExistsException, InvalidOperationException {
+        Admin admin = new Admin();
+        Identity identity = new Identity();
+        identity.setEmail(email);
+        admin.setIdentity(identity);
+        admin.setRole(AdminRole.USER);
+        admin.setStatus(AdminStatus.ACTIVE);
+        return adminService.createAdmin(admin);
+    }
+}
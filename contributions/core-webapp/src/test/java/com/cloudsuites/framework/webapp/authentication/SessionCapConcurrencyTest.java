@@ -0,0 +1,112 @@
+package com.cloudsuites.framework.webapp.authentication;
+
+import com.cloudsuites.framework.modules.user.repository.AdminRepository;
+import com.cloudsuites.framework.modules.user.repository.UserSessionRepository;
+import com.cloudsuites.framework.services.common.exception.InvalidOperationException;
+import com.cloudsuites.framework.services.common.exception.UserAlreadyExistsException;
+import com.cloudsuites.framework.services.user.AdminService;
+import com.cloudsuites.framework.services.user.RefreshTokenService;
+import com.cloudsuites.framework.services.user.entities.Admin;
+import com.cloudsuites.framework.services.user.entities.AdminRole;
+import com.cloudsuites.framework.services.user.entities.AdminStatus;
+import com.cloudsuites.framework.services.user.entities.DeviceType;
+import com.cloudsuites.framework.services.user.entities.Identity;
+import com.cloudsuites.framework.services.user.entities.UserSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies the per-user session cap holds when many logins for the same user race each other.
+ * Not transactional: every login must commit on its own connection for the race to be real.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionCapConcurrencyTest {
+
+    private static final int PARALLEL_LOGINS = 50;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    @Value("${app.security.session.max-sessions-per-user:10}")
+    private int maxSessionsPerUser;
+
+    private Admin testAdmin;
+
+    @AfterEach
+    void tearDown() {
+        if (testAdmin != null) {
+            userSessionRepository.deleteAll(userSessionRepository.findByUserIdAndActive(testAdmin.getIdentity().getUserId(), true));
+            userSessionRepository.deleteAll(userSessionRepository.findByUserIdAndActive(testAdmin.getIdentity().getUserId(), false));
+            adminRepository.delete(testAdmin);
+        }
+    }
+
+    @Test
+    void testSessionCapHoldsUnderParallelLogins() throws Exception {
+        testAdmin = createAdmin("session.cap." + System.currentTimeMillis() + "@test.com");
+        String userId = testAdmin.getIdentity().getUserId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_LOGINS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UserSession>> logins = new ArrayList<>();
+        try {
+            for (int i = 0; i < PARALLEL_LOGINS; i++) {
+                String device = "device-" + i;
+                String ipAddress = "10.0.0." + i;
+                logins.add(executor.submit(() -> {
+                    start.await();
+                    return refreshTokenService.createRefreshToken(userId, device, device, DeviceType.WEB,
+                            "JUnit", ipAddress, "Toronto", false);
+                }));
+            }
+            start.countDown();
+            for (Future<UserSession> login : logins) {
+                assertThat(login.get(30, TimeUnit.SECONDS).getSessionId()).isNotNull();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(userSessionRepository.countActiveSessionsByUserId(userId)).isEqualTo(maxSessionsPerUser);
+        assertThat(userSessionRepository.findByUserIdAndActive(userId, false))
+                .hasSize(PARALLEL_LOGINS - maxSessionsPerUser);
+        // The cap statement binds the address into user_sessions.ip_address as text
+        assertThat(userSessionRepository.findByUserIdAndActive(userId, true))
+                .allSatisfy(session -> assertThat(session.getIpAddress())
+                        .isEqualTo(session.getDeviceFingerprint().replace("device-", "10.0.0.")));
+    }
+
+    private Admin createAdmin(String email) throws UserAlreadyExistsException, InvalidOperationException {
+        Admin admin = new Admin();
+        Identity identity = new Identity();
+        identity.setEmail(email);
+        admin.setIdentity(identity);
+        admin.setRole(AdminRole.USER);
+        admin.setStatus(AdminStatus.ACTIVE);
+        return adminService.createAdmin(admin);
+    }
+}
@@ -0,0 +1,165 @@
+package com.cloudsuites.framework.webapp.authentication.filter;
+
+import com.cloudsuites.framework.modules.auth.config.RateLimitingProperties;
+import com.cloudsuites.framework.modules.auth.service.impl.AuthAnomalyDetector;
+import com.cloudsuites.framework.modules.jwt.VerifiedTokenCache;
+import com.cloudsuites.framework.services.auth.RateLimitService;
+import com.cloudsuites.framework.services.auth.entities.RateLimitResult;
+import com.cloudsuites.framework.services.auth.entities.RateLimitRule;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    private RateLimitService rateLimitService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitingProperties properties = new RateLimitingProperties();
+        properties.getConfigurations().put("otp_send", rule(3, 5, "/api/v1/auth/**/request-otp"));
+        properties.getConfigurations().put("otp_verify", rule(5, 5, "/api/v1/auth/**/verify-otp"));
+        properties.getConfigurations().put("auth", rule(50, 15, "/api/v1/auth/**"));
+        filter = new RateLimitFilter(rateLimitService, properties, null, verifiedTokenCache);
+    }
+
+    @Test
+    void testUnmappedPath_PassesThroughWithoutCheck() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/buildings");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(rateLimitService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAllMatchingRulesCheckedInOneCall() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/admins/ADM-1/verify-otp");
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(rateLimitService.checkAndRecordAll(anyList())).thenReturn(List.of(allowed(), allowed()));
+
+        filter.doFilter(request, response, filterChain);
+
+        ArgumentCaptor<List<RateLimitRule>> rules = ArgumentCaptor.forClass(List.class);
+        verify(rateLimitService).checkAndRecordAll(rules.capture());
+        assertEquals(List.of("otp_verify:ip:10.0.0.1", "auth:ip:10.0.0.1"),
+                rules.getValue().stream().map(RateLimitRule::getKey).toList());
+        assertEquals(Duration.ofMinutes(15), rules.getValue().get(1).getWindow());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void testDenied_Returns429WithRetryAfter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/staff/STF-1/request-otp");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RateLimitResult denied = RateLimitResult.denied("Rate limit exceeded", 3, 3, LocalDateTime.now(), 42);
+        when(rateLimitService.checkAndRecordAll(anyList())).thenReturn(List.of(denied));
+
+        filter.doFilter(request, response, filterChain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("42", response.getHeader("Retry-After"));
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void testFlaggedAddress_RejectedBeforeRateLimitCheck() throws Exception {
+        AuthAnomalyDetector anomalyDetector = mock(AuthAnomalyDetector.class);
+        when(anomalyDetector.blockedForSeconds("10.0.0.9")).thenReturn(600L);
+        RateLimitingProperties properties = new RateLimitingProperties();
+        properties.getConfigurations().put("login", rule(5, 15, "/api/v1/auth/**/verify-otp"));
+        RateLimitFilter flaggingFilter = new RateLimitFilter(rateLimitService, properties, anomalyDetector);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/admins/ADM-1/verify-otp");
+        request.setRemoteAddr("10.0.0.9");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        flaggingFilter.doFilter(request, response, filterChain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("600", response.getHeader("Retry-After"));
+        verifyNoInteractions(rateLimitService, filterChain);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testVerifiedSubjectChargedInAdditionToAddress() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/staff/STF-1/request-otp");
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("Authorization", "Bearer valid-token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(verifiedTokenCache.verify("valid-token")).thenReturn(Jwts.claims().subject("STF-1").build());
+        when(rateLimitService.checkAndRecordAll(anyList())).thenReturn(List.of(allowed(), allowed(), allowed(), allowed()));
+
+        filter.doFilter(request, response, filterChain);
+
+        ArgumentCaptor<List<RateLimitRule>> rules = ArgumentCaptor.forClass(List.class);
+        verify(rateLimitService).checkAndRecordAll(rules.capture());
+        assertEquals(List.of("otp_send:ip:10.0.0.1", "otp_send:sub:STF-1", "auth:ip:10.0.0.1", "auth:sub:STF-1"),
+                rules.getValue().stream().map(RateLimitRule::getKey).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUnverifiedCredentialsDoNotSelectBucket() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/staff/STF-1/request-otp");
+        request.setRemoteAddr("10.0.0.1");
+        String payload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"ADM-1\",\"exp\":1}".getBytes(StandardCharsets.UTF_8));
+        String forged = "eyJhbGciOiJIUzI1NiJ9." + payload + ".not-a-signature";
+        request.addHeader("Authorization", "Bearer " + forged);
+        request.addHeader("X-API-Key", "key-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(verifiedTokenCache.verify(forged)).thenReturn(null);
+        when(rateLimitService.checkAndRecordAll(anyList())).thenReturn(List.of(allowed(), allowed()));
+
+        filter.doFilter(request, response, filterChain);
+
+        ArgumentCaptor<List<RateLimitRule>> rules = ArgumentCaptor.forClass(List.class);
+        verify(rateLimitService).checkAndRecordAll(rules.capture());
+        assertEquals(List.of("otp_send:ip:10.0.0.1", "auth:ip:10.0.0.1"),
+                rules.getValue().stream().map(RateLimitRule::getKey).toList());
+    }
+
+    private static RateLimitingProperties.Rule rule(int limit, long windowMinutes, String path) {
+        RateLimitingProperties.Rule rule = new RateLimitingProperties.Rule();
+        rule.setLimit(limit);
+        rule.setWindowMinutes(windowMinutes);
+        rule.getPaths().add(path);
+        return rule;
+    }
+
+    private static RateLimitResult allowed() {
+        return RateLimitResult.allowed(1, 5, LocalDateTime.now(), 300);
+    }
+}
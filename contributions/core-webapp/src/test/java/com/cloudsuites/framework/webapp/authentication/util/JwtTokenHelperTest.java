@@ -0,0 +1,105 @@
+package com.cloudsuites.framework.webapp.authentication.util;
+
+import com.cloudsuites.framework.modules.jwt.JwtTokenProvider;
+import com.cloudsuites.framework.modules.jwt.TokenRevocationIndex;
+import com.cloudsuites.framework.services.user.RefreshTokenService;
+import com.cloudsuites.framework.services.user.entities.DeviceType;
+import com.cloudsuites.framework.services.user.entities.UserSession;
+import com.cloudsuites.framework.services.user.entities.UserType;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for persona session handling: sessions are persisted so they can be revoked, and
+ * tokens of a revoked session no longer validate.
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtTokenHelperTest {
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationIndex tokenRevocationIndex;
+
+    @InjectMocks
+    private JwtTokenHelper jwtTokenHelper;
+
+    @Test
+    void testStartSessionPersistsTheSession() {
+        when(refreshTokenService.createRefreshToken(eq("USR-1"), isNull(), isNull(), eq(DeviceType.WEB),
+                isNull(), isNull(), isNull(), anyBoolean()))
+                .thenReturn(UserSession.builder().sessionId("SES-1").build());
+
+        assertEquals("SES-1", jwtTokenHelper.startSession("USR-1"));
+    }
+
+    @Test
+    void testSessionIdOfLegacyTokenStartsAPersistedSession() {
+        when(refreshTokenService.createRefreshToken(eq("USR-1"), any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenReturn(UserSession.builder().sessionId("SES-2").build());
+
+        assertEquals("SES-2", jwtTokenHelper.sessionIdOf(claims("ADM-1", "USR-1", null)));
+    }
+
+    @Test
+    void testRevokeSessionOfRevokesTheTokensSession() {
+        when(jwtTokenProvider.extractAllClaims("token")).thenReturn(claims("ADM-1", "USR-1", "SES-1"));
+        when(refreshTokenService.revokeSessionById("SES-1")).thenReturn(true);
+
+        assertTrue(jwtTokenHelper.revokeSessionOf("token"));
+        verify(refreshTokenService).revokeSessionById("SES-1");
+    }
+
+    @Test
+    void testRevokeSessionOfInvalidTokenRevokesNothing() {
+        when(jwtTokenProvider.extractAllClaims("garbage")).thenThrow(new MalformedJwtException("bad token"));
+
+        assertFalse(jwtTokenHelper.revokeSessionOf("garbage"));
+        assertEquals(Optional.empty(), jwtTokenHelper.userIdOf("garbage"));
+        verifyNoInteractions(refreshTokenService);
+    }
+
+    @Test
+    void testTokenOfRevokedSessionDoesNotValidate() {
+        Claims claims = claims("ADM-1", "USR-1", "SES-1");
+        when(tokenRevocationIndex.isSessionRevoked("SES-1")).thenReturn(true);
+
+        assertFalse(jwtTokenHelper.validateTokenClaims(claims, "ADM-1"));
+    }
+
+    @Test
+    void testTokenOfActiveSessionValidates() {
+        Claims claims = claims("ADM-1", "USR-1", "SES-1");
+        when(tokenRevocationIndex.isSessionRevoked("SES-1")).thenReturn(false);
+
+        assertTrue(jwtTokenHelper.validateTokenClaims(claims, "ADM-1"));
+    }
+
+    private static Claims claims(String personaId, String userId, String sessionId) {
+        return Jwts.claims()
+                .subject(personaId)
+                .add(WebAppConstants.Claim.TYPE, UserType.ADMIN.name())
+                .add(WebAppConstants.Claim.USER_ID, userId)
+                .add(JwtTokenProvider.CLAIM_SESSION_ID, sessionId)
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.cloudsuites.framework.webapp.authentication.util;
+
+import com.cloudsuites.framework.services.common.exception.NotFoundResponseException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the login step scope. The latency comparison lives in {@link LoginFlowExecutorBenchmarkTest}.
+ */
+class LoginFlowExecutorTest {
+
+    private final LoginFlowExecutor executor = new LoginFlowExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testStepsRunConcurrentlyAndAreTimed() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(executor, "meterRegistry", meterRegistry);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        try (LoginFlowExecutor.Scope scope = executor.open("test")) {
+            // Each step waits for the other, so this only completes if they overlap
+            Supplier<String> first = scope.fork("first", () -> awaitOther(bothStarted, "a"));
+            Supplier<String> second = scope.fork("second", () -> awaitOther(bothStarted, "b"));
+            scope.join();
+
+            assertEquals("a", first.get());
+            assertEquals("b", second.get());
+            assertEquals(2, scope.stepNanos().size());
+        }
+        assertEquals(1, meterRegistry.get("cloudsuites.login.step").tag("step", "first").timer().count());
+        assertEquals(1, meterRegistry.get("cloudsuites.login.flow").tag("flow", "test").timer().count());
+    }
+
+    @Test
+    void testFirstFailureCancelsOtherStepsAndIsRethrown() {
+        AtomicBoolean slowStepInterrupted = new AtomicBoolean();
+        long started = System.nanoTime();
+
+        try (LoginFlowExecutor.Scope scope = executor.open("test")) {
+            scope.fork("slow", () -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    slowStepInterrupted.set(true);
+                }
+                return null;
+            });
+            Supplier<Object> missing = scope.fork("missing", () -> {
+                throw new NotFoundResponseException("Tenant not found");
+            });
+
+            assertThrows(NotFoundResponseException.class, () -> scope.join(NotFoundResponseException.class));
+            assertThrows(IllegalStateException.class, missing::get);
+        }
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 5_000);
+        awaitTrue(slowStepInterrupted);
+    }
+
+    @Test
+    void testSequentialModeRunsOnCallerThread() {
+        ReflectionTestUtils.setField(executor, "parallelLookups", false);
+        Thread caller = Thread.currentThread();
+
+        try (LoginFlowExecutor.Scope scope = executor.open("test")) {
+            Supplier<Thread> thread = scope.fork("step", Thread::currentThread);
+            scope.fork("failing", () -> {
+                throw new IllegalArgumentException("boom");
+            });
+            Supplier<String> skipped = scope.fork("skipped", () -> "never");
+
+            assertThrows(IllegalArgumentException.class, scope::join);
+            assertSame(caller, thread.get());
+            assertThrows(IllegalStateException.class, skipped::get);
+        }
+    }
+
+    private static String awaitOther(CountDownLatch latch, String result) throws InterruptedException {
+        latch.countDown();
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        return result;
+    }
+
+    private static void awaitTrue(AtomicBoolean flag) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!flag.get() && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertTrue(flag.get());
+    }
+}
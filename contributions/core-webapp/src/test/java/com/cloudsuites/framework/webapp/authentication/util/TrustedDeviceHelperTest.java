@@ -0,0 +1,69 @@
+package com.cloudsuites.framework.webapp.authentication.util;
+
+import com.cloudsuites.framework.services.auth.DeviceTrustService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the shared skip-OTP login: a valid trusted-device token starts and audits a session,
+ * anything else leaves the caller to fall back to OTP.
+ */
+@ExtendWith(MockitoExtension.class)
+class TrustedDeviceHelperTest {
+
+    @Mock
+    private DeviceTrustService deviceTrustService;
+
+    @Mock
+    private JwtTokenHelper jwtTokenHelper;
+
+    @Mock
+    private AuthAuditHelper authAuditHelper;
+
+    @InjectMocks
+    private TrustedDeviceHelper trustedDeviceHelper;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    @Test
+    void testValidTokenIssuesTokensForANewSession() {
+        when(deviceTrustService.validateTrustedDeviceToken("trusted", "USR-1", "device-1")).thenReturn(true);
+        when(jwtTokenHelper.startSession("USR-1")).thenReturn("SES-1");
+
+        Optional<Map<String, String>> login = trustedDeviceHelper.tryIssueTrustedLogin("trusted", "device-1", "USR-1",
+                request, sessionId -> Map.of("token", "token-for-" + sessionId));
+
+        assertEquals(Optional.of(Map.of("token", "token-for-SES-1")), login);
+        verify(authAuditHelper).trustedDeviceLogin("USR-1", "SES-1", request);
+    }
+
+    @Test
+    void testInvalidTokenFallsBackToOtp() {
+        when(deviceTrustService.validateTrustedDeviceToken("stale", "USR-1", "device-1")).thenReturn(false);
+
+        assertTrue(trustedDeviceHelper.tryIssueTrustedLogin("stale", "device-1", "USR-1", request,
+                sessionId -> fail("no tokens without a trusted device")).isEmpty());
+        verifyNoInteractions(jwtTokenHelper, authAuditHelper);
+    }
+
+    @Test
+    void testMissingHeadersFallBackToOtpWithoutALookup() {
+        assertTrue(trustedDeviceHelper.tryIssueTrustedLogin(null, "device-1", "USR-1", request,
+                sessionId -> fail("no tokens without a trusted device")).isEmpty());
+        assertTrue(trustedDeviceHelper.tryIssueTrustedLogin("trusted", null, "USR-1", request,
+                sessionId -> fail("no tokens without a trusted device")).isEmpty());
+        verify(deviceTrustService, never()).validateTrustedDeviceToken(any(), any(), any());
+        verifyNoInteractions(jwtTokenHelper);
+    }
+}
@@ -0,0 +1,100 @@
+package com.cloudsuites.framework.webapp.migration;
+
+import com.cloudsuites.framework.modules.auth.repository.AuthAuditEventRepository;
+import com.cloudsuites.framework.services.auth.AuthEventCategory;
+import com.cloudsuites.framework.services.auth.AuthEventType;
+import com.cloudsuites.framework.services.auth.RiskLevel;
+import com.cloudsuites.framework.services.auth.entities.AuditEvent;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Applies every migration to a real Postgres database and checks the audit schema they leave
+ * behind against the entity mappings, including the building extraction V13 uses to seed the
+ * rollups.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AuditSchemaMigrationTest {
+
+    // The expression V13 seeds audit_event_rollups.building_id with
+    private static final String BUILDING_OF = "COALESCE(left(CAST(NULLIF(CAST(additional_data AS text), '') AS jsonb) ->> 'buildingId', 255), '')";
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuthAuditEventRepository auditEventRepository;
+
+    private String eventId;
+
+    @AfterEach
+    void tearDown() {
+        if (eventId != null) {
+            jdbcTemplate.update("DELETE FROM auth_audit_events WHERE audit_id = ?", eventId);
+        }
+    }
+
+    @Test
+    void testAllMigrationsApply() {
+        MigrationInfo[] applied = flyway.info().applied();
+
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(applied).isNotEmpty();
+        assertThat(Arrays.stream(applied).map(MigrationInfo::getState))
+                .allMatch(state -> state == MigrationState.SUCCESS || state == MigrationState.BASELINE);
+    }
+
+    @Test
+    void testAuditColumnsHaveTheMappedTypes() {
+        assertThat(columnType("auth_audit_events", "additional_data")).isEqualTo("jsonb");
+        assertThat(columnType("auth_audit_events", "ip_address")).isEqualTo("character varying");
+        assertThat(columnType("user_sessions", "ip_address")).isEqualTo("character varying");
+        assertThat(columnType("audit_event_rollups", "building_id")).isEqualTo("character varying");
+    }
+
+    @Test
+    void testMetadataRoundTripsAsJsonAndYieldsItsBuilding() {
+        eventId = "AUD-" + UUID.randomUUID();
+        AuditEvent event = new AuditEvent(eventId, "USR-migration", AuthEventType.LOGIN_SUCCESS,
+                AuthEventCategory.AUTHENTICATION, RiskLevel.LOW, "2001:db8::1", "JUnit", "Migration check");
+        event.setTimestamp(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        event.setSuccess(true);
+        event.setMetadata(Map.of("buildingId", "BLD-42", "attempt", 3));
+        auditEventRepository.saveAndFlush(event);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT " + BUILDING_OF + " FROM auth_audit_events WHERE audit_id = ?", String.class, eventId))
+                .isEqualTo("BLD-42");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT additional_data ->> 'attempt' FROM auth_audit_events WHERE audit_id = ?", String.class, eventId))
+                .isEqualTo("3");
+        assertThat(auditEventRepository.findById(eventId).orElseThrow().getMetadata())
+                .containsEntry("buildingId", "BLD-42")
+                .containsEntry("attempt", 3);
+    }
+
+    private String columnType(String table, String column) {
+        return jdbcTemplate.queryForObject(
+                "SELECT data_type FROM information_schema.columns WHERE table_schema = current_schema() "
+                        + "AND table_name = ? AND column_name = ?", String.class, table, column);
+    }
+}
@@ -0,0 +1,60 @@
+package com.cloudsuites.framework.modules.auth.config;
+
+import com.cloudsuites.framework.modules.auth.service.impl.FakeOtpDeliveryProvider;
+import com.cloudsuites.framework.modules.auth.service.impl.MailOtpProvider;
+import com.cloudsuites.framework.modules.auth.service.impl.OtpDeliveryProvider;
+import com.cloudsuites.framework.modules.auth.service.impl.TwilioSmsOtpProvider;
+import com.cloudsuites.framework.modules.notification.NotificationServiceImpl;
+import com.cloudsuites.framework.modules.otp.SmsService;
+import com.cloudsuites.framework.services.auth.OtpChannel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Selects the OTP delivery provider for each channel.
+ * Real providers are the default: Twilio for SMS and the notification module's mail sender for email.
+ * The fake providers, which let OTP flows run and be load-tested offline, are only available under
+ * the {@code test} profile with {@code cloudsuites.otp.delivery.sms-provider=fake} or
+ * {@code email-provider=fake}.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Configuration
+public class OtpDeliveryConfiguration {
+
+    @Value("${cloudsuites.otp.delivery.fake.latency-ms:0}")
+    private long fakeLatencyMs;
+
+    @Value("${cloudsuites.otp.delivery.fake.failure-rate:0}")
+    private double fakeFailureRate;
+
+    @Bean
+    @Profile("test")
+    @ConditionalOnProperty(name = "cloudsuites.otp.delivery.sms-provider", havingValue = "fake")
+    public OtpDeliveryProvider fakeSmsOtpProvider() {
+        return new FakeOtpDeliveryProvider(OtpChannel.SMS, fakeLatencyMs, fakeFailureRate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cloudsuites.otp.delivery.sms-provider", havingValue = "twilio", matchIfMissing = true)
+    public OtpDeliveryProvider twilioSmsOtpProvider(SmsService smsService) {
+        return new TwilioSmsOtpProvider(smsService);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cloudsuites.otp.delivery.email-provider", havingValue = "mail", matchIfMissing = true)
+    public OtpDeliveryProvider mailOtpProvider(NotificationServiceImpl notificationService) {
+        return new MailOtpProvider(notificationService);
+    }
+
+    @Bean
+    @Profile("test")
+    @ConditionalOnProperty(name = "cloudsuites.otp.delivery.email-provider", havingValue = "fake")
+    public OtpDeliveryProvider fakeEmailOtpProvider() {
+        return new FakeOtpDeliveryProvider(OtpChannel.EMAIL, fakeLatencyMs, fakeFailureRate);
+    }
+}
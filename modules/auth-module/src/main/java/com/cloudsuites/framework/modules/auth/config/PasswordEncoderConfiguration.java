@@ -0,0 +1,87 @@
+package com.cloudsuites.framework.modules.auth.config;
+
+import com.cloudsuites.framework.modules.auth.service.impl.Pbkdf2Sha256PasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration for password hashing.
+ * 
+ * Hashes are stored with a format prefix ({bcrypt}, {argon2}, {pbkdf2}) so several formats and
+ * cost settings can coexist. New hashes use {@code cloudsuites.security.password.encoder.default};
+ * existing hashes keep verifying with the parameters embedded in them, and are upgraded on the
+ * next successful login when the format or cost no longer matches the configuration.
+ * Unprefixed hashes are treated as legacy BCrypt.
+ * 
+ * Use {@code PasswordHashCalibrator} to pick costs that hit a target hash time on the host.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Configuration
+public class PasswordEncoderConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderConfiguration.class);
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+    public static final String PBKDF2 = "pbkdf2";
+
+    @Value("${cloudsuites.security.password.encoder.default:bcrypt}")
+    private String defaultEncoder = BCRYPT;
+
+    @Value("${cloudsuites.security.password.bcrypt.strength:12}")
+    private int bcryptStrength = 12;
+
+    @Value("${cloudsuites.security.password.argon2.salt-length:16}")
+    private int argon2SaltLength = 16;
+
+    @Value("${cloudsuites.security.password.argon2.hash-length:32}")
+    private int argon2HashLength = 32;
+
+    @Value("${cloudsuites.security.password.argon2.parallelism:1}")
+    private int argon2Parallelism = 1;
+
+    @Value("${cloudsuites.security.password.argon2.memory-kb:19456}")
+    private int argon2MemoryKb = 19456;
+
+    @Value("${cloudsuites.security.password.argon2.iterations:2}")
+    private int argon2Iterations = 2;
+
+    @Value("${cloudsuites.security.password.pbkdf2.salt-length:16}")
+    private int pbkdf2SaltLength = 16;
+
+    @Value("${cloudsuites.security.password.pbkdf2.iterations:600000}")
+    private int pbkdf2Iterations = 600000;
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(ARGON2, new Argon2PasswordEncoder(argon2SaltLength, argon2HashLength, argon2Parallelism,
+                argon2MemoryKb, argon2Iterations));
+        encoders.put(PBKDF2, new Pbkdf2Sha256PasswordEncoder(pbkdf2Iterations, pbkdf2SaltLength));
+        if (!encoders.containsKey(defaultEncoder)) {
+            throw new IllegalStateException("Unknown password encoder '" + defaultEncoder
+                    + "', expected one of " + encoders.keySet());
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(defaultEncoder, encoders);
+        // Hashes stored before format prefixes were introduced are plain BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        logger.info("Password encoder: {} (bcrypt strength {}, argon2 m={}KiB t={} p={}, pbkdf2 {} iterations)",
+                defaultEncoder, bcryptStrength, argon2MemoryKb, argon2Iterations, argon2Parallelism, pbkdf2Iterations);
+        return delegating;
+    }
+}
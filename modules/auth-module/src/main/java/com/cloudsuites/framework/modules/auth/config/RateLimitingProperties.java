@@ -0,0 +1,65 @@
+package com.cloudsuites.framework.modules.auth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rate limiting rules bound from {@code cloudsuites.rate-limiting}.
+ * Each named configuration (login, otp_send, ...) carries its limit, window and the
+ * request paths it guards at the edge of the filter chain.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cloudsuites.rate-limiting")
+public class RateLimitingProperties {
+
+    /**
+     * Whether rate limiting is enforced at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Rules keyed by operation name.
+     */
+    private Map<String, Rule> configurations = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        /**
+         * Maximum number of requests allowed in the window.
+         */
+        private int limit;
+
+        /**
+         * Window length in minutes.
+         */
+        private long windowMinutes;
+
+        private boolean enableLockout;
+
+        private int lockoutThreshold;
+
+        /**
+         * Fraction of the limit each node may admit locally between Redis reconciliations;
+         * 0 checks Redis on every request.
+         */
+        private double tolerance;
+
+        /**
+         * Ant-style request path patterns this rule applies to; empty means the rule is
+         * only enforced by the services that call it directly.
+         */
+        private List<String> paths = new ArrayList<>();
+    }
+}
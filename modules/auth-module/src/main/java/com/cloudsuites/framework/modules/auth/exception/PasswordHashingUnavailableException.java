@@ -0,0 +1,21 @@
+package com.cloudsuites.framework.modules.auth.exception;
+
+/**
+ * Exception thrown when password hashing capacity is exhausted.
+ * 
+ * Raised instead of queueing without bound, so callers can answer
+ * 503 Service Unavailable and let the client retry shortly.
+ */
+public class PasswordHashingUnavailableException extends AuthenticationException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,68 @@
+package com.cloudsuites.framework.modules.auth.repository;
+
+import com.cloudsuites.framework.services.auth.entities.AuditEventRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for hourly and daily audit event counters.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Repository
+public interface AuditEventRollupRepository extends JpaRepository<AuditEventRollup, AuditEventRollup.Key> {
+
+    /**
+     * Adds {@code delta} to a bucket, creating it on first use. Joins the caller's transaction.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO audit_event_rollups (granularity, bucket_start, event_type, outcome, building_id, event_count)
+            VALUES (:granularity, :bucketStart, :eventType, :outcome, :buildingId, :delta)
+            ON CONFLICT (granularity, bucket_start, event_type, outcome, building_id)
+            DO UPDATE SET event_count = audit_event_rollups.event_count + EXCLUDED.event_count
+            """, nativeQuery = true)
+    int increment(@Param("granularity") String granularity,
+                  @Param("bucketStart") LocalDateTime bucketStart,
+                  @Param("eventType") String eventType,
+                  @Param("outcome") String outcome,
+                  @Param("buildingId") String buildingId,
+                  @Param("delta") long delta);
+
+    /**
+     * Sums counters over a range split into whole days, read from daily buckets, and the
+     * partial days at either end, read from hourly buckets.
+     *
+     * @return list of [AuthEventType, Outcome, buildingId, count] arrays
+     */
+    @Query("SELECT r.eventType, r.outcome, r.buildingId, SUM(r.eventCount) " +
+           "FROM AuditEventRollup r " +
+           "WHERE (r.granularity = com.cloudsuites.framework.services.auth.entities.AuditEventRollup.Granularity.DAY " +
+           "       AND r.bucketStart >= :dayStart AND r.bucketStart < :dayEnd) " +
+           "   OR (r.granularity = com.cloudsuites.framework.services.auth.entities.AuditEventRollup.Granularity.HOUR " +
+           "       AND ((r.bucketStart >= :hourStart AND r.bucketStart < :dayStart) " +
+           "         OR (r.bucketStart >= :dayEnd AND r.bucketStart < :hourEnd))) " +
+           "GROUP BY r.eventType, r.outcome, r.buildingId")
+    List<Object[]> sumBetween(@Param("hourStart") LocalDateTime hourStart,
+                              @Param("dayStart") LocalDateTime dayStart,
+                              @Param("dayEnd") LocalDateTime dayEnd,
+                              @Param("hourEnd") LocalDateTime hourEnd);
+
+    /**
+     * Deletes hourly buckets older than the cutoff; daily buckets are kept.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AuditEventRollup r " +
+           "WHERE r.granularity = com.cloudsuites.framework.services.auth.entities.AuditEventRollup.Granularity.HOUR " +
+           "AND r.bucketStart < :cutoff")
+    int deleteHourlyBefore(@Param("cutoff") LocalDateTime cutoff);
+}
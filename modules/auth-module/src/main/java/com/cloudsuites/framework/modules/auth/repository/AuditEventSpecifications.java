@@ -0,0 +1,87 @@
+package com.cloudsuites.framework.modules.auth.repository;
+
+import com.cloudsuites.framework.services.auth.AuthEventCategory;
+import com.cloudsuites.framework.services.auth.AuthEventType;
+import com.cloudsuites.framework.services.auth.RiskLevel;
+import com.cloudsuites.framework.services.auth.entities.AuditEvent;
+import com.cloudsuites.framework.services.auth.entities.AuditQueryRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Filters for audit event queries. Each filter is an equality or range on a leading column of
+ * one of the keyset indexes, and {@link #KEYSET_ORDER} matches their trailing
+ * {@code (event_timestamp DESC, audit_id DESC)}, so a page is an index range scan that stops
+ * after the requested number of rows.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+public final class AuditEventSpecifications {
+
+    /**
+     * Newest first, with the id breaking ties between events recorded in the same instant.
+     */
+    public static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "timestamp", "eventId");
+
+    private AuditEventSpecifications() {
+    }
+
+    /**
+     * Combines every filter set on the request; unset fields do not restrict the query.
+     * The request's risk level is a minimum.
+     */
+    public static Specification<AuditEvent> matching(AuditQueryRequest request) {
+        return Specification.where(userId(request.getUserId()))
+                .and(eventTypes(request.getEventType() == null ? null : List.of(request.getEventType())))
+                .and(category(request.getCategory()))
+                .and(minimumRiskLevel(request.getRiskLevel()))
+                .and(ipAddress(request.getIpAddress()))
+                .and(between(request.getStartDate(), request.getEndDate()));
+    }
+
+    public static Specification<AuditEvent> userId(String userId) {
+        return userId == null ? null : (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<AuditEvent> eventTypes(Collection<AuthEventType> eventTypes) {
+        return eventTypes == null || eventTypes.isEmpty() ? null
+                : (root, query, cb) -> root.get("eventType").in(eventTypes);
+    }
+
+    public static Specification<AuditEvent> category(AuthEventCategory category) {
+        return category == null ? null : (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    /**
+     * Risk levels are stored by name, so "at least" is expanded to the matching names rather
+     * than compared as strings.
+     */
+    public static Specification<AuditEvent> minimumRiskLevel(RiskLevel minimum) {
+        if (minimum == null) {
+            return null;
+        }
+        List<RiskLevel> levels = Arrays.stream(RiskLevel.values())
+                .filter(level -> level.ordinal() >= minimum.ordinal())
+                .toList();
+        return (root, query, cb) -> root.get("riskLevel").in(levels);
+    }
+
+    public static Specification<AuditEvent> ipAddress(String ipAddress) {
+        return ipAddress == null ? null : (root, query, cb) -> cb.equal(root.get("ipAddress"), ipAddress);
+    }
+
+    /**
+     * Events from {@code start} inclusive to {@code end} exclusive; either bound may be null.
+     */
+    public static Specification<AuditEvent> between(LocalDateTime start, LocalDateTime end) {
+        return Specification.<AuditEvent>where(start == null ? null
+                        : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("timestamp"), start))
+                .and(end == null ? null : (root, query, cb) -> cb.lessThan(root.get("timestamp"), end));
+    }
+}
@@ -211,12 +211,22 @@ public interface AuthAuditEventRepository extends JpaRepository<AuditEvent, Stri
                                                             Pageable pageable);
 
     /**
-     * Clean up old audit events beyond retention period.
-     * Used for data retention policy compliance.
-     * 
-     * @param cutoffTime events older than this timestamp will be deleted
-     * @return number of deleted events
+     * Failed attempts and distinct IP addresses per user since a point in time, used as device
+     * risk features. Reads only the partitions covering the window.
+     *
+     * @param userIds the users to summarise
+     * @param since the start of the window
+     * @return list of [userId, failedAttempts, distinctIpAddresses] arrays
      */
-    @Query("DELETE FROM AuditEvent e WHERE e.timestamp < :cutoffTime")
-    int deleteOldEvents(@Param("cutoffTime") LocalDateTime cutoffTime);
+    @Query(value = """
+            SELECT user_id,
+                   COUNT(*) FILTER (WHERE event_type IN ('LOGIN_FAILURE', 'OTP_VERIFY_FAILURE')),
+                   COUNT(DISTINCT ip_address)
+            FROM auth_audit_events
+            WHERE user_id = ANY(CAST(:userIds AS varchar[]))
+              AND event_timestamp >= :since
+            GROUP BY user_id
+            """, nativeQuery = true)
+    List<Object[]> summarizeRiskActivitySince(@Param("userIds") String[] userIds,
+                                              @Param("since") LocalDateTime since);
 }
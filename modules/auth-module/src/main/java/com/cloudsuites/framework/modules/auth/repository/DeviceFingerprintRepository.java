@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -113,6 +114,35 @@ public interface DeviceFingerprintRepository extends JpaRepository<DeviceFingerp
                            @Param("newUsageCount") Long newUsageCount,
                            @Param("ipAddress") String ipAddress);
 
+    /**
+     * Apply coalesced activity to many devices in one statement. Usage deltas are added to
+     * the stored count, so concurrent flushes from several nodes never lose increments; the
+     * last used timestamp only moves forward and a null IP address keeps the stored one.
+     *
+     * @param fingerprints Device fingerprint hashes
+     * @param lastUsedTimes Most recent use per fingerprint
+     * @param usageDeltas Uses since the previous flush per fingerprint
+     * @param ipAddresses Latest IP address per fingerprint, may contain nulls
+     * @return Number of updated records
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE device_fingerprints d
+            SET usage_count = COALESCE(d.usage_count, 0) + v.usage_delta,
+                last_used_at = GREATEST(d.last_used_at, v.last_used_at),
+                last_ip_address = COALESCE(v.ip_address, d.last_ip_address)
+            FROM UNNEST(CAST(:fingerprints AS varchar[]), CAST(:lastUsedTimes AS timestamp[]),
+                        CAST(:usageDeltas AS bigint[]), CAST(:ipAddresses AS varchar[]))
+                 AS v(fingerprint, last_used_at, usage_delta, ip_address)
+            WHERE d.fingerprint = v.fingerprint
+              AND d.is_deleted = FALSE
+            """, nativeQuery = true)
+    int batchIncrementDeviceActivity(@Param("fingerprints") String[] fingerprints,
+                                     @Param("lastUsedTimes") LocalDateTime[] lastUsedTimes,
+                                     @Param("usageDeltas") Long[] usageDeltas,
+                                     @Param("ipAddresses") String[] ipAddresses);
+
     /**
      * Update device trust status.
      * 
@@ -149,6 +179,18 @@ public interface DeviceFingerprintRepository extends JpaRepository<DeviceFingerp
                          @Param("revocationReason") String revocationReason,
                          @Param("modifiedBy") String modifiedBy);
 
+    /**
+     * Devices whose trust ended (revoked, expired or deleted) since a point in time.
+     *
+     * @param since Earliest modification time to include
+     * @param trustedStatus Trust status of devices that are still trusted
+     * @return Rows of [userId, fingerprint, updatedAt]
+     */
+    @Query("SELECT d.userId, d.fingerprint, d.updatedAt FROM DeviceFingerprint d " +
+           "WHERE d.updatedAt >= :since AND (d.trustStatus <> :trustedStatus OR d.isDeleted = true)")
+    List<Object[]> findTrustEndedSince(@Param("since") LocalDateTime since,
+                                       @Param("trustedStatus") TrustStatus trustedStatus);
+
     /**
      * Soft delete expired devices.
      * 
@@ -200,6 +242,107 @@ public interface DeviceFingerprintRepository extends JpaRepository<DeviceFingerp
            "AND d.isDeleted = false ORDER BY d.riskScore DESC, d.lastUsedAt DESC")
     List<DeviceFingerprint> findHighRiskDevices(@Param("minRiskScore") int minRiskScore);
 
+    /**
+     * First device ID of each chunk of {@code chunkSize} live devices in device ID order, so a
+     * full rescoring pass can be split into independent key ranges.
+     *
+     * @param chunkSize Devices per chunk
+     * @return Chunk start device IDs in ascending order
+     */
+    @Query(value = """
+            SELECT d.device_id FROM (
+                SELECT device_id, ROW_NUMBER() OVER (ORDER BY device_id) AS rn
+                FROM device_fingerprints
+                WHERE is_deleted = FALSE) d
+            WHERE (d.rn - 1) % :chunkSize = 0
+            ORDER BY d.device_id
+            """, nativeQuery = true)
+    List<String> findRiskChunkStarts(@Param("chunkSize") int chunkSize);
+
+    /**
+     * Scoring inputs for live devices with IDs in {@code [fromDeviceId, toDeviceId)}.
+     *
+     * @param fromDeviceId Inclusive lower bound
+     * @param toDeviceId Exclusive upper bound, or null for the last chunk
+     * @return List of [deviceId, fingerprint, userId, usageCount, registrationIp, lastIpAddress, riskScore] arrays
+     */
+    @Query(value = """
+            SELECT device_id, fingerprint, user_id, usage_count, registration_ip, last_ip_address, risk_score
+            FROM device_fingerprints
+            WHERE device_id >= :fromDeviceId
+              AND (CAST(:toDeviceId AS varchar) IS NULL OR device_id < :toDeviceId)
+              AND is_deleted = FALSE
+            ORDER BY device_id
+            """, nativeQuery = true)
+    List<Object[]> findRiskInputs(@Param("fromDeviceId") String fromDeviceId,
+                                  @Param("toDeviceId") String toDeviceId);
+
+    /**
+     * Count distinct accounts per fingerprint.
+     *
+     * @param fingerprints Device fingerprint hashes
+     * @return List of [fingerprint, accountCount] arrays
+     */
+    @Query(value = """
+            SELECT fingerprint, COUNT(DISTINCT user_id)
+            FROM device_fingerprints
+            WHERE fingerprint = ANY(CAST(:fingerprints AS varchar[]))
+              AND is_deleted = FALSE
+            GROUP BY fingerprint
+            """, nativeQuery = true)
+    List<Object[]> countAccountsByFingerprint(@Param("fingerprints") String[] fingerprints);
+
+    /**
+     * Set risk scores for many devices in one statement.
+     *
+     * @param deviceIds Device identifiers
+     * @param riskScores New risk score per device
+     * @return Number of updated records
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE device_fingerprints d
+            SET risk_score = v.risk_score
+            FROM UNNEST(CAST(:deviceIds AS varchar[]), CAST(:riskScores AS integer[])) AS v(device_id, risk_score)
+            WHERE d.device_id = v.device_id
+            """, nativeQuery = true)
+    int batchUpdateRiskScores(@Param("deviceIds") String[] deviceIds,
+                              @Param("riskScores") Integer[] riskScores);
+
+    /**
+     * Raise risk scores of every live device with the given fingerprints; lower scores are
+     * left to the next full rescoring pass.
+     *
+     * @param fingerprints Device fingerprint hashes
+     * @param riskScores Minimum risk score per fingerprint
+     * @return Number of updated records
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE device_fingerprints d
+            SET risk_score = v.risk_score
+            FROM UNNEST(CAST(:fingerprints AS varchar[]), CAST(:riskScores AS integer[])) AS v(fingerprint, risk_score)
+            WHERE d.fingerprint = v.fingerprint
+              AND d.is_deleted = FALSE
+              AND COALESCE(d.risk_score, 0) < v.risk_score
+            """, nativeQuery = true)
+    int batchRaiseRiskScores(@Param("fingerprints") String[] fingerprints,
+                             @Param("riskScores") Integer[] riskScores);
+
+    /**
+     * Fingerprints of live devices at or above a risk score.
+     *
+     * @param minRiskScore Minimum risk score threshold
+     * @return Distinct fingerprint hashes
+     */
+    @Query(value = """
+            SELECT DISTINCT fingerprint FROM device_fingerprints
+            WHERE risk_score >= :minRiskScore AND is_deleted = FALSE
+            """, nativeQuery = true)
+    List<String> findFingerprintsWithRiskScoreAtLeast(@Param("minRiskScore") int minRiskScore);
+
     /**
      * Find devices that need risk score updates (haven't been updated recently).
      * 
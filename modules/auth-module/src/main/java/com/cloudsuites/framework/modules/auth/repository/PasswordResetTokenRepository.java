@@ -0,0 +1,51 @@
+package com.cloudsuites.framework.modules.auth.repository;
+
+import com.cloudsuites.framework.services.auth.entities.PasswordResetToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository for hashed password reset tokens.
+ * 
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Repository
+public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, String> {
+
+    /**
+     * Marks an unused, unexpired token as used and returns its user in one statement, so two
+     * nodes redeeming the same token concurrently cannot both succeed.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE password_reset_tokens SET used_at = :now
+            WHERE token_hash = :tokenHash AND used_at IS NULL AND expires_at > :now
+            RETURNING user_id
+            """, nativeQuery = true)
+    Optional<String> redeem(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
+
+    /**
+     * Deletes up to {@code batchSize} expired tokens. Rows already being deleted by another node
+     * are skipped rather than waited on.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM password_reset_tokens
+            WHERE token_hash IN (
+                SELECT token_hash FROM password_reset_tokens
+                WHERE expires_at <= :now
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
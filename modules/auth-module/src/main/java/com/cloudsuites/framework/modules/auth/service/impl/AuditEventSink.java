@@ -0,0 +1,21 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.services.auth.entities.AuditEvent;
+
+import java.util.List;
+
+/**
+ * Destination for batches drained by the {@link AuditEventWriter}.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+public interface AuditEventSink {
+
+    /**
+     * Persists a batch, all or nothing.
+     *
+     * @throws RuntimeException if the batch could not be written
+     */
+    void write(List<AuditEvent> events);
+}
@@ -0,0 +1,321 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.common.utils.MpscRingBuffer;
+import com.cloudsuites.framework.services.auth.entities.AuditEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Takes audit events off the request path. Callers hand events to a lock-free ring buffer and
+ * return immediately; a single background thread drains it and writes batches through the
+ * {@link AuditEventSink}, so a login costs one buffer slot instead of an insert and a commit.
+ *
+ * When the buffer is full, the overflow policy decides:
+ * <ul>
+ *   <li>{@code DROP} - the event is discarded and counted (default)</li>
+ *   <li>{@code BLOCK} - the caller waits up to the block timeout for space, then drops</li>
+ *   <li>{@code SPILL} - the event is appended to a local file and replayed once the writer is
+ *       idle; batches the database rejects are spilled as well</li>
+ * </ul>
+ * A spilled batch that keeps failing is moved to a dead-letter file after
+ * {@code max-replay-attempts} replays. The default spill file is named after the process ID,
+ * so several instances on one host never share it; at startup, spill files left by processes
+ * that are no longer running are adopted and replayed regardless of the policy. On shutdown
+ * the writer stops taking new work and flushes everything still buffered.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Component
+public class AuditEventWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditEventWriter.class);
+
+    private static final String SPILL_FILE_PREFIX = "cloudsuites-audit-spill-";
+    private static final String SPILL_FILE_SUFFIX = ".jsonl";
+    private static final Pattern SPILL_FILE_NAME = Pattern.compile(
+            Pattern.quote(SPILL_FILE_PREFIX) + "(\\d+)" + Pattern.quote(SPILL_FILE_SUFFIX) + "(\\.replay)?");
+
+    public enum OverflowPolicy { BLOCK, DROP, SPILL }
+
+    @Autowired
+    private AuditEventSink sink;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${cloudsuites.audit.writer.buffer-capacity:8192}")
+    private int bufferCapacity = 8192;
+
+    @Value("${cloudsuites.audit.writer.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${cloudsuites.audit.writer.flush-interval-ms:200}")
+    private long flushIntervalMs = 200;
+
+    @Value("${cloudsuites.audit.writer.overflow-policy:DROP}")
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    @Value("${cloudsuites.audit.writer.block-timeout-ms:1000}")
+    private long blockTimeoutMs = 1000;
+
+    // Empty means cloudsuites-audit-spill-<pid>.jsonl in the temp directory
+    @Value("${cloudsuites.audit.writer.spill-path:}")
+    private String spillPath = "";
+
+    @Value("${cloudsuites.audit.writer.replay-retry-ms:5000}")
+    private long replayRetryMs = 5000;
+
+    @Value("${cloudsuites.audit.writer.max-replay-attempts:10}")
+    private int maxReplayAttempts = 10;
+
+    @Value("${cloudsuites.audit.writer.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs = 10000;
+
+    private MpscRingBuffer<AuditEvent> buffer;
+    private AuditSpillFile spillFile;
+    private Thread writerThread;
+    private volatile boolean running;
+    private long nextReplayAt;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder quarantined = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        buffer = new MpscRingBuffer<>(bufferCapacity);
+        if (StringUtils.hasText(spillPath)) {
+            spillFile = new AuditSpillFile(Path.of(spillPath), maxReplayAttempts);
+        } else {
+            Path tempDir = Path.of(System.getProperty("java.io.tmpdir"));
+            spillFile = new AuditSpillFile(tempDir.resolve(
+                    SPILL_FILE_PREFIX + ProcessHandle.current().pid() + SPILL_FILE_SUFFIX), maxReplayAttempts);
+            adoptOrphanedSpillFiles(tempDir);
+        }
+        nextReplayAt = System.nanoTime();
+        running = true;
+        writerThread = Thread.ofPlatform().name("audit-writer").daemon(true).start(this::run);
+        logger.info("Audit writer started with a {} event buffer, batches of {} and {} overflow",
+                buffer.capacity(), batchSize, overflowPolicy);
+        registerMetrics();
+    }
+
+    /**
+     * Stops accepting buffered work and waits for everything already buffered to be written.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            logger.warn("Audit writer did not finish within {} ms, {} events not written",
+                    shutdownTimeoutMs, buffer.size());
+        } else {
+            // Events offered while the writer was exiting
+            List<AuditEvent> remaining = new ArrayList<>();
+            buffer.drain(remaining::add, buffer.capacity());
+            if (!remaining.isEmpty()) {
+                writeBatch(remaining);
+            }
+        }
+        spillFile.close();
+    }
+
+    /**
+     * Queues an event for writing. Never blocks unless the overflow policy is {@code BLOCK}.
+     *
+     * @return false if the event was dropped
+     */
+    public boolean submit(AuditEvent event) {
+        if (!running) {
+            // After shutdown nothing drains the buffer, so write straight through
+            writeBatch(List.of(event));
+            return true;
+        }
+        if (buffer.offer(event)) {
+            if (buffer.size() >= batchSize) {
+                LockSupport.unpark(writerThread);
+            }
+            return true;
+        }
+        return switch (overflowPolicy) {
+            case BLOCK -> offerBlocking(event);
+            case SPILL -> spill(List.of(event)) || drop();
+            case DROP -> drop();
+        };
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getSpilledCount() {
+        return spilled.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getQuarantinedCount() {
+        return quarantined.sum();
+    }
+
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (running || buffer.size() > 0) {
+            int drained = buffer.drain(batch::add, batchSize);
+            if (drained > 0) {
+                writeBatch(batch);
+                batch.clear();
+            } else if (running) {
+                replaySpill();
+            }
+            if (drained < batchSize && running) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    private void writeBatch(List<AuditEvent> batch) {
+        try {
+            sink.write(batch);
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            if (overflowPolicy == OverflowPolicy.SPILL && spill(batch)) {
+                logger.warn("Audit batch of {} events could not be written and was spilled: {}",
+                        batch.size(), e.getMessage());
+            } else {
+                failed.add(batch.size());
+                logger.error("Failed to write audit batch of {} events", batch.size(), e);
+            }
+        }
+    }
+
+    private void replaySpill() {
+        if (System.nanoTime() - nextReplayAt < 0 || !spillFile.hasPending()) {
+            return;
+        }
+        try {
+            AuditSpillFile.ReplayResult result = spillFile.replay(batch -> {
+                sink.write(batch);
+                written.add(batch.size());
+            }, batchSize);
+            quarantined.add(result.quarantined());
+            if (result.replayed() > 0) {
+                logger.info("Replayed {} spilled audit events", result.replayed());
+            }
+        } catch (IOException | RuntimeException e) {
+            nextReplayAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(replayRetryMs);
+            logger.warn("Replaying spilled audit events failed, retrying later: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Adopts default-named spill files whose process has exited, so events spilled before a
+     * restart are still replayed under the new process ID.
+     */
+    private void adoptOrphanedSpillFiles(Path tempDir) {
+        try (DirectoryStream<Path> candidates = Files.newDirectoryStream(tempDir, SPILL_FILE_PREFIX + "*")) {
+            for (Path candidate : candidates) {
+                Matcher matcher = SPILL_FILE_NAME.matcher(candidate.getFileName().toString());
+                if (!matcher.matches() || ProcessHandle.of(Long.parseLong(matcher.group(1))).isPresent()) {
+                    continue;
+                }
+                long adopted = spillFile.adopt(candidate);
+                if (adopted > 0) {
+                    logger.info("Adopted {} spilled audit events from {}", adopted, candidate);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not adopt spill files left in {}: {}", tempDir, e.getMessage());
+        }
+    }
+
+    private boolean offerBlocking(AuditEvent event) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        LockSupport.unpark(writerThread);
+        while (System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(50_000);
+            if (buffer.offer(event)) {
+                return true;
+            }
+        }
+        return drop();
+    }
+
+    private boolean spill(List<AuditEvent> events) {
+        try {
+            spillFile.append(events);
+            spilled.add(events.size());
+            return true;
+        } catch (IOException e) {
+            logger.error("Failed to spill {} audit events", events.size(), e);
+            return false;
+        }
+    }
+
+    private boolean drop() {
+        dropped.increment();
+        return false;
+    }
+
+    private void registerMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        Gauge.builder("cloudsuites.audit.writer.buffered", this, AuditEventWriter::getBufferedCount)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        registerCounter("written", written);
+        registerCounter("dropped", dropped);
+        registerCounter("spilled", spilled);
+        registerCounter("failed", failed);
+        registerCounter("quarantined", quarantined);
+    }
+
+    private void registerCounter(String outcome, LongAdder counter) {
+        FunctionCounter.builder("cloudsuites.audit.writer.events", counter, LongAdder::sum)
+                .description("Audit events by outcome: written, dropped when full, spilled to disk, failed, or dead-lettered")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
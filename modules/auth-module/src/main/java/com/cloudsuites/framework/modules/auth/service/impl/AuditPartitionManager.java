@@ -0,0 +1,219 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of the audit tables. Each run creates any missing partitions
+ * from the current month to {@code months-ahead} months out, and drops partitions whose upper
+ * bound is older than the table's retention. Dropping a partition is a catalog operation, so
+ * retention leaves no dead rows behind and needs no vacuum.
+ *
+ * Rows written while a month had no partition land in the DEFAULT partition; they are moved into
+ * the month's partition when it is created. Runs hold a transaction-scoped advisory lock per
+ * table, so only one node maintains a table at a time.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Component
+public class AuditPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPartitionManager.class);
+
+    private static final Pattern RANGE_BOUND = Pattern.compile("FOR VALUES FROM \\((.+)\\) TO \\((.+)\\)");
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    /**
+     * A partitioned table and how long its partitions are kept.
+     */
+    record ManagedTable(String name, String keyColumn, int retentionMonths) {
+    }
+
+    /**
+     * A partition of a managed table. Null bounds stand for MINVALUE and MAXVALUE; the default
+     * partition has neither.
+     */
+    record Partition(String name, LocalDateTime from, LocalDateTime to, boolean isDefault) {
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            return !isDefault && (from == null || from.isBefore(end)) && (to == null || to.isAfter(start));
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${cloudsuites.audit.partitions.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${cloudsuites.audit.partitions.months-ahead:3}")
+    private int monthsAhead = 3;
+
+    @Value("${cloudsuites.audit.partitions.retention-months.auth-audit-events:84}")
+    private int authAuditEventsRetentionMonths = 84;
+
+    @Value("${cloudsuites.audit.partitions.retention-months.security-violations:84}")
+    private int securityViolationsRetentionMonths = 84;
+
+    @Value("${cloudsuites.audit.partitions.retention-months.compliance-audit-log:84}")
+    private int complianceAuditLogRetentionMonths = 84;
+
+    public AuditPartitionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${cloudsuites.audit.partitions.cron:0 15 2 * * *}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        YearMonth currentMonth = YearMonth.now();
+        for (ManagedTable table : managedTables()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> maintain(table, currentMonth));
+            } catch (RuntimeException e) {
+                logger.error("Failed to maintain partitions of {}", table.name(), e);
+            }
+        }
+    }
+
+    private List<ManagedTable> managedTables() {
+        return List.of(
+                new ManagedTable("auth_audit_events", "event_timestamp", authAuditEventsRetentionMonths),
+                new ManagedTable("security_violations", "created_at", securityViolationsRetentionMonths),
+                new ManagedTable("compliance_audit_log", "created_at", complianceAuditLogRetentionMonths));
+    }
+
+    private void maintain(ManagedTable table, YearMonth currentMonth) {
+        Boolean locked = (Boolean) entityManager
+                .createNativeQuery("SELECT pg_try_advisory_xact_lock(hashtext(:name))")
+                .setParameter("name", "audit-partitions:" + table.name())
+                .getSingleResult();
+        if (!Boolean.TRUE.equals(locked)) {
+            logger.debug("Partitions of {} are being maintained by another node", table.name());
+            return;
+        }
+
+        List<Partition> partitions = listPartitions(table);
+        boolean hasDefault = partitions.stream().anyMatch(Partition::isDefault);
+        for (YearMonth month : monthsToCreate(partitions, currentMonth, monthsAhead)) {
+            createPartition(table, month, hasDefault);
+        }
+        LocalDateTime cutoff = currentMonth.minusMonths(table.retentionMonths()).atDay(1).atStartOfDay();
+        for (Partition partition : expiredPartitions(partitions, cutoff)) {
+            entityManager.createNativeQuery("DROP TABLE " + quote(partition.name())).executeUpdate();
+            logger.info("Dropped partition {} of {}, which ended {}", partition.name(), table.name(), partition.to());
+        }
+    }
+
+    private List<Partition> listPartitions(ManagedTable table) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(:table)")
+                .setParameter("table", table.name())
+                .getResultList();
+        List<Partition> partitions = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            partitions.add(parsePartition((String) row[0], (String) row[1]));
+        }
+        return partitions;
+    }
+
+    private void createPartition(ManagedTable table, YearMonth month, boolean hasDefault) {
+        String partition = quote(table.name() + "_p" + month.format(SUFFIX_FORMAT));
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        // Created detached so rows already in the default partition can be moved in before it covers them
+        entityManager.createNativeQuery("CREATE TABLE " + partition + " (LIKE " + quote(table.name()) +
+                " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)").executeUpdate();
+        if (hasDefault) {
+            int moved = entityManager.createNativeQuery(
+                            "WITH moved AS (DELETE FROM " + quote(table.name() + "_default") +
+                            " WHERE " + quote(table.keyColumn()) + " >= :from AND " + quote(table.keyColumn()) + " < :to" +
+                            " RETURNING *) INSERT INTO " + partition + " SELECT * FROM moved")
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .executeUpdate();
+            if (moved > 0) {
+                logger.warn("Moved {} rows of {} from the default partition into {}", moved, table.name(), partition);
+            }
+        }
+        entityManager.createNativeQuery("ALTER TABLE " + quote(table.name()) + " ATTACH PARTITION " + partition +
+                " FOR VALUES FROM ('" + from + "') TO ('" + to + "')").executeUpdate();
+        logger.info("Created partition {} of {} for {}", partition, table.name(), month);
+    }
+
+    /**
+     * Months from the current one up to {@code monthsAhead} ahead that no partition covers.
+     */
+    static List<YearMonth> monthsToCreate(List<Partition> partitions, YearMonth currentMonth, int monthsAhead) {
+        List<YearMonth> missing = new ArrayList<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            LocalDateTime start = month.atDay(1).atStartOfDay();
+            LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+            if (partitions.stream().noneMatch(partition -> partition.overlaps(start, end))) {
+                missing.add(month);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Range partitions that end at or before the cutoff. The default partition is never dropped.
+     */
+    static List<Partition> expiredPartitions(List<Partition> partitions, LocalDateTime cutoff) {
+        return partitions.stream()
+                .filter(partition -> !partition.isDefault() && partition.to() != null && !partition.to().isAfter(cutoff))
+                .toList();
+    }
+
+    /**
+     * Parses a bound as printed by {@code pg_get_expr}, such as
+     * {@code FOR VALUES FROM ('2026-01-01 00:00:00') TO ('2026-02-01 00:00:00')} or {@code DEFAULT}.
+     */
+    static Partition parsePartition(String name, String bound) {
+        if ("DEFAULT".equals(bound)) {
+            return new Partition(name, null, null, true);
+        }
+        Matcher matcher = RANGE_BOUND.matcher(bound);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Unsupported partition bound for " + name + ": " + bound);
+        }
+        return new Partition(name, parseBoundValue(matcher.group(1)), parseBoundValue(matcher.group(2)), false);
+    }
+
+    private static LocalDateTime parseBoundValue(String value) {
+        if ("MINVALUE".equals(value) || "MAXVALUE".equals(value)) {
+            return null;
+        }
+        return LocalDateTime.parse(value.substring(1, value.length() - 1).replace(' ', 'T'));
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier + '"';
+    }
+}
@@ -0,0 +1,145 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.repository.AuditEventRollupRepository;
+import com.cloudsuites.framework.services.auth.entities.AuditEvent;
+import com.cloudsuites.framework.services.auth.entities.AuditEventRollup.Granularity;
+import com.cloudsuites.framework.services.auth.entities.AuditEventRollup.Key;
+import com.cloudsuites.framework.services.auth.entities.AuditEventRollup.Outcome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps hourly and daily audit event counts per event type, outcome and building.
+ *
+ * {@link #record} runs inside the transaction that inserts a batch of events, so counters are
+ * exact: a batch and its increments commit or roll back together. Each batch is aggregated in
+ * memory first and buckets are incremented in key order, so concurrent writers on several nodes
+ * lock rows in the same order and cannot deadlock.
+ *
+ * Reads are resolved to whole hours: whole days come from daily buckets and the partial days at
+ * either end from hourly ones, so a query touches at most 48 hourly rows plus one per day for
+ * each distinct type, outcome and building.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Component
+public class AuditRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditRollupService.class);
+
+    static final String BUILDING_METADATA_KEY = "buildingId";
+    static final String NO_BUILDING = "";
+    private static final int MAX_BUILDING_ID_LENGTH = 255;
+
+    private static final Comparator<Key> KEY_ORDER = Comparator
+            .comparing(Key::getGranularity)
+            .thenComparing(Key::getBucketStart)
+            .thenComparing(Key::getEventType)
+            .thenComparing(Key::getOutcome)
+            .thenComparing(Key::getBuildingId);
+
+    /**
+     * Bounds of a range read split by bucket granularity: daily buckets cover
+     * {@code [dayStart, dayEnd)}, hourly buckets cover {@code [hourStart, dayStart)} and
+     * {@code [dayEnd, hourEnd)}.
+     */
+    record RangePlan(LocalDateTime hourStart, LocalDateTime dayStart, LocalDateTime dayEnd, LocalDateTime hourEnd) {
+    }
+
+    @Autowired
+    private AuditEventRollupRepository rollupRepository;
+
+    @Value("${cloudsuites.audit.rollups.hourly-retention-days:90}")
+    private int hourlyRetentionDays = 90;
+
+    /**
+     * Adds a batch of events to their buckets. Must be called within the transaction that
+     * persists the events.
+     */
+    public void record(List<AuditEvent> events) {
+        for (Map.Entry<Key, Long> bucket : aggregate(events).entrySet()) {
+            Key key = bucket.getKey();
+            rollupRepository.increment(key.getGranularity().name(), key.getBucketStart(), key.getEventType().name(),
+                    key.getOutcome().name(), key.getBuildingId(), bucket.getValue());
+        }
+    }
+
+    /**
+     * Summed counts for events from {@code start} to {@code end}, both truncated to the hour.
+     *
+     * @return list of [AuthEventType, Outcome, buildingId, count] arrays
+     */
+    public List<Object[]> sumBetween(LocalDateTime start, LocalDateTime end) {
+        RangePlan plan = plan(start, end);
+        return rollupRepository.sumBetween(plan.hourStart(), plan.dayStart(), plan.dayEnd(), plan.hourEnd());
+    }
+
+    @Scheduled(fixedDelayString = "${cloudsuites.audit.rollups.purge-interval-minutes:60}", timeUnit = TimeUnit.MINUTES)
+    public void purgeHourlyRollups() {
+        try {
+            int deleted = rollupRepository.deleteHourlyBefore(LocalDateTime.now().minusDays(hourlyRetentionDays));
+            if (deleted > 0) {
+                logger.debug("Purged {} hourly audit rollups", deleted);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Failed to purge hourly audit rollups: {}", e.getMessage());
+        }
+    }
+
+    static SortedMap<Key, Long> aggregate(List<AuditEvent> events) {
+        SortedMap<Key, Long> buckets = new TreeMap<>(KEY_ORDER);
+        for (AuditEvent event : events) {
+            if (event.getEventType() == null) {
+                continue;
+            }
+            LocalDateTime timestamp = event.getTimestamp() != null ? event.getTimestamp() : event.getCreatedAt();
+            Outcome outcome = event.getSuccess() == null ? Outcome.UNKNOWN
+                    : event.getSuccess() ? Outcome.SUCCESS : Outcome.FAILURE;
+            String building = buildingOf(event);
+            buckets.merge(new Key(Granularity.HOUR, timestamp.truncatedTo(ChronoUnit.HOURS), event.getEventType(),
+                    outcome, building), 1L, Long::sum);
+            buckets.merge(new Key(Granularity.DAY, timestamp.truncatedTo(ChronoUnit.DAYS), event.getEventType(),
+                    outcome, building), 1L, Long::sum);
+        }
+        return buckets;
+    }
+
+    static RangePlan plan(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime hourStart = start.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime hourEnd = end.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime dayStart = hourStart.truncatedTo(ChronoUnit.DAYS);
+        if (dayStart.isBefore(hourStart)) {
+            dayStart = dayStart.plusDays(1);
+        }
+        LocalDateTime dayEnd = hourEnd.truncatedTo(ChronoUnit.DAYS);
+        if (!dayStart.isBefore(dayEnd)) {
+            // No whole day in range: hourly buckets cover all of it
+            return new RangePlan(hourStart, hourEnd, hourEnd, hourEnd);
+        }
+        return new RangePlan(hourStart, dayStart, dayEnd, hourEnd);
+    }
+
+    private static String buildingOf(AuditEvent event) {
+        Object building = event.getMetadata() == null ? null : event.getMetadata().get(BUILDING_METADATA_KEY);
+        if (building == null) {
+            return NO_BUILDING;
+        }
+        String id = building.toString();
+        return id.length() > MAX_BUILDING_ID_LENGTH ? id.substring(0, MAX_BUILDING_ID_LENGTH) : id;
+    }
+}
@@ -1,39 +1,75 @@
 package com.cloudsuites.framework.modules.auth.service.impl;
 
 import com.cloudsuites.framework.services.auth.entities.AuditEvent;
+import com.cloudsuites.framework.modules.auth.repository.AuditEventSpecifications;
 import com.cloudsuites.framework.modules.auth.repository.AuthAuditEventRepository;
 import com.cloudsuites.framework.services.auth.AuditService;
 import com.cloudsuites.framework.services.auth.AuthEventCategory;
 import com.cloudsuites.framework.services.auth.AuthEventType;
 import com.cloudsuites.framework.services.auth.RiskLevel;
+import com.cloudsuites.framework.services.auth.entities.AuditEventPage;
 import com.cloudsuites.framework.services.auth.entities.AuditEventRequest;
+import com.cloudsuites.framework.services.auth.entities.AuditEventRollup;
 import com.cloudsuites.framework.services.auth.entities.AuditEventResponse;
 import com.cloudsuites.framework.services.auth.entities.AuditQueryRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Collections;
+import java.util.function.Consumer;
 
 /**
  * Implementation of AuditService for logging and querying authentication events.
  * 
+ * Events are handed to the {@link AuditEventWriter} and persisted in the background, so logging
+ * never opens a transaction or waits for the database on the request path. The returned
+ * response describes the event as queued. Events are also fed to the {@link AuthAnomalyDetector},
+ * when present, before they are queued.
+ * 
+ * Queries never use OFFSET beyond a shallow cap and never count: reports page by keyset on
+ * {@code (event_timestamp, audit_id)}, which the composite indexes serve as a range scan.
+ * 
  * @author CloudSuites Development Team
  * @since 1.0.0
  */
 @Service
-@Transactional
+@Transactional(propagation = Propagation.SUPPORTS)
 public class AuditServiceImpl implements AuditService {
 
+    static final int MAX_PAGE_SIZE = 1000;
+    static final long MAX_PAGE_OFFSET = 10_000;
+    static final int EXPORT_CHUNK_SIZE = 1000;
+    private static final long DEFAULT_STATISTICS_DAYS = 30;
+    private static final String CURSOR_SEPARATOR = "|";
+
     private final AuthAuditEventRepository auditEventRepository;
+    private final AuditEventWriter auditEventWriter;
+    private final AuditRollupService rollupService;
+
+    @Autowired(required = false)
+    private AuthAnomalyDetector anomalyDetector;
 
-    public AuditServiceImpl(AuthAuditEventRepository auditEventRepository) {
+    public AuditServiceImpl(AuthAuditEventRepository auditEventRepository, AuditEventWriter auditEventWriter,
+                            AuditRollupService rollupService) {
         this.auditEventRepository = auditEventRepository;
+        this.auditEventWriter = auditEventWriter;
+        this.rollupService = rollupService;
     }
 
     @Override
@@ -55,8 +91,11 @@ public class AuditServiceImpl implements AuditService {
         auditEvent.setRiskLevel(request.getRiskLevel() != null ? request.getRiskLevel() : RiskLevel.LOW);
         auditEvent.setTimestamp(LocalDateTime.now());
 
-        AuditEvent savedEvent = auditEventRepository.save(auditEvent);
-        return mapToResponse(savedEvent);
+        if (anomalyDetector != null) {
+            anomalyDetector.observe(auditEvent);
+        }
+        auditEventWriter.submit(auditEvent);
+        return mapToResponse(auditEvent);
     }
 
     @Override
@@ -65,11 +104,11 @@ public class AuditServiceImpl implements AuditService {
             AuthEventType.LOGIN_SUCCESS,
             AuthEventCategory.AUTHENTICATION,
             userId,
-            ipAddress,
-            "Successful login"
+            sessionId,
+            ipAddress
         );
+        request.setDescription("Successful login");
         request.setUserAgent(userAgent);
-        request.setSessionId(sessionId);
         request.setSuccess(true);
         request.setRiskLevel(RiskLevel.LOW);
         
@@ -82,9 +121,10 @@ public class AuditServiceImpl implements AuditService {
             AuthEventType.LOGIN_FAILURE,
             AuthEventCategory.AUTHENTICATION,
             userId,
-            ipAddress,
-            "Failed login attempt"
+            null,
+            ipAddress
         );
+        request.setDescription("Failed login attempt");
         request.setUserAgent(userAgent);
         request.setSuccess(false);
         request.setFailureReason(reason);
@@ -99,11 +139,11 @@ public class AuditServiceImpl implements AuditService {
             AuthEventType.PASSWORD_CHANGE,
             AuthEventCategory.PASSWORD_MANAGEMENT,
             userId,
-            ipAddress,
-            "Password changed"
+            sessionId,
+            ipAddress
         );
+        request.setDescription("Password changed");
         request.setUserAgent(userAgent);
-        request.setSessionId(sessionId);
         request.setSuccess(true);
         request.setRiskLevel(RiskLevel.MEDIUM);
         
@@ -116,9 +156,10 @@ public class AuditServiceImpl implements AuditService {
             success ? AuthEventType.OTP_VERIFY_SUCCESS : AuthEventType.OTP_VERIFY_FAILURE,
             AuthEventCategory.OTP_MANAGEMENT,
             userId,
-            ipAddress,
-            "OTP verification via " + channel
+            null,
+            ipAddress
         );
+        request.setDescription("OTP verification via " + channel);
         request.setUserAgent(userAgent);
         request.setSuccess(success);
         request.setRiskLevel(success ? RiskLevel.LOW : RiskLevel.MEDIUM);
@@ -132,9 +173,10 @@ public class AuditServiceImpl implements AuditService {
             AuthEventType.SUSPICIOUS_ACTIVITY,
             AuthEventCategory.SECURITY,
             userId,
-            ipAddress,
-            description
+            null,
+            ipAddress
         );
+        request.setDescription(description);
         request.setUserAgent(userAgent);
         request.setMetadata(metadata);
         request.setSuccess(false);
@@ -149,10 +191,10 @@ public class AuditServiceImpl implements AuditService {
             AuthEventType.SESSION_EXPIRED,
             AuthEventCategory.SESSION_MANAGEMENT,
             userId,
-            null,
-            "Session expired: " + reason
+            sessionId,
+            null
         );
-        request.setSessionId(sessionId);
+        request.setDescription("Session expired: " + reason);
         request.setFailureReason(reason);
         request.setSuccess(false);
         request.setRiskLevel(RiskLevel.LOW);
@@ -164,26 +206,139 @@ public class AuditServiceImpl implements AuditService {
     public Page<AuditEventResponse> getUserAuditEvents(String userId, List<AuthEventType> eventTypes,
                                                       LocalDateTime startDate, LocalDateTime endDate,
                                                       Pageable pageable) {
-        // Simplified implementation - return empty page for now
-        return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        return readPage(AuditEventSpecifications.userId(userId)
+                .and(AuditEventSpecifications.eventTypes(eventTypes))
+                .and(AuditEventSpecifications.between(startDate, endDate)), pageable);
     }
 
     @Override
     public Page<AuditEventResponse> searchAuditEvents(AuditQueryRequest request, Pageable pageable) {
-        // Simplified implementation - return empty page for now
-        return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        return readPage(AuditEventSpecifications.matching(request), pageable);
     }
 
     @Override
     public Page<AuditEventResponse> getSecurityEvents(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
-        // Simplified implementation - return empty page for now
-        return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        return readPage(AuditEventSpecifications.minimumRiskLevel(RiskLevel.HIGH)
+                .and(AuditEventSpecifications.between(startDate, endDate)), pageable);
+    }
+
+    @Override
+    public AuditEventPage findAuditEvents(AuditQueryRequest request, String cursor, int limit) {
+        Window<AuditEvent> window = scroll(AuditEventSpecifications.matching(request), decodeCursor(cursor),
+                Math.clamp(limit, 1, MAX_PAGE_SIZE));
+        List<AuditEvent> events = window.getContent();
+        String nextCursor = window.hasNext() && !events.isEmpty() ? encodeCursor(events.get(events.size() - 1)) : null;
+        return new AuditEventPage(events.stream().map(this::mapToResponse).toList(), nextCursor);
+    }
+
+    @Override
+    public long exportAuditEvents(AuditQueryRequest request, Consumer<AuditEventResponse> consumer) {
+        Specification<AuditEvent> spec = AuditEventSpecifications.matching(request);
+        ScrollPosition position = ScrollPosition.keyset();
+        long exported = 0;
+        while (true) {
+            // Each chunk runs in its own read-only transaction, so nothing accumulates in a persistence context
+            Window<AuditEvent> window = scroll(spec, position, EXPORT_CHUNK_SIZE);
+            List<AuditEvent> events = window.getContent();
+            for (AuditEvent event : events) {
+                consumer.accept(mapToResponse(event));
+            }
+            exported += events.size();
+            if (!window.hasNext() || events.isEmpty()) {
+                return exported;
+            }
+            position = after(events.get(events.size() - 1));
+        }
     }
 
+    /**
+     * Reads the hourly and daily rollups rather than the events table, so the cost depends on
+     * the number of buckets in range, not the number of events. Bounds are truncated to the hour.
+     */
     @Override
     public Map<String, Object> getAuditStatistics(LocalDateTime startDate, LocalDateTime endDate) {
-        // Simplified implementation - return empty map for now
-        return Collections.emptyMap();
+        LocalDateTime end = endDate != null ? endDate : LocalDateTime.now();
+        LocalDateTime start = startDate != null ? startDate : end.minusDays(DEFAULT_STATISTICS_DAYS);
+
+        Map<String, Long> eventsByType = new LinkedHashMap<>();
+        Map<String, Long> eventsByOutcome = new LinkedHashMap<>();
+        Map<String, Long> eventsByBuilding = new LinkedHashMap<>();
+        long totalEvents = 0;
+        for (Object[] row : rollupService.sumBetween(start, end)) {
+            long count = ((Number) row[3]).longValue();
+            eventsByType.merge(((AuthEventType) row[0]).name(), count, Long::sum);
+            eventsByOutcome.merge(((AuditEventRollup.Outcome) row[1]).name(), count, Long::sum);
+            String building = (String) row[2];
+            if (!building.isEmpty()) {
+                eventsByBuilding.merge(building, count, Long::sum);
+            }
+            totalEvents += count;
+        }
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("startDate", start);
+        statistics.put("endDate", end);
+        statistics.put("totalEvents", totalEvents);
+        statistics.put("successfulEvents", eventsByOutcome.getOrDefault(AuditEventRollup.Outcome.SUCCESS.name(), 0L));
+        statistics.put("failedEvents", eventsByOutcome.getOrDefault(AuditEventRollup.Outcome.FAILURE.name(), 0L));
+        statistics.put("eventsByType", eventsByType);
+        statistics.put("eventsByOutcome", eventsByOutcome);
+        statistics.put("eventsByBuilding", eventsByBuilding);
+        return statistics;
+    }
+
+    /**
+     * Reads one offset page without a count query: the total reported is exact on the last page
+     * and otherwise only says that more follow. Offsets are capped, since every skipped row is
+     * still read; deeper reads go through {@link #findAuditEvents}.
+     */
+    private Page<AuditEventResponse> readPage(Specification<AuditEvent> spec, Pageable pageable) {
+        if (pageable.getOffset() > MAX_PAGE_OFFSET) {
+            throw new IllegalArgumentException("Page offset exceeds " + MAX_PAGE_OFFSET + "; use cursor pagination");
+        }
+        int size = Math.clamp(pageable.getPageSize(), 1, MAX_PAGE_SIZE);
+        // An offset position resumes after the row it names, so a page starting at row n resumes after row n - 1
+        long offset = pageable.getOffset();
+        Window<AuditEvent> window = scroll(spec, offset == 0 ? ScrollPosition.offset() : ScrollPosition.offset(offset - 1), size);
+        List<AuditEventResponse> content = window.getContent().stream().map(this::mapToResponse).toList();
+        long total = offset + content.size() + (window.hasNext() ? 1 : 0);
+        return new PageImpl<>(content, PageRequest.of(pageable.getPageNumber(), size, AuditEventSpecifications.KEYSET_ORDER), total);
+    }
+
+    private Window<AuditEvent> scroll(Specification<AuditEvent> spec, ScrollPosition position, int limit) {
+        return auditEventRepository.findBy(spec, query -> query
+                .sortBy(AuditEventSpecifications.KEYSET_ORDER)
+                .limit(limit)
+                .scroll(position));
+    }
+
+    private static KeysetScrollPosition after(AuditEvent event) {
+        return ScrollPosition.forward(Map.of("timestamp", event.getTimestamp(), "eventId", event.getEventId()));
+    }
+
+    /**
+     * Cursors carry the keyset of the last event returned, base64url encoded as
+     * {@code timestamp|eventId}.
+     */
+    static String encodeCursor(AuditEvent last) {
+        String keyset = last.getTimestamp() + CURSOR_SEPARATOR + last.getEventId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keyset.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetScrollPosition decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String keyset = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = keyset.indexOf(CURSOR_SEPARATOR);
+            AuditEvent last = new AuditEvent();
+            last.setTimestamp(LocalDateTime.parse(keyset.substring(0, separator)));
+            last.setEventId(keyset.substring(separator + 1));
+            return after(last);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid audit cursor", e);
+        }
     }
 
     private AuditEventResponse mapToResponse(AuditEvent event) {
@@ -196,7 +351,7 @@ public class AuditServiceImpl implements AuditService {
         response.setUserAgent(event.getUserAgent());
         response.setSessionId(event.getSessionId());
         response.setDescription(event.getDescription());
-        response.setSuccess(event.getSuccess());
+        response.setSuccess(Boolean.TRUE.equals(event.getSuccess()));
         response.setFailureReason(event.getFailureReason());
         response.setGeolocation(event.getGeolocation());
         response.setDeviceType(event.getDeviceType());
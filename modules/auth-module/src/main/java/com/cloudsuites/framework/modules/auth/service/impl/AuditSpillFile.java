@@ -0,0 +1,284 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.services.auth.AuthEventCategory;
+import com.cloudsuites.framework.services.auth.AuthEventType;
+import com.cloudsuites.framework.services.auth.RiskLevel;
+import com.cloudsuites.framework.services.auth.entities.AuditEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local overflow file for audit events, one JSON object per line. Events are appended when the
+ * writer cannot keep up or the database is failing, and replayed once it has caught up. Replay
+ * first moves the file aside, so new spills during a replay go to a fresh file.
+ *
+ * A batch the sink keeps rejecting would otherwise be replayed forever, so once the same batch
+ * has failed {@code maxReplayAttempts} times in a row it is moved to a dead-letter file next to
+ * the spill file ({@code .dead}) and replay carries on with the events after it. Dead-lettered
+ * events are kept for an operator to inspect; rename the file to the spill path to retry them.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+class AuditSpillFile {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditSpillFile.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE_REF = new TypeReference<>() {};
+
+    private final Path path;
+    private final Path replayPath;
+    private final Path deadLetterPath;
+    private final int maxReplayAttempts;
+    private BufferedWriter writer;
+    private int headFailures;
+
+    /**
+     * Outcome of one replay: events written to the sink and events moved to the dead-letter file.
+     */
+    record ReplayResult(long replayed, long quarantined) {
+    }
+
+    AuditSpillFile(Path path, int maxReplayAttempts) {
+        this.path = path;
+        this.replayPath = path.resolveSibling(path.getFileName() + ".replay");
+        this.deadLetterPath = path.resolveSibling(path.getFileName() + ".dead");
+        this.maxReplayAttempts = maxReplayAttempts;
+    }
+
+    /**
+     * Appends events and flushes them to the OS before returning.
+     */
+    synchronized void append(List<AuditEvent> events) throws IOException {
+        List<String> lines = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            lines.add(objectMapper.writeValueAsString(toMap(event)));
+        }
+        appendLines(lines);
+    }
+
+    /**
+     * Takes over a spill file left by another process, appending its events to this one.
+     * The file is first moved to a name private to this process, so when several processes
+     * start at once only one of them adopts it.
+     *
+     * @return the number of events adopted, or 0 if another process claimed the file first
+     */
+    long adopt(Path orphan) throws IOException {
+        Path claimed = path.resolveSibling(path.getFileName() + ".adopting");
+        try {
+            Files.move(orphan, claimed, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        List<String> lines = Files.readAllLines(claimed, StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.isBlank())
+                .toList();
+        synchronized (this) {
+            appendLines(lines);
+        }
+        Files.delete(claimed);
+        return lines.size();
+    }
+
+    boolean hasPending() {
+        return Files.exists(replayPath) || Files.exists(path);
+    }
+
+    /**
+     * Passes spilled events to the sink in batches and deletes them once all were written.
+     * If the sink fails, the remaining events stay on disk for the next replay; a batch
+     * that failed part-way may then be written twice. A batch that has now failed
+     * {@code maxReplayAttempts} times in a row is dead-lettered instead, and the call
+     * returns normally so the caller can carry on with the rest.
+     *
+     * @return the events replayed and dead-lettered
+     * @throws RuntimeException the sink's error, if the failed batch stays pending
+     */
+    ReplayResult replay(AuditEventSink sink, int batchSize) throws IOException {
+        synchronized (this) {
+            if (!Files.exists(replayPath)) {
+                if (!Files.exists(path)) {
+                    return new ReplayResult(0, 0);
+                }
+                closeWriter();
+                Files.move(path, replayPath, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        long replayed = 0;
+        long doneLines = 0;
+        int batchLines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(replayPath, StandardCharsets.UTF_8)) {
+            List<AuditEvent> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batchLines++;
+                try {
+                    batch.add(fromMap(objectMapper.readValue(line, MAP_TYPE_REF)));
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Skipping unreadable spilled audit event: {}", e.getMessage());
+                }
+                if (batch.size() == batchSize) {
+                    replayed += writeReplayed(sink, batch);
+                    doneLines += batchLines;
+                    batchLines = 0;
+                }
+            }
+            replayed += writeReplayed(sink, batch);
+        } catch (RuntimeException e) {
+            // The failed batch is now at the head of the file; count how often it has failed there
+            headFailures = doneLines > 0 ? 1 : headFailures + 1;
+            if (headFailures < maxReplayAttempts) {
+                rewriteRemaining(doneLines, 0);
+                throw e;
+            }
+            headFailures = 0;
+            long quarantined = rewriteRemaining(doneLines, batchLines);
+            logger.error("Moved {} audit events to {} after {} failed replays: {}",
+                    quarantined, deadLetterPath, maxReplayAttempts, e.getMessage());
+            return new ReplayResult(replayed, quarantined);
+        }
+        headFailures = 0;
+        Files.delete(replayPath);
+        return new ReplayResult(replayed, 0);
+    }
+
+    synchronized void close() {
+        closeWriter();
+    }
+
+    private long writeReplayed(AuditEventSink sink, List<AuditEvent> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        sink.write(batch);
+        int written = batch.size();
+        batch.clear();
+        return written;
+    }
+
+    /**
+     * Drops the lines already written and moves the next {@code quarantine} lines to the
+     * dead-letter file, so a failed replay resumes where it stopped.
+     *
+     * @return the number of lines dead-lettered
+     */
+    private long rewriteRemaining(long written, long quarantine) throws IOException {
+        List<String> lines = Files.readAllLines(replayPath, StandardCharsets.UTF_8);
+        List<String> dead = new ArrayList<>();
+        List<String> remaining = new ArrayList<>();
+        long seen = 0;
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (seen >= written + quarantine) {
+                remaining.add(line);
+            } else if (seen >= written) {
+                dead.add(line);
+            }
+            seen++;
+        }
+        if (!dead.isEmpty()) {
+            Files.write(deadLetterPath, dead, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        Files.write(replayPath, remaining, StandardCharsets.UTF_8);
+        return dead.size();
+    }
+
+    private void appendLines(List<String> lines) throws IOException {
+        if (writer == null) {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        for (String line : lines) {
+            writer.write(line);
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close audit spill file {}: {}", path, e.getMessage());
+        }
+        writer = null;
+    }
+
+    private static Map<String, Object> toMap(AuditEvent event) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("eventId", event.getEventId());
+        map.put("userId", event.getUserId());
+        map.put("eventType", event.getEventType() != null ? event.getEventType().name() : null);
+        map.put("category", event.getCategory() != null ? event.getCategory().name() : null);
+        map.put("riskLevel", event.getRiskLevel() != null ? event.getRiskLevel().name() : null);
+        map.put("timestamp", event.getTimestamp() != null ? event.getTimestamp().toString() : null);
+        map.put("ipAddress", event.getIpAddress());
+        map.put("userAgent", event.getUserAgent());
+        map.put("sessionId", event.getSessionId());
+        map.put("description", event.getDescription());
+        map.put("success", event.getSuccess());
+        map.put("failureReason", event.getFailureReason());
+        map.put("geolocation", event.getGeolocation());
+        map.put("deviceType", event.getDeviceType());
+        map.put("metadata", event.getMetadata());
+        map.put("createdAt", event.getCreatedAt() != null ? event.getCreatedAt().toString() : null);
+        map.put("createdBy", event.getCreatedBy());
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AuditEvent fromMap(Map<String, Object> map) {
+        AuditEvent event = new AuditEvent();
+        event.setEventId((String) map.get("eventId"));
+        event.setUserId((String) map.get("userId"));
+        event.setEventType(map.get("eventType") != null ? AuthEventType.valueOf((String) map.get("eventType")) : null);
+        event.setCategory(map.get("category") != null ? AuthEventCategory.valueOf((String) map.get("category")) : null);
+        event.setRiskLevel(map.get("riskLevel") != null ? RiskLevel.valueOf((String) map.get("riskLevel")) : null);
+        event.setTimestamp(map.get("timestamp") != null ? LocalDateTime.parse((String) map.get("timestamp")) : null);
+        event.setIpAddress((String) map.get("ipAddress"));
+        event.setUserAgent((String) map.get("userAgent"));
+        event.setSessionId((String) map.get("sessionId"));
+        event.setDescription((String) map.get("description"));
+        event.setSuccess((Boolean) map.get("success"));
+        event.setFailureReason((String) map.get("failureReason"));
+        event.setGeolocation((String) map.get("geolocation"));
+        event.setDeviceType((String) map.get("deviceType"));
+        event.setMetadata((Map<String, Object>) map.get("metadata"));
+        if (map.get("createdAt") != null) {
+            event.setCreatedAt(LocalDateTime.parse((String) map.get("createdAt")));
+        }
+        event.setCreatedBy((String) map.get("createdBy"));
+        return event;
+    }
+}
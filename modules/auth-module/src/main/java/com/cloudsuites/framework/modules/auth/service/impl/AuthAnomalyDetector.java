@@ -0,0 +1,370 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.common.utils.BloomFilter;
+import com.cloudsuites.framework.modules.common.utils.HeavyHitters;
+import com.cloudsuites.framework.modules.common.utils.SlidingWindowBloomFilter;
+import com.cloudsuites.framework.modules.common.utils.SlidingWindowCountMinSketch;
+import com.cloudsuites.framework.services.auth.AuthEventType;
+import com.cloudsuites.framework.services.auth.entities.AuditEvent;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-process streaming detector for credential stuffing and account takeover patterns.
+ *
+ * Every login and OTP verification seen by the audit service is counted in sliding-window
+ * count-min sketches per IP address, per subnet (/24 for IPv4, /64 for IPv6) and per account,
+ * and new (IP, account) pairs are counted per IP to measure account fan-out. Successful logins
+ * carrying a "lat,lon" geolocation are checked for impossible travel against the account's
+ * previous location. Sketches, the pair filter and the location table are all sized up front,
+ * so memory stays fixed however many keys an attacker cycles through.
+ *
+ * Keys crossing a threshold are flagged for a fixed time:
+ * - IP and subnet flags block the address on rate limited endpoints, see {@link #blockedForSeconds}
+ * - account flags ask for step-up verification of the account's devices rather than blocking,
+ *   so an attacker cannot lock a victim out by failing logins against them
+ *
+ * @author CloudSuites Platform Team
+ * @since 1.0.0
+ */
+@Component
+public class AuthAnomalyDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthAnomalyDetector.class);
+
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+    private static final Pattern IPV6 = Pattern.compile("[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    static final String IP_PREFIX = "ip:";
+    static final String SUBNET_PREFIX = "subnet:";
+    static final String ACCOUNT_PREFIX = "account:";
+
+    /**
+     * Key dimensions tracked by the detector.
+     */
+    public enum Dimension { IP, SUBNET, ACCOUNT }
+
+    @Value("${cloudsuites.anomaly-detection.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${cloudsuites.anomaly-detection.window-seconds:300}")
+    private int windowSeconds = 300;
+
+    @Value("${cloudsuites.anomaly-detection.buckets:10}")
+    private int buckets = 10;
+
+    @Value("${cloudsuites.anomaly-detection.sketch.depth:4}")
+    private int sketchDepth = 4;
+
+    @Value("${cloudsuites.anomaly-detection.sketch.width:4096}")
+    private int sketchWidth = 4096;
+
+    @Value("${cloudsuites.anomaly-detection.pair-filter-capacity:100000}")
+    private long pairFilterCapacity = 100000;
+
+    @Value("${cloudsuites.anomaly-detection.heavy-hitters:20}")
+    private int heavyHitterCount = 20;
+
+    @Value("${cloudsuites.anomaly-detection.thresholds.ip-failures:50}")
+    private int ipFailureThreshold = 50;
+
+    @Value("${cloudsuites.anomaly-detection.thresholds.subnet-failures:200}")
+    private int subnetFailureThreshold = 200;
+
+    @Value("${cloudsuites.anomaly-detection.thresholds.account-failures:20}")
+    private int accountFailureThreshold = 20;
+
+    @Value("${cloudsuites.anomaly-detection.thresholds.ip-account-fan-out:10}")
+    private int ipFanOutThreshold = 10;
+
+    @Value("${cloudsuites.anomaly-detection.travel.slots:65536}")
+    private int travelSlots = 65536;
+
+    @Value("${cloudsuites.anomaly-detection.travel.max-speed-kmh:1000}")
+    private double maxTravelSpeedKmh = 1000;
+
+    @Value("${cloudsuites.anomaly-detection.travel.min-distance-km:500}")
+    private double minTravelDistanceKm = 500;
+
+    @Value("${cloudsuites.anomaly-detection.flag-ttl-seconds:900}")
+    private int flagTtlSeconds = 900;
+
+    @Value("${cloudsuites.anomaly-detection.max-flags:10000}")
+    private int maxFlags = 10000;
+
+    private SlidingWindowCountMinSketch ipFailures;
+    private SlidingWindowCountMinSketch subnetFailures;
+    private SlidingWindowCountMinSketch accountFailures;
+    private SlidingWindowCountMinSketch ipAccountFanOut;
+    private SlidingWindowBloomFilter seenPairs;
+    private final Map<Dimension, HeavyHitters> heavyHitters = new ConcurrentHashMap<>();
+    private TravelTable travelTable;
+
+    private final Map<String, Long> flags = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        Duration window = Duration.ofSeconds(windowSeconds);
+        ipFailures = new SlidingWindowCountMinSketch(sketchDepth, sketchWidth, window, buckets);
+        subnetFailures = new SlidingWindowCountMinSketch(sketchDepth, sketchWidth, window, buckets);
+        accountFailures = new SlidingWindowCountMinSketch(sketchDepth, sketchWidth, window, buckets);
+        ipAccountFanOut = new SlidingWindowCountMinSketch(sketchDepth, sketchWidth, window, buckets);
+        seenPairs = new SlidingWindowBloomFilter(Math.max(1, pairFilterCapacity / buckets), 0.01, window, buckets);
+        for (Dimension dimension : Dimension.values()) {
+            heavyHitters.put(dimension, new HeavyHitters(heavyHitterCount));
+        }
+        travelTable = new TravelTable(travelSlots);
+        log.info("Anomaly detection {} with a {}s window, sketches of {}x{} in {} buckets",
+                enabled ? "enabled" : "disabled", windowSeconds, sketchDepth, sketchWidth, buckets);
+    }
+
+    /**
+     * Feeds an audit event to the detector. Only login and OTP verification outcomes are counted.
+     */
+    public void observe(AuditEvent event) {
+        observe(event, System.currentTimeMillis());
+    }
+
+    void observe(AuditEvent event, long now) {
+        if (!enabled || event == null || event.getEventType() == null) {
+            return;
+        }
+        AuthEventType type = event.getEventType();
+        boolean failure = type == AuthEventType.LOGIN_FAILURE || type == AuthEventType.OTP_VERIFY_FAILURE;
+        boolean success = type == AuthEventType.LOGIN_SUCCESS || type == AuthEventType.OTP_VERIFY_SUCCESS;
+        if (!failure && !success) {
+            return;
+        }
+        String ip = event.getIpAddress();
+        String userId = event.getUserId();
+
+        if (ip != null) {
+            if (failure) {
+                count(ipFailures, Dimension.IP, ip, ipFailureThreshold, IP_PREFIX + ip, "failed attempts", now);
+                String subnet = subnetOf(ip);
+                if (subnet != null) {
+                    count(subnetFailures, Dimension.SUBNET, subnet, subnetFailureThreshold, SUBNET_PREFIX + subnet,
+                            "failed attempts", now);
+                }
+            }
+            if (userId != null && seenPairs.putIfAbsent(ip + '|' + userId, now)) {
+                long accounts = ipAccountFanOut.add(ip, now);
+                if (accounts >= ipFanOutThreshold) {
+                    flag(IP_PREFIX + ip, "attempts against " + accounts + " accounts", now);
+                }
+            }
+        }
+        if (userId != null) {
+            if (failure) {
+                count(accountFailures, Dimension.ACCOUNT, userId, accountFailureThreshold, ACCOUNT_PREFIX + userId,
+                        "failed attempts", now);
+            } else if (type == AuthEventType.LOGIN_SUCCESS) {
+                double[] location = parseLocation(event.getGeolocation());
+                if (location != null) {
+                    double speed = travelTable.record(userId, location[0], location[1], now, minTravelDistanceKm);
+                    if (speed > maxTravelSpeedKmh) {
+                        flag(ACCOUNT_PREFIX + userId, String.format("impossible travel at %.0f km/h", speed), now);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Seconds an address stays blocked because it or its subnet is flagged, or 0 if it is not.
+     */
+    public long blockedForSeconds(String ipAddress) {
+        if (!enabled || ipAddress == null || flags.isEmpty()) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        long remaining = remainingMillis(IP_PREFIX + ipAddress, now);
+        String subnet = subnetOf(ipAddress);
+        if (subnet != null) {
+            remaining = Math.max(remaining, remainingMillis(SUBNET_PREFIX + subnet, now));
+        }
+        return remaining <= 0 ? 0 : Math.max(1, remaining / 1000);
+    }
+
+    /**
+     * Whether an account is flagged for failure spikes or impossible travel.
+     */
+    public boolean isAccountFlagged(String userId) {
+        return enabled && userId != null && remainingMillis(ACCOUNT_PREFIX + userId, System.currentTimeMillis()) > 0;
+    }
+
+    /**
+     * Keys with the most failed attempts in the current window, largest first.
+     */
+    public List<Map.Entry<String, Long>> getHeavyHitters(Dimension dimension) {
+        long now = System.currentTimeMillis();
+        SlidingWindowCountMinSketch sketch = switch (dimension) {
+            case IP -> ipFailures;
+            case SUBNET -> subnetFailures;
+            case ACCOUNT -> accountFailures;
+        };
+        return heavyHitters.get(dimension).top(key -> sketch.estimate(key, now));
+    }
+
+    /**
+     * Gets the number of active flags.
+     */
+    public int getFlagCount() {
+        return flags.size();
+    }
+
+    @Scheduled(fixedDelayString = "${cloudsuites.anomaly-detection.purge-interval-ms:60000}")
+    public void purgeExpiredFlags() {
+        long now = System.currentTimeMillis();
+        flags.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    private void count(SlidingWindowCountMinSketch sketch, Dimension dimension, String key, int threshold,
+                       String flagKey, String reason, long now) {
+        long[] hash = BloomFilter.hash(key);
+        long estimate = sketch.add(hash, now);
+        heavyHitters.get(dimension).offer(key, estimate);
+        if (estimate >= threshold) {
+            flag(flagKey, estimate + " " + reason, now);
+        }
+    }
+
+    private void flag(String key, String reason, long now) {
+        long expiresAt = now + flagTtlSeconds * 1000L;
+        if (!flags.containsKey(key) && flags.size() >= maxFlags) {
+            flags.values().removeIf(existing -> existing <= now);
+            if (flags.size() >= maxFlags) {
+                log.debug("Anomaly flag limit of {} reached, not flagging {}", maxFlags, key);
+                return;
+            }
+        }
+        Long previous = flags.put(key, expiresAt);
+        if (previous == null || previous <= now) {
+            log.warn("Flagged {} for {}s: {}", key, flagTtlSeconds, reason);
+        }
+    }
+
+    private long remainingMillis(String key, long now) {
+        Long expiresAt = flags.get(key);
+        return expiresAt == null ? 0 : expiresAt - now;
+    }
+
+    /**
+     * Network prefix of an address literal: /24 for IPv4, /64 for IPv6. Returns null for anything
+     * that is not an address literal, so no name is ever resolved.
+     */
+    static String subnetOf(String ip) {
+        if (IPV4.matcher(ip).matches()) {
+            return ip.substring(0, ip.lastIndexOf('.')) + ".0/24";
+        }
+        if (!IPV6.matcher(ip).matches()) {
+            return null;
+        }
+        try {
+            byte[] address = InetAddress.getByName(ip).getAddress();
+            if (address.length != 16) {
+                return null;
+            }
+            StringBuilder prefix = new StringBuilder();
+            for (int i = 0; i < 8; i += 2) {
+                prefix.append(Integer.toHexString(((address[i] & 0xff) << 8) | (address[i + 1] & 0xff))).append(':');
+            }
+            return prefix.append(":/64").toString();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses a "lat,lon" geolocation, or returns null if it is absent or not in that form.
+     */
+    static double[] parseLocation(String geolocation) {
+        if (geolocation == null) {
+            return null;
+        }
+        int comma = geolocation.indexOf(',');
+        if (comma < 0) {
+            return null;
+        }
+        try {
+            double latitude = Double.parseDouble(geolocation.substring(0, comma).trim());
+            double longitude = Double.parseDouble(geolocation.substring(comma + 1).trim());
+            if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+                return null;
+            }
+            return new double[]{latitude, longitude};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Last login location per account in a fixed number of hashed slots. Accounts that collide
+     * on a slot overwrite each other, which can only miss a travel anomaly, never invent one.
+     */
+    static final class TravelTable {
+
+        private static final int STRIPES = 64;
+
+        private final long[] accountHashes;
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final long[] seenAt;
+        private final Object[] locks = new Object[STRIPES];
+
+        TravelTable(int slots) {
+            accountHashes = new long[slots];
+            latitudes = new double[slots];
+            longitudes = new double[slots];
+            seenAt = new long[slots];
+            for (int i = 0; i < STRIPES; i++) {
+                locks[i] = new Object();
+            }
+        }
+
+        /**
+         * Stores a login location and returns the speed in km/h needed to get there from the
+         * previous one, or 0 if there is none or the distance is under {@code minDistanceKm}.
+         */
+        double record(String userId, double latitude, double longitude, long now, double minDistanceKm) {
+            long hash = BloomFilter.hash(userId)[0];
+            int slot = (int) Math.floorMod(hash, (long) accountHashes.length);
+            synchronized (locks[slot % STRIPES]) {
+                double speed = 0;
+                if (seenAt[slot] != 0 && accountHashes[slot] == hash) {
+                    double distance = distanceKm(latitudes[slot], longitudes[slot], latitude, longitude);
+                    if (distance >= minDistanceKm) {
+                        double hours = Math.max(now - seenAt[slot], 60_000L) / 3_600_000.0;
+                        speed = distance / hours;
+                    }
+                }
+                accountHashes[slot] = hash;
+                latitudes[slot] = latitude;
+                longitudes[slot] = longitude;
+                seenAt[slot] = now;
+                return speed;
+            }
+        }
+    }
+}
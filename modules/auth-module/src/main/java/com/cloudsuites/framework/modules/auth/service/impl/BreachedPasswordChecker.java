@@ -0,0 +1,82 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.common.utils.MappedBloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Answers whether a password appears in a known breach corpus. The corpus is a Bloom filter
+ * built offline by {@link BreachedPasswordFilterBuilder} and memory-mapped at startup, so a
+ * lookup is one hash plus a handful of page-cache reads and memory use does not grow with the
+ * list. A small built-in list is always checked, so the most common passwords are rejected even
+ * without a filter file.
+ *
+ * Passwords are compared lower-cased. The filter can report false positives at its configured
+ * rate, which only ever rejects a password; it never lets a listed one through.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Component
+public class BreachedPasswordChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(BreachedPasswordChecker.class);
+
+    private static final Set<String> BUILT_IN = Set.of(
+            "password", "123456", "12345678", "qwerty", "abc123", "password123",
+            "admin", "letmein", "welcome", "monkey", "dragon", "master",
+            "trustno1", "111111", "iloveyou", "sunshine", "princess", "password1",
+            "123123", "654321", "superman", "qwerty123", "football", "baseball");
+
+    @Value("${cloudsuites.security.password.breached.filter-path:}")
+    private String filterPath = "";
+
+    private volatile MappedBloomFilter filter;
+
+    @PostConstruct
+    public void init() {
+        if (!StringUtils.hasText(filterPath)) {
+            logger.info("No breached password filter configured, checking the built-in list only");
+            return;
+        }
+        try {
+            load(Path.of(filterPath));
+        } catch (IOException e) {
+            logger.warn("Could not load breached password filter {}, checking the built-in list only: {}",
+                    filterPath, e.getMessage());
+        }
+    }
+
+    void load(Path path) throws IOException {
+        MappedBloomFilter loaded = MappedBloomFilter.open(path);
+        filter = loaded;
+        logger.info("Mapped breached password filter {} ({} bits, {} hash functions)",
+                path, loaded.getBitCount(), loaded.getHashFunctions());
+    }
+
+    public boolean isBreached(String password) {
+        String normalized = normalize(password);
+        if (BUILT_IN.contains(normalized)) {
+            return true;
+        }
+        MappedBloomFilter current = filter;
+        return current != null && current.mightContain(normalized);
+    }
+
+    public boolean isFilterLoaded() {
+        return filter != null;
+    }
+
+    static String normalize(String password) {
+        return password.toLowerCase(Locale.ROOT);
+    }
+}
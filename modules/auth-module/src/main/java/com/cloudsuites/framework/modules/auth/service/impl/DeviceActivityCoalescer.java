@@ -0,0 +1,184 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.repository.DeviceFingerprintRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind buffer for device fingerprint activity.
+ * Usage is accumulated in memory per fingerprint (latest use, usage delta, latest IP) and
+ * flushed periodically as a single UNNEST-based UPDATE per batch that adds the delta to the
+ * stored count, instead of a find + save on device_fingerprints per authenticated request.
+ * Batches are written in fingerprint order so concurrent flushes on several nodes lock rows
+ * in the same order.
+ * Reaching {@code max-pending} hands an early flush to a background thread; the request
+ * thread never writes. Until that flush drains the buffer, uses of devices already pending
+ * are merged and uses of new devices are dropped.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeviceActivityCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceActivityCoalescer.class);
+
+    private final DeviceFingerprintRepository deviceFingerprintRepository;
+
+    private final Map<String, PendingActivity> pendingActivity = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean earlyFlushRequested = new AtomicBoolean();
+
+    private final ExecutorService earlyFlusher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("device-activity-flush").daemon(true).factory());
+
+    @Value("${cloudsuites.device-trust.activity.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${cloudsuites.device-trust.activity.max-pending:50000}")
+    private int maxPending = 50000;
+
+    /**
+     * Records one use of a device. Nothing is written until the next flush.
+     */
+    public void recordActivity(String deviceFingerprint, String ipAddress) {
+        if (deviceFingerprint == null) {
+            return;
+        }
+        PendingActivity activity = new PendingActivity(LocalDateTime.now(), 1, ipAddress);
+        if (pendingActivity.size() < maxPending) {
+            pendingActivity.merge(deviceFingerprint, activity, PendingActivity::mergeWith);
+        } else if (pendingActivity.computeIfPresent(deviceFingerprint, (fingerprint, pending) -> pending.mergeWith(activity)) == null) {
+            log.debug("Dropped activity for device {}, {} devices already pending", deviceFingerprint, maxPending);
+        }
+
+        if (pendingActivity.size() >= maxPending) {
+            requestEarlyFlush();
+        }
+    }
+
+    /**
+     * Periodically persists coalesced activity.
+     */
+    @Scheduled(fixedDelayString = "${cloudsuites.device-trust.activity.flush-interval-ms:10000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * Drains all pending activity and writes it in batches.
+     * Entries from a failed batch are put back so their usage is counted on the next flush.
+     *
+     * @return Number of device rows actually updated
+     */
+    public int flush() {
+        if (pendingActivity.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<String, PendingActivity>> drained = new ArrayList<>();
+        for (String fingerprint : pendingActivity.keySet()) {
+            PendingActivity activity = pendingActivity.remove(fingerprint);
+            if (activity != null) {
+                drained.add(Map.entry(fingerprint, activity));
+            }
+        }
+        drained.sort(Map.Entry.comparingByKey());
+
+        int updated = 0;
+        for (int from = 0; from < drained.size(); from += batchSize) {
+            List<Map.Entry<String, PendingActivity>> batch = drained.subList(from, Math.min(from + batchSize, drained.size()));
+            try {
+                updated += writeBatch(batch);
+            } catch (Exception e) {
+                log.error("Failed to flush activity for {} devices, will retry on next flush", batch.size(), e);
+                batch.forEach(entry -> pendingActivity.merge(entry.getKey(), entry.getValue(), PendingActivity::mergeWith));
+            }
+        }
+
+        log.debug("Flushed activity for {} devices ({} rows updated)", drained.size(), updated);
+        return updated;
+    }
+
+    /**
+     * Gets the number of devices with activity waiting to be flushed.
+     */
+    public int getPendingCount() {
+        return pendingActivity.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        earlyFlusher.shutdown();
+        log.info("Flushing {} pending device activity entries before shutdown", pendingActivity.size());
+        flush();
+    }
+
+    private void requestEarlyFlush() {
+        if (!earlyFlushRequested.compareAndSet(false, true)) {
+            return;
+        }
+        log.warn("Pending device activity reached {} entries, flushing early", maxPending);
+        try {
+            earlyFlusher.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    earlyFlushRequested.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the shutdown flush picks the activity up
+            earlyFlushRequested.set(false);
+        }
+    }
+
+    private int writeBatch(List<Map.Entry<String, PendingActivity>> batch) {
+        int size = batch.size();
+        String[] fingerprints = new String[size];
+        LocalDateTime[] lastUsedTimes = new LocalDateTime[size];
+        Long[] usageDeltas = new Long[size];
+        String[] ipAddresses = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            Map.Entry<String, PendingActivity> entry = batch.get(i);
+            PendingActivity activity = entry.getValue();
+            fingerprints[i] = entry.getKey();
+            lastUsedTimes[i] = activity.lastUsedAt();
+            usageDeltas[i] = activity.usageDelta();
+            ipAddresses[i] = activity.ipAddress();
+        }
+
+        return deviceFingerprintRepository.batchIncrementDeviceActivity(
+                fingerprints, lastUsedTimes, usageDeltas, ipAddresses);
+    }
+
+    /**
+     * Usage of a device since the last flush. Uses are summed; the IP address of the most
+     * recent use that supplied one wins.
+     */
+    record PendingActivity(LocalDateTime lastUsedAt, long usageDelta, String ipAddress) {
+
+        PendingActivity mergeWith(PendingActivity other) {
+            PendingActivity newer = other.lastUsedAt.isAfter(lastUsedAt) ? other : this;
+            PendingActivity older = newer == this ? other : this;
+            return new PendingActivity(
+                    newer.lastUsedAt,
+                    usageDelta + other.usageDelta,
+                    newer.ipAddress != null ? newer.ipAddress : older.ipAddress);
+        }
+    }
+}
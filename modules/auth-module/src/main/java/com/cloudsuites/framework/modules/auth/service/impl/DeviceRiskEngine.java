@@ -0,0 +1,431 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.repository.AuthAuditEventRepository;
+import com.cloudsuites.framework.modules.auth.repository.DeviceFingerprintRepository;
+import com.cloudsuites.framework.modules.auth.service.impl.DeviceRiskScorer.DeviceRiskFeatures;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Computes device risk scores and keeps the set of flagged fingerprints in memory so login can
+ * check it in O(1) without touching the database.
+ *
+ * Scores are computed two ways:
+ * - incrementally, from a small sliding-window state per fingerprint updated on every attempt;
+ *   a device crossing the risk threshold is flagged immediately and its score raised in the
+ *   database on the next flush
+ * - in a full batch pass, which splits device_fingerprints into key ranges of a bounded size and
+ *   scores them on a ForkJoin pool, so memory and database connections stay bounded by chunk size
+ *   and parallelism however large the table is. The pass recomputes every score from the table,
+ *   the audit log and this node's window state, and rebuilds the flagged set.
+ *
+ * The flagged set is reloaded from the database periodically so flags raised on other nodes
+ * become visible.
+ *
+ * @author CloudSuites Platform Team
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class DeviceRiskEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceRiskEngine.class);
+
+    /**
+     * Values tracked per fingerprint and feature; enough to saturate any feature.
+     */
+    static final int MAX_TRACKED_VALUES = 32;
+
+    private static final int[] NO_ACTIVITY = new int[2];
+
+    private final DeviceFingerprintRepository deviceFingerprintRepository;
+    private final AuthAuditEventRepository auditEventRepository;
+    private final DeviceRiskScorer riskScorer;
+
+    private final Map<String, DeviceRiskState> states = new ConcurrentHashMap<>();
+    private final Map<String, Integer> pendingScores = new ConcurrentHashMap<>();
+    private final AtomicBoolean batchRunning = new AtomicBoolean();
+
+    private volatile Set<String> flaggedFingerprints = ConcurrentHashMap.newKeySet();
+    private volatile Set<String> rebuildingFlags;
+
+    @Value("${cloudsuites.device-trust.risk-threshold:70}")
+    private int riskThreshold = 70;
+
+    @Value("${cloudsuites.device-trust.risk-scoring.feature-window-hours:24}")
+    private int featureWindowHours = 24;
+
+    @Value("${cloudsuites.device-trust.risk-scoring.chunk-size:10000}")
+    private int chunkSize = 10000;
+
+    @Value("${cloudsuites.device-trust.risk-scoring.parallelism:4}")
+    private int parallelism = 4;
+
+    @Value("${cloudsuites.device-trust.risk-scoring.max-tracked-devices:100000}")
+    private int maxTrackedDevices = 100000;
+
+    /**
+     * Totals of a full rescoring pass.
+     */
+    public record BatchResult(int chunks, long devicesScored, long scoresUpdated, long devicesFlagged, int failedChunks) {
+
+        static final BatchResult EMPTY = new BatchResult(0, 0, 0, 0, 0);
+
+        BatchResult plus(BatchResult other) {
+            return new BatchResult(chunks + other.chunks, devicesScored + other.devicesScored,
+                    scoresUpdated + other.scoresUpdated, devicesFlagged + other.devicesFlagged,
+                    failedChunks + other.failedChunks);
+        }
+    }
+
+    /**
+     * Whether a fingerprint is currently flagged as high risk.
+     */
+    public boolean isFlagged(String deviceFingerprint) {
+        return deviceFingerprint != null && flaggedFingerprints.contains(deviceFingerprint);
+    }
+
+    /**
+     * Gets the number of flagged fingerprints held in memory.
+     */
+    public int getFlaggedCount() {
+        return flaggedFingerprints.size();
+    }
+
+    /**
+     * Records an authentication attempt from a device and rescores it from its window state.
+     *
+     * @param deviceFingerprint Device fingerprint hash
+     * @param userId Account the attempt was for, or null if unknown
+     * @param ipAddress Source IP address, or null if unknown
+     * @param success Whether the attempt succeeded
+     * @return Incremental risk score of the device
+     */
+    public int recordAttempt(String deviceFingerprint, String userId, String ipAddress, boolean success) {
+        if (deviceFingerprint == null) {
+            return 0;
+        }
+        DeviceRiskState state = states.get(deviceFingerprint);
+        if (state == null) {
+            if (states.size() >= maxTrackedDevices) {
+                log.debug("Tracking {} devices, not tracking risk state for another", maxTrackedDevices);
+                return 0;
+            }
+            state = states.computeIfAbsent(deviceFingerprint, fingerprint -> new DeviceRiskState());
+        }
+
+        DeviceRiskFeatures features = state.observe(userId, ipAddress, success, System.currentTimeMillis(), windowMillis());
+        int score = riskScorer.score(features);
+        if (score >= riskThreshold) {
+            pendingScores.merge(deviceFingerprint, score, Math::max);
+            flag(deviceFingerprint);
+        }
+        return score;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFlagged() {
+        try {
+            Set<String> loaded = ConcurrentHashMap.newKeySet();
+            loaded.addAll(deviceFingerprintRepository.findFingerprintsWithRiskScoreAtLeast(riskThreshold));
+            loaded.addAll(pendingScores.keySet());
+            flaggedFingerprints = loaded;
+            log.debug("Loaded {} flagged device fingerprints", loaded.size());
+        } catch (DataAccessException e) {
+            log.warn("Failed to load flagged device fingerprints: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Persists raised scores, evicts idle window state and reloads the flagged set.
+     */
+    @Scheduled(fixedDelayString = "${cloudsuites.device-trust.risk-scoring.flush-interval-ms:60000}")
+    public void scheduledFlush() {
+        flushScores();
+        evictIdleStates();
+        loadFlagged();
+    }
+
+    /**
+     * Writes incrementally raised scores. Scores from a failed write are kept for the next flush.
+     *
+     * @return Number of device rows updated
+     */
+    public int flushScores() {
+        if (pendingScores.isEmpty()) {
+            return 0;
+        }
+        List<Map.Entry<String, Integer>> drained = new ArrayList<>();
+        for (String fingerprint : pendingScores.keySet()) {
+            Integer score = pendingScores.remove(fingerprint);
+            if (score != null) {
+                drained.add(Map.entry(fingerprint, score));
+            }
+        }
+        drained.sort(Map.Entry.comparingByKey());
+
+        String[] fingerprints = new String[drained.size()];
+        Integer[] scores = new Integer[drained.size()];
+        for (int i = 0; i < drained.size(); i++) {
+            fingerprints[i] = drained.get(i).getKey();
+            scores[i] = drained.get(i).getValue();
+        }
+        try {
+            return deviceFingerprintRepository.batchRaiseRiskScores(fingerprints, scores);
+        } catch (Exception e) {
+            log.error("Failed to persist {} device risk scores, will retry on next flush", drained.size(), e);
+            drained.forEach(entry -> pendingScores.merge(entry.getKey(), entry.getValue(), Math::max));
+            return 0;
+        }
+    }
+
+    @Scheduled(cron = "${cloudsuites.device-trust.risk-scoring.batch-cron:0 30 3 * * *}")
+    public void scheduledRescore() {
+        BatchResult result = rescoreAll();
+        log.info("Rescored {} devices in {} chunks: {} scores changed, {} flagged, {} chunks failed",
+                result.devicesScored(), result.chunks(), result.scoresUpdated(), result.devicesFlagged(),
+                result.failedChunks());
+    }
+
+    /**
+     * Recomputes every device score in bounded chunks on a ForkJoin pool and rebuilds the
+     * flagged set. If any chunk fails the previous flags are kept alongside the new ones.
+     */
+    public BatchResult rescoreAll() {
+        if (!batchRunning.compareAndSet(false, true)) {
+            log.info("Device rescoring already running, skipping");
+            return BatchResult.EMPTY;
+        }
+        try {
+            List<String> chunkStarts = deviceFingerprintRepository.findRiskChunkStarts(chunkSize);
+            if (chunkStarts.isEmpty()) {
+                return BatchResult.EMPTY;
+            }
+            Set<String> rebuilt = ConcurrentHashMap.newKeySet();
+            rebuilt.addAll(pendingScores.keySet());
+            rebuildingFlags = rebuilt;
+
+            LocalDateTime since = LocalDateTime.now().minusHours(featureWindowHours);
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+            BatchResult result;
+            try {
+                result = pool.invoke(new ChunkRangeTask(chunkStarts, 0, chunkStarts.size(), since, rebuilt));
+            } finally {
+                pool.shutdown();
+            }
+
+            if (result.failedChunks() == 0) {
+                flaggedFingerprints = rebuilt;
+            } else {
+                flaggedFingerprints.addAll(rebuilt);
+            }
+            return result;
+        } finally {
+            rebuildingFlags = null;
+            batchRunning.set(false);
+        }
+    }
+
+    /**
+     * Gets the number of devices with incremental window state.
+     */
+    public int getTrackedCount() {
+        return states.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushScores();
+    }
+
+    private void flag(String fingerprint) {
+        flaggedFingerprints.add(fingerprint);
+        Set<String> rebuilding = rebuildingFlags;
+        if (rebuilding != null) {
+            rebuilding.add(fingerprint);
+        }
+    }
+
+    private void evictIdleStates() {
+        long now = System.currentTimeMillis();
+        long window = windowMillis();
+        states.entrySet().removeIf(entry -> entry.getValue().isIdle(now, window));
+    }
+
+    private long windowMillis() {
+        return featureWindowHours * 3_600_000L;
+    }
+
+    /**
+     * Scores the devices in {@code [from, to)} of device ID order and writes changed scores.
+     */
+    BatchResult scoreChunk(String fromDeviceId, String toDeviceId, LocalDateTime since, Set<String> flagged) {
+        List<Object[]> rows = deviceFingerprintRepository.findRiskInputs(fromDeviceId, toDeviceId);
+        if (rows.isEmpty()) {
+            return new BatchResult(1, 0, 0, 0, 0);
+        }
+
+        Set<String> fingerprints = new LinkedHashSet<>();
+        Set<String> userIds = new LinkedHashSet<>();
+        for (Object[] row : rows) {
+            fingerprints.add((String) row[1]);
+            userIds.add((String) row[2]);
+        }
+        Map<String, Integer> fanOut = new HashMap<>();
+        for (Object[] row : deviceFingerprintRepository.countAccountsByFingerprint(fingerprints.toArray(String[]::new))) {
+            fanOut.put((String) row[0], ((Number) row[1]).intValue());
+        }
+        Map<String, int[]> activity = new HashMap<>();
+        for (Object[] row : auditEventRepository.summarizeRiskActivitySince(userIds.toArray(String[]::new), since)) {
+            activity.put((String) row[0], new int[]{((Number) row[1]).intValue(), ((Number) row[2]).intValue()});
+        }
+
+        long now = System.currentTimeMillis();
+        long window = windowMillis();
+        List<String> changedIds = new ArrayList<>();
+        List<Integer> changedScores = new ArrayList<>();
+        long flaggedCount = 0;
+        for (Object[] row : rows) {
+            String fingerprint = (String) row[1];
+            int[] userActivity = activity.getOrDefault((String) row[2], NO_ACTIVITY);
+            int deviceIps = row[4] != null && row[5] != null && !row[4].equals(row[5]) ? 2 : 1;
+            DeviceRiskFeatures features = new DeviceRiskFeatures(
+                    Math.max(deviceIps, userActivity[1]),
+                    userActivity[0],
+                    row[3] == null ? 0L : ((Number) row[3]).longValue(),
+                    fanOut.getOrDefault(fingerprint, 1));
+            DeviceRiskState state = states.get(fingerprint);
+            if (state != null) {
+                features = features.max(state.features(now, window));
+            }
+
+            int score = riskScorer.score(features);
+            if (row[6] == null || ((Number) row[6]).intValue() != score) {
+                changedIds.add((String) row[0]);
+                changedScores.add(score);
+            }
+            if (score >= riskThreshold) {
+                flagged.add(fingerprint);
+                flaggedCount++;
+            }
+        }
+
+        if (!changedIds.isEmpty()) {
+            deviceFingerprintRepository.batchUpdateRiskScores(changedIds.toArray(String[]::new),
+                    changedScores.toArray(Integer[]::new));
+        }
+        return new BatchResult(1, rows.size(), changedIds.size(), flaggedCount, 0);
+    }
+
+    /**
+     * Splits a range of chunks in half until a single chunk is left, then scores it.
+     */
+    private final class ChunkRangeTask extends RecursiveTask<BatchResult> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> chunkStarts;
+        private final int from;
+        private final int to;
+        private final LocalDateTime since;
+        private final Set<String> flagged;
+
+        ChunkRangeTask(List<String> chunkStarts, int from, int to, LocalDateTime since, Set<String> flagged) {
+            this.chunkStarts = chunkStarts;
+            this.from = from;
+            this.to = to;
+            this.since = since;
+            this.flagged = flagged;
+        }
+
+        @Override
+        protected BatchResult compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                ChunkRangeTask right = new ChunkRangeTask(chunkStarts, mid, to, since, flagged);
+                right.fork();
+                BatchResult left = new ChunkRangeTask(chunkStarts, from, mid, since, flagged).compute();
+                return left.plus(right.join());
+            }
+            String start = chunkStarts.get(from);
+            String end = from + 1 < chunkStarts.size() ? chunkStarts.get(from + 1) : null;
+            try {
+                return scoreChunk(start, end, since, flagged);
+            } catch (Exception e) {
+                log.error("Failed to rescore devices from {} to {}", start, end, e);
+                return new BatchResult(1, 0, 0, 0, 1);
+            }
+        }
+    }
+
+    /**
+     * Recent attempts from one fingerprint within the feature window. Every collection is capped
+     * at {@link #MAX_TRACKED_VALUES}, so state stays small whatever a client sends.
+     */
+    static final class DeviceRiskState {
+
+        private final Map<String, Long> ipLastSeen = new HashMap<>();
+        private final Map<String, Long> accountLastSeen = new HashMap<>();
+        private final ArrayDeque<Long> failures = new ArrayDeque<>();
+        private long lastSeen;
+
+        synchronized DeviceRiskFeatures observe(String userId, String ipAddress, boolean success, long now, long window) {
+            lastSeen = Math.max(lastSeen, now);
+            if (ipAddress != null) {
+                touch(ipLastSeen, ipAddress, now);
+            }
+            if (userId != null) {
+                touch(accountLastSeen, userId, now);
+            }
+            if (!success) {
+                failures.addLast(now);
+                if (failures.size() > MAX_TRACKED_VALUES) {
+                    failures.removeFirst();
+                }
+            }
+            return features(now, window);
+        }
+
+        synchronized DeviceRiskFeatures features(long now, long window) {
+            long cutoff = now - window;
+            ipLastSeen.values().removeIf(seen -> seen < cutoff);
+            accountLastSeen.values().removeIf(seen -> seen < cutoff);
+            while (!failures.isEmpty() && failures.peekFirst() < cutoff) {
+                failures.removeFirst();
+            }
+            return new DeviceRiskFeatures(ipLastSeen.size(), failures.size(), null, accountLastSeen.size());
+        }
+
+        synchronized boolean isIdle(long now, long window) {
+            return lastSeen < now - window;
+        }
+
+        private static void touch(Map<String, Long> lastSeenByValue, String value, long now) {
+            if (lastSeenByValue.put(value, now) == null && lastSeenByValue.size() > MAX_TRACKED_VALUES) {
+                lastSeenByValue.remove(Collections.min(lastSeenByValue.entrySet(), Map.Entry.comparingByValue()).getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns device risk features into a 0-100 score.
+ *
+ * Each feature is normalised to [0, 1] against a saturation point and the score is the weighted
+ * mean of the normalised features:
+ * - IP churn: distinct IP addresses seen beyond the first within the feature window
+ * - failed attempt velocity: failed logins and OTP verifications within the window
+ * - user-agent novelty: a fingerprint hashes the user agent and device characteristics, so a
+ *   fingerprint with little usage history is an agent the account rarely presents
+ * - account fan-out: distinct accounts beyond the first that use the same fingerprint
+ *
+ * @author CloudSuites Platform Team
+ * @since 1.0.0
+ */
+@Component
+public class DeviceRiskScorer {
+
+    static final int MAX_SCORE = 100;
+
+    /**
+     * Raw features for one device.
+     *
+     * @param distinctIps Distinct IP addresses seen within the window
+     * @param failedAttempts Failed attempts within the window
+     * @param usageCount Successful uses so far, or null when unknown (novelty is then not scored)
+     * @param accountFanOut Distinct accounts using the fingerprint
+     */
+    record DeviceRiskFeatures(int distinctIps, int failedAttempts, Long usageCount, int accountFanOut) {
+
+        /**
+         * Per-feature maximum of two observations of the same device.
+         */
+        DeviceRiskFeatures max(DeviceRiskFeatures other) {
+            if (other == null) {
+                return this;
+            }
+            Long usage = usageCount == null ? other.usageCount
+                    : other.usageCount == null ? usageCount : Long.valueOf(Math.min(usageCount, other.usageCount));
+            return new DeviceRiskFeatures(Math.max(distinctIps, other.distinctIps),
+                    Math.max(failedAttempts, other.failedAttempts), usage,
+                    Math.max(accountFanOut, other.accountFanOut));
+        }
+    }
+
+    @Value("${cloudsuites.device-trust.risk-scoring.weights.ip-churn:0.25}")
+    private double ipChurnWeight = 0.25;
+
+    @Value("${cloudsuites.device-trust.risk-scoring.weights.failure-velocity:0.35}")
+    private double failureVelocityWeight = 0.35;
+
+    @Value("${cloudsuites.device-trust.risk-scoring.weights.user-agent-novelty:0.15}")
+    private double noveltyWeight = 0.15;
+
+    @Value("${cloudsuites.device-trust.risk-scoring.weights.account-fan-out:0.25}")
+    private double fanOutWeight = 0.25;
+
+    @Value("${cloudsuites.device-trust.risk-scoring.saturation.distinct-ips:5}")
+    private int distinctIpSaturation = 5;
+
+    @Value("${cloudsuites.device-trust.risk-scoring.saturation.failed-attempts:10}")
+    private int failedAttemptSaturation = 10;
+
+    @Value("${cloudsuites.device-trust.risk-scoring.saturation.accounts:3}")
+    private int accountSaturation = 3;
+
+    public int score(DeviceRiskFeatures features) {
+        double weighted = ipChurnWeight * saturate(features.distinctIps() - 1, distinctIpSaturation)
+                + failureVelocityWeight * saturate(features.failedAttempts(), failedAttemptSaturation)
+                + fanOutWeight * saturate(features.accountFanOut() - 1, accountSaturation);
+        if (features.usageCount() != null) {
+            weighted += noveltyWeight / (1.0 + Math.max(0, features.usageCount()));
+        }
+        double totalWeight = ipChurnWeight + failureVelocityWeight + noveltyWeight + fanOutWeight;
+        if (totalWeight <= 0) {
+            return 0;
+        }
+        return (int) Math.min(MAX_SCORE, Math.round(MAX_SCORE * weighted / totalWeight));
+    }
+
+    private static double saturate(double value, int saturation) {
+        if (value <= 0) {
+            return 0;
+        }
+        return saturation <= 0 ? 1 : Math.min(1.0, value / saturation);
+    }
+}
@@ -1,19 +1,25 @@
 package com.cloudsuites.framework.modules.auth.service.impl;
 
 import com.cloudsuites.framework.modules.auth.repository.DeviceFingerprintRepository;
+import com.cloudsuites.framework.modules.auth.service.impl.TrustedDeviceTokenSigner.TrustedDeviceClaims;
 import com.cloudsuites.framework.services.auth.DeviceTrustService;
 import com.cloudsuites.framework.services.auth.entities.DeviceFingerprint;
 import com.cloudsuites.framework.services.auth.entities.DeviceRegistrationRequest;
 import com.cloudsuites.framework.services.auth.entities.DeviceVerificationResult;
 import com.cloudsuites.framework.services.auth.entities.TrustedDeviceTokenRequest;
 import com.cloudsuites.framework.services.auth.entities.TrustStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +30,7 @@ import java.util.Optional;
  * - Register and verify trusted devices
  * - Generate device fingerprints using SHA-256 hashing
  * - Manage device-based authentication
+ * - Issue and statelessly verify signed trusted-device tokens
  * 
  * @author CloudSuites Platform Team
  * @since 1.0.0
@@ -31,11 +38,34 @@ import java.util.Optional;
 @Service
 public class DeviceTrustServiceImpl implements DeviceTrustService {
 
+    private static final Logger log = LoggerFactory.getLogger(DeviceTrustServiceImpl.class);
+
     private final DeviceFingerprintRepository deviceFingerprintRepository;
+    private final DeviceActivityCoalescer deviceActivityCoalescer;
+    private final DeviceRiskEngine deviceRiskEngine;
+    private final AuthAnomalyDetector anomalyDetector;
+    private final TrustedDeviceTokenSigner tokenSigner;
+    private final TrustedDeviceRevocationList revocationList;
+    private final ExpiryCleanupManager expiryCleanupManager;
+
+    @Value("${cloudsuites.device-trust.trusted-token-duration-minutes:43200}")
+    private long tokenDurationMinutes = 43200;
 
     @Autowired
-    public DeviceTrustServiceImpl(DeviceFingerprintRepository deviceFingerprintRepository) {
+    public DeviceTrustServiceImpl(DeviceFingerprintRepository deviceFingerprintRepository,
+                                  DeviceActivityCoalescer deviceActivityCoalescer,
+                                  DeviceRiskEngine deviceRiskEngine,
+                                  AuthAnomalyDetector anomalyDetector,
+                                  TrustedDeviceTokenSigner tokenSigner,
+                                  TrustedDeviceRevocationList revocationList,
+                                  ExpiryCleanupManager expiryCleanupManager) {
         this.deviceFingerprintRepository = deviceFingerprintRepository;
+        this.deviceActivityCoalescer = deviceActivityCoalescer;
+        this.deviceRiskEngine = deviceRiskEngine;
+        this.anomalyDetector = anomalyDetector;
+        this.tokenSigner = tokenSigner;
+        this.revocationList = revocationList;
+        this.expiryCleanupManager = expiryCleanupManager;
     }
 
     @Override
@@ -66,6 +96,9 @@ public class DeviceTrustServiceImpl implements DeviceTrustService {
         if (trustedDevice.isPresent()) {
             DeviceFingerprint device = trustedDevice.get();
             if (device.getTrustStatus() == TrustStatus.TRUSTED) {
+                if (deviceRiskEngine.isFlagged(fingerprint) || anomalyDetector.isAccountFlagged(userId)) {
+                    return DeviceVerificationResult.highRisk(device);
+                }
                 return DeviceVerificationResult.trusted(device);
             } else {
                 return new DeviceVerificationResult(false, device.getTrustStatus());
@@ -100,21 +133,61 @@ public class DeviceTrustServiceImpl implements DeviceTrustService {
 
     @Override
     public String createTrustedDeviceToken(TrustedDeviceTokenRequest request) {
-        // Placeholder implementation - would integrate with JWT service
-        throw new UnsupportedOperationException("Trusted device token creation not implemented yet");
+        String userId = request.getUserId();
+        String fingerprint = request.getDeviceFingerprint();
+        DeviceFingerprint device = deviceFingerprintRepository.findByUserIdAndFingerprint(userId, fingerprint)
+                .filter(found -> found.getTrustStatus() == TrustStatus.TRUSTED && !Boolean.TRUE.equals(found.getIsDeleted()))
+                .orElseThrow(() -> new SecurityException("Device is not trusted for user"));
+        if (deviceRiskEngine.isFlagged(fingerprint) || anomalyDetector.isAccountFlagged(userId)) {
+            throw new SecurityException("Device requires verification");
+        }
+
+        long now = System.currentTimeMillis();
+        long durationMillis = tokenDurationMinutes * 60_000L;
+        if (request.getValiditySeconds() != null && request.getValiditySeconds() > 0) {
+            durationMillis = Math.min(durationMillis, request.getValiditySeconds() * 1000L);
+        }
+        long expiresAt = now + durationMillis;
+        if (device.getExpiresAt() != null) {
+            expiresAt = Math.min(expiresAt, device.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        if (expiresAt <= now) {
+            throw new SecurityException("Device trust has expired");
+        }
+        return tokenSigner.sign(userId, fingerprint, now, expiresAt);
     }
 
     @Override
     public boolean validateTrustedDeviceToken(String token, String deviceFingerprint) {
-        // Placeholder implementation - would integrate with JWT service
-        throw new UnsupportedOperationException("Trusted device token validation not implemented yet");
+        return validateTrustedDeviceToken(token, null, deviceFingerprint);
+    }
+
+    @Override
+    public boolean validateTrustedDeviceToken(String token, String userId, String deviceFingerprint) {
+        TrustedDeviceClaims claims = tokenSigner.verify(token);
+        if (claims == null) {
+            log.debug("Rejected trusted device token with an invalid signature");
+            return false;
+        }
+        if (claims.expiresAtMillis() <= System.currentTimeMillis()
+                || (userId != null && !userId.equals(claims.userId()))
+                || !claims.matchesFingerprint(deviceFingerprint)) {
+            return false;
+        }
+        return !revocationList.isRevoked(claims.userId(), deviceFingerprint, claims.issuedAtMillis())
+                && !deviceRiskEngine.isFlagged(deviceFingerprint)
+                && !anomalyDetector.isAccountFlagged(claims.userId());
     }
 
     @Override
+    @Transactional
     public boolean revokeTrustedDevice(String userId, String deviceFingerprint) {
         Optional<DeviceFingerprint> device = deviceFingerprintRepository.findByUserIdAndFingerprint(userId, deviceFingerprint);
         if (device.isPresent()) {
-            deviceFingerprintRepository.delete(device.get());
+            LocalDateTime now = LocalDateTime.now();
+            deviceFingerprintRepository.revokeDeviceTrust(device.get().getDeviceId(), TrustStatus.REVOKED, now,
+                    "Revoked by user", userId);
+            revocationList.revoke(userId, deviceFingerprint, System.currentTimeMillis());
             return true;
         }
         return false;
@@ -132,16 +205,28 @@ public class DeviceTrustServiceImpl implements DeviceTrustService {
 
     @Override
     public void updateDeviceActivity(String deviceFingerprint) {
-        deviceFingerprintRepository.findByFingerprint(deviceFingerprint)
-                .ifPresent(device -> {
-                    device.setLastUsedAt(LocalDateTime.now());
-                    deviceFingerprintRepository.save(device);
-                });
+        updateDeviceActivity(deviceFingerprint, null);
+    }
+
+    @Override
+    public void updateDeviceActivity(String deviceFingerprint, String ipAddress) {
+        deviceActivityCoalescer.recordActivity(deviceFingerprint, ipAddress);
+        deviceRiskEngine.recordAttempt(deviceFingerprint, null, ipAddress, true);
+    }
+
+    @Override
+    public void recordFailedAttempt(String userId, String deviceFingerprint, String ipAddress) {
+        deviceRiskEngine.recordAttempt(deviceFingerprint, userId, ipAddress, false);
+    }
+
+    @Override
+    public boolean isHighRiskDevice(String deviceFingerprint) {
+        return deviceRiskEngine.isFlagged(deviceFingerprint);
     }
 
     @Override
     public int cleanupExpiredDevices() {
-        // Placeholder implementation - would clean up devices based on expiration policy
-        return 0;
+        // Batched and throttled alongside the other expiry cleanups
+        return (int) expiryCleanupManager.cleanupNow(ExpiryCleanupManager.DEVICE_FINGERPRINTS);
     }
 }
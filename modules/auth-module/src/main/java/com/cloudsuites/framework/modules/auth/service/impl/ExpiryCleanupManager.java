@@ -0,0 +1,340 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Deletes expired rows from the session, OTP and device tables in bounded batches.
+ *
+ * Each table has a policy: a predicate on a {@code :cutoff} timestamp, a retention that sets the
+ * cutoff, and a minimum interval between runs. A batch deletes at most {@code batch-size} rows
+ * picked by ctid with {@code FOR UPDATE SKIP LOCKED}, in its own short transaction, so cleanup
+ * never holds locks for long or waits on rows the application is using.
+ *
+ * Batches throttle themselves: the batch size is scaled towards {@code target-batch-ms} per
+ * batch, and after each batch the cleaner pauses so it is busy at most {@code duty-cycle} of the
+ * time. A run stops after {@code max-run-seconds} and picks up where it left off next time.
+ *
+ * Only one node cleans at a time: a run holds a session-level advisory lock on a dedicated
+ * connection, which Postgres releases if the node dies.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Component
+public class ExpiryCleanupManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiryCleanupManager.class);
+
+    private static final String LOCK_NAME = "expiry-cleanup";
+    static final String DEVICE_FINGERPRINTS = "device_fingerprints";
+
+    /**
+     * How expired rows of a table are found and how often the table is cleaned.
+     */
+    record CleanupPolicy(String table, String predicate, Duration retention, Duration interval, boolean enabled) {
+    }
+
+    /**
+     * Outcome of cleaning one table. {@code completed} is false if the run stopped before the
+     * table was drained.
+     */
+    public record CleanupResult(String table, long deleted, int batches, boolean completed) {
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource dataSource;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Long> lastRunMillis = new ConcurrentHashMap<>();
+    private final Map<String, Integer> batchSizes = new ConcurrentHashMap<>();
+    private final Map<String, CleanupResult> lastResults = new ConcurrentHashMap<>();
+
+    @Value("${cloudsuites.cleanup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${cloudsuites.cleanup.batch-size:1000}")
+    private int initialBatchSize = 1000;
+
+    @Value("${cloudsuites.cleanup.min-batch-size:100}")
+    private int minBatchSize = 100;
+
+    @Value("${cloudsuites.cleanup.max-batch-size:10000}")
+    private int maxBatchSize = 10000;
+
+    @Value("${cloudsuites.cleanup.target-batch-ms:250}")
+    private long targetBatchMs = 250;
+
+    @Value("${cloudsuites.cleanup.duty-cycle:0.5}")
+    private double dutyCycle = 0.5;
+
+    @Value("${cloudsuites.cleanup.max-pause-ms:5000}")
+    private long maxPauseMs = 5000;
+
+    @Value("${cloudsuites.cleanup.max-run-seconds:300}")
+    private long maxRunSeconds = 300;
+
+    @Value("${cloudsuites.cleanup.retention.user-sessions-days:7}")
+    private int userSessionsRetentionDays = 7;
+
+    @Value("${cloudsuites.cleanup.retention.refresh-token-rotation-days:30}")
+    private int refreshTokenRotationRetentionDays = 30;
+
+    @Value("${cloudsuites.cleanup.retention.otp-codes-hours:24}")
+    private int otpCodesRetentionHours = 24;
+
+    @Value("${cloudsuites.cleanup.retention.otp-rate-limits-hours:24}")
+    private int otpRateLimitsRetentionHours = 24;
+
+    @Value("${cloudsuites.device-trust.cleanup.enabled:true}")
+    private boolean deviceCleanupEnabled = true;
+
+    @Value("${cloudsuites.device-trust.cleanup.interval-hours:24}")
+    private int deviceCleanupIntervalHours = 24;
+
+    @Value("${cloudsuites.device-trust.cleanup.inactive-threshold-days:90}")
+    private int deviceInactiveThresholdDays = 90;
+
+    public ExpiryCleanupManager(PlatformTransactionManager transactionManager, DataSource dataSource) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dataSource = dataSource;
+    }
+
+    @Scheduled(cron = "${cloudsuites.cleanup.cron:0 */15 * * * *}")
+    public void scheduledCleanup() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<CleanupPolicy> due = policies().stream()
+                .filter(CleanupPolicy::enabled)
+                .filter(policy -> now - lastRunMillis.getOrDefault(policy.table(), 0L) >= policy.interval().toMillis())
+                .toList();
+        Optional<List<CleanupResult>> results = withLeaderLock(() -> cleanAll(due));
+        if (results.isEmpty()) {
+            logger.debug("Expiry cleanup is running on another node");
+            return;
+        }
+        for (CleanupResult result : results.get()) {
+            if (result.deleted() > 0 || !result.completed()) {
+                logger.info("Deleted {} expired rows from {} in {} batches{}", result.deleted(), result.table(),
+                        result.batches(), result.completed() ? "" : ", more remain");
+            }
+        }
+    }
+
+    /**
+     * Cleans one table now, regardless of its interval.
+     *
+     * @return Rows deleted, or 0 if the table's cleanup is disabled or another node holds the lock
+     */
+    public long cleanupNow(String table) {
+        CleanupPolicy policy = policies().stream()
+                .filter(candidate -> candidate.table().equals(table))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No cleanup policy for table " + table));
+        if (!policy.enabled()) {
+            return 0;
+        }
+        return withLeaderLock(() -> clean(policy, deadline())).map(CleanupResult::deleted).orElse(0L);
+    }
+
+    /**
+     * Result of the last cleanup of each table on this node.
+     */
+    public Map<String, CleanupResult> getLastResults() {
+        return Map.copyOf(lastResults);
+    }
+
+    List<CleanupPolicy> policies() {
+        return List.of(
+                // Rotations go first: deleting a session cascades to its rotations
+                new CleanupPolicy("refresh_token_rotation", "rotated_at < :cutoff",
+                        Duration.ofDays(refreshTokenRotationRetentionDays), Duration.ZERO, true),
+                new CleanupPolicy("user_sessions", "expires_at < :cutoff",
+                        Duration.ofDays(userSessionsRetentionDays), Duration.ZERO, true),
+                new CleanupPolicy("otp_codes", "expires_at < :cutoff",
+                        Duration.ofHours(otpCodesRetentionHours), Duration.ZERO, true),
+                new CleanupPolicy("otp_rate_limits",
+                        "window_end < :cutoff AND (blocked_until IS NULL OR blocked_until < :cutoff)",
+                        Duration.ofHours(otpRateLimitsRetentionHours), Duration.ZERO, true),
+                new CleanupPolicy(DEVICE_FINGERPRINTS,
+                        "(expires_at < :cutoff OR last_used_at < :cutoff"
+                                + " OR ((is_deleted = TRUE OR trust_status <> 'TRUSTED') AND updated_at < :cutoff))",
+                        Duration.ofDays(deviceInactiveThresholdDays), Duration.ofHours(deviceCleanupIntervalHours),
+                        deviceCleanupEnabled));
+    }
+
+    private List<CleanupResult> cleanAll(List<CleanupPolicy> policies) {
+        long deadline = deadline();
+        List<CleanupResult> results = new ArrayList<>(policies.size());
+        for (CleanupPolicy policy : policies) {
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+            try {
+                results.add(clean(policy, deadline));
+            } catch (RuntimeException e) {
+                logger.error("Failed to clean up expired rows from {}", policy.table(), e);
+            }
+        }
+        return results;
+    }
+
+    private CleanupResult clean(CleanupPolicy policy, long deadline) {
+        String table = policy.table();
+        LocalDateTime cutoff = LocalDateTime.now().minus(policy.retention());
+        String sql = "DELETE FROM " + table + " WHERE ctid = ANY(ARRAY(SELECT ctid FROM " + table
+                + " WHERE " + policy.predicate() + " LIMIT :limit FOR UPDATE SKIP LOCKED))";
+
+        long deleted = 0;
+        int batches = 0;
+        boolean completed = false;
+        while (System.nanoTime() < deadline) {
+            int batchSize = batchSizes.getOrDefault(table, initialBatchSize);
+            long started = System.nanoTime();
+            Integer count = transactionTemplate.execute(status -> entityManager.createNativeQuery(sql)
+                    .setParameter("cutoff", cutoff)
+                    .setParameter("limit", batchSize)
+                    .executeUpdate());
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            int batchDeleted = count == null ? 0 : count;
+            deleted += batchDeleted;
+            batches++;
+            recordBatch(table, batchDeleted, elapsedMs);
+
+            if (batchDeleted < batchSize) {
+                completed = true;
+                break;
+            }
+            batchSizes.put(table, nextBatchSize(batchSize, elapsedMs, targetBatchMs, minBatchSize, maxBatchSize));
+            if (!pause(pauseMillis(elapsedMs, dutyCycle, maxPauseMs))) {
+                break;
+            }
+        }
+
+        CleanupResult result = new CleanupResult(table, deleted, batches, completed);
+        lastRunMillis.put(table, System.currentTimeMillis());
+        lastResults.put(table, result);
+        return result;
+    }
+
+    /**
+     * Scales the batch size towards the target batch duration, by at most a factor of two per
+     * batch, within the configured bounds.
+     */
+    static int nextBatchSize(int current, long elapsedMs, long targetMs, int min, int max) {
+        long scaled = current * targetMs / Math.max(1, elapsedMs);
+        scaled = Math.max(current / 2, Math.min(2L * current, scaled));
+        return (int) Math.max(min, Math.min(max, scaled));
+    }
+
+    /**
+     * Pause after a batch that keeps the cleaner busy at most {@code dutyCycle} of the time.
+     */
+    static long pauseMillis(long elapsedMs, double dutyCycle, long maxPauseMs) {
+        if (dutyCycle >= 1) {
+            return 0;
+        }
+        double ratio = (1 - Math.max(dutyCycle, 0.01)) / Math.max(dutyCycle, 0.01);
+        return Math.min(maxPauseMs, (long) (elapsedMs * ratio));
+    }
+
+    private long deadline() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(maxRunSeconds);
+    }
+
+    private static boolean pause(long millis) {
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Runs work while holding the cluster-wide cleanup lock, or returns empty if another node
+     * holds it. The lock is session-level, taken on a connection kept open for the whole run.
+     */
+    private <T> Optional<T> withLeaderLock(Supplier<T> work) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!advisoryLock(connection, "SELECT pg_try_advisory_lock(hashtext(?))")) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.ofNullable(work.get());
+            } finally {
+                advisoryLock(connection, "SELECT pg_advisory_unlock(hashtext(?))");
+            }
+        } catch (SQLException e) {
+            logger.warn("Failed to take the expiry cleanup lock: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private void recordBatch(String table, int deleted, long elapsedMs) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Counter.builder("cloudsuites.cleanup.rows.deleted")
+                .description("Expired rows deleted by the cleanup")
+                .tag("table", table)
+                .register(meterRegistry)
+                .increment(deleted);
+        Timer.builder("cloudsuites.cleanup.batch.duration")
+                .description("Duration of cleanup delete batches")
+                .tag("table", table)
+                .register(meterRegistry)
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+        Gauge.builder("cloudsuites.cleanup.batch.size", batchSizes, sizes -> sizes.getOrDefault(table, initialBatchSize))
+                .description("Current adaptive cleanup batch size")
+                .tag("table", table)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,84 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.services.auth.OtpChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Offline stand-in for an SMS or email provider, for development and load testing.
+ * Simulates provider latency and a failure rate, and keeps the last code sent to each recipient
+ * so tests can complete a verification without a real inbox or handset. A code is forgotten once
+ * it has been read, and at most {@value #MAX_TRACKED_RECIPIENTS} recipients are tracked, so a long
+ * load test does not grow the map without limit.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+public class FakeOtpDeliveryProvider implements OtpDeliveryProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeOtpDeliveryProvider.class);
+
+    static final int MAX_TRACKED_RECIPIENTS = 10_000;
+
+    private final OtpChannel channel;
+    private final long latencyMs;
+    private volatile double failureRate;
+    private final Map<String, String> lastCodes = new ConcurrentHashMap<>();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public FakeOtpDeliveryProvider(OtpChannel channel, long latencyMs, double failureRate) {
+        this.channel = channel;
+        this.latencyMs = latencyMs;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public OtpChannel getChannel() {
+        return channel;
+    }
+
+    @Override
+    public void deliver(OtpDelivery delivery) throws Exception {
+        if (latencyMs > 0) {
+            Thread.sleep(latencyMs);
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            failed.increment();
+            throw new IllegalStateException("Simulated " + channel.getCode() + " provider failure");
+        }
+        if (lastCodes.size() < MAX_TRACKED_RECIPIENTS || lastCodes.containsKey(delivery.recipient())) {
+            lastCodes.put(delivery.recipient(), delivery.code());
+        }
+        delivered.increment();
+        logger.debug("Fake {} provider accepted OTP {}", channel.getCode(), delivery.otpId());
+    }
+
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * Returns the last code sent to the recipient and forgets it, or null if none is held.
+     */
+    public String takeLastCode(String recipient) {
+        return lastCodes.remove(recipient);
+    }
+
+    int getTrackedRecipientCount() {
+        return lastCodes.size();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+}
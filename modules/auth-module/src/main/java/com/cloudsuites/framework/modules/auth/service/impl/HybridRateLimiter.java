@@ -0,0 +1,422 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.services.auth.entities.RateLimitResult;
+import com.cloudsuites.framework.services.auth.entities.RateLimitRule;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Local-first rate limiter for rules that tolerate approximate enforcement.
+ *
+ * Each node keeps, per key, the last global window counts it saw plus the requests it admitted
+ * since. Requests are admitted from that local view while the node has spent less than
+ * {@code tolerance * limit} of local budget since its last reconciliation; once the budget is spent
+ * the request goes to Redis synchronously, flushing the local count and checking the global one
+ * atomically. Requests the local view already puts over the limit are denied without a round trip,
+ * since other nodes can only have added to the count. A scheduled reconciliation flushes local
+ * counts and refreshes the global view for recently used keys in one pipeline.
+ *
+ * Over-admission is bounded by the budget other nodes may have spent but not yet flushed:
+ * at most {@code nodes * tolerance * limit} per key. Counts use two fixed windows weighted into a
+ * sliding estimate, the same approximation as {@link InMemoryRateLimiter}. Lockouts are not
+ * consulted on this path.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Component
+public class HybridRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(HybridRateLimiter.class);
+
+    private static final String KEY_PREFIX = "rlh:";
+
+    /**
+     * Adds ARGV[1] to the current window counter; then, if ARGV[2] is a non-negative limit, admits
+     * one more request when prev * ARGV[3] / 1000 + curr + 1 fits. Returns (admitted, curr, prev).
+     */
+    private static final String SYNC_SCRIPT_SOURCE = """
+            local curr = redis.call('INCRBY', KEYS[1], ARGV[1])
+            local prev = tonumber(redis.call('GET', KEYS[2]) or '0')
+            local limit = tonumber(ARGV[2])
+            local admitted = 0
+            if limit >= 0 and prev * tonumber(ARGV[3]) / 1000 + curr + 1 <= limit then
+              curr = redis.call('INCR', KEYS[1])
+              admitted = 1
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            return {admitted, curr, prev}
+            """;
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SYNC_SCRIPT = RedisScript.of(SYNC_SCRIPT_SOURCE, List.class);
+
+    /**
+     * Shared window counters. Implemented over Redis in production; the benchmark swaps in an
+     * in-process store to compare modes without a server.
+     */
+    interface CounterStore {
+
+        /**
+         * Adds each flush's delta to its window and returns (current, previous) global counts, in order.
+         */
+        List<long[]> flush(List<Flush> flushes);
+
+        /**
+         * Adds the flush's delta, then admits one request if the sliding estimate allows it.
+         * Returns (admitted, current, previous).
+         */
+        long[] acquire(Flush flush, int limit, double unelapsed);
+    }
+
+    record Flush(String key, long windowIndex, long windowMs, long delta) {
+    }
+
+    /**
+     * Local view of one key in one fixed window.
+     */
+    static final class KeyState {
+        final String key;
+        final long windowMs;
+        final long windowIndex;
+        final AtomicLong pending = new AtomicLong();
+        final AtomicLong inFlight = new AtomicLong();
+        volatile long syncedCurrent;
+        volatile long syncedPrevious;
+        volatile boolean touched = true;
+
+        KeyState(String key, long windowMs, long windowIndex, long syncedPrevious) {
+            this.key = key;
+            this.windowMs = windowMs;
+            this.windowIndex = windowIndex;
+            this.syncedPrevious = syncedPrevious;
+        }
+
+        double estimate(long pendingCount, double unelapsed) {
+            return syncedPrevious * unelapsed + syncedCurrent + inFlight.get() + pendingCount;
+        }
+
+        /**
+         * Moves pending counts to in-flight so concurrent flushes never send them twice.
+         */
+        long claimPending() {
+            long claimed = pending.getAndSet(0);
+            inFlight.addAndGet(claimed);
+            return claimed;
+        }
+
+        void unclaim(long claimed) {
+            pending.addAndGet(claimed);
+            inFlight.addAndGet(-claimed);
+        }
+
+        void completeSync(long claimed, long current, long previous) {
+            // Take the global view first so the local estimate never dips below the truth
+            syncedCurrent = current;
+            syncedPrevious = previous;
+            inFlight.addAndGet(-claimed);
+        }
+    }
+
+    private final Map<String, KeyState> states = new ConcurrentHashMap<>();
+    private final Queue<KeyState> retired = new ConcurrentLinkedQueue<>();
+    private final LongSupplier clock;
+
+    @Autowired(required = false)
+    private RedisTemplate<String, String> redisTemplate;
+
+    private CounterStore store;
+
+    public HybridRateLimiter() {
+        this.clock = System::currentTimeMillis;
+    }
+
+    HybridRateLimiter(CounterStore store, LongSupplier clock) {
+        this.store = store;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (store == null && redisTemplate != null) {
+            store = new RedisCounterStore(redisTemplate);
+        }
+    }
+
+    public boolean isAvailable() {
+        return store != null;
+    }
+
+    /**
+     * Checks and records one request against an approximate rule.
+     */
+    public RateLimitResult checkAndRecord(RateLimitRule rule) {
+        long nowMs = clock.getAsLong();
+        long windowMs = Math.max(1, rule.getWindow().toMillis());
+        long windowIndex = nowMs / windowMs;
+        long elapsedMs = nowMs % windowMs;
+        double unelapsed = 1.0 - (double) elapsedMs / windowMs;
+        int limit = rule.getLimit();
+        long budget = (long) (rule.getTolerance() * limit);
+        LocalDateTime resetAt = LocalDateTime.now().plusNanos((windowMs - elapsedMs) * 1_000_000);
+
+        KeyState state = stateFor(rule.getKey(), windowMs, windowIndex);
+        state.touched = true;
+        while (true) {
+            long pendingCount = state.pending.get();
+            double estimate = state.estimate(pendingCount, unelapsed);
+            if (estimate + 1 > limit) {
+                return RateLimitResult.denied("Rate limit exceeded", limit, limit, resetAt,
+                        Math.max(1, (windowMs - elapsedMs + 999) / 1000));
+            }
+            // Counts still in flight to Redis are spent budget too, or concurrent flushes would multiply it
+            if (pendingCount + state.inFlight.get() >= budget) {
+                break;
+            }
+            if (state.pending.compareAndSet(pendingCount, pendingCount + 1)) {
+                return RateLimitResult.allowed((long) Math.ceil(estimate) + 1, limit, resetAt, rule.getWindow().getSeconds());
+            }
+        }
+
+        // Local budget spent: flush it and decide against the global count
+        long flushed = state.claimPending();
+        long[] reply;
+        try {
+            reply = store.acquire(new Flush(state.key, windowIndex, windowMs, flushed), limit, unelapsed);
+        } catch (RuntimeException e) {
+            state.unclaim(flushed);
+            throw e;
+        }
+        state.completeSync(flushed, reply[1], reply[2]);
+        long count = (long) Math.ceil(reply[2] * unelapsed + reply[1]);
+        if (reply[0] == 1) {
+            return RateLimitResult.allowed(Math.min(count, limit), limit, resetAt, rule.getWindow().getSeconds());
+        }
+        return RateLimitResult.denied("Rate limit exceeded", limit, limit, resetAt,
+                Math.max(1, (windowMs - elapsedMs + 999) / 1000));
+    }
+
+    /**
+     * Flushes local counts and refreshes the global view for keys used since the last run.
+     */
+    @Scheduled(fixedDelayString = "${cloudsuites.rate-limiting.hybrid.sync-interval-ms:250}")
+    public void reconcile() {
+        if (store == null) {
+            return;
+        }
+        long nowMs = clock.getAsLong();
+        List<KeyState> batch = new ArrayList<>();
+        List<Flush> flushes = new ArrayList<>();
+        for (KeyState state; (state = retired.poll()) != null; ) {
+            long pendingCount = state.pending.getAndSet(0);
+            if (pendingCount > 0) {
+                batch.add(null);
+                flushes.add(new Flush(state.key, state.windowIndex, state.windowMs, pendingCount));
+            }
+        }
+        for (KeyState state : states.values()) {
+            if (nowMs / state.windowMs - state.windowIndex >= 2 && state.pending.get() == 0) {
+                states.remove(state.key, state);
+                continue;
+            }
+            if (state.touched || state.pending.get() > 0) {
+                state.touched = false;
+                batch.add(state);
+                flushes.add(new Flush(state.key, state.windowIndex, state.windowMs, state.claimPending()));
+            }
+        }
+        if (flushes.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<long[]> replies = store.flush(flushes);
+            for (int i = 0; i < batch.size(); i++) {
+                KeyState state = batch.get(i);
+                if (state != null) {
+                    state.completeSync(flushes.get(i).delta(), replies.get(i)[0], replies.get(i)[1]);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Rate limit reconciliation with Redis failed for {} keys: {}", flushes.size(), e.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                KeyState state = batch.get(i);
+                if (state != null) {
+                    state.unclaim(flushes.get(i).delta());
+                    state.touched = true;
+                } else {
+                    // Retired window: its counts are lost, which only under-counts a finished window
+                    logger.debug("Dropped {} unflushed requests for {}", flushes.get(i).delta(), flushes.get(i).key());
+                }
+            }
+        }
+    }
+
+    int size() {
+        return states.size();
+    }
+
+    private KeyState stateFor(String key, long windowMs, long windowIndex) {
+        KeyState state = states.get(key);
+        if (state != null && state.windowMs == windowMs && state.windowIndex == windowIndex) {
+            return state;
+        }
+        if (state == null) {
+            return states.computeIfAbsent(key, k -> new KeyState(k, windowMs, windowIndex, 0));
+        }
+        // Window rolled over: carry the last known total forward as the previous window
+        long previous = state.windowMs == windowMs && state.windowIndex == windowIndex - 1
+                ? state.syncedCurrent + state.inFlight.get() + state.pending.get() : 0;
+        KeyState next = new KeyState(key, windowMs, windowIndex, previous);
+        if (states.replace(key, state, next)) {
+            retired.add(state);
+            return next;
+        }
+        return states.get(key);
+    }
+
+    /**
+     * Fixed-window counters in Redis, keyed by rule key and window index.
+     */
+    static final class RedisCounterStore implements CounterStore {
+
+        private static final byte[] SYNC_SCRIPT_BYTES = SYNC_SCRIPT_SOURCE.getBytes(StandardCharsets.UTF_8);
+
+        private final RedisTemplate<String, String> redisTemplate;
+
+        // Set once SCRIPT LOAD has run; cleared when Redis reports NOSCRIPT so the next flush reloads it
+        private volatile boolean scriptLoaded;
+
+        RedisCounterStore(RedisTemplate<String, String> redisTemplate) {
+            this.redisTemplate = redisTemplate;
+        }
+
+        @Override
+        public List<long[]> flush(List<Flush> flushes) {
+            List<byte[][]> keysAndArgs = new ArrayList<>(flushes.size());
+            for (Flush flush : flushes) {
+                keysAndArgs.add(keysAndArgs(flush));
+            }
+            if (!scriptLoaded) {
+                redisTemplate.execute((RedisCallback<String>) connection -> connection.scriptingCommands().scriptLoad(SYNC_SCRIPT_BYTES));
+                scriptLoaded = true;
+            }
+
+            List<Object> replies;
+            try {
+                replies = pipeline(keysAndArgs, true);
+            } catch (RedisPipelineException e) {
+                replies = retryMissingScript(e, keysAndArgs);
+            }
+            List<long[]> results = new ArrayList<>(replies.size());
+            for (Object reply : replies) {
+                List<?> values = (List<?>) reply;
+                results.add(new long[]{((Number) values.get(1)).longValue(), ((Number) values.get(2)).longValue()});
+            }
+            return results;
+        }
+
+        /**
+         * Sends one script call per flush in a single pipeline, by SHA or with the full script body.
+         */
+        private List<Object> pipeline(List<byte[][]> keysAndArgs, boolean bySha) {
+            return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (byte[][] call : keysAndArgs) {
+                    if (bySha) {
+                        connection.scriptingCommands().evalSha(SYNC_SCRIPT.getSha1(), ReturnType.MULTI, 2, call);
+                    } else {
+                        connection.scriptingCommands().eval(SYNC_SCRIPT_BYTES, ReturnType.MULTI, 2, call);
+                    }
+                }
+                return null;
+            });
+        }
+
+        /**
+         * Re-sends with EVAL only the calls Redis rejected with NOSCRIPT; the others already ran
+         * and must not be counted twice. Any other failure is rethrown.
+         */
+        private List<Object> retryMissingScript(RedisPipelineException e, List<byte[][]> keysAndArgs) {
+            List<Object> partial = e.getPipelineResult();
+            if (partial.size() != keysAndArgs.size()) {
+                throw e;
+            }
+            List<Integer> missing = new ArrayList<>();
+            for (int i = 0; i < partial.size(); i++) {
+                if (partial.get(i) instanceof Throwable failure) {
+                    if (!RedisRateLimitServiceImpl.isNoScriptError(failure)) {
+                        throw e;
+                    }
+                    missing.add(i);
+                }
+            }
+            if (missing.isEmpty()) {
+                throw e;
+            }
+            logger.info("Rate limit sync script missing on Redis, resending {} flushes with EVAL", missing.size());
+            scriptLoaded = false;
+            List<Object> retried = pipeline(missing.stream().map(keysAndArgs::get).toList(), false);
+            List<Object> replies = new ArrayList<>(partial);
+            for (int i = 0; i < missing.size(); i++) {
+                replies.set(missing.get(i), retried.get(i));
+            }
+            return replies;
+        }
+
+        @Override
+        public long[] acquire(Flush flush, int limit, double unelapsed) {
+            // Executed by SHA, falling back to EVAL when the script is not cached yet
+            List<?> reply = redisTemplate.execute(SYNC_SCRIPT, keys(flush), (Object[]) args(flush, limit, unelapsed));
+            return new long[]{((Number) reply.get(0)).longValue(), ((Number) reply.get(1)).longValue(),
+                    ((Number) reply.get(2)).longValue()};
+        }
+
+        private static byte[][] keysAndArgs(Flush flush) {
+            List<String> keys = keys(flush);
+            String[] args = args(flush, -1, 0);
+            byte[][] keysAndArgs = new byte[keys.size() + args.length][];
+            for (int i = 0; i < keysAndArgs.length; i++) {
+                String value = i < keys.size() ? keys.get(i) : args[i - keys.size()];
+                keysAndArgs[i] = value.getBytes(StandardCharsets.UTF_8);
+            }
+            return keysAndArgs;
+        }
+
+        private static List<String> keys(Flush flush) {
+            return List.of(windowKey(flush.key(), flush.windowIndex()), windowKey(flush.key(), flush.windowIndex() - 1));
+        }
+
+        private static String[] args(Flush flush, int limit, double unelapsed) {
+            return new String[]{
+                    String.valueOf(flush.delta()),
+                    String.valueOf(limit),
+                    String.valueOf(Math.round(unelapsed * 1000)),
+                    String.valueOf(flush.windowMs() * 2)
+            };
+        }
+
+        private static String windowKey(String key, long windowIndex) {
+            return KEY_PREFIX + key + ":" + windowIndex;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory lockout tracking used when Redis is unavailable. Mirrors the Redis lockout script:
+ * failed attempts are counted until the threshold, then the account is locked and the attempt
+ * counter resets. Each successive lockout lasts {@code multiplier} times longer than the last,
+ * capped at the maximum. Every update runs inside {@code ConcurrentHashMap.compute}, so parallel
+ * attempts on the same account are never lost.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Component
+public class InMemoryLockoutStore {
+
+    /**
+     * Progressive lockout settings.
+     *
+     * @param baseMs          first lockout duration
+     * @param multiplier      growth factor for each further lockout
+     * @param maxMs           longest lockout
+     * @param attemptWindowMs how long failed attempts are remembered without a new one
+     */
+    public record Policy(long baseMs, double multiplier, long maxMs, long attemptWindowMs) {
+
+        long lockoutDurationMs(int lockouts) {
+            return (long) Math.min(maxMs, baseMs * Math.pow(multiplier, Math.max(0, lockouts - 1)));
+        }
+
+        /**
+         * Lockout history is kept for one maximum lockout after the last one ends, so repeat
+         * offenders keep escalating.
+         */
+        long retentionMs(State state, long nowMs) {
+            return Math.max(attemptWindowMs, state.lockedUntilMs() - nowMs + (state.lockouts() > 0 ? maxMs : 0));
+        }
+    }
+
+    /**
+     * Lockout state of one account.
+     *
+     * @param attempts      failed attempts since the last lockout
+     * @param lockouts      lockouts applied so far
+     * @param lockedUntilMs epoch millis the current lockout ends, 0 if never locked
+     * @param expiresAtMs   epoch millis after which the state is forgotten
+     */
+    public record State(int attempts, int lockouts, long lockedUntilMs, long expiresAtMs) {
+
+        public boolean isLocked(long nowMs) {
+            return lockedUntilMs > nowMs;
+        }
+    }
+
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    /**
+     * Counts a failed attempt and locks the account when it reaches the threshold.
+     * Attempts made while the account is locked are not counted.
+     */
+    public State recordFailure(String key, int threshold, Policy policy, long nowMs) {
+        return states.compute(key, (k, current) -> {
+            State state = current == null || current.expiresAtMs() <= nowMs ? new State(0, 0, 0, 0) : current;
+            if (state.isLocked(nowMs)) {
+                return state;
+            }
+            int attempts = state.attempts() + 1;
+            if (attempts >= threshold) {
+                return lock(state.lockouts() + 1, policy, nowMs);
+            }
+            State next = new State(attempts, state.lockouts(), state.lockedUntilMs(), 0);
+            return withExpiry(next, policy, nowMs);
+        });
+    }
+
+    /**
+     * Locks the account now, as the next step of its escalation.
+     */
+    public State lock(String key, Policy policy, long nowMs) {
+        return states.compute(key, (k, current) -> {
+            int lockouts = current == null || current.expiresAtMs() <= nowMs ? 0 : current.lockouts();
+            return lock(lockouts + 1, policy, nowMs);
+        });
+    }
+
+    public State get(String key, long nowMs) {
+        State state = states.get(key);
+        return state == null || state.expiresAtMs() <= nowMs ? null : state;
+    }
+
+    public void clear(String key) {
+        states.remove(key);
+    }
+
+    public int size() {
+        return states.size();
+    }
+
+    @Scheduled(fixedDelayString = "${cloudsuites.rate-limiting.in-memory.cleanup-interval-minutes:5}", timeUnit = TimeUnit.MINUTES)
+    public void evictExpired() {
+        long nowMs = System.currentTimeMillis();
+        states.values().removeIf(state -> state.expiresAtMs() <= nowMs);
+    }
+
+    private static State lock(int lockouts, Policy policy, long nowMs) {
+        State locked = new State(0, lockouts, nowMs + policy.lockoutDurationMs(lockouts), 0);
+        return withExpiry(locked, policy, nowMs);
+    }
+
+    private static State withExpiry(State state, Policy policy, long nowMs) {
+        return new State(state.attempts(), state.lockouts(), state.lockedUntilMs(), nowMs + policy.retentionMs(state, nowMs));
+    }
+}
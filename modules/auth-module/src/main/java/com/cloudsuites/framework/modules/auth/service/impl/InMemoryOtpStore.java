@@ -0,0 +1,147 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.common.utils.HashedTimingWheel;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-node OTP store. OTPs are held per recipient in a small map keyed by purpose, so lookups
+ * touch only the recipient's own codes. Expiry is driven by a hashed timing wheel: each tick
+ * visits only the OTPs due in that tick instead of scanning everything outstanding.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "cloudsuites.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private static final int TICKS_PER_WHEEL = 512;
+
+    private static final class Entry {
+        final OtpRecord otp;
+        final AtomicInteger verificationAttempts;
+        final AtomicInteger resendCount;
+
+        Entry(OtpRecord otp) {
+            this.otp = otp;
+            this.verificationAttempts = new AtomicInteger(otp.verificationAttempts());
+            this.resendCount = new AtomicInteger(otp.resendCount());
+        }
+
+        OtpRecord snapshot() {
+            return otp.withCounts(verificationAttempts.get(), resendCount.get());
+        }
+    }
+
+    private final Map<String, Map<String, Entry>> byRecipient = new ConcurrentHashMap<>();
+    private HashedTimingWheel<Entry> expiryWheel;
+
+    // Wheel tick; the same property drives advanceExpiry, so each run sweeps about one tick
+    @Value("${cloudsuites.otp.expiry-tick-ms:1000}")
+    private long expiryTickMs = 1000;
+
+    @PostConstruct
+    public void init() {
+        expiryWheel = new HashedTimingWheel<>(expiryTickMs, TICKS_PER_WHEEL, this::expire);
+    }
+
+    @Override
+    public void save(OtpRecord otp) {
+        Entry entry = new Entry(otp);
+        byRecipient.compute(otp.recipient(), (recipient, purposes) -> {
+            Map<String, Entry> target = purposes != null ? purposes : new ConcurrentHashMap<>(4);
+            target.put(otp.purpose(), entry);
+            return target;
+        });
+        expiryWheel.schedule(entry, otp.expiresAtMillis());
+    }
+
+    @Override
+    public OtpRecord findActive(String recipient, String purpose) {
+        Entry entry = entry(recipient, purpose);
+        return entry == null || entry.otp.isExpired() ? null : entry.snapshot();
+    }
+
+    @Override
+    public OtpRecord findLatestActive(String recipient) {
+        Map<String, Entry> purposes = byRecipient.get(recipient);
+        if (purposes == null) {
+            return null;
+        }
+        Entry latest = null;
+        for (Entry entry : purposes.values()) {
+            if (!entry.otp.isExpired() && (latest == null || entry.otp.createdAt().isAfter(latest.otp.createdAt()))) {
+                latest = entry;
+            }
+        }
+        return latest == null ? null : latest.snapshot();
+    }
+
+    @Override
+    public int incrementVerificationAttempts(OtpRecord otp) {
+        Entry entry = current(otp);
+        return entry == null ? -1 : entry.verificationAttempts.incrementAndGet();
+    }
+
+    @Override
+    public int incrementResendCount(OtpRecord otp) {
+        Entry entry = current(otp);
+        return entry == null ? -1 : entry.resendCount.incrementAndGet();
+    }
+
+    @Override
+    public boolean remove(OtpRecord otp) {
+        Entry entry = current(otp);
+        return entry != null && removeEntry(entry);
+    }
+
+    @Override
+    public int removeAll(String recipient) {
+        Map<String, Entry> purposes = byRecipient.remove(recipient);
+        return purposes == null ? 0 : purposes.size();
+    }
+
+    /**
+     * Expires the OTPs due up to now. Removed or replaced OTPs still in the wheel are skipped
+     * when their tick comes round.
+     */
+    @Scheduled(fixedDelayString = "${cloudsuites.otp.expiry-tick-ms:1000}")
+    public void advanceExpiry() {
+        expiryWheel.advance(System.currentTimeMillis());
+    }
+
+    int size() {
+        return byRecipient.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private Entry entry(String recipient, String purpose) {
+        Map<String, Entry> purposes = byRecipient.get(recipient);
+        return purposes == null ? null : purposes.get(purpose);
+    }
+
+    private Entry current(OtpRecord otp) {
+        Entry entry = entry(otp.recipient(), otp.purpose());
+        return entry != null && entry.otp.otpId().equals(otp.otpId()) ? entry : null;
+    }
+
+    private void expire(Entry entry) {
+        removeEntry(entry);
+    }
+
+    private boolean removeEntry(Entry entry) {
+        boolean[] removed = new boolean[1];
+        byRecipient.computeIfPresent(entry.otp.recipient(), (recipient, purposes) -> {
+            removed[0] = purposes.remove(entry.otp.purpose(), entry);
+            return purposes.isEmpty() ? null : purposes;
+        });
+        return removed[0];
+    }
+}
@@ -0,0 +1,272 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.services.auth.entities.RateLimitResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock-free rate limiter used when Redis is unavailable.
+ *
+ * Each key holds one fixed-size counter: a sliding window approximated from the current and
+ * previous fixed windows (estimate = previous * unelapsed fraction + current), packed into a
+ * single AtomicLong and updated by CAS. The key map is capped at max-entries; when it grows
+ * past the cap, one thread sweeps it, dropping expired counters first and then arbitrary ones,
+ * while other threads carry on without waiting.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Component
+public class InMemoryRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryRateLimiter.class);
+
+    private static final int MAX_COUNT = 0xFFFF;
+
+    private final Map<String, WindowCounter> counters = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean(false);
+    private final LongAdder expiredEvictions = new LongAdder();
+    private final LongAdder capacityEvictions = new LongAdder();
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${cloudsuites.rate-limiting.in-memory.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    /**
+     * Sliding-window counter packed as [window index:32][previous count:16][current count:16].
+     * Counts saturate at 65535, far above any configured limit.
+     */
+    static final class WindowCounter {
+        final long windowMs;
+        final AtomicLong state = new AtomicLong();
+
+        WindowCounter(long windowMs) {
+            this.windowMs = windowMs;
+        }
+
+        /**
+         * Returns the count after recording, or the negated current estimate if the limit was reached.
+         */
+        long tryAcquire(long nowMs, int limit) {
+            long windowIndex = nowMs / windowMs;
+            double unelapsed = 1.0 - (double) (nowMs % windowMs) / windowMs;
+            while (true) {
+                long current = state.get();
+                long rolled = roll(current, windowIndex);
+                int previousCount = previous(rolled);
+                int currentCount = current(rolled);
+                double estimate = previousCount * unelapsed + currentCount;
+                if (estimate + 1 > limit) {
+                    return -(long) Math.ceil(estimate);
+                }
+                long next = pack(windowIndex, previousCount, Math.min(currentCount + 1, MAX_COUNT));
+                if (state.compareAndSet(current, next)) {
+                    return (long) Math.ceil(estimate) + 1;
+                }
+            }
+        }
+
+        long estimate(long nowMs) {
+            long rolled = roll(state.get(), nowMs / windowMs);
+            double unelapsed = 1.0 - (double) (nowMs % windowMs) / windowMs;
+            return (long) Math.ceil(previous(rolled) * unelapsed + current(rolled));
+        }
+
+        /**
+         * Milliseconds until the estimate drops enough to admit one more request.
+         */
+        long retryAfterMs(long nowMs, int limit) {
+            long rolled = roll(state.get(), nowMs / windowMs);
+            long elapsedMs = nowMs % windowMs;
+            int previousCount = previous(rolled);
+            int currentCount = current(rolled);
+            if (currentCount <= limit - 1 && previousCount > 0) {
+                // Wait within this window for the previous window's share to decay
+                double excess = previousCount * (1.0 - (double) elapsedMs / windowMs) + currentCount - (limit - 1);
+                return Math.max(1, (long) Math.ceil(excess / previousCount * windowMs));
+            }
+            // Current window alone is over the limit: wait for it to become the previous window and decay
+            double fraction = currentCount == 0 ? 0 : Math.max(0, 1.0 - (double) (limit - 1) / currentCount);
+            return (windowMs - elapsedMs) + (long) Math.ceil(fraction * windowMs);
+        }
+
+        boolean isExpired(long nowMs) {
+            return (((nowMs / windowMs) - windowIndex(state.get())) & 0xFFFFFFFFL) >= 2;
+        }
+
+        private static long roll(long packed, long windowIndex) {
+            long stored = windowIndex(packed);
+            if (stored == (windowIndex & 0xFFFFFFFFL)) {
+                return packed;
+            }
+            if (stored == ((windowIndex - 1) & 0xFFFFFFFFL)) {
+                return pack(windowIndex, current(packed), 0);
+            }
+            return pack(windowIndex, 0, 0);
+        }
+
+        private static long pack(long windowIndex, int previousCount, int currentCount) {
+            return (windowIndex & 0xFFFFFFFFL) << 32 | (long) previousCount << 16 | currentCount;
+        }
+
+        private static long windowIndex(long packed) {
+            return packed >>> 32;
+        }
+
+        private static int previous(long packed) {
+            return (int) (packed >>> 16) & 0xFFFF;
+        }
+
+        private static int current(long packed) {
+            return (int) packed & 0xFFFF;
+        }
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        Gauge.builder("cloudsuites.ratelimit.memory.entries", counters, Map::size)
+                .description("Keys tracked by the in-memory rate limiter")
+                .register(meterRegistry);
+        FunctionCounter.builder("cloudsuites.ratelimit.memory.evictions", expiredEvictions, LongAdder::sum)
+                .description("Counters evicted from the in-memory rate limiter")
+                .tag("reason", "expired")
+                .register(meterRegistry);
+        FunctionCounter.builder("cloudsuites.ratelimit.memory.evictions", capacityEvictions, LongAdder::sum)
+                .description("Counters evicted from the in-memory rate limiter")
+                .tag("reason", "capacity")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks the limit for a key and records the request if allowed.
+     */
+    public RateLimitResult checkAndRecord(String key, int limit, Duration window) {
+        long nowMs = System.currentTimeMillis();
+        long windowMs = Math.max(1, window.toMillis());
+        WindowCounter counter = counterFor(key, windowMs);
+
+        long count = counter.tryAcquire(nowMs, limit);
+        LocalDateTime resetAt = LocalDateTime.now().plus(window);
+        if (count > 0) {
+            return RateLimitResult.allowed(Math.min(count, limit), limit, resetAt, window.getSeconds());
+        }
+        long retryAfterSeconds = Math.max(1, (counter.retryAfterMs(nowMs, limit) + 999) / 1000);
+        return RateLimitResult.denied("Rate limit exceeded", -count, limit, resetAt, retryAfterSeconds);
+    }
+
+    /**
+     * Gets the current status for a key without recording a request.
+     */
+    public RateLimitResult getStatus(String key, int limit, Duration window) {
+        long nowMs = System.currentTimeMillis();
+        WindowCounter counter = counters.get(key);
+        LocalDateTime now = LocalDateTime.now();
+        if (counter == null) {
+            return RateLimitResult.allowed(0, limit, now, window.getSeconds());
+        }
+        long count = counter.estimate(nowMs);
+        if (count < limit) {
+            return RateLimitResult.allowed(count, limit, now, window.getSeconds());
+        }
+        long retryAfterSeconds = Math.max(1, (counter.retryAfterMs(nowMs, limit) + 999) / 1000);
+        return RateLimitResult.denied("Rate limit exceeded", count, limit, now, retryAfterSeconds);
+    }
+
+    public void clear(String key) {
+        counters.remove(key);
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public long getEvictionCount() {
+        return expiredEvictions.sum() + capacityEvictions.sum();
+    }
+
+    /**
+     * Drops counters whose windows have fully passed.
+     */
+    @Scheduled(fixedDelayString = "${cloudsuites.rate-limiting.in-memory.cleanup-interval-minutes:5}", timeUnit = TimeUnit.MINUTES)
+    public void evictExpired() {
+        long nowMs = System.currentTimeMillis();
+        counters.entrySet().removeIf(entry -> {
+            if (entry.getValue().isExpired(nowMs)) {
+                expiredEvictions.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private WindowCounter counterFor(String key, long windowMs) {
+        WindowCounter counter = counters.get(key);
+        if (counter != null && counter.windowMs == windowMs) {
+            return counter;
+        }
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new WindowCounter(windowMs));
+            if (counters.size() > maxEntries) {
+                sweep();
+            }
+            return counter;
+        }
+        // Same key used with a different window: start a fresh counter
+        WindowCounter replacement = new WindowCounter(windowMs);
+        counters.put(key, replacement);
+        return replacement;
+    }
+
+    /**
+     * Shrinks the map to 90% of capacity. Only one thread sweeps at a time; others skip it.
+     */
+    private void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int target = (int) (maxEntries * 0.9);
+            long nowMs = System.currentTimeMillis();
+            Iterator<Map.Entry<String, WindowCounter>> iterator = counters.entrySet().iterator();
+            while (iterator.hasNext() && counters.size() > target) {
+                if (iterator.next().getValue().isExpired(nowMs)) {
+                    iterator.remove();
+                    expiredEvictions.increment();
+                }
+            }
+            // Hash order is effectively random, so this evicts live counters uniformly
+            iterator = counters.entrySet().iterator();
+            while (iterator.hasNext() && counters.size() > target) {
+                iterator.next();
+                iterator.remove();
+                capacityEvictions.increment();
+            }
+            logger.debug("In-memory rate limiter swept to {} entries", counters.size());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
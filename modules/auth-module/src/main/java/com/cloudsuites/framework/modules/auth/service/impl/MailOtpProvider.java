@@ -0,0 +1,36 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.notification.NotificationServiceImpl;
+import com.cloudsuites.framework.modules.notification.model.EmailNotificationRequest;
+import com.cloudsuites.framework.services.auth.OtpChannel;
+
+/**
+ * Sends OTP codes by email through the notification module's mail sender.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+public class MailOtpProvider implements OtpDeliveryProvider {
+
+    private final NotificationServiceImpl notificationService;
+
+    public MailOtpProvider(NotificationServiceImpl notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @Override
+    public OtpChannel getChannel() {
+        return OtpChannel.EMAIL;
+    }
+
+    @Override
+    public void deliver(OtpDelivery delivery) {
+        EmailNotificationRequest request = new EmailNotificationRequest();
+        request.setTo(delivery.recipient());
+        request.setSubject("Your CloudSuites verification code");
+        request.setBody("Your CloudSuites verification code is " + delivery.code());
+        if (!notificationService.sendEmailNotification(request)) {
+            throw new IllegalStateException("Mail server did not accept the message");
+        }
+    }
+}
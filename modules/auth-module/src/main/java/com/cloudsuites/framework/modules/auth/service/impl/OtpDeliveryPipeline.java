@@ -0,0 +1,239 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.service.impl.OtpDeliveryProvider.OtpDelivery;
+import com.cloudsuites.framework.modules.common.utils.CircuitBreaker;
+import com.cloudsuites.framework.services.auth.OtpChannel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Delivers OTP codes off the request thread.
+ *
+ * Each channel has its own bounded queue and worker pool, so a slow SMS provider cannot hold
+ * up email or servlet threads. Failed attempts are retried with exponential backoff and equal
+ * jitter, scheduled on a timer rather than sleeping in a worker. Each channel also has a circuit
+ * breaker; while the SMS circuit is open, or once SMS retries run out, deliveries that carry a
+ * fallback email address move to the email channel. Progress is reported through the callback
+ * passed to {@link #submit}.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Component
+public class OtpDeliveryPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtpDeliveryPipeline.class);
+
+    @Autowired
+    private List<OtpDeliveryProvider> providers;
+
+    @Value("${cloudsuites.otp.delivery.queue-capacity:1000}")
+    private int queueCapacity = 1000;
+
+    @Value("${cloudsuites.otp.delivery.sms-workers:4}")
+    private int smsWorkers = 4;
+
+    @Value("${cloudsuites.otp.delivery.email-workers:2}")
+    private int emailWorkers = 2;
+
+    @Value("${cloudsuites.otp.delivery.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    @Value("${cloudsuites.otp.delivery.backoff-base-ms:200}")
+    private long backoffBaseMs = 200;
+
+    @Value("${cloudsuites.otp.delivery.backoff-max-ms:5000}")
+    private long backoffMaxMs = 5000;
+
+    @Value("${cloudsuites.otp.delivery.circuit-breaker.failure-threshold:5}")
+    private int breakerFailureThreshold = 5;
+
+    @Value("${cloudsuites.otp.delivery.circuit-breaker.open-seconds:30}")
+    private long breakerOpenSeconds = 30;
+
+    private final Map<OtpChannel, Lane> lanes = new EnumMap<>(OtpChannel.class);
+    private ScheduledExecutorService retryScheduler;
+
+    /**
+     * One channel's provider, worker pool and circuit breaker.
+     */
+    private record Lane(OtpDeliveryProvider provider, ThreadPoolExecutor workers, CircuitBreaker breaker) {
+    }
+
+    /**
+     * A delivery in progress. {@code fallbackRecipient} is cleared once delivery has failed over.
+     */
+    private record Job(OtpDelivery delivery, String fallbackRecipient, Consumer<OtpDeliveryStatus> callback,
+                       int attempt) {
+
+        Job nextAttempt() {
+            return new Job(delivery, fallbackRecipient, callback, attempt + 1);
+        }
+    }
+
+    public OtpDeliveryPipeline() {
+    }
+
+    OtpDeliveryPipeline(List<OtpDeliveryProvider> providers) {
+        this.providers = providers;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (OtpDeliveryProvider provider : providers) {
+            OtpChannel channel = provider.getChannel();
+            int workers = channel == OtpChannel.SMS ? smsWorkers : emailWorkers;
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    Thread.ofPlatform().name("otp-" + channel.getCode() + "-", 1).daemon(true).factory());
+            lanes.put(channel, new Lane(provider, executor,
+                    new CircuitBreaker(breakerFailureThreshold, TimeUnit.SECONDS.toMillis(breakerOpenSeconds))));
+            logger.info("OTP delivery channel {} using {} with {} workers", channel, provider.getClass().getSimpleName(), workers);
+        }
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("otp-delivery-retry").daemon(true).factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        for (Lane lane : lanes.values()) {
+            lane.workers().shutdown();
+        }
+        for (Lane lane : lanes.values()) {
+            try {
+                if (!lane.workers().awaitTermination(5, TimeUnit.SECONDS)) {
+                    lane.workers().shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lane.workers().shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Queues a delivery and returns without waiting for the provider.
+     *
+     * @param delivery          the code and recipient
+     * @param fallbackRecipient email address to use if SMS is unavailable, or null
+     * @param callback          receives each status change, on a pipeline thread except for an
+     *                          immediate failover, which is reported on the caller's thread
+     * @return false if the delivery could not be queued: no provider for the channel, the queue
+     *         is full, or the circuit is open with nowhere to fail over to
+     */
+    public boolean submit(OtpDelivery delivery, String fallbackRecipient, Consumer<OtpDeliveryStatus> callback) {
+        return dispatch(new Job(delivery, fallbackRecipient, callback, 1), null);
+    }
+
+    /**
+     * Number of deliveries waiting for a worker on the channel.
+     */
+    public int getQueuedCount(OtpChannel channel) {
+        Lane lane = lanes.get(channel);
+        return lane == null ? 0 : lane.workers().getQueue().size();
+    }
+
+    public CircuitBreaker.State getCircuitState(OtpChannel channel) {
+        Lane lane = lanes.get(channel);
+        return lane == null ? CircuitBreaker.State.OPEN : lane.breaker().getState(System.currentTimeMillis());
+    }
+
+    private boolean dispatch(Job job, String lastError) {
+        Lane lane = lanes.get(job.delivery().channel());
+        if (lane == null || !lane.breaker().tryAcquire(System.currentTimeMillis())) {
+            return failOver(job, "Channel unavailable");
+        }
+        try {
+            lane.workers().execute(() -> attempt(lane, job));
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.warn("OTP delivery queue full for channel {}", job.delivery().channel());
+            return failOver(job, lastError != null ? lastError : "Delivery queue full");
+        }
+    }
+
+    private void attempt(Lane lane, Job job) {
+        OtpDelivery delivery = job.delivery();
+        try {
+            lane.provider().deliver(delivery);
+            lane.breaker().recordSuccess();
+            notify(job, OtpDeliveryStatus.State.DELIVERED, null);
+        } catch (Exception e) {
+            lane.breaker().recordFailure(System.currentTimeMillis());
+            String error = e.getMessage();
+            logger.debug("OTP {} delivery attempt {} via {} failed: {}", delivery.otpId(), job.attempt(),
+                    delivery.channel(), error);
+            if (job.attempt() < maxAttempts) {
+                notify(job, OtpDeliveryStatus.State.RETRYING, error);
+                scheduleRetry(job.nextAttempt(), error);
+            } else if (!failOver(job, error)) {
+                notify(job, OtpDeliveryStatus.State.FAILED, error);
+            }
+        }
+    }
+
+    private void scheduleRetry(Job job, String lastError) {
+        try {
+            retryScheduler.schedule(() -> {
+                if (!dispatch(job, lastError)) {
+                    notify(job, OtpDeliveryStatus.State.FAILED, lastError);
+                }
+            }, backoffMs(job.attempt() - 1), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            notify(job, OtpDeliveryStatus.State.FAILED, "Delivery pipeline shut down");
+        }
+    }
+
+    /**
+     * Moves an SMS delivery to the fallback email address, if there is one.
+     */
+    private boolean failOver(Job job, String error) {
+        OtpDelivery delivery = job.delivery();
+        if (job.fallbackRecipient() == null || delivery.channel() == OtpChannel.EMAIL || !lanes.containsKey(OtpChannel.EMAIL)) {
+            return false;
+        }
+        notify(job, OtpDeliveryStatus.State.FAILED_OVER, error);
+        logger.info("OTP {} failing over from {} to email", delivery.otpId(), delivery.channel());
+        OtpDelivery email = new OtpDelivery(delivery.otpId(), delivery.code(), job.fallbackRecipient(), OtpChannel.EMAIL);
+        return dispatch(new Job(email, null, job.callback(), 1), error);
+    }
+
+    /**
+     * Exponential backoff with equal jitter: half the delay is fixed, half random.
+     */
+    long backoffMs(int failedAttempts) {
+        long exponential = Math.min(backoffMaxMs, backoffBaseMs << Math.min(20, Math.max(0, failedAttempts - 1)));
+        long half = exponential / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private void notify(Job job, OtpDeliveryStatus.State state, String error) {
+        if (job.callback() == null) {
+            return;
+        }
+        try {
+            job.callback().accept(new OtpDeliveryStatus(job.delivery().otpId(), job.delivery().channel(), state,
+                    job.attempt(), error));
+        } catch (RuntimeException e) {
+            logger.warn("OTP delivery callback failed for {}: {}", job.delivery().otpId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.services.auth.OtpChannel;
+
+/**
+ * Sends OTP codes over one channel. Called from the delivery pipeline's worker threads, never
+ * from request threads, so implementations may block on the provider's API.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+public interface OtpDeliveryProvider {
+
+    OtpChannel getChannel();
+
+    /**
+     * Delivers the code, throwing if the provider did not accept it.
+     */
+    void deliver(OtpDelivery delivery) throws Exception;
+
+    /**
+     * A code to deliver to one recipient.
+     */
+    record OtpDelivery(String otpId, String code, String recipient, OtpChannel channel) {
+    }
+}
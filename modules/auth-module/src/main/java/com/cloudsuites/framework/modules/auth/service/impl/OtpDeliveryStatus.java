@@ -0,0 +1,33 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.services.auth.OtpChannel;
+
+/**
+ * Progress of an OTP delivery, reported to the callback given when it was submitted.
+ *
+ * @param otpId    the OTP being delivered
+ * @param channel  the channel of the attempt being reported
+ * @param state    what happened
+ * @param attempts attempts made on this channel so far
+ * @param error    the last provider error, or null
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+public record OtpDeliveryStatus(String otpId, OtpChannel channel, State state, int attempts, String error) {
+
+    public enum State {
+        /** The provider accepted the code. */
+        DELIVERED,
+        /** An attempt failed and another is scheduled. */
+        RETRYING,
+        /** The channel is unavailable and delivery moved to the fallback recipient. */
+        FAILED_OVER,
+        /** Delivery gave up; no further status follows. */
+        FAILED
+    }
+
+    public boolean isFinal() {
+        return state == State.DELIVERED || state == State.FAILED;
+    }
+}
@@ -0,0 +1,40 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.services.auth.OtpChannel;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Snapshot of an issued OTP as held by an {@link OtpStore}. Counters reflect the store at the
+ * time of the read; updates go through the store so they stay atomic.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+public record OtpRecord(String otpId,
+                        String code,
+                        String recipient,
+                        OtpChannel channel,
+                        String purpose,
+                        LocalDateTime createdAt,
+                        LocalDateTime expiresAt,
+                        String ipAddress,
+                        String userAgent,
+                        int verificationAttempts,
+                        int resendCount) {
+
+    public boolean isExpired() {
+        return !LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).isBefore(expiresAt);
+    }
+
+    long expiresAtMillis() {
+        return expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    OtpRecord withCounts(int verificationAttempts, int resendCount) {
+        return new OtpRecord(otpId, code, recipient, channel, purpose, createdAt, expiresAt, ipAddress, userAgent,
+                verificationAttempts, resendCount);
+    }
+}
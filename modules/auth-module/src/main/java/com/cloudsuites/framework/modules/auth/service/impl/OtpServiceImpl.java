@@ -5,9 +5,12 @@ import com.cloudsuites.framework.services.auth.OtpChannel;
 import com.cloudsuites.framework.services.auth.entities.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -18,6 +21,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 /**
  * Multi-channel OTP service implementation with rate limiting and security features.
  * Supports SMS and Email delivery with comprehensive tracking and validation.
+ * Active codes live in an {@link OtpStore} indexed by recipient and purpose, so lookups do not
+ * depend on how many OTPs are outstanding. Codes are handed to the {@link OtpDeliveryPipeline}
+ * once stored, so requests return without waiting for the SMS or email provider.
  * 
  * @author CloudSuites Development Team
  * @since 1.0.0
@@ -46,58 +52,18 @@ public class OtpServiceImpl implements OtpService {
     @Value("${cloudsuites.otp.verification-attempts:3}")
     private int maxVerificationAttempts;
 
+    @Autowired
+    private OtpStore otpStore;
+
+    @Autowired
+    private OtpDeliveryPipeline deliveryPipeline;
+
     // In-memory storage (in production, use Redis or database)
-    private final Map<String, OtpData> activeOtps = new ConcurrentHashMap<>();
     private final Map<String, RateLimitData> rateLimits = new ConcurrentHashMap<>();
     private final Map<String, OtpStatistics> statistics = new ConcurrentHashMap<>();
     
     private final SecureRandom secureRandom = new SecureRandom();
 
-    /**
-     * Data class for storing OTP information.
-     */
-    private static class OtpData {
-        final String otpId;
-        final String code;
-        final String recipient;
-        final OtpChannel channel;
-        final String purpose;
-        final LocalDateTime createdAt;
-        final LocalDateTime expiresAt;
-        final String ipAddress;
-        final String userAgent;
-        final AtomicInteger verificationAttempts;
-        final AtomicInteger resendCount;
-
-        OtpData(String otpId, String code, String recipient, OtpChannel channel, String purpose,
-                String ipAddress, String userAgent, int expiryMinutes) {
-            this.otpId = otpId;
-            this.code = code;
-            this.recipient = recipient;
-            this.channel = channel;
-            this.purpose = purpose;
-            this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
-            this.expiresAt = this.createdAt.plusMinutes(expiryMinutes);
-            this.ipAddress = ipAddress;
-            this.userAgent = userAgent;
-            this.verificationAttempts = new AtomicInteger(0);
-            this.resendCount = new AtomicInteger(0);
-        }
-
-        boolean isExpired() {
-            return LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).isAfter(expiresAt) ||
-                   LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).equals(expiresAt);
-        }
-
-        boolean canVerify() {
-            return !isExpired() && verificationAttempts.get() < 3; // Max 3 verification attempts
-        }
-
-        boolean canResend(int maxResends) {
-            return !isExpired() && resendCount.get() < maxResends;
-        }
-    }
-
     /**
      * Data class for tracking rate limits.
      */
@@ -163,21 +129,25 @@ public class OtpServiceImpl implements OtpService {
             String otpCode = generateOtpCode();
             String otpId = generateOtpId();
 
-            // Store OTP data
-            OtpData otpData = new OtpData(otpId, otpCode, request.getRecipient(), 
+            // Store OTP data, replacing any earlier code for the same purpose
+            LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            OtpRecord otpData = new OtpRecord(otpId, otpCode, request.getRecipient(),
                                         request.getChannel(), request.getPurpose(),
-                                        request.getIpAddress(), request.getUserAgent(), expiryMinutes);
-            
-            activeOtps.put(otpId, otpData);
+                                        createdAt, createdAt.plusMinutes(expiryMinutes),
+                                        request.getIpAddress(), request.getUserAgent(), 0, 0);
+
+            otpStore.save(otpData);
 
             // Update statistics
             updateStatistics(request.getRecipient(), true, false);
 
-            // Send OTP (mock implementation - in production integrate with Twilio/SMTP)
-            boolean sent = deliverOtp(otpData);
+            // Queue delivery; the provider call happens on the pipeline's workers
+            String fallbackRecipient = isValidRecipient(request.getFallbackRecipient(), OtpChannel.EMAIL)
+                    ? request.getFallbackRecipient() : null;
+            boolean sent = deliverOtp(otpData, fallbackRecipient, true);
             
             if (sent) {
-                logger.info("OTP sent successfully to {} via {} (ID: {})", 
+                logger.info("OTP queued for delivery to {} via {} (ID: {})", 
                           maskRecipient(request.getRecipient()), request.getChannel(), otpId);
                 
                 return OtpResponse.success(
@@ -185,10 +155,10 @@ public class OtpServiceImpl implements OtpService {
                     otpId,
                     request.getChannel(),
                     maskRecipient(request.getRecipient()),
-                    otpData.expiresAt
+                    otpData.expiresAt()
                 );
             } else {
-                activeOtps.remove(otpId); // Clean up failed OTP
+                otpStore.remove(otpData); // Clean up failed OTP
                 return OtpResponse.failure("Failed to send OTP via " + request.getChannel().getDisplayName());
             }
 
@@ -205,7 +175,7 @@ public class OtpServiceImpl implements OtpService {
 
         try {
             // Find active OTP for recipient and purpose
-            OtpData otpData = findActiveOtp(request.getRecipient(), request.getPurpose());
+            OtpRecord otpData = otpStore.findActive(request.getRecipient(), request.getPurpose());
             
             if (otpData == null) {
                 logger.debug("No active OTP found for {} with purpose: {}", 
@@ -214,36 +184,35 @@ public class OtpServiceImpl implements OtpService {
                 return false;
             }
 
-            // Check if OTP can be verified
-            if (!otpData.canVerify()) {
+            // Count the attempt before comparing, so parallel guesses cannot exceed the limit
+            int attempts = otpStore.incrementVerificationAttempts(otpData);
+            if (attempts < 0 || attempts > maxVerificationAttempts) {
                 logger.debug("OTP cannot be verified - expired or max attempts reached for {}", 
                            maskRecipient(request.getRecipient()));
                 updateStatistics(request.getRecipient(), false, true);
                 return false;
             }
 
-            // Increment verification attempts
-            otpData.verificationAttempts.incrementAndGet();
-
             // Verify OTP code
-            boolean isValid = otpData.code.equals(request.getOtpCode());
+            boolean isValid = request.getOtpCode() != null && MessageDigest.isEqual(
+                    otpData.code().getBytes(StandardCharsets.UTF_8),
+                    request.getOtpCode().getBytes(StandardCharsets.UTF_8));
             
-            if (isValid) {
+            // Removing the used OTP also guarantees a code is only accepted once
+            if (isValid && otpStore.remove(otpData)) {
                 logger.info("OTP verified successfully for {} (ID: {})", 
-                          maskRecipient(request.getRecipient()), otpData.otpId);
+                          maskRecipient(request.getRecipient()), otpData.otpId());
                 
-                // Remove used OTP
-                activeOtps.remove(otpData.otpId);
                 updateStatistics(request.getRecipient(), false, true);
                 return true;
             } else {
                 logger.debug("Invalid OTP code provided for {} (Attempt: {}/{})", 
                            maskRecipient(request.getRecipient()), 
-                           otpData.verificationAttempts.get(), maxVerificationAttempts);
+                           attempts, maxVerificationAttempts);
                 
                 // Remove OTP if max attempts reached
-                if (otpData.verificationAttempts.get() >= maxVerificationAttempts) {
-                    activeOtps.remove(otpData.otpId);
+                if (attempts >= maxVerificationAttempts) {
+                    otpStore.remove(otpData);
                     logger.debug("OTP removed due to max verification attempts for {}", 
                                maskRecipient(request.getRecipient()));
                 }
@@ -264,13 +233,13 @@ public class OtpServiceImpl implements OtpService {
 
         try {
             // Find the most recent active OTP for this recipient
-            OtpData latestOtp = findLatestActiveOtp(recipient);
+            OtpRecord latestOtp = otpStore.findLatestActive(recipient);
             
             if (latestOtp == null) {
                 return OtpResponse.failure("No active OTP found to resend");
             }
 
-            if (!latestOtp.canResend(maxResends)) {
+            if (latestOtp.resendCount() >= maxResends) {
                 return OtpResponse.failure("Maximum resend attempts exceeded or OTP expired");
             }
 
@@ -283,24 +252,27 @@ public class OtpServiceImpl implements OtpService {
             }
 
             // Increment resend count
-            latestOtp.resendCount.incrementAndGet();
+            int resendCount = otpStore.incrementResendCount(latestOtp);
+            if (resendCount < 0 || resendCount > maxResends) {
+                return OtpResponse.failure("Maximum resend attempts exceeded or OTP expired");
+            }
 
             // Update rate limiting
             updateRateLimit(recipient);
 
             // Resend OTP
-            boolean sent = deliverOtp(latestOtp);
+            boolean sent = deliverOtp(latestOtp, null, false);
             
             if (sent) {
-                logger.info("OTP resent successfully to {} (ID: {}, Resend: {})", 
-                          maskRecipient(recipient), latestOtp.otpId, latestOtp.resendCount.get());
+                logger.info("OTP resend queued for {} (ID: {}, Resend: {})", 
+                          maskRecipient(recipient), latestOtp.otpId(), resendCount);
                 
                 return OtpResponse.success(
-                    "OTP resent successfully via " + latestOtp.channel.getDisplayName(),
-                    latestOtp.otpId,
-                    latestOtp.channel,
+                    "OTP resent successfully via " + latestOtp.channel().getDisplayName(),
+                    latestOtp.otpId(),
+                    latestOtp.channel(),
                     maskRecipient(recipient),
-                    latestOtp.expiresAt
+                    latestOtp.expiresAt()
                 );
             } else {
                 return OtpResponse.failure("Failed to resend OTP");
@@ -318,16 +290,8 @@ public class OtpServiceImpl implements OtpService {
 
         int invalidatedCount = 0;
         try {
-            // Find and remove all active OTPs for the recipient
-            var iterator = activeOtps.entrySet().iterator();
-            while (iterator.hasNext()) {
-                var entry = iterator.next();
-                if (entry.getValue().recipient.equals(recipient)) {
-                    logger.debug("Invalidated OTP ID: {} for {}", entry.getKey(), maskRecipient(recipient));
-                    iterator.remove();
-                    invalidatedCount++;
-                }
-            }
+            // Remove all active OTPs for the recipient
+            invalidatedCount = otpStore.removeAll(recipient);
 
             if (invalidatedCount > 0) {
                 logger.info("Invalidated {} OTP codes for {}", invalidatedCount, maskRecipient(recipient));
@@ -373,8 +337,6 @@ public class OtpServiceImpl implements OtpService {
 
     @Override
     public OtpStatistics getOtpStatistics(String recipient) {
-        cleanupExpiredOtps();
-        
         if (recipient == null) {
             // Return global statistics
             return calculateGlobalStatistics();
@@ -419,51 +381,31 @@ public class OtpServiceImpl implements OtpService {
         return "otp-" + id.toString();
     }
 
-    private boolean deliverOtp(OtpData otpData) {
-        // Mock implementation - in production, integrate with actual services
-        switch (otpData.channel) {
-            case SMS:
-                return deliverSms(otpData);
-            case EMAIL:
-                return deliverEmail(otpData);
-            default:
-                logger.warn("Unsupported OTP channel: {}", otpData.channel);
-                return false;
-        }
-    }
-
-    private boolean deliverSms(OtpData otpData) {
-        // Mock SMS delivery - integrate with Twilio in production
-        logger.info("SMS OTP would be sent to {} with code: {} (ID: {})", 
-                   maskRecipient(otpData.recipient), "******", otpData.otpId);
-        
-        // Simulate delivery success/failure
-        return true; // 100% success rate for testing
-    }
-
-    private boolean deliverEmail(OtpData otpData) {
-        // Mock email delivery - integrate with SMTP in production
-        logger.info("Email OTP would be sent to {} with code: {} (ID: {})", 
-                   maskRecipient(otpData.recipient), "******", otpData.otpId);
-        
-        // Simulate delivery success/failure
-        return true; // 100% success rate for testing
+    private boolean deliverOtp(OtpRecord otpData, String fallbackRecipient, boolean firstDelivery) {
+        OtpDeliveryProvider.OtpDelivery delivery = new OtpDeliveryProvider.OtpDelivery(
+                otpData.otpId(), otpData.code(), otpData.recipient(), otpData.channel());
+        return deliveryPipeline.submit(delivery, fallbackRecipient,
+                status -> onDeliveryStatus(otpData, status, firstDelivery));
     }
 
-    private OtpData findActiveOtp(String recipient, String purpose) {
-        return activeOtps.values().stream()
-                .filter(otp -> otp.recipient.equals(recipient) && otp.purpose.equals(purpose))
-                .filter(otp -> !otp.isExpired())
-                .findFirst()
-                .orElse(null);
-    }
-
-    private OtpData findLatestActiveOtp(String recipient) {
-        return activeOtps.values().stream()
-                .filter(otp -> otp.recipient.equals(recipient))
-                .filter(otp -> !otp.isExpired())
-                .max((a, b) -> a.createdAt.compareTo(b.createdAt))
-                .orElse(null);
+    private void onDeliveryStatus(OtpRecord otpData, OtpDeliveryStatus status, boolean firstDelivery) {
+        switch (status.state()) {
+            case DELIVERED:
+                logger.info("OTP delivered to {} via {} (ID: {})",
+                           maskRecipient(otpData.recipient()), status.channel(), status.otpId());
+                break;
+            case FAILED:
+                logger.warn("OTP delivery failed for {} after {} attempts (ID: {}): {}",
+                           maskRecipient(otpData.recipient()), status.attempts(), status.otpId(), status.error());
+                if (firstDelivery) {
+                    // Nobody received the code, so drop it rather than leave it to expire
+                    otpStore.remove(otpData);
+                }
+                break;
+            default:
+                logger.debug("OTP {} delivery {} via {} (attempt {})",
+                            status.otpId(), status.state(), status.channel(), status.attempts());
+        }
     }
 
     private void updateRateLimit(String recipient) {
@@ -536,10 +478,6 @@ public class OtpServiceImpl implements OtpService {
         }
     }
 
-    private void cleanupExpiredOtps() {
-        activeOtps.entrySet().removeIf(entry -> entry.getValue().isExpired());
-    }
-
     private void cleanupExpiredRateLimits() {
         rateLimits.entrySet().removeIf(entry -> !entry.getValue().isInWindow());
     }
@@ -0,0 +1,51 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+/**
+ * Storage for active OTPs, indexed by recipient and purpose. A recipient holds at most one OTP
+ * per purpose: saving a new one replaces the previous code. Updates and removals name the OTP
+ * they apply to and do nothing once it has been replaced, used or expired.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+public interface OtpStore {
+
+    /**
+     * Stores an OTP, replacing any active OTP for the same recipient and purpose.
+     */
+    void save(OtpRecord otp);
+
+    /**
+     * @return the unexpired OTP for the recipient and purpose, or null
+     */
+    OtpRecord findActive(String recipient, String purpose);
+
+    /**
+     * @return the most recently created unexpired OTP for the recipient across purposes, or null
+     */
+    OtpRecord findLatestActive(String recipient);
+
+    /**
+     * @return the attempt count after this attempt, or -1 if the OTP is no longer stored
+     */
+    int incrementVerificationAttempts(OtpRecord otp);
+
+    /**
+     * @return the resend count after this resend, or -1 if the OTP is no longer stored
+     */
+    int incrementResendCount(OtpRecord otp);
+
+    /**
+     * Removes the OTP if it is still the active one for its recipient and purpose.
+     *
+     * @return true if this call removed it
+     */
+    boolean remove(OtpRecord otp);
+
+    /**
+     * Removes every OTP held for the recipient.
+     *
+     * @return the number of OTPs removed
+     */
+    int removeAll(String recipient);
+}
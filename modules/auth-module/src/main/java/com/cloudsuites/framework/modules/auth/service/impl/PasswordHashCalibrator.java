@@ -0,0 +1,97 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * Measures password hashing on the current host and picks the cost settings that come closest
+ * to a target time per hash without exceeding it. Costs never go below the minimums below,
+ * even on slow hosts.
+ *
+ * Run it on production-class hardware and copy the printed settings into application.yml:
+ * <pre>
+ * java -cp auth-module.jar:... com.cloudsuites.framework.modules.auth.service.impl.PasswordHashCalibrator 250
+ * </pre>
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+public class PasswordHashCalibrator {
+
+    static final int MIN_BCRYPT_STRENGTH = 10;
+    static final int MIN_ARGON2_ITERATIONS = 2;
+    static final int MIN_PBKDF2_ITERATIONS = 600_000;
+
+    private static final String SAMPLE_PASSWORD = "Calibration-Sample-Passw0rd!";
+    private static final int SAMPLES = 3;
+
+    /**
+     * Highest BCrypt strength whose hash time stays within the target.
+     */
+    public static int calibrateBcryptStrength(long targetMs) {
+        int strength = MIN_BCRYPT_STRENGTH;
+        // Each strength step doubles the work
+        while (strength < 31 && measureMs(new BCryptPasswordEncoder(strength + 1)) <= targetMs) {
+            strength++;
+        }
+        return strength;
+    }
+
+    /**
+     * Argon2id iterations that fit the target at the given memory and parallelism.
+     */
+    public static int calibrateArgon2Iterations(long targetMs, int memoryKb, int parallelism) {
+        double perIterationMs = measureMs(new Argon2PasswordEncoder(16, 32, parallelism, memoryKb, 1));
+        return Math.max(MIN_ARGON2_ITERATIONS, (int) (targetMs / Math.max(perIterationMs, 0.01)));
+    }
+
+    /**
+     * PBKDF2-HMAC-SHA256 iterations that fit the target.
+     */
+    public static int calibratePbkdf2Iterations(long targetMs) {
+        int probeIterations = 50_000;
+        double probeMs = measureMs(new Pbkdf2Sha256PasswordEncoder(probeIterations, 16));
+        long iterations = (long) (probeIterations * (targetMs / Math.max(probeMs, 0.01)));
+        return (int) Math.max(MIN_PBKDF2_ITERATIONS, Math.min(Integer.MAX_VALUE, iterations));
+    }
+
+    /**
+     * Median time of a few hashes, after one warm-up.
+     */
+    static double measureMs(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        double[] samples = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    public static void main(String[] args) {
+        long targetMs = args.length > 0 ? Long.parseLong(args[0]) : 250;
+        int memoryKb = args.length > 1 ? Integer.parseInt(args[1]) : 19456;
+        int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        System.out.printf("Calibrating for %d ms per hash on %d CPUs%n", targetMs,
+                Runtime.getRuntime().availableProcessors());
+        int bcrypt = calibrateBcryptStrength(targetMs);
+        int argon2 = calibrateArgon2Iterations(targetMs, memoryKb, parallelism);
+        int pbkdf2 = calibratePbkdf2Iterations(targetMs);
+
+        System.out.println("cloudsuites:");
+        System.out.println("  security:");
+        System.out.println("    password:");
+        System.out.printf("      bcrypt:%n        strength: %d   # %.0f ms%n", bcrypt,
+                measureMs(new BCryptPasswordEncoder(bcrypt)));
+        System.out.printf("      argon2:%n        memory-kb: %d%n        parallelism: %d%n        iterations: %d   # %.0f ms%n",
+                memoryKb, parallelism, argon2, measureMs(new Argon2PasswordEncoder(16, 32, parallelism, memoryKb, argon2)));
+        System.out.printf("      pbkdf2:%n        iterations: %d   # %.0f ms%n", pbkdf2,
+                measureMs(new Pbkdf2Sha256PasswordEncoder(pbkdf2, 16)));
+    }
+}
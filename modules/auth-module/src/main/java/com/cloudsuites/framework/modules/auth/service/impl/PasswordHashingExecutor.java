@@ -0,0 +1,213 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs password hashing on dedicated, CPU-bounded thread pools instead of request threads.
+ *
+ * Interactive work (login, password change) has its own pool sized to the CPU count and a short
+ * bounded queue. When the queue is full, or a task cannot start within the interactive timeout,
+ * the caller gets {@link PasswordHashingUnavailableException} straight away, to be answered with
+ * 503 rather than left to pile up. Background work, such as rehashing to new parameters, runs on
+ * a separate low-priority pool and is dropped when saturated, so it never delays a login.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    public enum Queue { INTERACTIVE, BACKGROUND }
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    // 0 means one thread per available processor
+    @Value("${cloudsuites.security.password.hashing.interactive-threads:0}")
+    private int interactiveThreads = 0;
+
+    @Value("${cloudsuites.security.password.hashing.interactive-queue-capacity:32}")
+    private int interactiveQueueCapacity = 32;
+
+    @Value("${cloudsuites.security.password.hashing.interactive-timeout-ms:2000}")
+    private long interactiveTimeoutMs = 2000;
+
+    @Value("${cloudsuites.security.password.hashing.background-threads:1}")
+    private int backgroundThreads = 1;
+
+    @Value("${cloudsuites.security.password.hashing.background-queue-capacity:1000}")
+    private int backgroundQueueCapacity = 1000;
+
+    private ThreadPoolExecutor interactive;
+    private ThreadPoolExecutor background;
+    private final LongAdder interactiveRejections = new LongAdder();
+    private final LongAdder backgroundRejections = new LongAdder();
+    private Timer interactiveWait;
+    private Timer interactiveDuration;
+    private Timer backgroundDuration;
+
+    @PostConstruct
+    public void init() {
+        int threads = interactiveThreads > 0 ? interactiveThreads : Runtime.getRuntime().availableProcessors();
+        interactive = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(interactiveQueueCapacity),
+                Thread.ofPlatform().name("password-hash-", 1).daemon(true).factory());
+        background = new ThreadPoolExecutor(backgroundThreads, backgroundThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(backgroundQueueCapacity),
+                Thread.ofPlatform().name("password-rehash-", 1).daemon(true).priority(Thread.MIN_PRIORITY).factory());
+        logger.info("Password hashing executor started with {} interactive and {} background threads",
+                threads, backgroundThreads);
+        registerMetrics();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        interactive.shutdownNow();
+        background.shutdown();
+    }
+
+    /**
+     * Runs an interactive hashing task and waits for its result.
+     *
+     * @throws PasswordHashingUnavailableException if the pool is saturated or the task could not
+     *                                             start within the interactive timeout
+     */
+    public <T> T runInteractive(Callable<T> task) {
+        long queuedAt = System.nanoTime();
+        // Whoever sets this first decides: the worker runs the task, or the caller gives up on it
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = interactive.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                if (interactiveWait != null) {
+                    interactiveWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                }
+                return interactiveDuration == null ? task.call() : interactiveDuration.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            interactiveRejections.increment();
+            throw unavailable();
+        }
+        try {
+            try {
+                return future.get(interactiveTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) {
+                    interactiveRejections.increment();
+                    throw unavailable();
+                }
+                // Already hashing: a hash cannot be interrupted, so wait for the result
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            claimed.set(true);
+            Thread.currentThread().interrupt();
+            throw unavailable();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    /**
+     * Queues a background hashing task without waiting for it.
+     *
+     * @return the task's result, or a future completed exceptionally if the background pool is full
+     */
+    public <T> CompletableFuture<T> submitBackground(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            background.execute(() -> {
+                try {
+                    result.complete(backgroundDuration == null ? task.call() : backgroundDuration.recordCallable(task));
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            backgroundRejections.increment();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    public int getQueueDepth(Queue queue) {
+        return (queue == Queue.INTERACTIVE ? interactive : background).getQueue().size();
+    }
+
+    public long getRejectionCount(Queue queue) {
+        return (queue == Queue.INTERACTIVE ? interactiveRejections : backgroundRejections).sum();
+    }
+
+    private PasswordHashingUnavailableException unavailable() {
+        return new PasswordHashingUnavailableException("Too many concurrent sign-in requests, please retry shortly",
+                Math.max(1, TimeUnit.MILLISECONDS.toSeconds(interactiveTimeoutMs)));
+    }
+
+    private void registerMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        for (Queue queue : Queue.values()) {
+            String tag = queue.name().toLowerCase();
+            ThreadPoolExecutor executor = queue == Queue.INTERACTIVE ? interactive : background;
+            Gauge.builder("cloudsuites.password.hashing.queue.depth", executor, e -> e.getQueue().size())
+                    .description("Password hashing tasks waiting for a thread")
+                    .tag("queue", tag)
+                    .register(meterRegistry);
+            Gauge.builder("cloudsuites.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                    .description("Password hashing threads busy")
+                    .tag("queue", tag)
+                    .register(meterRegistry);
+            LongAdder rejections = queue == Queue.INTERACTIVE ? interactiveRejections : backgroundRejections;
+            FunctionCounter.builder("cloudsuites.password.hashing.rejections",
+                            rejections, LongAdder::sum)
+                    .description("Password hashing tasks refused because the pool was saturated")
+                    .tag("queue", tag)
+                    .register(meterRegistry);
+        }
+        interactiveWait = Timer.builder("cloudsuites.password.hashing.wait")
+                .description("Time interactive hashing tasks spent queued")
+                .tag("queue", "interactive")
+                .register(meterRegistry);
+        interactiveDuration = Timer.builder("cloudsuites.password.hashing.duration")
+                .description("Time spent hashing")
+                .tag("queue", "interactive")
+                .register(meterRegistry);
+        backgroundDuration = Timer.builder("cloudsuites.password.hashing.duration")
+                .description("Time spent hashing")
+                .tag("queue", "background")
+                .register(meterRegistry);
+    }
+}
@@ -4,27 +4,40 @@ import com.cloudsuites.framework.services.auth.PasswordService;
 import com.cloudsuites.framework.services.auth.PasswordValidator;
 import com.cloudsuites.framework.services.auth.entities.PasswordChangeRequest;
 import com.cloudsuites.framework.services.auth.entities.PasswordResetRequest;
+import com.cloudsuites.framework.services.auth.entities.PasswordResetToken;
+import com.cloudsuites.framework.modules.auth.exception.PasswordHashingUnavailableException;
+import com.cloudsuites.framework.modules.auth.repository.PasswordResetTokenRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Implementation of PasswordService providing secure password management.
  * 
  * Features:
- * - BCrypt password hashing with configurable strength
+ * - Pluggable password hashing (BCrypt, Argon2id, PBKDF2) with transparent
+ *   upgrade on login, run on the bounded {@link PasswordHashingExecutor}
+ *   rather than request threads
  * - Comprehensive password validation
- * - Secure password reset token generation
- * - Basic breach checking (extendable for external APIs)
+ * - Single-use password reset tokens, persisted as SHA-256 hashes
+ * - Breach checking against a memory-mapped Bloom filter of known passwords
  * - Strong password generation
  */
 @Service
@@ -32,17 +45,25 @@ public class PasswordServiceImpl implements PasswordService {
     
     private static final Logger logger = LoggerFactory.getLogger(PasswordServiceImpl.class);
     
-    private final BCryptPasswordEncoder passwordEncoder;
     private final SecureRandom secureRandom;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PasswordHashingExecutor hashingExecutor;
+
+    @Autowired
+    private BreachedPasswordChecker breachedPasswordChecker;
     
-    // In-memory storage for reset tokens (should be replaced with database/Redis in production)
-    private final Map<String, ResetTokenData> resetTokens = new ConcurrentHashMap<>();
-    
-    @Value("${cloudsuites.security.password.bcrypt.strength:12}")
-    private int bcryptStrength;
+    @Autowired
+    private PasswordResetTokenRepository resetTokenRepository;
     
     @Value("${cloudsuites.security.password.reset.token.expiry.minutes:30}")
     private int resetTokenExpiryMinutes;
+
+    @Value("${cloudsuites.security.password.reset.purge-batch-size:1000}")
+    private int resetTokenPurgeBatchSize = 1000;
     
     // Password generation character sets
     private static final String UPPERCASE_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
@@ -52,7 +73,6 @@ public class PasswordServiceImpl implements PasswordService {
     private static final String ALL_CHARS = UPPERCASE_CHARS + LOWERCASE_CHARS + DIGIT_CHARS + SPECIAL_CHARS;
     
     public PasswordServiceImpl() {
-        this.passwordEncoder = new BCryptPasswordEncoder(12); // Default strength
         this.secureRandom = new SecureRandom();
     }
     
@@ -62,8 +82,8 @@ public class PasswordServiceImpl implements PasswordService {
             throw new IllegalArgumentException("Password cannot be null or empty");
         }
         
-        logger.debug("Hashing password with BCrypt strength: {}", bcryptStrength);
-        String hashedPassword = passwordEncoder.encode(plainTextPassword);
+        logger.debug("Hashing password");
+        String hashedPassword = hashingExecutor.runInteractive(() -> passwordEncoder.encode(plainTextPassword));
         logger.debug("Password hashed successfully");
         
         return hashedPassword;
@@ -77,23 +97,64 @@ public class PasswordServiceImpl implements PasswordService {
         }
         
         try {
-            boolean matches = passwordEncoder.matches(plainTextPassword, hashedPassword);
+            boolean matches = hashingExecutor.runInteractive(() -> passwordEncoder.matches(plainTextPassword, hashedPassword));
             logger.debug("Password verification result: {}", matches);
             return matches;
+        } catch (PasswordHashingUnavailableException e) {
+            // Not a wrong password: let the caller answer 503 instead of counting a failed attempt
+            throw e;
         } catch (Exception e) {
             logger.error("Error during password verification", e);
             return false;
         }
     }
     
+    @Override
+    public boolean verifyPassword(String plainTextPassword, String hashedPassword, Consumer<String> onRehash) {
+        boolean matches = verifyPassword(plainTextPassword, hashedPassword);
+        if (matches && onRehash != null && needsRehash(hashedPassword)) {
+            // Off the login path: the user is signed in whether or not the upgrade happens now
+            hashingExecutor.submitBackground(() -> passwordEncoder.encode(plainTextPassword))
+                    .whenComplete((upgraded, error) -> {
+                        if (error != null) {
+                            logger.debug("Password rehash skipped: {}", error.getMessage());
+                            return;
+                        }
+                        try {
+                            onRehash.accept(upgraded);
+                            logger.debug("Password hash upgraded to current settings");
+                        } catch (RuntimeException e) {
+                            logger.warn("Failed to store upgraded password hash", e);
+                        }
+                    });
+        }
+        return matches;
+    }
+    
+    @Override
+    public boolean needsRehash(String hashedPassword) {
+        if (hashedPassword == null) {
+            return false;
+        }
+        try {
+            return passwordEncoder.upgradeEncoding(hashedPassword);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
     @Override
     public boolean validatePasswordComplexity(String password) {
-        return PasswordValidator.isValidPassword(password);
+        return PasswordValidator.isValidPassword(password) && !isPasswordBreached(password);
     }
     
     @Override
     public List<String> getPasswordValidationErrors(String password) {
-        return PasswordValidator.getValidationErrors(password);
+        List<String> errors = PasswordValidator.getValidationErrors(password);
+        if (isPasswordBreached(password)) {
+            errors.add("Password is too common or has appeared in a data breach");
+        }
+        return errors;
     }
     
     @Override
@@ -113,10 +174,16 @@ public class PasswordServiceImpl implements PasswordService {
         }
         
         String resetToken = token.toString();
-        LocalDateTime expiryTime = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusMinutes(resetTokenExpiryMinutes);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime expiryTime = now.plusMinutes(resetTokenExpiryMinutes);
         
-        // Store token with expiry (in production, use database/Redis)
-        resetTokens.put(resetToken, new ResetTokenData(userId, expiryTime));
+        // Only the hash is persisted; the plain token exists solely in the message to the user
+        resetTokenRepository.save(PasswordResetToken.builder()
+                .tokenHash(hashResetToken(resetToken))
+                .userId(userId)
+                .createdAt(now)
+                .expiresAt(expiryTime)
+                .build());
         
         logger.debug("Password reset token generated for user: {} (expires at: {})", userId, expiryTime);
         return resetToken;
@@ -129,25 +196,25 @@ public class PasswordServiceImpl implements PasswordService {
             return false;
         }
         
-        logger.debug("Validating token: {} for user: {}", token, userId);
-        logger.debug("Current tokens in map: {}", resetTokens.keySet());
-        
-        ResetTokenData tokenData = resetTokens.get(token);
-        if (tokenData == null) {
+        Optional<PasswordResetToken> tokenData = resetTokenRepository.findById(hashResetToken(token));
+        if (tokenData.isEmpty()) {
             logger.debug("Reset token validation failed: token not found");
             return false;
         }
         
-        if (!tokenData.userId.equals(userId)) {
+        if (!tokenData.get().getUserId().equals(userId)) {
             logger.debug("Reset token validation failed: user ID mismatch");
             return false;
         }
         
+        if (tokenData.get().getUsedAt() != null) {
+            logger.debug("Reset token validation failed: token already used");
+            return false;
+        }
+        
         LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
-        logger.debug("Current time: {}, Token expiry: {}", now, tokenData.expiryTime);
-        if (now.isAfter(tokenData.expiryTime)) {
+        if (!tokenData.get().getExpiresAt().isAfter(now)) {
             logger.debug("Reset token validation failed: token expired");
-            resetTokens.remove(token); // Clean up expired token
             return false;
         }
         
@@ -155,6 +222,47 @@ public class PasswordServiceImpl implements PasswordService {
         return true;
     }
     
+    @Override
+    public Optional<String> redeemPasswordResetToken(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        
+        Optional<String> userId = resetTokenRepository.redeem(hashResetToken(token),
+                LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        if (userId.isPresent()) {
+            logger.debug("Password reset token redeemed for user: {}", userId.get());
+        } else {
+            logger.debug("Reset token redemption failed: token unknown, used or expired");
+        }
+        return userId;
+    }
+    
+    /**
+     * Deletes expired reset tokens in bounded batches, so each statement holds its locks briefly
+     * and the purge never competes with redemptions for long.
+     * 
+     * @return the number of tokens deleted
+     */
+    @Scheduled(fixedDelayString = "${cloudsuites.security.password.reset.purge-interval-minutes:15}", timeUnit = TimeUnit.MINUTES)
+    public int purgeExpiredResetTokens() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        int purged = 0;
+        try {
+            int deleted;
+            do {
+                deleted = resetTokenRepository.deleteExpiredBatch(now, resetTokenPurgeBatchSize);
+                purged += deleted;
+            } while (deleted == resetTokenPurgeBatchSize);
+        } catch (DataAccessException e) {
+            logger.warn("Purging expired password reset tokens failed after {} deletions: {}", purged, e.getMessage());
+        }
+        if (purged > 0) {
+            logger.debug("Purged {} expired password reset tokens", purged);
+        }
+        return purged;
+    }
+    
     @Override
     public boolean changePassword(PasswordChangeRequest request) {
         if (request == null) {
@@ -216,22 +324,9 @@ public class PasswordServiceImpl implements PasswordService {
             return false;
         }
         
-        // Basic implementation - check against common passwords
-        // In production, this would integrate with HaveIBeenPwned API or similar
-        String lowerPassword = password.toLowerCase();
-        
-        String[] commonBreachedPasswords = {
-            "password", "123456", "12345678", "qwerty", "abc123", "password123",
-            "admin", "letmein", "welcome", "monkey", "dragon", "master",
-            "trustno1", "111111", "iloveyou", "sunshine", "princess", "password1",
-            "123123", "654321", "superman", "qwerty123", "football", "baseball"
-        };
-        
-        for (String breached : commonBreachedPasswords) {
-            if (lowerPassword.equals(breached)) {
-                logger.debug("Password found in breach database");
-                return true;
-            }
+        if (breachedPasswordChecker.isBreached(password)) {
+            logger.debug("Password found in breach database");
+            return true;
         }
         
         logger.debug("Password not found in breach database");
@@ -274,14 +369,12 @@ public class PasswordServiceImpl implements PasswordService {
         return new String(chars);
     }
     
-    // Inner class for reset token data
-    private static class ResetTokenData {
-        final String userId;
-        final LocalDateTime expiryTime;
-        
-        ResetTokenData(String userId, LocalDateTime expiryTime) {
-            this.userId = userId;
-            this.expiryTime = expiryTime;
+    private static String hashResetToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
         }
     }
 }
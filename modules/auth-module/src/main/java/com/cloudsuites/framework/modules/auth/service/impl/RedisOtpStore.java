@@ -0,0 +1,198 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.services.auth.OtpChannel;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Redis-backed OTP store, so codes survive restarts and can be verified on any node.
+ * Each OTP is a hash at {@code otp:{recipient}:{purpose}} that expires with the code, and
+ * {@code otpr:{recipient}} indexes the purposes a recipient has codes for. Counter updates and
+ * removals check the OTP id inside a script, so they never touch a code that replaced the one
+ * the caller read.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "cloudsuites.otp.store", havingValue = "redis")
+public class RedisOtpStore implements OtpStore {
+
+    private static final String OTP_KEY_PREFIX = "otp:";
+    private static final String RECIPIENT_INDEX_PREFIX = "otpr:";
+
+    // ARGV: otp id, counter field. Returns the new count, or -1 if the id no longer matches.
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('HGET', KEYS[1], 'id') ~= ARGV[1] then
+              return -1
+            end
+            return redis.call('HINCRBY', KEYS[1], ARGV[2], 1)
+            """, Long.class);
+
+    // KEYS: otp hash, recipient index. ARGV: otp id, purpose. Returns 1 if removed.
+    private static final RedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('HGET', KEYS[1], 'id') ~= ARGV[1] then
+              return 0
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('SREM', KEYS[2], ARGV[2])
+            return 1
+            """, Long.class);
+
+    @Autowired(required = false)
+    private RedisTemplate<String, String> redisTemplate;
+
+    @PostConstruct
+    public void init() {
+        if (redisTemplate == null) {
+            throw new IllegalStateException("cloudsuites.otp.store=redis requires a Redis connection");
+        }
+    }
+
+    @Override
+    public void save(OtpRecord otp) {
+        String key = otpKey(otp.recipient(), otp.purpose());
+        String indexKey = indexKey(otp.recipient());
+        Map<String, String> fields = toHash(otp);
+        long expiresAtMs = otp.expiresAtMillis();
+        redisTemplate.executePipelined(new SessionCallback<List<Object>>() {
+            @Override
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = stringOperations(operations);
+                ops.delete(key);
+                ops.opsForHash().putAll(key, fields);
+                ops.expireAt(key, new Date(expiresAtMs));
+                ops.opsForSet().add(indexKey, otp.purpose());
+                // Every OTP has the same lifetime, so the newest save always outlives the others
+                ops.expireAt(indexKey, new Date(expiresAtMs));
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public OtpRecord findActive(String recipient, String purpose) {
+        Map<Object, Object> hash = redisTemplate.opsForHash().entries(otpKey(recipient, purpose));
+        OtpRecord otp = fromHash(recipient, purpose, hash);
+        return otp == null || otp.isExpired() ? null : otp;
+    }
+
+    @Override
+    public OtpRecord findLatestActive(String recipient) {
+        OtpRecord latest = null;
+        for (String purpose : purposes(recipient)) {
+            OtpRecord otp = findActive(recipient, purpose);
+            if (otp != null && (latest == null || otp.createdAt().isAfter(latest.createdAt()))) {
+                latest = otp;
+            }
+        }
+        return latest;
+    }
+
+    @Override
+    public int incrementVerificationAttempts(OtpRecord otp) {
+        return increment(otp, "attempts");
+    }
+
+    @Override
+    public int incrementResendCount(OtpRecord otp) {
+        return increment(otp, "resends");
+    }
+
+    @Override
+    public boolean remove(OtpRecord otp) {
+        Long removed = redisTemplate.execute(REMOVE_SCRIPT,
+                List.of(otpKey(otp.recipient(), otp.purpose()), indexKey(otp.recipient())),
+                otp.otpId(), otp.purpose());
+        return removed != null && removed == 1;
+    }
+
+    @Override
+    public int removeAll(String recipient) {
+        Set<String> purposes = purposes(recipient);
+        List<String> keys = new ArrayList<>(purposes.size() + 1);
+        for (String purpose : purposes) {
+            keys.add(otpKey(recipient, purpose));
+        }
+        Long removed = keys.isEmpty() ? 0L : redisTemplate.delete(keys);
+        redisTemplate.delete(indexKey(recipient));
+        return removed == null ? 0 : removed.intValue();
+    }
+
+    private int increment(OtpRecord otp, String field) {
+        Long count = redisTemplate.execute(INCREMENT_SCRIPT, List.of(otpKey(otp.recipient(), otp.purpose())),
+                otp.otpId(), field);
+        return count == null ? -1 : count.intValue();
+    }
+
+    private Set<String> purposes(String recipient) {
+        Set<String> purposes = redisTemplate.opsForSet().members(indexKey(recipient));
+        return purposes == null ? Set.of() : purposes;
+    }
+
+    private static Map<String, String> toHash(OtpRecord otp) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("id", otp.otpId());
+        fields.put("code", otp.code());
+        fields.put("channel", otp.channel().name());
+        fields.put("created_at", otp.createdAt().toString());
+        fields.put("expires_at", otp.expiresAt().toString());
+        fields.put("attempts", String.valueOf(otp.verificationAttempts()));
+        fields.put("resends", String.valueOf(otp.resendCount()));
+        if (otp.ipAddress() != null) {
+            fields.put("ip", otp.ipAddress());
+        }
+        if (otp.userAgent() != null) {
+            fields.put("ua", otp.userAgent());
+        }
+        return fields;
+    }
+
+    private static OtpRecord fromHash(String recipient, String purpose, Map<Object, Object> hash) {
+        if (hash == null || hash.get("id") == null) {
+            return null;
+        }
+        return new OtpRecord(
+                (String) hash.get("id"),
+                (String) hash.get("code"),
+                recipient,
+                OtpChannel.valueOf((String) hash.get("channel")),
+                purpose,
+                LocalDateTime.parse((String) hash.get("created_at")),
+                LocalDateTime.parse((String) hash.get("expires_at")),
+                (String) hash.get("ip"),
+                (String) hash.get("ua"),
+                Integer.parseInt((String) hash.get("attempts")),
+                Integer.parseInt((String) hash.get("resends")));
+    }
+
+    // executePipelined hands the callback the template itself, so its key and value types are ours
+    @SuppressWarnings("unchecked")
+    private static RedisOperations<String, String> stringOperations(RedisOperations<?, ?> operations) {
+        return (RedisOperations<String, String>) operations;
+    }
+
+    private static String otpKey(String recipient, String purpose) {
+        return OTP_KEY_PREFIX + recipient + ":" + purpose;
+    }
+
+    private static String indexKey(String recipient) {
+        return RECIPIENT_INDEX_PREFIX + recipient;
+    }
+}
@@ -3,24 +3,30 @@
 import com.cloudsuites.framework.services.auth.RateLimitService;
 import com.cloudsuites.framework.services.auth.entities.RateLimitResult;
 import com.cloudsuites.framework.services.auth.entities.RateLimitConfig;
+import com.cloudsuites.framework.services.auth.entities.RateLimitRule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Redis-based rate limiting service implementation.
- * Uses sliding window algorithm for accurate rate limiting and supports account lockout.
+ * Uses GCRA (generic cell rate algorithm) so each limited key costs a single timestamp in Redis,
+ * and evaluates several limits in one EVALSHA round trip. Supports account lockout.
  * 
  * @author CloudSuites Development Team
  * @since 1.0.0
@@ -30,101 +36,127 @@ public class RedisRateLimitServiceImpl implements RateLimitService {
 
     private static final Logger logger = LoggerFactory.getLogger(RedisRateLimitServiceImpl.class);
 
-    private static final String RATE_LIMIT_KEY_PREFIX = "rl:";
-    private static final String LOCKOUT_KEY_PREFIX = "lo:";
+    // GCRA state is a plain string, so it must not share keys with the old sliding-window ZSETs
+    private static final String RATE_LIMIT_KEY_PREFIX = "rlg:";
+    // Lockout state is a hash (attempts, lockouts, locked_until), not the old "epoch:attempts:msg" string
+    private static final String LOCKOUT_KEY_PREFIX = "lk:";
     private static final String CONFIG_KEY_PREFIX = "rlc:";
 
     @Autowired(required = false)
     private RedisTemplate<String, String> redisTemplate;
 
     // Fallback to in-memory storage if Redis is not available
-    private final Map<String, RateLimitData> inMemoryRateLimits = new ConcurrentHashMap<>();
-    private final Map<String, LockoutData> inMemoryLockouts = new ConcurrentHashMap<>();
-    private final Map<String, RateLimitConfig> rateLimitConfigs = new ConcurrentHashMap<>();
+    @Autowired
+    private InMemoryRateLimiter inMemoryRateLimiter;
+
+    // Local-first enforcement for rules that allow a tolerance
+    @Autowired(required = false)
+    private HybridRateLimiter hybridRateLimiter;
+
+    @Autowired
+    private InMemoryLockoutStore inMemoryLockoutStore;
+
+    @Value("${cloudsuites.rate-limiting.lockout.base-duration-minutes:1}")
+    private long lockoutBaseMinutes = 1;
 
-    // Lua script for atomic sliding window rate limiting
-    private static final String SLIDING_WINDOW_SCRIPT = 
-        "local key = KEYS[1]\n" +
-        "local window = tonumber(ARGV[1])\n" +
-        "local limit = tonumber(ARGV[2])\n" +
-        "local now = tonumber(ARGV[3])\n" +
-        "local windowStart = now - window\n" +
-        "\n" +
-        "-- Remove expired entries\n" +
-        "redis.call('ZREMRANGEBYSCORE', key, '-inf', windowStart)\n" +
-        "\n" +
-        "-- Count current entries\n" +
-        "local current = redis.call('ZCARD', key)\n" +
-        "\n" +
-        "-- Check if limit exceeded\n" +
-        "if current >= limit then\n" +
-        "    -- Set TTL and return count\n" +
-        "    redis.call('EXPIRE', key, window)\n" +
-        "    return {current, 0}\n" +
-        "else\n" +
-        "    -- Add current request\n" +
-        "    redis.call('ZADD', key, now, now)\n" +
-        "    redis.call('EXPIRE', key, window)\n" +
-        "    return {current + 1, 1}\n" +
-        "end";
+    @Value("${cloudsuites.rate-limiting.lockout.max-duration-minutes:1440}")
+    private long lockoutMaxMinutes = 1440;
+
+    @Value("${cloudsuites.rate-limiting.lockout.multiplier:5}")
+    private double lockoutMultiplier = 5;
+
+    @Value("${cloudsuites.rate-limiting.lockout.attempt-window-minutes:15}")
+    private long lockoutAttemptWindowMinutes = 15;
+
+    private final Map<String, RateLimitConfig> rateLimitConfigs = new ConcurrentHashMap<>();
 
     /**
-     * Data class for in-memory rate limit tracking.
+     * Lua script for atomic multi-rule GCRA rate limiting.
+     * KEYS are (rate limit key, lockout key) pairs, ARGV are (emission interval ms, burst period ms)
+     * pairs, one per rule. Every rule is evaluated first; the new arrival times are only written when
+     * all rules allow the request. Returns (status, remaining, retry after ms, reset after ms) per rule,
+     * where status is 1 allowed, 0 denied and -1 locked out. Uses the Redis clock so all nodes agree.
      */
-    private static class RateLimitData {
-        final Map<Long, Integer> windows = new ConcurrentHashMap<>();
-        
-        synchronized int getCountInWindow(long windowStart, long windowEnd) {
-            // Remove expired windows (convert to seconds for comparison)
-            windows.entrySet().removeIf(entry -> entry.getKey() < windowStart / 1000);
-            
-            return windows.entrySet().stream()
-                    .filter(entry -> entry.getKey() >= windowStart / 1000 && entry.getKey() <= windowEnd / 1000)
-                    .mapToInt(Map.Entry::getValue)
-                    .sum();
-        }
-        
-        synchronized int checkAndRecord(long windowStart, long windowEnd, long timestamp, int limit) {
-            // Remove expired windows (convert to seconds for comparison)
-            windows.entrySet().removeIf(entry -> entry.getKey() < windowStart / 1000);
-            
-            int currentCount = windows.entrySet().stream()
-                    .filter(entry -> entry.getKey() >= windowStart / 1000 && entry.getKey() <= windowEnd / 1000)
-                    .mapToInt(Map.Entry::getValue)
-                    .sum();
-            
-            if (currentCount < limit) {
-                windows.merge(timestamp / 1000, 1, Integer::sum);
-                return currentCount + 1; // Return new count after recording
-            } else {
-                // Don't record, return current count with negative sign to indicate denial
-                return -currentCount;
-            }
-        }
-    }
+    private static final String GCRA_SCRIPT_SOURCE =
+        "local time = redis.call('TIME')\n" +
+        "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+        "local rules = #KEYS / 2\n" +
+        "local result = {}\n" +
+        "local newTats = {}\n" +
+        "local blocked = false\n" +
+        "for i = 1, rules do\n" +
+        "    local interval = tonumber(ARGV[2 * i - 1])\n" +
+        "    local burst = tonumber(ARGV[2 * i])\n" +
+        "    local tat = tonumber(redis.call('GET', KEYS[2 * i - 1])) or now\n" +
+        "    if tat < now then tat = now end\n" +
+        "    local newTat = tat + interval\n" +
+        "    local diff = now - (newTat - burst)\n" +
+        "    local lockedUntil = tonumber(redis.call('HGET', KEYS[2 * i], 'locked_until')) or 0\n" +
+        "    local base = 4 * (i - 1)\n" +
+        "    if lockedUntil > now then\n" +
+        "        blocked = true\n" +
+        "        result[base + 1] = -1; result[base + 2] = 0; result[base + 3] = lockedUntil - now; result[base + 4] = tat - now\n" +
+        "    elseif diff < 0 then\n" +
+        "        blocked = true\n" +
+        "        result[base + 1] = 0; result[base + 2] = 0; result[base + 3] = -diff; result[base + 4] = tat - now\n" +
+        "    else\n" +
+        "        newTats[i] = newTat\n" +
+        "        result[base + 1] = 1; result[base + 2] = math.floor(diff / interval); result[base + 3] = 0; result[base + 4] = newTat - now\n" +
+        "    end\n" +
+        "end\n" +
+        "for i = 1, rules do\n" +
+        "    if newTats[i] then\n" +
+        "        local base = 4 * (i - 1)\n" +
+        "        if blocked then\n" +
+        "            -- not recorded: this rule still has the slot the request would have used\n" +
+        "            result[base + 2] = result[base + 2] + 1; result[base + 4] = result[base + 4] - tonumber(ARGV[2 * i - 1])\n" +
+        "        else\n" +
+        "            redis.call('SET', KEYS[2 * i - 1], newTats[i], 'PX', newTats[i] - now)\n" +
+        "        end\n" +
+        "    end\n" +
+        "end\n" +
+        "return result";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GCRA_SCRIPT = RedisScript.of(GCRA_SCRIPT_SOURCE, List.class);
+
+    // Set once SCRIPT LOAD has run; reset when Redis reports NOSCRIPT (restart, failover, SCRIPT FLUSH)
+    private volatile boolean gcraScriptLoaded = false;
 
     /**
-     * Data class for in-memory lockout tracking.
+     * Lua script for atomic lockout escalation on a hash of (attempts, lockouts, locked_until).
+     * KEYS[1] is the lockout key. ARGV is (threshold, base ms, multiplier, max ms, attempt window ms);
+     * a threshold of 0 locks immediately. Failed attempts count up to the threshold, then the account
+     * is locked for base * multiplier^(lockouts - 1), capped at max, and the attempt count resets.
+     * Attempts while locked are not counted. The hash outlives the lockout by one maximum duration
+     * so repeat lockouts keep escalating. Returns (attempts, lockouts, locked ms remaining).
      */
-    private static class LockoutData {
-        final LocalDateTime lockoutUntil;
-        final int failedAttempts;
-        final String reason;
-        
-        LockoutData(LocalDateTime lockoutUntil, int failedAttempts, String reason) {
-            this.lockoutUntil = lockoutUntil;
-            this.failedAttempts = failedAttempts;
-            this.reason = reason;
-        }
-        
-        boolean isLocked() {
-            return LocalDateTime.now().isBefore(lockoutUntil);
-        }
-        
-        int getFailedAttempts() {
-            return failedAttempts;
-        }
-    }
+    private static final String LOCKOUT_SCRIPT_SOURCE =
+        "local time = redis.call('TIME')\n" +
+        "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+        "local state = redis.call('HMGET', KEYS[1], 'attempts', 'lockouts', 'locked_until')\n" +
+        "local attempts = tonumber(state[1]) or 0\n" +
+        "local lockouts = tonumber(state[2]) or 0\n" +
+        "local lockedUntil = tonumber(state[3]) or 0\n" +
+        "local threshold = tonumber(ARGV[1])\n" +
+        "local maxMs = tonumber(ARGV[4])\n" +
+        "if threshold > 0 and lockedUntil > now then\n" +
+        "    return {attempts, lockouts, lockedUntil - now}\n" +
+        "end\n" +
+        "attempts = attempts + 1\n" +
+        "if threshold == 0 or attempts >= threshold then\n" +
+        "    lockouts = lockouts + 1\n" +
+        "    attempts = 0\n" +
+        "    lockedUntil = now + math.floor(math.min(maxMs, tonumber(ARGV[2]) * tonumber(ARGV[3]) ^ (lockouts - 1)))\n" +
+        "end\n" +
+        "redis.call('HSET', KEYS[1], 'attempts', attempts, 'lockouts', lockouts, 'locked_until', lockedUntil)\n" +
+        "local retention = tonumber(ARGV[5])\n" +
+        "if lockouts > 0 then retention = math.max(retention, lockedUntil - now + maxMs) end\n" +
+        "redis.call('PEXPIRE', KEYS[1], retention)\n" +
+        "return {attempts, lockouts, math.max(lockedUntil - now, 0)}";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LOCKOUT_SCRIPT = RedisScript.of(LOCKOUT_SCRIPT_SOURCE, List.class);
 
     @Override
     public RateLimitResult checkRateLimit(String key, int limit, Duration window) {
@@ -143,55 +175,87 @@ public class RedisRateLimitServiceImpl implements RateLimitService {
     public RateLimitResult checkAndRecord(String key, int limit, Duration window) {
         logger.debug("Checking and recording request for key: {}, limit: {}, window: {}", key, limit, window);
         
+        if (redisTemplate != null) {
+            return checkAndRecordAll(List.of(RateLimitRule.of(key, limit, window))).get(0);
+        }
+
         // First check if user is locked out
-        if (isUserLockedOut(key)) {
-            LockoutData lockout = getLockoutData(key);
-            return RateLimitResult.locked(key, lockout.lockoutUntil, lockout.reason);
+        long nowMs = System.currentTimeMillis();
+        InMemoryLockoutStore.State lockout = inMemoryLockoutStore.get(key, nowMs);
+        if (lockout != null && lockout.isLocked(nowMs)) {
+            return lockedResult(key, lockout.lockouts(), lockout.lockedUntilMs() - nowMs);
         }
-        
-        String rateLimitKey = RATE_LIMIT_KEY_PREFIX + key;
-        LocalDateTime now = LocalDateTime.now();
-        long nowSeconds = now.toEpochSecond(ZoneOffset.UTC);
-        long windowSeconds = window.getSeconds();
-        
+        return checkRateLimitInMemory(key, limit, window, LocalDateTime.now());
+    }
+
+    @Override
+    public List<RateLimitResult> checkAndRecordAll(List<RateLimitRule> rules) {
+        logger.debug("Checking and recording request against {} rate limits", rules.size());
+
         if (redisTemplate != null) {
-            return checkRateLimitWithRedis(rateLimitKey, limit, windowSeconds, nowSeconds, now);
-        } else {
-            return checkRateLimitInMemory(key, limit, window, now);
+            try {
+                if (hybridRateLimiter != null && hybridRateLimiter.isAvailable()
+                        && rules.stream().anyMatch(RateLimitRule::isApproximate)) {
+                    return checkRateLimitsHybrid(rules);
+                }
+                return checkRateLimitsWithRedis(rules);
+            } catch (Exception e) {
+                logger.error("Redis rate limiting failed for rules: {}, falling back to in-memory", rules, e);
+            }
+        }
+
+        // Redis is unconfigured or unreachable: lockouts recorded while it was down live in memory
+        List<RateLimitResult> results = new ArrayList<>(rules.size());
+        for (RateLimitRule rule : rules) {
+            long nowMs = System.currentTimeMillis();
+            InMemoryLockoutStore.State lockout = inMemoryLockoutStore.get(rule.getKey(), nowMs);
+            if (lockout != null && lockout.isLocked(nowMs)) {
+                results.add(lockedResult(rule.getKey(), lockout.lockouts(), lockout.lockedUntilMs() - nowMs));
+            } else {
+                results.add(checkRateLimitInMemory(rule.getKey(), rule.getLimit(), rule.getWindow(), LocalDateTime.now()));
+            }
         }
+        return results;
     }
 
     @Override
     public RateLimitResult lockoutUser(String userId, int failedAttempts) {
         logger.info("Locking out user: {}, failed attempts: {}", userId, failedAttempts);
-        
-        Duration lockoutDuration = calculateLockoutDuration(failedAttempts);
-        LocalDateTime lockoutUntil = LocalDateTime.now().plus(lockoutDuration);
-        String message = String.format("Account locked due to %d failed attempts. Try again after %s", 
-                                      failedAttempts, lockoutUntil);
-        
-        String lockoutKey = LOCKOUT_KEY_PREFIX + userId;
-        LockoutData lockoutData = new LockoutData(lockoutUntil, failedAttempts, message);
-        
-        if (redisTemplate != null) {
-            // Store lockout in Redis
-            redisTemplate.opsForValue().set(
-                lockoutKey, 
-                String.format("%d:%d:%s", lockoutUntil.toEpochSecond(ZoneOffset.UTC), failedAttempts, message),
-                lockoutDuration
-            );
-        } else {
-            // Store lockout in memory
-            inMemoryLockouts.put(userId, lockoutData);
-        }
-        
-        return RateLimitResult.locked(userId, lockoutUntil, message);
+        return updateLockout(userId, 0);
+    }
+
+    @Override
+    public RateLimitResult recordFailedAttempt(String userId, int lockoutThreshold) {
+        logger.debug("Recording failed attempt for user: {}, lockout threshold: {}", userId, lockoutThreshold);
+        return updateLockout(userId, Math.max(1, lockoutThreshold));
     }
 
     @Override
     public boolean isUserLockedOut(String userId) {
-        LockoutData lockout = getLockoutData(userId);
-        return lockout != null && lockout.isLocked();
+        if (redisTemplate != null) {
+            try {
+                byte[] lockoutKey = (LOCKOUT_KEY_PREFIX + userId).getBytes(StandardCharsets.UTF_8);
+                byte[] lockedUntilField = "locked_until".getBytes(StandardCharsets.UTF_8);
+
+                // The deadline was written with the Redis clock, so compare it against the Redis clock
+                List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    connection.hashCommands().hGet(lockoutKey, lockedUntilField);
+                    connection.serverCommands().time();
+                    return null;
+                });
+                Object lockedUntil = replies.get(0);
+                long nowMs = ((Number) replies.get(1)).longValue();
+                if (lockedUntil != null && Long.parseLong(lockedUntil.toString()) > nowMs) {
+                    return true;
+                }
+            } catch (Exception e) {
+                logger.error("Redis lockout check failed for user: {}, falling back to in-memory", userId, e);
+            }
+        }
+        // Also covers lockouts recorded in memory while Redis was unreachable
+        long nowMs = System.currentTimeMillis();
+        InMemoryLockoutStore.State lockout = inMemoryLockoutStore.get(userId, nowMs);
+        return lockout != null && lockout.isLocked(nowMs);
     }
 
     @Override
@@ -206,7 +270,7 @@ public class RedisRateLimitServiceImpl implements RateLimitService {
             // Remove from in-memory storage - handle both with and without prefix
             String cleanKey = key.startsWith(RATE_LIMIT_KEY_PREFIX) ? 
                             key.substring(RATE_LIMIT_KEY_PREFIX.length()) : key;
-            inMemoryRateLimits.remove(cleanKey);
+            inMemoryRateLimiter.clear(cleanKey);
         }
     }
 
@@ -219,7 +283,7 @@ public class RedisRateLimitServiceImpl implements RateLimitService {
         if (redisTemplate != null) {
             redisTemplate.delete(lockoutKey);
         } else {
-            inMemoryLockouts.remove(userId);
+            inMemoryLockoutStore.clear(userId);
         }
     }
 
@@ -228,25 +292,28 @@ public class RedisRateLimitServiceImpl implements RateLimitService {
         // Return status without incrementing counter
         if (redisTemplate != null) {
             try {
-                String rateLimitKey = RATE_LIMIT_KEY_PREFIX + key;
-                long windowSeconds = window.getSeconds();
+                byte[] rateLimitKey = (RATE_LIMIT_KEY_PREFIX + key).getBytes(StandardCharsets.UTF_8);
+                long intervalMs = emissionIntervalMs(limit, window);
+
+                // Read the arrival time and the Redis clock in one pipelined round trip
+                List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    connection.stringCommands().get(rateLimitKey);
+                    connection.serverCommands().time();
+                    return null;
+                });
+                Object tatValue = replies.get(0);
+                long nowMs = ((Number) replies.get(1)).longValue();
+                long tatMs = tatValue != null ? Math.max(Long.parseLong(tatValue.toString()), nowMs) : nowMs;
+
+                int currentCount = (int) Math.min(limit, (tatMs - nowMs + intervalMs - 1) / intervalMs);
                 LocalDateTime now = LocalDateTime.now();
-                long currentTimeMs = now.toInstant(ZoneOffset.UTC).toEpochMilli();
-                
-                // Just check the current count without incrementing
-                Long count = redisTemplate.opsForZSet().count(rateLimitKey, 
-                    currentTimeMs - (windowSeconds * 1000), currentTimeMs);
-                
-                int currentCount = count != null ? count.intValue() : 0;
-                
-                LocalDateTime windowStart = now.minusSeconds(windowSeconds);
-                LocalDateTime windowEnd = now;
-                Duration resetTime = Duration.between(now, windowEnd.plusSeconds(windowSeconds));
-                
+                LocalDateTime resetAt = now.plusNanos((tatMs - nowMs) * 1_000_000);
+
                 if (currentCount < limit) {
-                    return RateLimitResult.allowed(currentCount, limit, windowEnd, windowSeconds);
+                    return RateLimitResult.allowed(currentCount, limit, resetAt, window.getSeconds());
                 } else {
-                    return RateLimitResult.denied("Rate limit exceeded", currentCount, limit, windowEnd, resetTime.getSeconds());
+                    long retryAfterMs = tatMs + intervalMs - intervalMs * limit - nowMs;
+                    return RateLimitResult.denied("Rate limit exceeded", currentCount, limit, resetAt, toSeconds(retryAfterMs));
                 }
             } catch (Exception e) {
                 logger.error("Redis rate limit status check failed for key: {}, falling back to in-memory", key, e);
@@ -294,105 +361,154 @@ public class RedisRateLimitServiceImpl implements RateLimitService {
 
     // Private helper methods
 
-    private RateLimitResult checkRateLimitWithRedis(String key, int limit, long windowSeconds, 
-                                                   long nowSeconds, LocalDateTime now) {
-        try {
-            @SuppressWarnings("rawtypes")
-            RedisScript<List> script = RedisScript.of(SLIDING_WINDOW_SCRIPT, List.class);
-            @SuppressWarnings("unchecked")
-            List<Long> result = (List<Long>) redisTemplate.execute(script, 
-                Arrays.asList(key), 
-                String.valueOf(windowSeconds), 
-                String.valueOf(limit), 
-                String.valueOf(nowSeconds));
-            
-            int currentCount = result.get(0).intValue();
-            boolean allowed = result.get(1) == 1;
-            
-            LocalDateTime windowStart = now.minusSeconds(windowSeconds);
-            LocalDateTime windowEnd = now;
-            Duration resetTime = Duration.between(now, windowEnd.plusSeconds(windowSeconds));
-            
-            if (allowed) {
-                return RateLimitResult.allowed(currentCount, limit, windowEnd, windowSeconds);
+    private List<RateLimitResult> checkRateLimitsWithRedis(List<RateLimitRule> rules) {
+        byte[][] keysAndArgs = new byte[rules.size() * 4][];
+        int argsOffset = rules.size() * 2;
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitRule rule = rules.get(i);
+            long intervalMs = emissionIntervalMs(rule.getLimit(), rule.getWindow());
+            keysAndArgs[2 * i] = (RATE_LIMIT_KEY_PREFIX + rule.getKey()).getBytes(StandardCharsets.UTF_8);
+            keysAndArgs[2 * i + 1] = (LOCKOUT_KEY_PREFIX + rule.getKey()).getBytes(StandardCharsets.UTF_8);
+            keysAndArgs[argsOffset + 2 * i] = String.valueOf(intervalMs).getBytes(StandardCharsets.UTF_8);
+            keysAndArgs[argsOffset + 2 * i + 1] = String.valueOf(intervalMs * rule.getLimit()).getBytes(StandardCharsets.UTF_8);
+        }
+
+        List<Object> reply = redisTemplate.execute(
+                (RedisCallback<List<Object>>) connection -> evalGcraScript(connection, rules.size() * 2, keysAndArgs));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<RateLimitResult> results = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitRule rule = rules.get(i);
+            long status = ((Number) reply.get(4 * i)).longValue();
+            long remaining = ((Number) reply.get(4 * i + 1)).longValue();
+            long retryAfterMs = ((Number) reply.get(4 * i + 2)).longValue();
+            LocalDateTime resetAt = now.plusNanos(((Number) reply.get(4 * i + 3)).longValue() * 1_000_000);
+
+            if (status == 1) {
+                results.add(RateLimitResult.allowed(rule.getLimit() - remaining, rule.getLimit(), resetAt, rule.getWindow().getSeconds()));
+            } else if (status == 0) {
+                results.add(RateLimitResult.denied("Rate limit exceeded", rule.getLimit(), rule.getLimit(), resetAt, toSeconds(retryAfterMs)));
             } else {
-                return RateLimitResult.denied("Rate limit exceeded", currentCount, limit, windowEnd, resetTime.getSeconds());
+                results.add(RateLimitResult.locked(rule.getKey(), now.plusNanos(retryAfterMs * 1_000_000), "Account locked"));
             }
-            
-        } catch (Exception e) {
-            logger.error("Redis rate limiting failed for key: {}, falling back to in-memory", key, e);
-            return checkRateLimitInMemory(key.replace(RATE_LIMIT_KEY_PREFIX, ""), limit, 
-                                        Duration.ofSeconds(windowSeconds), now);
         }
+        return results;
     }
 
-    private RateLimitResult checkRateLimitInMemory(String key, int limit, Duration window, LocalDateTime now) {
-        RateLimitData data = inMemoryRateLimits.computeIfAbsent(key, k -> new RateLimitData());
-        
-        long nowSeconds = now.toEpochSecond(ZoneOffset.UTC);
-        long windowStart = nowSeconds - window.getSeconds();
-        long windowEnd = nowSeconds;
-        long timestamp = nowSeconds * 1000;
-        
-        // Use atomic check-and-record operation
-        int resultCount = data.checkAndRecord(windowStart * 1000, windowEnd * 1000, timestamp, limit);
-        
-        if (resultCount > 0) {
-            // Request was allowed, resultCount is the new count after recording
-            long windowSecs = window.getSeconds();
-            return RateLimitResult.allowed(resultCount, limit, now.plus(window), windowSecs);
-        } else {
-            // Request was denied, resultCount is negative current count
-            long currentCount = Math.abs(resultCount);
-            long windowSecs = window.getSeconds();
-            return RateLimitResult.denied("Rate limit exceeded", currentCount, limit, now.plus(window), windowSecs);
+    /**
+     * Sends approximate rules to the hybrid limiter and the rest through the GCRA script,
+     * keeping results in rule order. The all-or-nothing guarantee only spans the exact rules.
+     */
+    private List<RateLimitResult> checkRateLimitsHybrid(List<RateLimitRule> rules) {
+        List<RateLimitRule> exactRules = rules.stream().filter(rule -> !rule.isApproximate()).toList();
+        List<RateLimitResult> exactResults = exactRules.isEmpty() ? List.of() : checkRateLimitsWithRedis(exactRules);
+
+        List<RateLimitResult> results = new ArrayList<>(rules.size());
+        int exactIndex = 0;
+        for (RateLimitRule rule : rules) {
+            results.add(rule.isApproximate() ? hybridRateLimiter.checkAndRecord(rule) : exactResults.get(exactIndex++));
         }
+        return results;
     }
-    
-    private RateLimitResult checkRateLimitStatusInMemory(String key, int limit, Duration window, LocalDateTime now) {
-        RateLimitData data = inMemoryRateLimits.get(key);
-        if (data == null) {
-            return RateLimitResult.allowed(0, limit, now, window.getSeconds());
+
+    /**
+     * Runs the GCRA script by SHA, loading it once per Redis instance instead of sending the body on every call.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Object> evalGcraScript(RedisConnection connection, int numKeys, byte[][] keysAndArgs) {
+        if (!gcraScriptLoaded) {
+            connection.scriptingCommands().scriptLoad(GCRA_SCRIPT_SOURCE.getBytes(StandardCharsets.UTF_8));
+            gcraScriptLoaded = true;
         }
-        
-        long nowSeconds = now.toEpochSecond(ZoneOffset.UTC);
-        long windowStart = nowSeconds - window.getSeconds();
-        
-        synchronized (data) {
-            int currentCount = data.getCountInWindow(windowStart * 1000, nowSeconds * 1000);
-            
-            if (currentCount < limit) {
-                return RateLimitResult.allowed(currentCount, limit, now, window.getSeconds());
-            } else {
-                return RateLimitResult.denied("Rate limit exceeded", currentCount, limit, now, window.getSeconds());
+        try {
+            return (List<Object>) connection.scriptingCommands().evalSha(GCRA_SCRIPT.getSha1(), ReturnType.MULTI, numKeys, keysAndArgs);
+        } catch (RuntimeException e) {
+            if (!isNoScriptError(e)) {
+                throw e;
             }
+            logger.info("Rate limit script missing on Redis, reloading");
+            gcraScriptLoaded = false;
+            connection.scriptingCommands().scriptLoad(GCRA_SCRIPT_SOURCE.getBytes(StandardCharsets.UTF_8));
+            gcraScriptLoaded = true;
+            return (List<Object>) connection.scriptingCommands().evalSha(GCRA_SCRIPT.getSha1(), ReturnType.MULTI, numKeys, keysAndArgs);
         }
     }
 
-    private LockoutData getLockoutData(String userId) {
-        if (redisTemplate != null) {
-            String lockoutKey = LOCKOUT_KEY_PREFIX + userId;
-            String lockoutValue = redisTemplate.opsForValue().get(lockoutKey);
-            if (lockoutValue != null) {
-                return parseLockoutFromRedis(lockoutValue);
+    /**
+     * Whether Redis rejected an EVALSHA because the script is not cached (restart, failover, SCRIPT FLUSH).
+     */
+    static boolean isNoScriptError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
             }
-        } else {
-            return inMemoryLockouts.get(userId);
         }
-        return null;
+        return false;
     }
 
-    private LockoutData parseLockoutFromRedis(String value) {
-        String[] parts = value.split(":", 3);
-        if (parts.length >= 3) {
-            long lockoutUntilSeconds = Long.parseLong(parts[0]);
-            int failedAttempts = Integer.parseInt(parts[1]);
-            String reason = parts[2];
-            
-            LocalDateTime lockoutUntil = LocalDateTime.ofEpochSecond(lockoutUntilSeconds, 0, ZoneOffset.UTC);
-            return new LockoutData(lockoutUntil, failedAttempts, reason);
+    /**
+     * GCRA emission interval: the spacing between requests that exactly sustains the limit.
+     */
+    private static long emissionIntervalMs(int limit, Duration window) {
+        return Math.max(1, (window.toMillis() + limit - 1) / Math.max(1, limit));
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    private RateLimitResult checkRateLimitInMemory(String key, int limit, Duration window, LocalDateTime now) {
+        return inMemoryRateLimiter.checkAndRecord(key, limit, window);
+    }
+    
+    private RateLimitResult checkRateLimitStatusInMemory(String key, int limit, Duration window, LocalDateTime now) {
+        return inMemoryRateLimiter.getStatus(key, limit, window);
+    }
+
+    /**
+     * Counts a failed attempt (threshold > 0) or locks immediately (threshold 0), in one atomic
+     * script call on Redis or one atomic map update in memory.
+     */
+    private RateLimitResult updateLockout(String userId, int threshold) {
+        InMemoryLockoutStore.Policy policy = lockoutPolicy();
+        if (redisTemplate != null) {
+            try {
+                List<?> reply = redisTemplate.execute(LOCKOUT_SCRIPT, List.of(LOCKOUT_KEY_PREFIX + userId),
+                        String.valueOf(threshold), String.valueOf(policy.baseMs()), String.valueOf(policy.multiplier()),
+                        String.valueOf(policy.maxMs()), String.valueOf(policy.attemptWindowMs()));
+                long attempts = ((Number) reply.get(0)).longValue();
+                int lockouts = ((Number) reply.get(1)).intValue();
+                long lockedMs = ((Number) reply.get(2)).longValue();
+                return lockedMs > 0 ? lockedResult(userId, lockouts, lockedMs) : attemptResult(attempts, threshold, policy);
+            } catch (Exception e) {
+                logger.error("Redis lockout update failed for user: {}, falling back to in-memory", userId, e);
+            }
         }
-        return null;
+
+        long nowMs = System.currentTimeMillis();
+        InMemoryLockoutStore.State state = threshold == 0
+                ? inMemoryLockoutStore.lock(userId, policy, nowMs)
+                : inMemoryLockoutStore.recordFailure(userId, threshold, policy, nowMs);
+        return state.isLocked(nowMs)
+                ? lockedResult(userId, state.lockouts(), state.lockedUntilMs() - nowMs)
+                : attemptResult(state.attempts(), threshold, policy);
+    }
+
+    private InMemoryLockoutStore.Policy lockoutPolicy() {
+        return new InMemoryLockoutStore.Policy(Duration.ofMinutes(lockoutBaseMinutes).toMillis(), lockoutMultiplier,
+                Duration.ofMinutes(lockoutMaxMinutes).toMillis(), Duration.ofMinutes(lockoutAttemptWindowMinutes).toMillis());
+    }
+
+    private static RateLimitResult lockedResult(String userId, int lockouts, long lockedMs) {
+        LocalDateTime lockoutUntil = LocalDateTime.now().plusNanos(lockedMs * 1_000_000);
+        String message = String.format("Account locked (lockout %d). Try again after %s", lockouts, lockoutUntil);
+        return RateLimitResult.locked(userId, lockoutUntil, message);
+    }
+
+    private static RateLimitResult attemptResult(long attempts, int threshold, InMemoryLockoutStore.Policy policy) {
+        return RateLimitResult.allowed(attempts, threshold, LocalDateTime.now().plusNanos(policy.attemptWindowMs() * 1_000_000),
+                policy.attemptWindowMs() / 1000);
     }
 
     private RateLimitConfig parseConfigFromRedis(String operation, String value) {
@@ -411,27 +527,6 @@ public class RedisRateLimitServiceImpl implements RateLimitService {
         return null;
     }
 
-    private Duration calculateLockoutDuration(int failedAttempts) {
-        // Exponential backoff: 1min, 5min, 15min, 1hour, 24hours
-        switch (failedAttempts) {
-            case 1:
-            case 2:
-            case 3:
-                return Duration.ofMinutes(1);
-            case 4:
-            case 5:
-                return Duration.ofMinutes(5);
-            case 6:
-            case 7:
-                return Duration.ofMinutes(15);
-            case 8:
-            case 9:
-                return Duration.ofHours(1);
-            default:
-                return Duration.ofHours(24);
-        }
-    }
-
     // Initialize default configurations
     public void initializeDefaultConfigs() {
         configureRateLimit("login", RateLimitConfig.loginConfig());
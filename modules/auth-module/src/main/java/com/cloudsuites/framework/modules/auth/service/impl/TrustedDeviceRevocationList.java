@@ -0,0 +1,118 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.repository.DeviceFingerprintRepository;
+import com.cloudsuites.framework.modules.common.utils.BloomFilter;
+import com.cloudsuites.framework.services.auth.entities.TrustStatus;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory revocation list for trusted-device tokens, so revoked tokens are rejected without a
+ * database lookup.
+ *
+ * Each entry maps a 64-bit hash of (user ID, fingerprint) to the time trust was revoked; tokens
+ * for that pair issued at or before then are rejected. Hash collisions can only reject a valid
+ * token, never accept a revoked one. Entries older than the token lifetime cannot match a live
+ * token and are purged, so the list only holds revocations from the last token lifetime.
+ *
+ * Devices revoked or deleted on other nodes are picked up by periodically reloading recent
+ * revocations from the database.
+ *
+ * @author CloudSuites Platform Team
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class TrustedDeviceRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TrustedDeviceRevocationList.class);
+
+    private final DeviceFingerprintRepository deviceFingerprintRepository;
+
+    private final Map<Long, Long> revokedAt = new ConcurrentHashMap<>();
+    private volatile LocalDateTime loadedUntil;
+
+    @Value("${cloudsuites.device-trust.trusted-token-duration-minutes:43200}")
+    private long tokenDurationMinutes = 43200;
+
+    /**
+     * Revokes every token issued for a user's device up to now.
+     */
+    public void revoke(String userId, String deviceFingerprint, long revokedAtMillis) {
+        revokedAt.merge(key(userId, deviceFingerprint), revokedAtMillis, Math::max);
+    }
+
+    /**
+     * Whether a token issued at {@code issuedAtMillis} for a user's device has been revoked.
+     */
+    public boolean isRevoked(String userId, String deviceFingerprint, long issuedAtMillis) {
+        if (revokedAt.isEmpty()) {
+            return false;
+        }
+        Long revoked = revokedAt.get(key(userId, deviceFingerprint));
+        return revoked != null && issuedAtMillis <= revoked;
+    }
+
+    /**
+     * Gets the number of revocations held in memory.
+     */
+    public int size() {
+        return revokedAt.size();
+    }
+
+    /**
+     * Loads revocations recorded since the last load, or within the token lifetime on the first.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = loadedUntil != null
+                ? loadedUntil.minusMinutes(1)
+                : now.minusMinutes(tokenDurationMinutes);
+        try {
+            List<Object[]> rows = deviceFingerprintRepository.findTrustEndedSince(since, TrustStatus.TRUSTED);
+            for (Object[] row : rows) {
+                revoke((String) row[0], (String) row[1], toMillis((LocalDateTime) row[2]));
+            }
+            loadedUntil = now;
+            log.debug("Loaded {} trusted device revocations since {}", rows.size(), since);
+        } catch (DataAccessException e) {
+            log.warn("Failed to load trusted device revocations: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cloudsuites.device-trust.token.revocation-refresh-ms:60000}")
+    public void refresh() {
+        purgeExpired(System.currentTimeMillis());
+        load();
+    }
+
+    /**
+     * Drops revocations older than the token lifetime, which no live token can predate.
+     */
+    void purgeExpired(long nowMillis) {
+        long cutoff = nowMillis - tokenDurationMinutes * 60_000L;
+        revokedAt.values().removeIf(revoked -> revoked < cutoff);
+    }
+
+    private static long key(String userId, String deviceFingerprint) {
+        return BloomFilter.hash(userId + '|' + deviceFingerprint)[0];
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? System.currentTimeMillis() : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,177 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signs and verifies stateless trusted-device tokens.
+ *
+ * A token is {@code payload.signature}, both Base64url without padding. The payload packs a
+ * format byte, the signing key version, issue and expiry times in epoch milliseconds, the first
+ * 16 bytes of the SHA-256 of the device fingerprint and the user ID; the signature is
+ * HMAC-SHA256 over the payload with the key of that version. Verification needs no database
+ * lookup, and keeping the previous key configured lets tokens signed before a key rotation
+ * verify until they expire.
+ *
+ * @author CloudSuites Platform Team
+ * @since 1.0.0
+ */
+@Component
+public class TrustedDeviceTokenSigner {
+
+    private static final Logger log = LoggerFactory.getLogger(TrustedDeviceTokenSigner.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte FORMAT_VERSION = 1;
+    static final int FINGERPRINT_HASH_BYTES = 16;
+    private static final int HEADER_BYTES = 1 + Integer.BYTES + 2 * Long.BYTES + FINGERPRINT_HASH_BYTES;
+
+    @Value("${cloudsuites.device-trust.token.signing-key:}")
+    private String signingKey = "";
+
+    @Value("${cloudsuites.device-trust.token.key-version:1}")
+    private int keyVersion = 1;
+
+    @Value("${cloudsuites.device-trust.token.previous-signing-key:}")
+    private String previousSigningKey = "";
+
+    @Value("${cloudsuites.device-trust.token.previous-key-version:0}")
+    private int previousKeyVersion = 0;
+
+    private final Map<Integer, ThreadLocal<Mac>> macs = new ConcurrentHashMap<>();
+
+    /**
+     * Claims carried by a verified token.
+     */
+    public record TrustedDeviceClaims(String userId, byte[] fingerprintHash, long issuedAtMillis,
+                                      long expiresAtMillis, int keyVersion) {
+
+        public boolean matchesFingerprint(String fingerprint) {
+            return fingerprint != null && MessageDigest.isEqual(fingerprintHash, TrustedDeviceTokenSigner.fingerprintHash(fingerprint));
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        byte[] key;
+        if (signingKey == null || signingKey.isBlank()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            log.warn("No trusted device token signing key configured; using a random key, so tokens will not "
+                    + "survive a restart or verify on other instances");
+        } else {
+            key = Base64.getDecoder().decode(signingKey.trim());
+        }
+        register(keyVersion, key);
+        if (previousSigningKey != null && !previousSigningKey.isBlank()) {
+            if (previousKeyVersion == keyVersion) {
+                throw new IllegalStateException("Previous trusted device token key must have a different version");
+            }
+            register(previousKeyVersion, Base64.getDecoder().decode(previousSigningKey.trim()));
+        }
+    }
+
+    /**
+     * Signs a token for a user's device with the current key.
+     */
+    public String sign(String userId, String fingerprint, long issuedAtMillis, long expiresAtMillis) {
+        byte[] user = userId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(HEADER_BYTES + user.length)
+                .put(FORMAT_VERSION)
+                .putInt(keyVersion)
+                .putLong(issuedAtMillis)
+                .putLong(expiresAtMillis)
+                .put(fingerprintHash(fingerprint))
+                .put(user);
+        byte[] bytes = payload.array();
+        Base64.Encoder base64 = Base64.getUrlEncoder().withoutPadding();
+        return base64.encodeToString(bytes) + "." + base64.encodeToString(mac(keyVersion).doFinal(bytes));
+    }
+
+    /**
+     * Verifies a token's signature and returns its claims, or null if the token is malformed,
+     * signed with an unknown key version or tampered with. Expiry is left to the caller.
+     */
+    public TrustedDeviceClaims verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return null;
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            Base64.Decoder base64 = Base64.getUrlDecoder();
+            payload = base64.decode(token.substring(0, dot));
+            signature = base64.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (payload.length <= HEADER_BYTES || payload[0] != FORMAT_VERSION) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload, 1, payload.length - 1);
+        int version = buffer.getInt();
+        Mac mac = mac(version);
+        if (mac == null || !MessageDigest.isEqual(signature, mac.doFinal(payload))) {
+            return null;
+        }
+        long issuedAt = buffer.getLong();
+        long expiresAt = buffer.getLong();
+        byte[] fingerprintHash = new byte[FINGERPRINT_HASH_BYTES];
+        buffer.get(fingerprintHash);
+        String userId = new String(payload, HEADER_BYTES, payload.length - HEADER_BYTES, StandardCharsets.UTF_8);
+        return new TrustedDeviceClaims(userId, fingerprintHash, issuedAt, expiresAt, version);
+    }
+
+    /**
+     * Truncated SHA-256 of a device fingerprint, so tokens do not carry the fingerprint itself.
+     */
+    static byte[] fingerprintHash(String fingerprint) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+            return Arrays.copyOf(hash, FINGERPRINT_HASH_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    private void register(int version, byte[] key) {
+        if (key.length < 32) {
+            throw new IllegalStateException("Trusted device token signing keys must be at least 256 bits");
+        }
+        SecretKeySpec spec = new SecretKeySpec(key, ALGORITHM);
+        macs.put(version, ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(spec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 not available", e);
+            }
+        }));
+    }
+
+    private Mac mac(int version) {
+        ThreadLocal<Mac> mac = macs.get(version);
+        return mac == null ? null : mac.get();
+    }
+}
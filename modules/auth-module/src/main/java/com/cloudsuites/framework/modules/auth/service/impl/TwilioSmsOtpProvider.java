@@ -0,0 +1,29 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.otp.SmsService;
+import com.cloudsuites.framework.services.auth.OtpChannel;
+
+/**
+ * Sends OTP codes as plain SMS messages through Twilio.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+public class TwilioSmsOtpProvider implements OtpDeliveryProvider {
+
+    private final SmsService smsService;
+
+    public TwilioSmsOtpProvider(SmsService smsService) {
+        this.smsService = smsService;
+    }
+
+    @Override
+    public OtpChannel getChannel() {
+        return OtpChannel.SMS;
+    }
+
+    @Override
+    public void deliver(OtpDelivery delivery) {
+        smsService.sendSms(delivery.recipient(), "Your CloudSuites verification code is " + delivery.code());
+    }
+}
@@ -0,0 +1,268 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.services.auth.AuthEventCategory;
+import com.cloudsuites.framework.services.auth.AuthEventType;
+import com.cloudsuites.framework.services.auth.RiskLevel;
+import com.cloudsuites.framework.services.auth.entities.AuditEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditEventWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AuditEventWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    private AuditEventWriter start(RecordingSink sink, int capacity, int batchSize, AuditEventWriter.OverflowPolicy policy) {
+        return start(sink, capacity, batchSize, policy, tempDir.resolve("audit-spill.jsonl").toString());
+    }
+
+    private AuditEventWriter start(RecordingSink sink, int capacity, int batchSize, AuditEventWriter.OverflowPolicy policy,
+                                   String spillPath) {
+        writer = new AuditEventWriter();
+        ReflectionTestUtils.setField(writer, "sink", sink);
+        ReflectionTestUtils.setField(writer, "bufferCapacity", capacity);
+        ReflectionTestUtils.setField(writer, "batchSize", batchSize);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(writer, "overflowPolicy", policy);
+        ReflectionTestUtils.setField(writer, "blockTimeoutMs", 5_000L);
+        ReflectionTestUtils.setField(writer, "spillPath", spillPath);
+        ReflectionTestUtils.setField(writer, "replayRetryMs", 10L);
+        ReflectionTestUtils.setField(writer, "maxReplayAttempts", 3);
+        writer.init();
+        return writer;
+    }
+
+    private static AuditEvent event(int i) {
+        AuditEvent event = new AuditEvent("event-" + i, "user-" + i, AuthEventType.LOGIN_SUCCESS,
+                AuthEventCategory.AUTHENTICATION, RiskLevel.LOW, "10.0.0.1", "JUnit", "Successful login");
+        event.setTimestamp(LocalDateTime.now());
+        event.setSuccess(true);
+        event.setMetadata(Map.of("attempt", i));
+        return event;
+    }
+
+    @Test
+    void testWritesEverythingInBoundedBatches() {
+        RecordingSink sink = new RecordingSink();
+        start(sink, 1_024, 100, AuditEventWriter.OverflowPolicy.DROP);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(writer.submit(event(i)));
+        }
+
+        awaitTrue(() -> sink.ids.size() == 1_000);
+        assertTrue(sink.batchSizes.stream().allMatch(size -> size <= 100), "Batches: " + sink.batchSizes);
+        assertTrue(sink.batchSizes.size() < 1_000);
+        assertEquals(1_000, writer.getWrittenCount());
+        assertEquals(0, writer.getDroppedCount());
+    }
+
+    @Test
+    void testDropPolicyNeverBlocksCallers() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.blocked = new CountDownLatch(1);
+        start(sink, 16, 4, AuditEventWriter.OverflowPolicy.DROP);
+
+        long slowest = 0;
+        for (int i = 0; i < 2_000; i++) {
+            long start = System.nanoTime();
+            writer.submit(event(i));
+            slowest = Math.max(slowest, System.nanoTime() - start);
+        }
+        sink.blocked.countDown();
+
+        assertTrue(writer.getDroppedCount() > 1_900, "Dropped " + writer.getDroppedCount());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(slowest) < 100, "Slowest submit " + slowest + " ns");
+        awaitTrue(() -> writer.getWrittenCount() + writer.getDroppedCount() == 2_000);
+    }
+
+    @Test
+    void testBlockPolicyWaitsForSpace() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.blocked = new CountDownLatch(1);
+        start(sink, 4, 4, AuditEventWriter.OverflowPolicy.BLOCK);
+
+        Thread releaser = Thread.ofPlatform().start(() -> {
+            pause(200);
+            sink.blocked.countDown();
+        });
+        for (int i = 0; i < 50; i++) {
+            assertTrue(writer.submit(event(i)));
+        }
+        releaser.join();
+
+        awaitTrue(() -> sink.ids.size() == 50);
+        assertEquals(0, writer.getDroppedCount());
+    }
+
+    @Test
+    void testSpilledEventsAreReplayedOnceTheWriterCatchesUp() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.blocked = new CountDownLatch(1);
+        start(sink, 8, 8, AuditEventWriter.OverflowPolicy.SPILL);
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(writer.submit(event(i)));
+        }
+        assertTrue(writer.getSpilledCount() > 0);
+        assertTrue(Files.exists(tempDir.resolve("audit-spill.jsonl")));
+        sink.blocked.countDown();
+
+        awaitTrue(() -> sink.ids.size() == 500);
+        assertEquals(500, Set.copyOf(sink.ids).size());
+        assertEquals(0, writer.getDroppedCount());
+        awaitTrue(() -> !Files.exists(tempDir.resolve("audit-spill.jsonl"))
+                && !Files.exists(tempDir.resolve("audit-spill.jsonl.replay")));
+        assertEquals(Map.of("attempt", 7), sink.events.get("event-7").getMetadata());
+    }
+
+    @Test
+    void testFailedBatchesAreSpilledAndRetried() {
+        RecordingSink sink = new RecordingSink();
+        sink.failuresLeft = 1;
+        start(sink, 64, 64, AuditEventWriter.OverflowPolicy.SPILL);
+
+        for (int i = 0; i < 10; i++) {
+            writer.submit(event(i));
+        }
+
+        awaitTrue(() -> sink.ids.size() == 10);
+        assertEquals(10, writer.getSpilledCount());
+        assertEquals(0, writer.getFailedCount());
+    }
+
+    @Test
+    void testBatchesThatKeepFailingAreDeadLettered() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.failuresLeft = Integer.MAX_VALUE;
+        start(sink, 64, 64, AuditEventWriter.OverflowPolicy.SPILL);
+
+        for (int i = 0; i < 5; i++) {
+            writer.submit(event(i));
+        }
+
+        awaitTrue(() -> writer.getQuarantinedCount() == 5);
+        awaitTrue(() -> !Files.exists(tempDir.resolve("audit-spill.jsonl"))
+                && !Files.exists(tempDir.resolve("audit-spill.jsonl.replay")));
+        assertEquals(5, Files.readAllLines(tempDir.resolve("audit-spill.jsonl.dead")).size());
+        assertEquals(0, writer.getWrittenCount());
+    }
+
+    @Test
+    void testDefaultSpillFileIsPerProcessAndOrphansAreAdopted() throws Exception {
+        long deadPid = Long.MAX_VALUE - 1;
+        assertTrue(ProcessHandle.of(deadPid).isEmpty());
+        long livePid = ProcessHandle.current().parent().orElseThrow().pid();
+        Path orphan = tempDir.resolve("cloudsuites-audit-spill-" + deadPid + ".jsonl");
+        Path live = tempDir.resolve("cloudsuites-audit-spill-" + livePid + ".jsonl");
+        spillTo(orphan, event(1), event(2));
+        spillTo(live, event(3));
+
+        String tmpDir = System.getProperty("java.io.tmpdir");
+        System.setProperty("java.io.tmpdir", tempDir.toString());
+        try {
+            RecordingSink sink = new RecordingSink();
+            start(sink, 64, 64, AuditEventWriter.OverflowPolicy.DROP, "");
+
+            awaitTrue(() -> sink.ids.size() == 2);
+            assertEquals(Set.of("event-1", "event-2"), Set.copyOf(sink.ids));
+            assertFalse(Files.exists(orphan));
+            assertTrue(Files.exists(live));
+        } finally {
+            System.setProperty("java.io.tmpdir", tmpDir);
+        }
+    }
+
+    @Test
+    void testShutdownFlushesBufferedEvents() {
+        RecordingSink sink = new RecordingSink();
+        sink.delayMs = 5;
+        start(sink, 4_096, 50, AuditEventWriter.OverflowPolicy.DROP);
+
+        for (int i = 0; i < 2_000; i++) {
+            assertTrue(writer.submit(event(i)));
+        }
+        writer.shutdown();
+        writer = null;
+
+        assertEquals(2_000, sink.ids.size());
+    }
+
+    private static void spillTo(Path path, AuditEvent... events) throws Exception {
+        AuditSpillFile spillFile = new AuditSpillFile(path, 1);
+        spillFile.append(List.of(events));
+        spillFile.close();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for condition");
+            pause(5);
+        }
+    }
+
+    private static void pause(long millis) {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static final class RecordingSink implements AuditEventSink {
+        final List<String> ids = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        final Map<String, AuditEvent> events = new ConcurrentHashMap<>();
+        volatile CountDownLatch blocked;
+        volatile int failuresLeft;
+        volatile long delayMs;
+
+        @Override
+        public void write(List<AuditEvent> batch) {
+            CountDownLatch latch = blocked;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("Database unavailable");
+            }
+            if (delayMs > 0) {
+                pause(delayMs);
+            }
+            batchSizes.add(batch.size());
+            for (AuditEvent event : batch) {
+                ids.add(event.getEventId());
+                events.put(event.getEventId(), event);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.service.impl.AuditPartitionManager.Partition;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditPartitionManagerTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2026, 10);
+
+    private static Partition month(int year, int month) {
+        YearMonth ym = YearMonth.of(year, month);
+        return new Partition("auth_audit_events_p" + ym, ym.atDay(1).atStartOfDay(),
+                ym.plusMonths(1).atDay(1).atStartOfDay(), false);
+    }
+
+    @Test
+    void testParsesPostgresBounds() {
+        Partition range = AuditPartitionManager.parsePartition("auth_audit_events_p2026_10",
+                "FOR VALUES FROM ('2026-10-01 00:00:00') TO ('2026-11-01 00:00:00')");
+        Partition legacy = AuditPartitionManager.parsePartition("auth_audit_events_legacy",
+                "FOR VALUES FROM (MINVALUE) TO ('2026-11-01 00:00:00')");
+        Partition fallback = AuditPartitionManager.parsePartition("auth_audit_events_default", "DEFAULT");
+
+        assertEquals(LocalDateTime.of(2026, 10, 1, 0, 0), range.from());
+        assertEquals(LocalDateTime.of(2026, 11, 1, 0, 0), range.to());
+        assertNull(legacy.from());
+        assertEquals(LocalDateTime.of(2026, 11, 1, 0, 0), legacy.to());
+        assertTrue(fallback.isDefault());
+        assertThrows(IllegalArgumentException.class,
+                () -> AuditPartitionManager.parsePartition("x", "FOR VALUES IN ('a')"));
+    }
+
+    @Test
+    void testCreatesOnlyUncoveredMonthsAhead() {
+        Partition legacy = new Partition("auth_audit_events_legacy", null, LocalDateTime.of(2026, 11, 1, 0, 0), false);
+        Partition fallback = new Partition("auth_audit_events_default", null, null, true);
+
+        List<YearMonth> missing = AuditPartitionManager.monthsToCreate(
+                List.of(legacy, month(2026, 12), fallback), CURRENT, 3);
+
+        assertEquals(List.of(YearMonth.of(2026, 11), YearMonth.of(2027, 1)), missing);
+        assertEquals(List.of(CURRENT, CURRENT.plusMonths(1)),
+                AuditPartitionManager.monthsToCreate(List.of(fallback), CURRENT, 1));
+    }
+
+    @Test
+    void testExpiresPartitionsEndingBeforeCutoff() {
+        Partition legacy = new Partition("auth_audit_events_legacy", null, LocalDateTime.of(2019, 4, 1, 0, 0), false);
+        Partition fallback = new Partition("auth_audit_events_default", null, null, true);
+        LocalDateTime cutoff = CURRENT.minusMonths(84).atDay(1).atStartOfDay();
+
+        List<Partition> expired = AuditPartitionManager.expiredPartitions(
+                List.of(legacy, month(2019, 9), month(2019, 10), month(2019, 11), fallback), cutoff);
+
+        assertEquals(List.of(legacy, month(2019, 9)), expired);
+    }
+}
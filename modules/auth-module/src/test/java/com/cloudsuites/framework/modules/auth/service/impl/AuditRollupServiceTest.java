@@ -0,0 +1,101 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.repository.AuditEventRollupRepository;
+import com.cloudsuites.framework.services.auth.AuthEventCategory;
+import com.cloudsuites.framework.services.auth.AuthEventType;
+import com.cloudsuites.framework.services.auth.RiskLevel;
+import com.cloudsuites.framework.services.auth.entities.AuditEvent;
+import com.cloudsuites.framework.services.auth.entities.AuditEventRollup.Granularity;
+import com.cloudsuites.framework.services.auth.entities.AuditEventRollup.Key;
+import com.cloudsuites.framework.services.auth.entities.AuditEventRollup.Outcome;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AuditRollupServiceTest {
+
+    private static AuditEvent event(AuthEventType type, Boolean success, LocalDateTime timestamp, String building) {
+        AuditEvent event = new AuditEvent("id", "user-1", type, AuthEventCategory.AUTHENTICATION, RiskLevel.LOW,
+                null, null, null);
+        event.setSuccess(success);
+        event.setTimestamp(timestamp);
+        if (building != null) {
+            event.setMetadata(Map.of(AuditRollupService.BUILDING_METADATA_KEY, building));
+        }
+        return event;
+    }
+
+    @Test
+    void testAggregatesBatchIntoHourlyAndDailyBuckets() {
+        LocalDateTime t = LocalDateTime.of(2026, 10, 19, 9, 15);
+        List<AuditEvent> batch = List.of(
+                event(AuthEventType.LOGIN_SUCCESS, true, t, "b1"),
+                event(AuthEventType.LOGIN_SUCCESS, true, t.plusMinutes(30), "b1"),
+                event(AuthEventType.LOGIN_SUCCESS, true, t.plusHours(1), "b1"),
+                event(AuthEventType.LOGIN_FAILURE, false, t, null),
+                event(AuthEventType.TOKEN_REFRESHED, null, t, null));
+
+        SortedMap<Key, Long> buckets = AuditRollupService.aggregate(batch);
+
+        LocalDateTime hour = LocalDateTime.of(2026, 10, 19, 9, 0);
+        LocalDateTime day = LocalDateTime.of(2026, 10, 19, 0, 0);
+        assertEquals(2L, buckets.get(new Key(Granularity.HOUR, hour, AuthEventType.LOGIN_SUCCESS, Outcome.SUCCESS, "b1")));
+        assertEquals(1L, buckets.get(new Key(Granularity.HOUR, hour.plusHours(1), AuthEventType.LOGIN_SUCCESS, Outcome.SUCCESS, "b1")));
+        assertEquals(3L, buckets.get(new Key(Granularity.DAY, day, AuthEventType.LOGIN_SUCCESS, Outcome.SUCCESS, "b1")));
+        assertEquals(1L, buckets.get(new Key(Granularity.DAY, day, AuthEventType.LOGIN_FAILURE, Outcome.FAILURE, "")));
+        assertEquals(1L, buckets.get(new Key(Granularity.DAY, day, AuthEventType.TOKEN_REFRESHED, Outcome.UNKNOWN, "")));
+        assertEquals(7, buckets.size());
+    }
+
+    @Test
+    void testRecordIncrementsBucketsInKeyOrder() {
+        AuditEventRollupRepository repository = mock(AuditEventRollupRepository.class);
+        AuditRollupService service = new AuditRollupService();
+        ReflectionTestUtils.setField(service, "rollupRepository", repository);
+        LocalDateTime t = LocalDateTime.of(2026, 10, 19, 9, 15);
+
+        service.record(List.of(event(AuthEventType.LOGIN_SUCCESS, true, t, null),
+                event(AuthEventType.LOGIN_SUCCESS, true, t, null)));
+
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).increment(eq("HOUR"), eq(LocalDateTime.of(2026, 10, 19, 9, 0)),
+                eq("LOGIN_SUCCESS"), eq("SUCCESS"), eq(""), eq(2L));
+        inOrder.verify(repository).increment(eq("DAY"), eq(LocalDateTime.of(2026, 10, 19, 0, 0)),
+                eq("LOGIN_SUCCESS"), eq("SUCCESS"), eq(""), eq(2L));
+        verify(repository, times(2)).increment(anyString(), any(), anyString(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void testPlanSplitsRangeIntoWholeDaysAndEdgeHours() {
+        AuditRollupService.RangePlan plan = AuditRollupService.plan(
+                LocalDateTime.of(2026, 10, 1, 13, 40), LocalDateTime.of(2026, 10, 19, 9, 5));
+
+        assertEquals(LocalDateTime.of(2026, 10, 1, 13, 0), plan.hourStart());
+        assertEquals(LocalDateTime.of(2026, 10, 2, 0, 0), plan.dayStart());
+        assertEquals(LocalDateTime.of(2026, 10, 19, 0, 0), plan.dayEnd());
+        assertEquals(LocalDateTime.of(2026, 10, 19, 9, 0), plan.hourEnd());
+
+        AuditRollupService.RangePlan midnight = AuditRollupService.plan(
+                LocalDateTime.of(2026, 10, 1, 0, 0), LocalDateTime.of(2026, 10, 3, 0, 0));
+        assertEquals(midnight.hourStart(), midnight.dayStart());
+        assertEquals(midnight.dayEnd(), midnight.hourEnd());
+
+        AuditRollupService.RangePlan sameDay = AuditRollupService.plan(
+                LocalDateTime.of(2026, 10, 19, 1, 0), LocalDateTime.of(2026, 10, 19, 9, 0));
+        assertEquals(LocalDateTime.of(2026, 10, 19, 1, 0), sameDay.hourStart());
+        assertEquals(sameDay.hourEnd(), sameDay.dayStart());
+        assertEquals(sameDay.hourEnd(), sameDay.dayEnd());
+    }
+}
@@ -0,0 +1,158 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.repository.AuthAuditEventRepository;
+import com.cloudsuites.framework.services.auth.AuthEventCategory;
+import com.cloudsuites.framework.services.auth.AuthEventType;
+import com.cloudsuites.framework.services.auth.RiskLevel;
+import com.cloudsuites.framework.services.auth.entities.AuditEvent;
+import com.cloudsuites.framework.services.auth.entities.AuditEventPage;
+import com.cloudsuites.framework.services.auth.entities.AuditEventResponse;
+import com.cloudsuites.framework.services.auth.entities.AuditEventRollup.Outcome;
+import com.cloudsuites.framework.services.auth.entities.AuditQueryRequest;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AuditServiceImplTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 1, 12, 0, 30, 123_000_000);
+
+    private final AuthAuditEventRepository repository = mock(AuthAuditEventRepository.class);
+    private final AuditRollupService rollupService = mock(AuditRollupService.class);
+    private final AuditEventWriter auditEventWriter = mock(AuditEventWriter.class);
+    private final AuditServiceImpl service = new AuditServiceImpl(repository, auditEventWriter, rollupService);
+
+    private static AuditEvent event(int i) {
+        AuditEvent event = new AuditEvent("event-" + i, "user-1", AuthEventType.LOGIN_SUCCESS,
+                AuthEventCategory.AUTHENTICATION, RiskLevel.LOW, "10.0.0.1", null, "Successful login");
+        event.setTimestamp(BASE.minusSeconds(i));
+        return event;
+    }
+
+    private static Window<AuditEvent> window(int from, int to, boolean hasNext) {
+        List<AuditEvent> events = IntStream.range(from, to).mapToObj(AuditServiceImplTest::event).toList();
+        return Window.from(events, i -> ScrollPosition.keyset(), hasNext);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubWindows(Window<AuditEvent> first, Window<?>... rest) {
+        when(repository.findBy(any(Specification.class), any())).thenReturn(first, (Object[]) rest);
+    }
+
+    @Test
+    void testCursorRoundTripsKeysetOfLastEvent() {
+        String cursor = AuditServiceImpl.encodeCursor(event(7));
+
+        KeysetScrollPosition position = AuditServiceImpl.decodeCursor(cursor);
+
+        assertEquals(Map.of("timestamp", BASE.minusSeconds(7), "eventId", "event-7"), position.getKeys());
+        assertEquals(ScrollPosition.Direction.FORWARD, position.getDirection());
+        assertTrue(AuditServiceImpl.decodeCursor(null).isInitial());
+        assertThrows(IllegalArgumentException.class, () -> AuditServiceImpl.decodeCursor("bm90LWEtY3Vyc29y"));
+        assertThrows(IllegalArgumentException.class, () -> AuditServiceImpl.decodeCursor("%%%"));
+    }
+
+    @Test
+    void testFindAuditEventsReturnsCursorOnlyWhenMoreFollow() {
+        stubWindows(window(0, 3, true), window(3, 5, false));
+
+        AuditEventPage first = service.findAuditEvents(new AuditQueryRequest(), null, 3);
+        AuditEventPage last = service.findAuditEvents(new AuditQueryRequest(), first.getNextCursor(), 3);
+
+        assertEquals(List.of("event-0", "event-1", "event-2"),
+                first.getEvents().stream().map(AuditEventResponse::getEventId).toList());
+        assertTrue(first.hasMore());
+        assertEquals(AuditServiceImpl.encodeCursor(event(2)), first.getNextCursor());
+        assertEquals(2, last.getEvents().size());
+        assertFalse(last.hasMore());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void testExportWalksChunksUntilExhausted() {
+        int chunk = AuditServiceImpl.EXPORT_CHUNK_SIZE;
+        stubWindows(window(0, chunk, true), window(chunk, 2 * chunk, true), window(2 * chunk, 2 * chunk + 10, false));
+        List<String> exported = new ArrayList<>();
+
+        long count = service.exportAuditEvents(new AuditQueryRequest(), response -> exported.add(response.getEventId()));
+
+        assertEquals(2 * chunk + 10, count);
+        assertEquals(2 * chunk + 10, exported.size());
+        assertEquals("event-0", exported.get(0));
+        assertEquals("event-" + (2 * chunk + 9), exported.get(exported.size() - 1));
+        verify(repository, times(3)).findBy(ArgumentMatchers.<Specification<AuditEvent>>any(), any());
+    }
+
+    @Test
+    void testPagesSkipCountAndRejectDeepOffsets() {
+        stubWindows(window(20, 40, true));
+
+        Page<AuditEventResponse> page = service.getSecurityEvents(null, null, PageRequest.of(1, 20));
+
+        assertEquals(20, page.getNumberOfElements());
+        assertEquals(41, page.getTotalElements());
+        assertTrue(page.hasNext());
+        verify(repository, never()).count(ArgumentMatchers.<Specification<AuditEvent>>any());
+        assertThrows(IllegalArgumentException.class,
+                () -> service.searchAuditEvents(new AuditQueryRequest(), PageRequest.of(1_000, 20)));
+    }
+
+    @Test
+    void testStatisticsReadRollups() {
+        when(rollupService.sumBetween(any(), any())).thenReturn(List.of(
+                new Object[]{AuthEventType.LOGIN_SUCCESS, Outcome.SUCCESS, "building-1", 30L},
+                new Object[]{AuthEventType.LOGIN_SUCCESS, Outcome.SUCCESS, "", 10L},
+                new Object[]{AuthEventType.LOGIN_FAILURE, Outcome.FAILURE, "building-1", 2L}));
+
+        Map<String, Object> statistics = service.getAuditStatistics(null, null);
+
+        assertEquals(42L, statistics.get("totalEvents"));
+        assertEquals(40L, statistics.get("successfulEvents"));
+        assertEquals(2L, statistics.get("failedEvents"));
+        assertEquals(Map.of("LOGIN_SUCCESS", 40L, "LOGIN_FAILURE", 2L), statistics.get("eventsByType"));
+        assertEquals(Map.of("building-1", 32L), statistics.get("eventsByBuilding"));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testOutcomeHelpersRecordTheClientAddressAndFeedTheDetector() {
+        AuthAnomalyDetector detector = new AuthAnomalyDetector();
+        ReflectionTestUtils.setField(detector, "ipFailureThreshold", 3);
+        detector.init();
+        ReflectionTestUtils.setField(service, "anomalyDetector", detector);
+
+        for (int i = 0; i < 3; i++) {
+            service.logOtpVerification("user-1", "203.0.113.7", "JUnit", false, "sms");
+        }
+        service.logSuccessfulLogin("user-1", "198.51.100.4", "JUnit", "session-1");
+
+        ArgumentCaptor<AuditEvent> submitted = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditEventWriter, times(4)).submit(submitted.capture());
+        AuditEvent rejected = submitted.getAllValues().get(0);
+        assertEquals("203.0.113.7", rejected.getIpAddress());
+        assertNull(rejected.getSessionId());
+        assertEquals("OTP verification via sms", rejected.getDescription());
+        AuditEvent login = submitted.getAllValues().get(3);
+        assertEquals("198.51.100.4", login.getIpAddress());
+        assertEquals("session-1", login.getSessionId());
+        assertTrue(detector.blockedForSeconds("203.0.113.7") > 0);
+        assertEquals(0, detector.blockedForSeconds("198.51.100.4"));
+    }
+}
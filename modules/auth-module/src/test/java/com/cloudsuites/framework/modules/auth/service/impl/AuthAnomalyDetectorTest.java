@@ -0,0 +1,125 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.services.auth.AuthEventCategory;
+import com.cloudsuites.framework.services.auth.AuthEventType;
+import com.cloudsuites.framework.services.auth.RiskLevel;
+import com.cloudsuites.framework.services.auth.entities.AuditEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthAnomalyDetectorTest {
+
+    private AuthAnomalyDetector detector;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        detector = new AuthAnomalyDetector();
+        ReflectionTestUtils.setField(detector, "ipFailureThreshold", 10);
+        ReflectionTestUtils.setField(detector, "subnetFailureThreshold", 30);
+        ReflectionTestUtils.setField(detector, "accountFailureThreshold", 5);
+        ReflectionTestUtils.setField(detector, "ipFanOutThreshold", 8);
+        detector.init();
+        now = System.currentTimeMillis();
+    }
+
+    private static AuditEvent event(AuthEventType type, String userId, String ip) {
+        return new AuditEvent("id", userId, type, AuthEventCategory.AUTHENTICATION, RiskLevel.LOW, ip, null, null);
+    }
+
+    @Test
+    void testFailureSpikeFromOneAddressBlocksIt() {
+        for (int i = 0; i < 9; i++) {
+            detector.observe(event(AuthEventType.LOGIN_FAILURE, "user-1", "203.0.113.7"), now);
+        }
+        assertEquals(0, detector.blockedForSeconds("203.0.113.7"));
+
+        detector.observe(event(AuthEventType.LOGIN_FAILURE, "user-1", "203.0.113.7"), now);
+
+        assertTrue(detector.blockedForSeconds("203.0.113.7") > 0);
+        assertEquals(0, detector.blockedForSeconds("203.0.113.8"));
+        assertEquals(List.of(Map.entry("203.0.113.7", 10L)),
+                detector.getHeavyHitters(AuthAnomalyDetector.Dimension.IP).subList(0, 1));
+    }
+
+    @Test
+    void testDistributedFailuresFlagSubnet() {
+        for (int i = 0; i < 30; i++) {
+            detector.observe(event(AuthEventType.OTP_VERIFY_FAILURE, null, "198.51.100." + i), now);
+        }
+
+        assertTrue(detector.blockedForSeconds("198.51.100.250") > 0);
+        assertEquals(0, detector.blockedForSeconds("198.51.101.1"));
+    }
+
+    @Test
+    void testAccountFanOutFromOneAddressBlocksItEvenWhenLoginsSucceed() {
+        for (int i = 0; i < 8; i++) {
+            detector.observe(event(AuthEventType.LOGIN_SUCCESS, "user-" + i, "192.0.2.1"), now);
+            detector.observe(event(AuthEventType.LOGIN_SUCCESS, "user-" + i, "192.0.2.1"), now);
+        }
+
+        assertTrue(detector.blockedForSeconds("192.0.2.1") > 0);
+    }
+
+    @Test
+    void testAccountFailuresFlagAccountWithoutBlockingAddresses() {
+        for (int i = 0; i < 5; i++) {
+            detector.observe(event(AuthEventType.LOGIN_FAILURE, "victim", "10.1." + i + ".1"), now);
+        }
+
+        assertTrue(detector.isAccountFlagged("victim"));
+        assertFalse(detector.isAccountFlagged("user-1"));
+        assertEquals(0, detector.blockedForSeconds("10.1.0.1"));
+    }
+
+    @Test
+    void testImpossibleTravelFlagsAccount() {
+        AuditEvent toronto = event(AuthEventType.LOGIN_SUCCESS, "traveller", "10.0.0.1");
+        toronto.setGeolocation("43.6532,-79.3832");
+        AuditEvent london = event(AuthEventType.LOGIN_SUCCESS, "traveller", "10.0.0.2");
+        london.setGeolocation("51.5072, -0.1276");
+
+        detector.observe(toronto, now);
+        detector.observe(london, now + 8 * 3_600_000L);
+        assertFalse(detector.isAccountFlagged("traveller"));
+
+        detector.observe(toronto, now + 9 * 3_600_000L);
+        assertTrue(detector.isAccountFlagged("traveller"));
+    }
+
+    @Test
+    void testFlagsAreBoundedUnderHighCardinality() {
+        ReflectionTestUtils.setField(detector, "maxFlags", 100);
+        for (int i = 0; i < 5_000; i++) {
+            String ip = "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+            for (int attempt = 0; attempt < 10; attempt++) {
+                detector.observe(event(AuthEventType.LOGIN_FAILURE, null, ip), now);
+            }
+        }
+
+        assertEquals(100, detector.getFlagCount());
+    }
+
+    @Test
+    void testSubnetOfAddressLiteralsOnly() {
+        assertEquals("203.0.113.0/24", AuthAnomalyDetector.subnetOf("203.0.113.7"));
+        assertEquals("2001:db8:85a3:0::/64", AuthAnomalyDetector.subnetOf("2001:db8:85a3::8a2e:370:7334"));
+        assertNull(AuthAnomalyDetector.subnetOf("example.com"));
+        assertNull(AuthAnomalyDetector.subnetOf("not:an:address"));
+    }
+
+    @Test
+    void testParseLocation() {
+        assertArrayEquals(new double[]{43.6532, -79.3832}, AuthAnomalyDetector.parseLocation("43.6532,-79.3832"));
+        assertNull(AuthAnomalyDetector.parseLocation("Toronto, Canada"));
+        assertNull(AuthAnomalyDetector.parseLocation("91,0"));
+        assertNull(AuthAnomalyDetector.parseLocation(null));
+    }
+}
@@ -0,0 +1,72 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BreachedPasswordCheckerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testBuiltInListWithoutFilterFile() {
+        BreachedPasswordChecker checker = new BreachedPasswordChecker();
+        checker.init();
+
+        assertFalse(checker.isFilterLoaded());
+        assertTrue(checker.isBreached("Password1"));
+        assertTrue(checker.isBreached("QWERTY"));
+        assertFalse(checker.isBreached("Kq!9zw7mX#2p"));
+    }
+
+    @Test
+    void testBuiltFilterIsMappedAtStartup() throws IOException {
+        List<String> passwords = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            passwords.add("Leaked-" + i);
+        }
+        passwords.add("");
+        Path list = tempDir.resolve("passwords.txt");
+        Files.write(list, passwords);
+        Path filter = tempDir.resolve("breached.bloom");
+
+        assertEquals(5_000, BreachedPasswordFilterBuilder.build(list, filter, 0.001));
+
+        BreachedPasswordChecker checker = new BreachedPasswordChecker();
+        ReflectionTestUtils.setField(checker, "filterPath", filter.toString());
+        checker.init();
+
+        assertTrue(checker.isFilterLoaded());
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(checker.isBreached("Leaked-" + i));
+        }
+        assertTrue(checker.isBreached("LEAKED-42"));
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            falsePositives += checker.isBreached("Kq!9zw7mX#" + i) ? 1 : 0;
+        }
+        assertTrue(falsePositives < 50, "False positives: " + falsePositives);
+    }
+
+    @Test
+    void testUnreadableFilterFallsBackToBuiltInList() throws IOException {
+        Path notAFilter = tempDir.resolve("passwords.txt");
+        Files.writeString(notAFilter, "password\n");
+
+        BreachedPasswordChecker checker = new BreachedPasswordChecker();
+        ReflectionTestUtils.setField(checker, "filterPath", notAFilter.toString());
+        checker.init();
+
+        assertFalse(checker.isFilterLoaded());
+        assertTrue(checker.isBreached("letmein"));
+    }
+}
@@ -0,0 +1,141 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.repository.DeviceFingerprintRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceActivityCoalescerTest {
+
+    @Mock
+    private DeviceFingerprintRepository deviceFingerprintRepository;
+
+    @InjectMocks
+    private DeviceActivityCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(coalescer, "batchSize", 2);
+        ReflectionTestUtils.setField(coalescer, "maxPending", 50000);
+    }
+
+    @Test
+    void testFlush_SumsUsagePerDeviceAndKeepsLatestIp() {
+        coalescer.recordActivity("fp-1", "10.0.0.1");
+        coalescer.recordActivity("fp-1", "10.0.0.2");
+        coalescer.recordActivity("fp-1", null);
+        when(deviceFingerprintRepository.batchIncrementDeviceActivity(any(), any(), any(), any())).thenReturn(1);
+
+        int updated = coalescer.flush();
+
+        ArgumentCaptor<String[]> fingerprints = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<Long[]> deltas = ArgumentCaptor.forClass(Long[].class);
+        ArgumentCaptor<String[]> ips = ArgumentCaptor.forClass(String[].class);
+        verify(deviceFingerprintRepository).batchIncrementDeviceActivity(
+                fingerprints.capture(), any(LocalDateTime[].class), deltas.capture(), ips.capture());
+        assertEquals(1, updated);
+        assertArrayEquals(new String[]{"fp-1"}, fingerprints.getValue());
+        assertArrayEquals(new Long[]{3L}, deltas.getValue());
+        assertArrayEquals(new String[]{"10.0.0.2"}, ips.getValue());
+        assertEquals(0, coalescer.getPendingCount());
+    }
+
+    @Test
+    void testFlush_WritesSortedBatches() {
+        coalescer.recordActivity("fp-3", null);
+        coalescer.recordActivity("fp-1", null);
+        coalescer.recordActivity("fp-2", null);
+        when(deviceFingerprintRepository.batchIncrementDeviceActivity(any(), any(), any(), any())).thenReturn(1);
+
+        coalescer.flush();
+
+        ArgumentCaptor<String[]> fingerprints = ArgumentCaptor.forClass(String[].class);
+        verify(deviceFingerprintRepository, times(2)).batchIncrementDeviceActivity(
+                fingerprints.capture(), any(), any(), any());
+        assertArrayEquals(new String[]{"fp-1", "fp-2"}, fingerprints.getAllValues().get(0));
+        assertArrayEquals(new String[]{"fp-3"}, fingerprints.getAllValues().get(1));
+    }
+
+    @Test
+    void testFlush_NothingPending_NoWrite() {
+        assertEquals(0, coalescer.flush());
+        verifyNoInteractions(deviceFingerprintRepository);
+    }
+
+    @Test
+    void testFlush_FailedBatchKeepsUsageForRetry() {
+        coalescer.recordActivity("fp-1", "10.0.0.1");
+        coalescer.recordActivity("fp-1", "10.0.0.1");
+        when(deviceFingerprintRepository.batchIncrementDeviceActivity(any(), any(), any(), any()))
+                .thenThrow(new RuntimeException("database unavailable"))
+                .thenReturn(1);
+
+        coalescer.flush();
+        assertEquals(1, coalescer.getPendingCount());
+
+        coalescer.recordActivity("fp-1", null);
+        coalescer.flush();
+
+        ArgumentCaptor<Long[]> deltas = ArgumentCaptor.forClass(Long[].class);
+        verify(deviceFingerprintRepository, times(2)).batchIncrementDeviceActivity(any(), any(), deltas.capture(), any());
+        assertArrayEquals(new Long[]{3L}, deltas.getAllValues().get(1));
+        assertEquals(0, coalescer.getPendingCount());
+    }
+
+    @Test
+    void testMaxPending_FlushesOffTheCallingThread() {
+        ReflectionTestUtils.setField(coalescer, "maxPending", 2);
+        AtomicReference<String> flushThread = new AtomicReference<>();
+        when(deviceFingerprintRepository.batchIncrementDeviceActivity(any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    flushThread.set(Thread.currentThread().getName());
+                    return 2;
+                });
+
+        coalescer.recordActivity("fp-1", "10.0.0.1");
+        coalescer.recordActivity("fp-2", "10.0.0.1");
+
+        verify(deviceFingerprintRepository, timeout(2000)).batchIncrementDeviceActivity(any(), any(), any(), any());
+        assertEquals("device-activity-flush", flushThread.get());
+    }
+
+    @Test
+    void testMaxPending_MergesPendingDevicesAndDropsNewOnes() {
+        ReflectionTestUtils.setField(coalescer, "maxPending", 2);
+        // An early flush is already under way
+        ReflectionTestUtils.setField(coalescer, "earlyFlushRequested", new AtomicBoolean(true));
+
+        coalescer.recordActivity("fp-1", "10.0.0.1");
+        coalescer.recordActivity("fp-2", "10.0.0.1");
+        coalescer.recordActivity("fp-3", "10.0.0.1");
+        coalescer.recordActivity("fp-1", "10.0.0.9");
+
+        assertEquals(2, coalescer.getPendingCount());
+        verifyNoInteractions(deviceFingerprintRepository);
+
+        when(deviceFingerprintRepository.batchIncrementDeviceActivity(any(), any(), any(), any())).thenReturn(2);
+        ReflectionTestUtils.setField(coalescer, "batchSize", 10);
+        coalescer.flush();
+
+        ArgumentCaptor<String[]> fingerprints = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<Long[]> deltas = ArgumentCaptor.forClass(Long[].class);
+        verify(deviceFingerprintRepository).batchIncrementDeviceActivity(
+                fingerprints.capture(), any(LocalDateTime[].class), deltas.capture(), any());
+        assertArrayEquals(new String[]{"fp-1", "fp-2"}, fingerprints.getValue());
+        assertArrayEquals(new Long[]{2L, 1L}, deltas.getValue());
+    }
+}
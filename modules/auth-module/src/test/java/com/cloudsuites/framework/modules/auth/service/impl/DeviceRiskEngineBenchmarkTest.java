@@ -0,0 +1,103 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.repository.AuthAuditEventRepository;
+import com.cloudsuites.framework.modules.auth.repository.DeviceFingerprintRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Benchmark of a full device risk rescoring pass over 10M synthetic device rows (override with
+ * -Ddevice.risk.benchmark.rows). Excluded from the default build; run it with
+ * {@code -Dtest.excludedGroups= -Dgroups=benchmark}.
+ */
+@Tag("benchmark")
+class DeviceRiskEngineBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceRiskEngineBenchmarkTest.class);
+
+    @Test
+    void benchmarkFullRescoreOverTenMillionDevices() {
+        int devices = Integer.getInteger("device.risk.benchmark.rows", 10_000_000);
+        int chunkSize = 10_000;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        DeviceFingerprintRepository devicesTable = mock(DeviceFingerprintRepository.class, withSettings().stubOnly());
+        AuthAuditEventRepository auditLog = mock(AuthAuditEventRepository.class, withSettings().stubOnly());
+        DeviceRiskEngine batchEngine = new DeviceRiskEngine(devicesTable, auditLog, new DeviceRiskScorer());
+        ReflectionTestUtils.setField(batchEngine, "chunkSize", chunkSize);
+        ReflectionTestUtils.setField(batchEngine, "parallelism", parallelism);
+
+        List<String> chunkStarts = new ArrayList<>();
+        for (int i = 0; i < devices; i += chunkSize) {
+            chunkStarts.add(deviceId(i));
+        }
+        AtomicLong written = new AtomicLong();
+        when(devicesTable.findRiskChunkStarts(chunkSize)).thenReturn(chunkStarts);
+        when(devicesTable.findRiskInputs(anyString(), any())).thenAnswer(invocation -> {
+            int from = Integer.parseInt(invocation.getArgument(0));
+            String to = invocation.getArgument(1);
+            int end = to == null ? devices : Integer.parseInt(to);
+            List<Object[]> rows = new ArrayList<>(end - from);
+            for (int i = from; i < end; i++) {
+                rows.add(row(deviceId(i), "fp-" + (i % (devices / 2)), "u-" + (i / 3), (long) (i % 200),
+                        "10.0." + (i % 250) + ".1", "10.0." + (i % 251) + ".1", i % 100));
+            }
+            return rows;
+        });
+        when(devicesTable.countAccountsByFingerprint(any())).thenAnswer(invocation -> {
+            String[] fingerprints = invocation.getArgument(0);
+            List<Object[]> counts = new ArrayList<>(fingerprints.length);
+            for (String fingerprint : fingerprints) {
+                counts.add(row(fingerprint, fingerprint.hashCode() % 97 == 0 ? 5L : 1L));
+            }
+            return counts;
+        });
+        when(auditLog.summarizeRiskActivitySince(any(), any())).thenAnswer(invocation -> {
+            String[] userIds = invocation.getArgument(0);
+            List<Object[]> summaries = new ArrayList<>(userIds.length / 10);
+            for (int i = 0; i < userIds.length; i += 10) {
+                summaries.add(row(userIds[i], (long) (i % 13), (long) (i % 7)));
+            }
+            return summaries;
+        });
+        when(devicesTable.batchUpdateRiskScores(any(), any())).thenAnswer(invocation -> {
+            int count = ((String[]) invocation.getArgument(0)).length;
+            written.addAndGet(count);
+            return count;
+        });
+
+        long start = System.nanoTime();
+        DeviceRiskEngine.BatchResult result = batchEngine.rescoreAll();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        logger.info("Device risk rescoring, {} devices in chunks of {}, parallelism {}: {} devices/s, {} s,"
+                + " {} scores written, {} flagged", devices, chunkSize, parallelism,
+                String.format("%,.0f", result.devicesScored() / seconds), String.format("%.2f", seconds),
+                written.get(), batchEngine.getFlaggedCount());
+
+        assertEquals(devices, result.devicesScored());
+        assertEquals((devices + chunkSize - 1) / chunkSize, result.chunks());
+        assertEquals(0, result.failedChunks());
+        assertEquals(written.get(), result.scoresUpdated());
+    }
+
+    private static Object[] row(Object... values) {
+        return values;
+    }
+
+    private static String deviceId(int i) {
+        String digits = Integer.toString(i);
+        return "0000000000".substring(digits.length()) + digits;
+    }
+}
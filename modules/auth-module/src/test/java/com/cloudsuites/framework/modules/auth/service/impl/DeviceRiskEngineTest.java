@@ -0,0 +1,129 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.repository.AuthAuditEventRepository;
+import com.cloudsuites.framework.modules.auth.repository.DeviceFingerprintRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for incremental and batch device risk scoring. The full rescoring pass over 10M rows is
+ * benchmarked in {@link DeviceRiskEngineBenchmarkTest}.
+ */
+class DeviceRiskEngineTest {
+
+    private final DeviceFingerprintRepository deviceRepository = mock(DeviceFingerprintRepository.class);
+    private final AuthAuditEventRepository auditRepository = mock(AuthAuditEventRepository.class);
+    private final DeviceRiskEngine engine = new DeviceRiskEngine(deviceRepository, auditRepository, new DeviceRiskScorer());
+
+    private static Object[] row(Object... values) {
+        return values;
+    }
+
+    @Test
+    void testIncrementalAttemptsFlagDeviceOnceThresholdIsCrossed() {
+        for (int i = 0; i < 10; i++) {
+            engine.recordAttempt("fp-attacker", "user-" + (i % 4), "10.0.0." + (i % 6), false);
+        }
+        int quiet = engine.recordAttempt("fp-quiet", "user-1", "10.0.0.1", false);
+
+        assertTrue(engine.isFlagged("fp-attacker"));
+        assertFalse(engine.isFlagged("fp-quiet"));
+        assertTrue(quiet < 70);
+        assertEquals(2, engine.getTrackedCount());
+
+        when(deviceRepository.batchRaiseRiskScores(any(), any())).thenReturn(1);
+        assertEquals(1, engine.flushScores());
+        verify(deviceRepository).batchRaiseRiskScores(new String[]{"fp-attacker"}, new Integer[]{85});
+    }
+
+    @Test
+    void testFailedScoreFlushIsRetried() {
+        for (int i = 0; i < 10; i++) {
+            engine.recordAttempt("fp-attacker", "user-" + (i % 4), "10.0.0." + (i % 6), false);
+        }
+        when(deviceRepository.batchRaiseRiskScores(any(), any()))
+                .thenThrow(new RuntimeException("database unavailable"))
+                .thenReturn(1);
+
+        assertEquals(0, engine.flushScores());
+        assertEquals(1, engine.flushScores());
+        verify(deviceRepository, times(2)).batchRaiseRiskScores(new String[]{"fp-attacker"}, new Integer[]{85});
+    }
+
+    @Test
+    void testTrackedDevicesAreBounded() {
+        ReflectionTestUtils.setField(engine, "maxTrackedDevices", 2);
+
+        engine.recordAttempt("fp-1", null, "10.0.0.1", true);
+        engine.recordAttempt("fp-2", null, "10.0.0.1", true);
+        engine.recordAttempt("fp-3", null, "10.0.0.1", true);
+        engine.recordAttempt("fp-1", null, "10.0.0.2", true);
+
+        assertEquals(2, engine.getTrackedCount());
+    }
+
+    @Test
+    void testRescoreAllWritesChangedScoresAndRebuildsFlags() {
+        when(deviceRepository.findFingerprintsWithRiskScoreAtLeast(70)).thenReturn(List.of("fp-stale"));
+        engine.loadFlagged();
+        assertTrue(engine.isFlagged("fp-stale"));
+
+        when(deviceRepository.findRiskChunkStarts(anyInt())).thenReturn(List.of("a", "m"));
+        when(deviceRepository.findRiskInputs("a", "m")).thenReturn(List.of(
+                row("d1", "fp-a", "u1", 500L, "10.0.0.1", "10.0.0.1", 0),
+                row("d2", "fp-b", "u2", 0L, "10.0.0.1", "10.0.0.2", 90)));
+        when(deviceRepository.findRiskInputs(eq("m"), isNull())).thenReturn(List.<Object[]>of(
+                row("d3", "fp-c", "u3", 3L, null, null, 15)));
+        when(deviceRepository.countAccountsByFingerprint(any())).thenAnswer(invocation -> {
+            String[] fingerprints = invocation.getArgument(0);
+            return List.of(fingerprints).contains("fp-b") ? List.<Object[]>of(row("fp-b", 4L)) : List.of();
+        });
+        when(auditRepository.summarizeRiskActivitySince(any(), any())).thenAnswer(invocation -> {
+            String[] userIds = invocation.getArgument(0);
+            return List.of(userIds).contains("u2") ? List.<Object[]>of(row("u2", 10L, 6L)) : List.of();
+        });
+
+        DeviceRiskEngine.BatchResult result = engine.rescoreAll();
+
+        assertEquals(new DeviceRiskEngine.BatchResult(2, 3, 2, 1, 0), result);
+        ArgumentCaptor<String[]> ids = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<Integer[]> scores = ArgumentCaptor.forClass(Integer[].class);
+        verify(deviceRepository, times(2)).batchUpdateRiskScores(ids.capture(), scores.capture());
+        Map<String, Integer> written = new HashMap<>();
+        for (int i = 0; i < ids.getAllValues().size(); i++) {
+            for (int j = 0; j < ids.getAllValues().get(i).length; j++) {
+                written.put(ids.getAllValues().get(i)[j], scores.getAllValues().get(i)[j]);
+            }
+        }
+        assertEquals(Map.of("d2", 100, "d3", 4), written);
+        assertTrue(engine.isFlagged("fp-b"));
+        assertFalse(engine.isFlagged("fp-stale"));
+        assertEquals(1, engine.getFlaggedCount());
+    }
+
+    @Test
+    void testFailedChunkKeepsPreviousFlags() {
+        when(deviceRepository.findFingerprintsWithRiskScoreAtLeast(70)).thenReturn(List.of("fp-stale"));
+        engine.loadFlagged();
+        when(deviceRepository.findRiskChunkStarts(anyInt())).thenReturn(List.of("a"));
+        when(deviceRepository.findRiskInputs(anyString(), any())).thenThrow(new RuntimeException("database unavailable"));
+
+        DeviceRiskEngine.BatchResult result = engine.rescoreAll();
+
+        assertEquals(1, result.failedChunks());
+        assertTrue(engine.isFlagged("fp-stale"));
+    }
+}
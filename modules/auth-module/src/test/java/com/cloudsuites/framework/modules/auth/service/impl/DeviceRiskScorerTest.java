@@ -0,0 +1,41 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.service.impl.DeviceRiskScorer.DeviceRiskFeatures;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeviceRiskScorerTest {
+
+    private final DeviceRiskScorer scorer = new DeviceRiskScorer();
+
+    @Test
+    void testEstablishedDeviceScoresZero() {
+        assertEquals(0, scorer.score(new DeviceRiskFeatures(1, 0, 1_000_000L, 1)));
+        assertEquals(0, scorer.score(new DeviceRiskFeatures(0, 0, null, 0)));
+    }
+
+    @Test
+    void testSaturatedFeaturesScoreMaximum() {
+        assertEquals(100, scorer.score(new DeviceRiskFeatures(50, 500, 0L, 20)));
+    }
+
+    @Test
+    void testFeaturesContributeByWeight() {
+        // A brand new fingerprint on its own is only the novelty weight
+        assertEquals(15, scorer.score(new DeviceRiskFeatures(1, 0, 0L, 1)));
+        // Failures count in proportion to the saturation point
+        assertEquals(14, scorer.score(new DeviceRiskFeatures(1, 4, null, 1)));
+        // Unknown usage does not count as novel
+        assertEquals(35, scorer.score(new DeviceRiskFeatures(1, 10, null, 1)));
+    }
+
+    @Test
+    void testMaxCombinesObservations() {
+        DeviceRiskFeatures stored = new DeviceRiskFeatures(2, 1, 40L, 1);
+        DeviceRiskFeatures live = new DeviceRiskFeatures(4, 0, null, 3);
+
+        assertEquals(new DeviceRiskFeatures(4, 1, 40L, 3), stored.max(live));
+        assertEquals(stored, stored.max(null));
+    }
+}
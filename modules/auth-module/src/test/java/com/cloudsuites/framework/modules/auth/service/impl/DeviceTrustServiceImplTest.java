@@ -4,10 +4,13 @@ import com.cloudsuites.framework.services.auth.entities.DeviceFingerprint;
 import com.cloudsuites.framework.modules.auth.repository.DeviceFingerprintRepository;
 import com.cloudsuites.framework.services.auth.entities.DeviceVerificationResult;
 import com.cloudsuites.framework.services.auth.entities.TrustStatus;
+import com.cloudsuites.framework.services.auth.entities.TrustedDeviceTokenRequest;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -25,9 +28,32 @@ class DeviceTrustServiceImplTest {
     @Mock
     private DeviceFingerprintRepository deviceFingerprintRepository;
 
+    @Mock
+    private DeviceActivityCoalescer deviceActivityCoalescer;
+
+    @Mock
+    private DeviceRiskEngine deviceRiskEngine;
+
+    @Mock
+    private AuthAnomalyDetector anomalyDetector;
+
+    @Spy
+    private TrustedDeviceTokenSigner tokenSigner = new TrustedDeviceTokenSigner();
+
+    @Mock
+    private TrustedDeviceRevocationList revocationList;
+
+    @Mock
+    private ExpiryCleanupManager expiryCleanupManager;
+
     @InjectMocks
     private DeviceTrustServiceImpl deviceTrustService;
 
+    @BeforeEach
+    void initSigner() {
+        tokenSigner.init();
+    }
+
     @Test
     void testGenerateDeviceFingerprint() {
         // Test data
@@ -91,4 +117,141 @@ class DeviceTrustServiceImplTest {
         assertFalse(result.isTrusted());
         verify(deviceFingerprintRepository).findByUserIdAndFingerprint(userId, expectedFingerprint);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUpdateDeviceActivity_BuffersInsteadOfSaving() {
+        deviceTrustService.updateDeviceActivity("fp-1", "10.0.0.1");
+        deviceTrustService.updateDeviceActivity("fp-1");
+
+        verify(deviceActivityCoalescer).recordActivity("fp-1", "10.0.0.1");
+        verify(deviceActivityCoalescer).recordActivity("fp-1", null);
+        verifyNoInteractions(deviceFingerprintRepository);
+    }
+
+    @Test
+    void testVerifyDeviceTrust_FlaggedDeviceRequiresVerification() {
+        String userAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+        String fingerprint = deviceTrustService.generateDeviceFingerprint(userAgent);
+        DeviceFingerprint device = DeviceFingerprint.builder()
+                .userId("test-user-123")
+                .fingerprint(fingerprint)
+                .trustStatus(TrustStatus.TRUSTED)
+                .build();
+        when(deviceFingerprintRepository.findByUserIdAndFingerprint("test-user-123", fingerprint))
+                .thenReturn(Optional.of(device));
+        when(deviceRiskEngine.isFlagged(fingerprint)).thenReturn(true);
+
+        DeviceVerificationResult result = deviceTrustService.verifyDeviceTrust("test-user-123", userAgent);
+
+        assertFalse(result.isTrusted());
+        assertTrue(result.isRequiresVerification());
+        assertEquals(TrustStatus.TRUSTED, result.getTrustStatus());
+    }
+
+    @Test
+    void testVerifyDeviceTrust_FlaggedAccountRequiresVerification() {
+        String userAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+        String fingerprint = deviceTrustService.generateDeviceFingerprint(userAgent);
+        DeviceFingerprint device = DeviceFingerprint.builder()
+                .userId("test-user-123")
+                .fingerprint(fingerprint)
+                .trustStatus(TrustStatus.TRUSTED)
+                .build();
+        when(deviceFingerprintRepository.findByUserIdAndFingerprint("test-user-123", fingerprint))
+                .thenReturn(Optional.of(device));
+        when(anomalyDetector.isAccountFlagged("test-user-123")).thenReturn(true);
+
+        DeviceVerificationResult result = deviceTrustService.verifyDeviceTrust("test-user-123", userAgent);
+
+        assertFalse(result.isTrusted());
+        assertTrue(result.isRequiresVerification());
+    }
+
+    @Test
+    void testTrustedDeviceToken_VerifiesWithoutDatabaseLookup() {
+        DeviceFingerprint device = DeviceFingerprint.builder()
+                .userId("test-user-123")
+                .fingerprint("fp-1")
+                .trustStatus(TrustStatus.TRUSTED)
+                .build();
+        when(deviceFingerprintRepository.findByUserIdAndFingerprint("test-user-123", "fp-1"))
+                .thenReturn(Optional.of(device));
+
+        String token = deviceTrustService.createTrustedDeviceToken(new TrustedDeviceTokenRequest("test-user-123", "fp-1"));
+
+        assertTrue(deviceTrustService.validateTrustedDeviceToken(token, "test-user-123", "fp-1"));
+        assertTrue(deviceTrustService.validateTrustedDeviceToken(token, "fp-1"));
+        assertFalse(deviceTrustService.validateTrustedDeviceToken(token, "other-user", "fp-1"));
+        assertFalse(deviceTrustService.validateTrustedDeviceToken(token, "test-user-123", "fp-2"));
+        verify(deviceFingerprintRepository, times(1)).findByUserIdAndFingerprint(anyString(), anyString());
+    }
+
+    @Test
+    void testTrustedDeviceToken_RejectedOnceRevokedOrFlagged() {
+        DeviceFingerprint device = DeviceFingerprint.builder()
+                .userId("test-user-123")
+                .fingerprint("fp-1")
+                .trustStatus(TrustStatus.TRUSTED)
+                .build();
+        when(deviceFingerprintRepository.findByUserIdAndFingerprint("test-user-123", "fp-1"))
+                .thenReturn(Optional.of(device));
+        String token = deviceTrustService.createTrustedDeviceToken(new TrustedDeviceTokenRequest("test-user-123", "fp-1"));
+
+        when(revocationList.isRevoked(eq("test-user-123"), eq("fp-1"), anyLong())).thenReturn(true);
+        assertFalse(deviceTrustService.validateTrustedDeviceToken(token, "test-user-123", "fp-1"));
+
+        when(revocationList.isRevoked(eq("test-user-123"), eq("fp-1"), anyLong())).thenReturn(false);
+        when(deviceRiskEngine.isFlagged("fp-1")).thenReturn(true);
+        assertFalse(deviceTrustService.validateTrustedDeviceToken(token, "test-user-123", "fp-1"));
+    }
+
+    @Test
+    void testTrustedDeviceToken_NotIssuedForUntrustedOrExpiredDevice() {
+        DeviceFingerprint pending = DeviceFingerprint.builder()
+                .userId("test-user-123")
+                .fingerprint("fp-1")
+                .trustStatus(TrustStatus.PENDING)
+                .build();
+        DeviceFingerprint expired = DeviceFingerprint.builder()
+                .userId("test-user-123")
+                .fingerprint("fp-2")
+                .trustStatus(TrustStatus.TRUSTED)
+                .expiresAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+        when(deviceFingerprintRepository.findByUserIdAndFingerprint("test-user-123", "fp-1"))
+                .thenReturn(Optional.of(pending));
+        when(deviceFingerprintRepository.findByUserIdAndFingerprint("test-user-123", "fp-2"))
+                .thenReturn(Optional.of(expired));
+
+        assertThrows(SecurityException.class,
+                () -> deviceTrustService.createTrustedDeviceToken(new TrustedDeviceTokenRequest("test-user-123", "fp-1")));
+        assertThrows(SecurityException.class,
+                () -> deviceTrustService.createTrustedDeviceToken(new TrustedDeviceTokenRequest("test-user-123", "fp-2")));
+    }
+
+    @Test
+    void testRevokeTrustedDevice_RevokesTrustAndTokens() {
+        DeviceFingerprint device = DeviceFingerprint.builder()
+                .deviceId("device-1")
+                .userId("test-user-123")
+                .fingerprint("fp-1")
+                .trustStatus(TrustStatus.TRUSTED)
+                .build();
+        when(deviceFingerprintRepository.findByUserIdAndFingerprint("test-user-123", "fp-1"))
+                .thenReturn(Optional.of(device));
+
+        assertTrue(deviceTrustService.revokeTrustedDevice("test-user-123", "fp-1"));
+
+        verify(deviceFingerprintRepository).revokeDeviceTrust(eq("device-1"), eq(TrustStatus.REVOKED),
+                any(LocalDateTime.class), anyString(), eq("test-user-123"));
+        verify(revocationList).revoke(eq("test-user-123"), eq("fp-1"), anyLong());
+        verify(deviceFingerprintRepository, never()).delete(any());
+    }
+
+    @Test
+    void testCleanupExpiredDevices_DelegatesToBatchedCleanup() {
+        when(expiryCleanupManager.cleanupNow(ExpiryCleanupManager.DEVICE_FINGERPRINTS)).thenReturn(42L);
+
+        assertEquals(42, deviceTrustService.cleanupExpiredDevices());
+    }
+}
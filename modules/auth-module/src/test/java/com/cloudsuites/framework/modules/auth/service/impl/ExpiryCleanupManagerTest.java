@@ -0,0 +1,128 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpiryCleanupManagerTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query query;
+
+    private ExpiryCleanupManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new ExpiryCleanupManager(transactionManager, dataSource);
+        ReflectionTestUtils.setField(manager, "entityManager", entityManager);
+        ReflectionTestUtils.setField(manager, "dutyCycle", 1.0);
+    }
+
+    private void givenLockAvailable(boolean available) throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBoolean(1)).thenReturn(available);
+    }
+
+    @Test
+    void testDeletesGrowingBatchesUntilShortBatch() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(manager, "meterRegistry", meterRegistry);
+        givenLockAvailable(true);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(1000, 2000, 10);
+
+        assertEquals(3010, manager.cleanupNow("otp_codes"));
+
+        verify(entityManager, times(3)).createNativeQuery(
+                startsWith("DELETE FROM otp_codes WHERE ctid = ANY(ARRAY(SELECT ctid FROM otp_codes WHERE expires_at < :cutoff"));
+        verify(connection).prepareStatement("SELECT pg_advisory_unlock(hashtext(?))");
+        verify(connection).close();
+        verify(query).setParameter("limit", 4000);
+        ExpiryCleanupManager.CleanupResult result = manager.getLastResults().get("otp_codes");
+        assertEquals(3, result.batches());
+        assertTrue(result.completed());
+        assertEquals(3010, meterRegistry.get("cloudsuites.cleanup.rows.deleted").tag("table", "otp_codes").counter().count());
+    }
+
+    @Test
+    void testSkipsWhenAnotherNodeHoldsLock() throws Exception {
+        givenLockAvailable(false);
+
+        assertEquals(0, manager.cleanupNow("user_sessions"));
+        manager.scheduledCleanup();
+
+        verifyNoInteractions(entityManager);
+        verify(connection, never()).prepareStatement("SELECT pg_advisory_unlock(hashtext(?))");
+    }
+
+    @Test
+    void testScheduledCleanupRespectsTableInterval() throws Exception {
+        givenLockAvailable(true);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(0);
+
+        manager.scheduledCleanup();
+        manager.scheduledCleanup();
+
+        // Every table on the first run; the daily device cleanup is not due again on the second
+        verify(entityManager, times(5 + 4)).createNativeQuery(anyString());
+        verify(entityManager, times(1)).createNativeQuery(startsWith("DELETE FROM device_fingerprints"));
+    }
+
+    @Test
+    void testBatchSizeAdaptsTowardsTarget() {
+        assertEquals(2000, ExpiryCleanupManager.nextBatchSize(1000, 10, 250, 100, 10000));
+        assertEquals(500, ExpiryCleanupManager.nextBatchSize(1000, 2000, 250, 100, 10000));
+        assertEquals(833, ExpiryCleanupManager.nextBatchSize(1000, 300, 250, 100, 10000));
+        assertEquals(100, ExpiryCleanupManager.nextBatchSize(150, 5000, 250, 100, 10000));
+        assertEquals(10000, ExpiryCleanupManager.nextBatchSize(8000, 1, 250, 100, 10000));
+    }
+
+    @Test
+    void testPauseKeepsDutyCycle() {
+        assertEquals(200, ExpiryCleanupManager.pauseMillis(200, 0.5, 5000));
+        assertEquals(600, ExpiryCleanupManager.pauseMillis(200, 0.25, 5000));
+        assertEquals(5000, ExpiryCleanupManager.pauseMillis(20000, 0.5, 5000));
+        assertEquals(0, ExpiryCleanupManager.pauseMillis(200, 1.0, 5000));
+    }
+}
@@ -0,0 +1,112 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.service.impl.HybridRateLimiterTest.InProcessStore;
+import com.cloudsuites.framework.services.auth.entities.RateLimitRule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark of exact versus approximate mode, run against an in-process store that simulates the
+ * Redis round trip. Excluded from the default build; run it with
+ * {@code -Dtest.excludedGroups= -Dgroups=benchmark}.
+ */
+@Tag("benchmark")
+class HybridRateLimiterBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(HybridRateLimiterBenchmarkTest.class);
+
+    private static final int NODES = 4;
+    private static final int THREADS_PER_NODE = 4;
+    private static final int KEYS = 8;
+    private static final int LIMIT = 2_000;
+    private static final int REQUESTS_PER_THREAD = 2 * LIMIT * KEYS / (NODES * THREADS_PER_NODE);
+
+    private record BenchmarkResult(double throughput, long maxOverAdmitted, double overAdmissionPercent, long roundTrips) {
+    }
+
+    /**
+     * Four nodes, each with four request threads, drive eight keys at twice their limit.
+     * Exact mode goes to the store for every admitted request; approximate mode only once per
+     * spent budget, and over-admits by at most nodes * tolerance * limit per key.
+     */
+    @Test
+    void benchmarkExactVersusApproximate() throws Exception {
+        BenchmarkResult exact = runBenchmark(0);
+        BenchmarkResult approximate = runBenchmark(0.01);
+
+        logger.info("Rate limiter, {} nodes, {} keys, limit {}, 100us simulated RTT", NODES, KEYS, LIMIT);
+        log("exact", exact);
+        log("approximate", approximate);
+
+        // The over-admission bound holds regardless of timing
+        assertEquals(0, exact.maxOverAdmitted());
+        assertTrue(approximate.maxOverAdmitted() <= NODES * (long) (0.01 * LIMIT),
+                "Over-admitted " + approximate.maxOverAdmitted());
+    }
+
+    private static void log(String mode, BenchmarkResult result) {
+        logger.info("  {}: {} req/s, over-admission {}% (max {}), store round trips {}", mode,
+                String.format("%,.0f", result.throughput()), String.format("%.2f", result.overAdmissionPercent()),
+                result.maxOverAdmitted(), result.roundTrips());
+    }
+
+    private BenchmarkResult runBenchmark(double tolerance) throws Exception {
+        InProcessStore store = new InProcessStore(100_000);
+        List<HybridRateLimiter> nodes = new ArrayList<>();
+        ScheduledExecutorService reconciler = Executors.newScheduledThreadPool(NODES);
+        for (int n = 0; n < NODES; n++) {
+            HybridRateLimiter node = new HybridRateLimiter(store, HybridRateLimiterTest.CLOCK);
+            nodes.add(node);
+            reconciler.scheduleWithFixedDelay(node::reconcile, 5, 5, TimeUnit.MILLISECONDS);
+        }
+
+        AtomicLongArray admitted = new AtomicLongArray(KEYS);
+        ExecutorService executor = Executors.newFixedThreadPool(NODES * THREADS_PER_NODE);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < NODES * THREADS_PER_NODE; t++) {
+            HybridRateLimiter node = nodes.get(t % NODES);
+            int offset = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                    int key = (i + offset) % KEYS;
+                    RateLimitRule rule = RateLimitRule.of("bench:" + key, LIMIT, Duration.ofMinutes(1)).withTolerance(tolerance);
+                    if (node.checkAndRecord(rule).isAllowed()) {
+                        admitted.incrementAndGet(key);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+        reconciler.shutdownNow();
+
+        long maxOverAdmitted = 0;
+        long totalOverAdmitted = 0;
+        for (int k = 0; k < KEYS; k++) {
+            long over = Math.max(0, admitted.get(k) - LIMIT);
+            maxOverAdmitted = Math.max(maxOverAdmitted, over);
+            totalOverAdmitted += over;
+        }
+        long totalRequests = (long) REQUESTS_PER_THREAD * NODES * THREADS_PER_NODE;
+        return new BenchmarkResult(totalRequests / (elapsedNanos / 1e9), maxOverAdmitted,
+                100.0 * totalOverAdmitted / ((long) KEYS * LIMIT), store.roundTrips.get());
+    }
+}
@@ -0,0 +1,197 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.services.auth.entities.RateLimitRule;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the local-first limiter against an in-process store, and for the Redis counter store's
+ * script handling. The comparison of exact and
+ * approximate mode lives in {@link HybridRateLimiterBenchmarkTest}.
+ */
+class HybridRateLimiterTest {
+
+    // Frozen halfway through a one-minute window so no run crosses a window boundary
+    static final LongSupplier CLOCK = () -> 1_000 * 60_000L + 30_000L;
+
+    @Test
+    void testAdmitsLocallyUntilBudgetSpent() {
+        InProcessStore store = new InProcessStore(0);
+        HybridRateLimiter limiter = new HybridRateLimiter(store, CLOCK);
+        RateLimitRule rule = RateLimitRule.of("api:client", 100, Duration.ofMinutes(1)).withTolerance(0.05);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.checkAndRecord(rule).isAllowed());
+        }
+        assertEquals(0, store.roundTrips.get());
+
+        assertTrue(limiter.checkAndRecord(rule).isAllowed());
+        assertEquals(1, store.roundTrips.get());
+        assertEquals(6, store.count("api:client"));
+    }
+
+    @Test
+    void testDeniesLocallyOnceGlobalCountReachesLimit() {
+        InProcessStore store = new InProcessStore(0);
+        HybridRateLimiter nodeA = new HybridRateLimiter(store, CLOCK);
+        HybridRateLimiter nodeB = new HybridRateLimiter(store, CLOCK);
+        RateLimitRule rule = RateLimitRule.of("api:client", 10, Duration.ofMinutes(1)).withTolerance(0.2);
+
+        for (int i = 0; i < 10; i++) {
+            nodeA.checkAndRecord(rule);
+        }
+        nodeA.reconcile();
+        nodeB.checkAndRecord(rule);
+        nodeB.reconcile();
+        long roundTrips = store.roundTrips.get();
+
+        assertFalse(nodeB.checkAndRecord(rule).isAllowed());
+        assertEquals(roundTrips, store.roundTrips.get());
+    }
+
+    @Test
+    void testReconcileFlushesPendingCounts() {
+        InProcessStore store = new InProcessStore(0);
+        HybridRateLimiter limiter = new HybridRateLimiter(store, CLOCK);
+        RateLimitRule rule = RateLimitRule.of("api:client", 100, Duration.ofMinutes(1)).withTolerance(0.1);
+
+        for (int i = 0; i < 7; i++) {
+            limiter.checkAndRecord(rule);
+        }
+        limiter.reconcile();
+
+        assertEquals(7, store.count("api:client"));
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRedisFlushLoadsScriptOnceAndPipelinesEvalSha() {
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisScriptingCommands scripting = mock(RedisScriptingCommands.class);
+        when(connection.scriptingCommands()).thenReturn(scripting);
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection));
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection);
+            return List.of(List.of(0L, 3L, 1L), List.of(0L, 7L, 0L));
+        });
+        HybridRateLimiter.RedisCounterStore store = new HybridRateLimiter.RedisCounterStore(redisTemplate);
+        List<HybridRateLimiter.Flush> flushes = List.of(new HybridRateLimiter.Flush("a", 10, 60_000, 3),
+                new HybridRateLimiter.Flush("b", 10, 60_000, 7));
+
+        store.flush(flushes);
+        List<long[]> results = store.flush(flushes);
+
+        assertArrayEquals(new long[]{3, 1}, results.get(0));
+        assertArrayEquals(new long[]{7, 0}, results.get(1));
+        verify(scripting, times(1)).scriptLoad(any(byte[].class));
+        verify(scripting, times(4)).evalSha(anyString(), eq(ReturnType.MULTI), eq(2), any(byte[][].class));
+        verify(scripting, never()).eval(any(byte[].class), any(ReturnType.class), anyInt(), any(byte[][].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRedisFlushResendsOnlyNoScriptCallsWithEval() {
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisScriptingCommands scripting = mock(RedisScriptingCommands.class);
+        when(connection.scriptingCommands()).thenReturn(scripting);
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection));
+        List<Object> partial = Arrays.asList(List.of(0L, 3L, 1L),
+                new InvalidDataAccessApiUsageException("NOSCRIPT No matching script. Please use EVAL."));
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenAnswer(invocation -> {
+                    ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection);
+                    throw new RedisPipelineException(new InvalidDataAccessApiUsageException("NOSCRIPT"), partial);
+                })
+                .thenAnswer(invocation -> {
+                    ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection);
+                    return List.of(List.of(0L, 7L, 0L));
+                });
+        HybridRateLimiter.RedisCounterStore store = new HybridRateLimiter.RedisCounterStore(redisTemplate);
+
+        List<long[]> results = store.flush(List.of(new HybridRateLimiter.Flush("a", 10, 60_000, 3),
+                new HybridRateLimiter.Flush("b", 10, 60_000, 7)));
+
+        assertArrayEquals(new long[]{3, 1}, results.get(0));
+        assertArrayEquals(new long[]{7, 0}, results.get(1));
+        verify(scripting, times(1)).eval(any(byte[].class), eq(ReturnType.MULTI), eq(2), any(byte[][].class));
+    }
+
+    /**
+     * Shared counters with a simulated network round trip per call.
+     */
+    static final class InProcessStore implements HybridRateLimiter.CounterStore {
+        private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+        final AtomicInteger roundTrips = new AtomicInteger();
+        private final long latencyNanos;
+
+        InProcessStore(long latencyNanos) {
+            this.latencyNanos = latencyNanos;
+        }
+
+        @Override
+        public List<long[]> flush(List<HybridRateLimiter.Flush> flushes) {
+            roundTrip();
+            List<long[]> results = new ArrayList<>(flushes.size());
+            for (HybridRateLimiter.Flush flush : flushes) {
+                results.add(new long[]{counter(flush.key(), flush.windowIndex()).addAndGet(flush.delta()),
+                        counter(flush.key(), flush.windowIndex() - 1).get()});
+            }
+            return results;
+        }
+
+        @Override
+        public long[] acquire(HybridRateLimiter.Flush flush, int limit, double unelapsed) {
+            roundTrip();
+            synchronized (this) {
+                AtomicLong current = counter(flush.key(), flush.windowIndex());
+                long previous = counter(flush.key(), flush.windowIndex() - 1).get();
+                long count = current.addAndGet(flush.delta());
+                if (previous * unelapsed + count + 1 <= limit) {
+                    return new long[]{1, current.incrementAndGet(), previous};
+                }
+                return new long[]{0, count, previous};
+            }
+        }
+
+        long count(String key) {
+            return counter(key, CLOCK.getAsLong() / 60_000).get();
+        }
+
+        private AtomicLong counter(String key, long windowIndex) {
+            return counters.computeIfAbsent(key + ":" + windowIndex, k -> new AtomicLong());
+        }
+
+        private void roundTrip() {
+            roundTrips.incrementAndGet();
+            if (latencyNanos > 0) {
+                LockSupport.parkNanos(latencyNanos);
+            }
+        }
+    }
+}
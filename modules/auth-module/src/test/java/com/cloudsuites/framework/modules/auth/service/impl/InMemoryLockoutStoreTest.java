@@ -0,0 +1,99 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryLockoutStoreTest {
+
+    private static final long MINUTE = 60_000;
+    private static final InMemoryLockoutStore.Policy POLICY =
+            new InMemoryLockoutStore.Policy(MINUTE, 5, 1440 * MINUTE, 15 * MINUTE);
+
+    private final InMemoryLockoutStore store = new InMemoryLockoutStore();
+
+    @Test
+    void testLocksAtThresholdAndResetsAttempts() {
+        long now = 1_000_000;
+        assertEquals(1, store.recordFailure("user", 3, POLICY, now).attempts());
+        assertEquals(2, store.recordFailure("user", 3, POLICY, now).attempts());
+
+        InMemoryLockoutStore.State locked = store.recordFailure("user", 3, POLICY, now);
+
+        assertTrue(locked.isLocked(now));
+        assertEquals(0, locked.attempts());
+        assertEquals(1, locked.lockouts());
+        assertEquals(now + MINUTE, locked.lockedUntilMs());
+    }
+
+    @Test
+    void testAttemptsWhileLockedAreNotCounted() {
+        long now = 1_000_000;
+        store.lock("user", POLICY, now);
+
+        InMemoryLockoutStore.State state = store.recordFailure("user", 3, POLICY, now + 1_000);
+
+        assertEquals(0, state.attempts());
+        assertEquals(1, state.lockouts());
+    }
+
+    @Test
+    void testLockoutsEscalateUpToMaximum() {
+        long now = 1_000_000;
+        long[] expected = {MINUTE, 5 * MINUTE, 25 * MINUTE, 125 * MINUTE, 625 * MINUTE, 1440 * MINUTE, 1440 * MINUTE};
+        for (long duration : expected) {
+            InMemoryLockoutStore.State state = store.lock("user", POLICY, now);
+            assertEquals(duration, state.lockedUntilMs() - now);
+            now = state.lockedUntilMs() + 1;
+        }
+    }
+
+    @Test
+    void testHistoryForgottenAfterRetention() {
+        long now = 1_000_000;
+        InMemoryLockoutStore.State state = store.lock("user", POLICY, now);
+
+        long later = state.expiresAtMs();
+        assertNull(store.get("user", later));
+        assertEquals(1, store.lock("user", POLICY, later).lockouts());
+    }
+
+    @Test
+    void testParallelFailuresAreNeverLost() throws Exception {
+        int threads = 32;
+        int attemptsPerThread = 500;
+        long now = 1_000_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    store.recordFailure("user", Integer.MAX_VALUE, POLICY, now);
+                    store.recordFailure("victim", 10, POLICY, now);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(threads * attemptsPerThread, store.get("user", now).attempts());
+        // Exactly one lockout: the tenth attempt locks, every later one is ignored
+        InMemoryLockoutStore.State victim = store.get("victim", now);
+        assertEquals(1, victim.lockouts());
+        assertEquals(0, victim.attempts());
+    }
+}
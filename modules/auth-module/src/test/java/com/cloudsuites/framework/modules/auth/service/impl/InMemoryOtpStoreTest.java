@@ -0,0 +1,93 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.services.auth.OtpChannel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryOtpStoreTest {
+
+    private final InMemoryOtpStore store = new InMemoryOtpStore();
+
+    @BeforeEach
+    void setUp() {
+        store.init();
+    }
+
+    private static OtpRecord otp(String id, String recipient, String purpose, LocalDateTime createdAt, long ttlSeconds) {
+        return new OtpRecord(id, "123456", recipient, OtpChannel.EMAIL, purpose, createdAt,
+                createdAt.plusSeconds(ttlSeconds), "127.0.0.1", "test", 0, 0);
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void testSaveReplacesOtpForSamePurpose() {
+        OtpRecord first = otp("otp-1", "user@example.com", "LOGIN", now(), 300);
+        OtpRecord second = otp("otp-2", "user@example.com", "LOGIN", now(), 300);
+        store.save(first);
+        store.save(second);
+
+        assertEquals("otp-2", store.findActive("user@example.com", "LOGIN").otpId());
+        assertEquals(-1, store.incrementVerificationAttempts(first));
+        assertFalse(store.remove(first));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testFindLatestActiveAcrossPurposes() {
+        store.save(otp("otp-1", "user@example.com", "LOGIN", now().minusSeconds(10), 300));
+        store.save(otp("otp-2", "user@example.com", "RESET", now(), 300));
+        store.save(otp("otp-3", "other@example.com", "LOGIN", now().plusSeconds(5), 300));
+
+        assertEquals("otp-2", store.findLatestActive("user@example.com").otpId());
+        assertNull(store.findLatestActive("nobody@example.com"));
+    }
+
+    @Test
+    void testCountersAreTrackedPerOtp() {
+        OtpRecord otp = otp("otp-1", "user@example.com", "LOGIN", now(), 300);
+        store.save(otp);
+
+        assertEquals(1, store.incrementVerificationAttempts(otp));
+        assertEquals(2, store.incrementVerificationAttempts(otp));
+        assertEquals(1, store.incrementResendCount(otp));
+
+        OtpRecord stored = store.findActive("user@example.com", "LOGIN");
+        assertEquals(2, stored.verificationAttempts());
+        assertEquals(1, stored.resendCount());
+        assertTrue(store.remove(otp));
+        assertNull(store.findActive("user@example.com", "LOGIN"));
+    }
+
+    @Test
+    void testRemoveAllForRecipient() {
+        store.save(otp("otp-1", "user@example.com", "LOGIN", now(), 300));
+        store.save(otp("otp-2", "user@example.com", "RESET", now(), 300));
+        store.save(otp("otp-3", "other@example.com", "LOGIN", now(), 300));
+
+        assertEquals(2, store.removeAll("user@example.com"));
+        assertEquals(0, store.removeAll("user@example.com"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testExpiredOtpsAreNotReturnedAndAreSweptByTheWheel() {
+        store.save(otp("otp-1", "user@example.com", "LOGIN", now().minusSeconds(60), 30));
+        store.save(otp("otp-2", "other@example.com", "LOGIN", now(), 300));
+
+        assertNull(store.findActive("user@example.com", "LOGIN"));
+        assertEquals(2, store.size());
+
+        store.advanceExpiry();
+
+        assertEquals(1, store.size());
+        assertNotNull(store.findActive("other@example.com", "LOGIN"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.services.auth.entities.RateLimitResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryRateLimiterTest {
+
+    private InMemoryRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new InMemoryRateLimiter();
+        ReflectionTestUtils.setField(limiter, "maxEntries", 10_000);
+    }
+
+    @Test
+    void testAllowsUpToLimitThenDenies() {
+        for (int i = 1; i <= 5; i++) {
+            RateLimitResult result = limiter.checkAndRecord("login:user", 5, Duration.ofMinutes(5));
+            assertTrue(result.isAllowed());
+            assertEquals(i, result.getCurrentCount());
+        }
+
+        RateLimitResult denied = limiter.checkAndRecord("login:user", 5, Duration.ofMinutes(5));
+        assertFalse(denied.isAllowed());
+        assertTrue(denied.getRetryAfterSeconds() > 0);
+        assertEquals(5, limiter.getStatus("login:user", 5, Duration.ofMinutes(5)).getCurrentCount());
+    }
+
+    @Test
+    void testPreviousWindowDecaysIntoEstimate() {
+        InMemoryRateLimiter.WindowCounter counter = new InMemoryRateLimiter.WindowCounter(1000);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(counter.tryAcquire(1_500, 10) > 0);
+        }
+        assertTrue(counter.tryAcquire(1_900, 10) < 0);
+
+        // Halfway through the next window half of the previous window still counts
+        assertEquals(5, counter.estimate(2_500));
+        for (int i = 0; i < 4; i++) {
+            assertTrue(counter.tryAcquire(2_500, 10) > 0);
+        }
+        assertTrue(counter.tryAcquire(2_500, 10) > 0);
+        assertTrue(counter.tryAcquire(2_500, 10) < 0);
+
+        assertTrue(counter.isExpired(4_000));
+    }
+
+    @Test
+    void testConcurrentRequestsRespectLimitExactly() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+        AtomicInteger allowed = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 20; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 5; i++) {
+                    if (limiter.checkAndRecord("concurrent", 10, Duration.ofMinutes(1)).isAllowed()) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(10, allowed.get());
+    }
+
+    @Test
+    void testStaysBoundedUnderOneMillionDistinctKeys() throws Exception {
+        int threads = 8;
+        int keysPerThread = 125_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < keysPerThread; i++) {
+                    limiter.checkAndRecord("login:ip:" + thread + ":" + i, 5, Duration.ofMinutes(1));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Concurrent inserts can overshoot the cap by at most a few entries per thread between sweeps
+        assertTrue(limiter.size() <= 10_000 + threads, "Size: " + limiter.size());
+        assertTrue(limiter.getEvictionCount() >= 1_000_000 - 10_000 - threads,
+                "Evictions: " + limiter.getEvictionCount());
+    }
+
+    @Test
+    void testClearResetsKey() {
+        for (int i = 0; i < 3; i++) {
+            limiter.checkAndRecord("otp_send:user", 3, Duration.ofMinutes(5));
+        }
+        assertFalse(limiter.checkAndRecord("otp_send:user", 3, Duration.ofMinutes(5)).isAllowed());
+
+        limiter.clear("otp_send:user");
+
+        assertTrue(limiter.checkAndRecord("otp_send:user", 3, Duration.ofMinutes(5)).isAllowed());
+    }
+}
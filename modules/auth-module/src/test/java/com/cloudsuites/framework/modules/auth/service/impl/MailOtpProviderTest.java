@@ -0,0 +1,47 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.service.impl.OtpDeliveryProvider.OtpDelivery;
+import com.cloudsuites.framework.modules.notification.NotificationServiceImpl;
+import com.cloudsuites.framework.modules.notification.model.EmailNotificationRequest;
+import com.cloudsuites.framework.services.auth.OtpChannel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MailOtpProviderTest {
+
+    @Mock
+    private NotificationServiceImpl notificationService;
+
+    @InjectMocks
+    private MailOtpProvider provider;
+
+    private static final OtpDelivery DELIVERY = new OtpDelivery("otp-1", "123456", "user@example.com", OtpChannel.EMAIL);
+
+    @Test
+    void testDeliverSendsTheCodeByEmail() {
+        when(notificationService.sendEmailNotification(any(EmailNotificationRequest.class))).thenReturn(true);
+
+        provider.deliver(DELIVERY);
+
+        ArgumentCaptor<EmailNotificationRequest> request = ArgumentCaptor.forClass(EmailNotificationRequest.class);
+        verify(notificationService).sendEmailNotification(request.capture());
+        assertEquals("user@example.com", request.getValue().getTo());
+        assertTrue(request.getValue().getBody().contains("123456"));
+    }
+
+    @Test
+    void testDeliverThrowsWhenTheMailServerRejectsTheMessage() {
+        when(notificationService.sendEmailNotification(any(EmailNotificationRequest.class))).thenReturn(false);
+
+        assertThrows(IllegalStateException.class, () -> provider.deliver(DELIVERY));
+    }
+}
@@ -0,0 +1,180 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.service.impl.OtpDeliveryProvider.OtpDelivery;
+import com.cloudsuites.framework.modules.common.utils.CircuitBreaker;
+import com.cloudsuites.framework.services.auth.OtpChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OtpDeliveryPipelineTest {
+
+    private OtpDeliveryPipeline pipeline;
+
+    private void start(int breakerFailureThreshold, OtpDeliveryProvider... providers) {
+        pipeline = new OtpDeliveryPipeline(List.of(providers));
+        ReflectionTestUtils.setField(pipeline, "backoffBaseMs", 1L);
+        ReflectionTestUtils.setField(pipeline, "backoffMaxMs", 4L);
+        ReflectionTestUtils.setField(pipeline, "breakerFailureThreshold", breakerFailureThreshold);
+        pipeline.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    private static OtpDelivery sms(String otpId) {
+        return new OtpDelivery(otpId, "123456", "+15550001111", OtpChannel.SMS);
+    }
+
+    @Test
+    void testDeliversOffTheCallingThread() throws Exception {
+        FakeOtpDeliveryProvider smsProvider = new FakeOtpDeliveryProvider(OtpChannel.SMS, 50, 0);
+        start(2, smsProvider);
+        BlockingQueue<OtpDeliveryStatus> statuses = new LinkedBlockingQueue<>();
+
+        long start = System.nanoTime();
+        assertTrue(pipeline.submit(sms("otp-1"), null, statuses::add));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 50);
+
+        OtpDeliveryStatus status = statuses.poll(5, TimeUnit.SECONDS);
+        assertEquals(OtpDeliveryStatus.State.DELIVERED, status.state());
+        assertEquals("123456", smsProvider.takeLastCode("+15550001111"));
+        assertNull(smsProvider.takeLastCode("+15550001111"));
+    }
+
+    @Test
+    void testFakeProviderTracksABoundedNumberOfRecipients() throws Exception {
+        FakeOtpDeliveryProvider provider = new FakeOtpDeliveryProvider(OtpChannel.EMAIL, 0, 0);
+
+        for (int i = 0; i <= FakeOtpDeliveryProvider.MAX_TRACKED_RECIPIENTS; i++) {
+            provider.deliver(new OtpDelivery("otp-" + i, "123456", "user" + i + "@example.com", OtpChannel.EMAIL));
+        }
+
+        assertEquals(FakeOtpDeliveryProvider.MAX_TRACKED_RECIPIENTS, provider.getTrackedRecipientCount());
+        assertEquals(FakeOtpDeliveryProvider.MAX_TRACKED_RECIPIENTS + 1, provider.getDeliveredCount());
+        assertNull(provider.takeLastCode("user" + FakeOtpDeliveryProvider.MAX_TRACKED_RECIPIENTS + "@example.com"));
+    }
+
+    @Test
+    void testRetriesWithBackoffUntilDelivered() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        OtpDeliveryProvider flaky = new OtpDeliveryProvider() {
+            @Override
+            public OtpChannel getChannel() {
+                return OtpChannel.SMS;
+            }
+
+            @Override
+            public void deliver(OtpDelivery delivery) {
+                if (calls.incrementAndGet() < 3) {
+                    throw new IllegalStateException("timeout");
+                }
+            }
+        };
+        start(5, flaky);
+        BlockingQueue<OtpDeliveryStatus> statuses = new LinkedBlockingQueue<>();
+
+        pipeline.submit(sms("otp-1"), null, statuses::add);
+
+        assertEquals(OtpDeliveryStatus.State.RETRYING, statuses.poll(5, TimeUnit.SECONDS).state());
+        assertEquals(OtpDeliveryStatus.State.RETRYING, statuses.poll(5, TimeUnit.SECONDS).state());
+        OtpDeliveryStatus delivered = statuses.poll(5, TimeUnit.SECONDS);
+        assertEquals(OtpDeliveryStatus.State.DELIVERED, delivered.state());
+        assertEquals(3, delivered.attempts());
+    }
+
+    @Test
+    void testFailsOverToEmailWhenSmsKeepsFailing() throws Exception {
+        FakeOtpDeliveryProvider smsProvider = new FakeOtpDeliveryProvider(OtpChannel.SMS, 0, 1.0);
+        FakeOtpDeliveryProvider emailProvider = new FakeOtpDeliveryProvider(OtpChannel.EMAIL, 0, 0);
+        start(2, smsProvider, emailProvider);
+        BlockingQueue<OtpDeliveryStatus> statuses = new LinkedBlockingQueue<>();
+
+        pipeline.submit(sms("otp-1"), "user@example.com", statuses::add);
+
+        OtpDeliveryStatus status;
+        do {
+            status = statuses.poll(5, TimeUnit.SECONDS);
+        } while (!status.isFinal());
+        assertEquals(OtpDeliveryStatus.State.DELIVERED, status.state());
+        assertEquals(OtpChannel.EMAIL, status.channel());
+        assertEquals("123456", emailProvider.takeLastCode("user@example.com"));
+        assertEquals(CircuitBreaker.State.OPEN, pipeline.getCircuitState(OtpChannel.SMS));
+
+        // With the SMS circuit open, new deliveries go straight to email
+        assertTrue(pipeline.submit(sms("otp-2"), "user@example.com", statuses::add));
+        assertFalse(pipeline.submit(sms("otp-3"), null, statuses::add));
+        // The third attempt was refused by the open circuit instead of reaching the provider
+        assertEquals(2, smsProvider.getFailedCount());
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        OtpDeliveryProvider blocked = new OtpDeliveryProvider() {
+            @Override
+            public OtpChannel getChannel() {
+                return OtpChannel.SMS;
+            }
+
+            @Override
+            public void deliver(OtpDelivery delivery) throws InterruptedException {
+                release.await();
+            }
+        };
+        pipeline = new OtpDeliveryPipeline(List.of(blocked));
+        ReflectionTestUtils.setField(pipeline, "smsWorkers", 1);
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", 2);
+        pipeline.init();
+
+        int accepted = 0;
+        for (int i = 0; i < 5; i++) {
+            if (pipeline.submit(sms("otp-" + i), null, null)) {
+                accepted++;
+            }
+        }
+        release.countDown();
+
+        assertEquals(3, accepted);
+    }
+
+    /**
+     * Pushes a burst through slow, unreliable fake providers and checks every delivery reaches
+     * a final state.
+     */
+    @Test
+    void testBurstAgainstUnreliableProvidersLosesNothing() throws Exception {
+        start(1_000, new FakeOtpDeliveryProvider(OtpChannel.SMS, 1, 0.2),
+                new FakeOtpDeliveryProvider(OtpChannel.EMAIL, 1, 0));
+        int deliveries = 500;
+        CountDownLatch done = new CountDownLatch(deliveries);
+        Map<String, OtpDeliveryStatus> finals = new ConcurrentHashMap<>();
+
+        for (int i = 0; i < deliveries; i++) {
+            assertTrue(pipeline.submit(sms("otp-" + i), "user" + i + "@example.com", status -> {
+                if (status.isFinal() && finals.putIfAbsent(status.otpId(), status) == null) {
+                    done.countDown();
+                }
+            }));
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(deliveries, finals.size());
+        assertTrue(finals.values().stream().allMatch(s -> s.state() == OtpDeliveryStatus.State.DELIVERED));
+    }
+}
@@ -0,0 +1,98 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.exception.PasswordHashingUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test of GET latency during a login storm. Excluded from the default build; run it with
+ * {@code -Dtest.excludedGroups= -Dgroups=benchmark}.
+ */
+@Tag("benchmark")
+class PasswordHashingExecutorBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutorBenchmarkTest.class);
+
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Simulates a servlet pool serving a login storm alongside cheap GET requests, first with
+     * hashing on the request threads and then through the executor, and compares GET latency.
+     */
+    @Test
+    void loadTestGetLatencyDuringLoginStorm() throws Exception {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(6);
+        String hash = encoder.encode("correct horse battery staple");
+
+        long direct = getLatencyP95Millis(() -> encoder.matches("correct horse battery staple", hash));
+
+        executor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(executor, "interactiveThreads", Math.max(1, Runtime.getRuntime().availableProcessors()));
+        ReflectionTestUtils.setField(executor, "interactiveQueueCapacity", 4);
+        ReflectionTestUtils.setField(executor, "interactiveTimeoutMs", 100L);
+        executor.init();
+        long bounded = getLatencyP95Millis(() -> {
+            try {
+                return executor.runInteractive(() -> encoder.matches("correct horse battery staple", hash));
+            } catch (PasswordHashingUnavailableException e) {
+                return false;
+            }
+        });
+
+        logger.info("GET p95 latency during login storm: hashing on request threads {} ms, bounded executor {} ms"
+                + " ({} logins rejected with 503)",
+                direct, bounded, executor.getRejectionCount(PasswordHashingExecutor.Queue.INTERACTIVE));
+    }
+
+    private static long getLatencyP95Millis(BooleanSupplier login) throws Exception {
+        ExecutorService servletPool = Executors.newFixedThreadPool(16);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger logins = new AtomicInteger();
+        for (int i = 0; i < 300; i++) {
+            servletPool.submit(() -> {
+                login.getAsBoolean();
+                logins.incrementAndGet();
+            });
+        }
+        List<Future<?>> gets = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            long submittedAt = System.nanoTime();
+            gets.add(servletPool.submit(() -> latencies.add(System.nanoTime() - submittedAt)));
+            Thread.sleep(5);
+        }
+        for (Future<?> get : gets) {
+            get.get(60, TimeUnit.SECONDS);
+        }
+        servletPool.shutdown();
+        assertTrue(servletPool.awaitTermination(60, TimeUnit.SECONDS));
+        assertEquals(300, logins.get());
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return TimeUnit.NANOSECONDS.toMillis(sorted.get((int) Math.ceil(sorted.size() * 0.95) - 1));
+    }
+}
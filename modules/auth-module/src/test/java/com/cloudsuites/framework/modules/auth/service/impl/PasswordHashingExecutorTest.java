@@ -0,0 +1,105 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.exception.PasswordHashingUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor executor;
+
+    private PasswordHashingExecutor start(int threads, int queueCapacity, long timeoutMs) {
+        executor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(executor, "interactiveThreads", threads);
+        ReflectionTestUtils.setField(executor, "interactiveQueueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(executor, "interactiveTimeoutMs", timeoutMs);
+        ReflectionTestUtils.setField(executor, "backgroundQueueCapacity", 1);
+        executor.init();
+        return executor;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testRunsTaskAndPropagatesFailures() {
+        start(1, 4, 1_000);
+
+        assertEquals("hashed", executor.runInteractive(() -> "hashed"));
+        assertThrows(IllegalArgumentException.class, () -> executor.runInteractive(() -> {
+            throw new IllegalArgumentException("bad hash");
+        }));
+    }
+
+    @Test
+    void testRejectsImmediatelyWhenSaturated() throws Exception {
+        start(1, 1, 5_000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        callers.submit(() -> executor.runInteractive(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> executor.runInteractive(() -> true));
+        while (executor.getQueueDepth(PasswordHashingExecutor.Queue.INTERACTIVE) < 1) {
+            Thread.onSpinWait();
+        }
+
+        long start = System.nanoTime();
+        assertThrows(PasswordHashingUnavailableException.class, () -> executor.runInteractive(() -> true));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100);
+        assertEquals(1, executor.getRejectionCount(PasswordHashingExecutor.Queue.INTERACTIVE));
+
+        release.countDown();
+        callers.shutdown();
+    }
+
+    @Test
+    void testTaskThatCannotStartInTimeIsAbandoned() throws Exception {
+        start(1, 4, 50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean ran = new AtomicBoolean();
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        caller.submit(() -> executor.runInteractive(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> executor.runInteractive(() -> ran.getAndSet(true)));
+        release.countDown();
+        caller.shutdown();
+        assertTrue(caller.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals("next", executor.runInteractive(() -> "next"));
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void testBackgroundSaturationDoesNotAffectInteractive() throws Exception {
+        start(1, 4, 1_000);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submitBackground(() -> release.await(5, TimeUnit.SECONDS));
+        executor.submitBackground(() -> true);
+
+        assertTrue(executor.submitBackground(() -> true).isCompletedExceptionally());
+        assertEquals("login", executor.runInteractive(() -> "login"));
+        release.countDown();
+    }
+}
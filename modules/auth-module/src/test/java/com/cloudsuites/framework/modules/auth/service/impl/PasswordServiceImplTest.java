@@ -0,0 +1,180 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.config.PasswordEncoderConfiguration;
+import com.cloudsuites.framework.modules.auth.repository.PasswordResetTokenRepository;
+import com.cloudsuites.framework.services.auth.entities.PasswordChangeRequest;
+import com.cloudsuites.framework.services.auth.entities.PasswordResetToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PasswordServiceImplTest {
+
+    private static final String PASSWORD = "S3cure-Passw0rd!";
+
+    private final PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor();
+
+    @BeforeEach
+    void setUp() {
+        hashingExecutor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.shutdown();
+    }
+
+    private static PasswordEncoder encoder(String defaultEncoder, int bcryptStrength, int pbkdf2Iterations) {
+        PasswordEncoderConfiguration configuration = new PasswordEncoderConfiguration();
+        ReflectionTestUtils.setField(configuration, "defaultEncoder", defaultEncoder);
+        ReflectionTestUtils.setField(configuration, "bcryptStrength", bcryptStrength);
+        ReflectionTestUtils.setField(configuration, "argon2MemoryKb", 1024);
+        ReflectionTestUtils.setField(configuration, "pbkdf2Iterations", pbkdf2Iterations);
+        return configuration.passwordEncoder();
+    }
+
+    private PasswordServiceImpl service(PasswordEncoder encoder) {
+        PasswordServiceImpl service = new PasswordServiceImpl();
+        ReflectionTestUtils.setField(service, "passwordEncoder", encoder);
+        ReflectionTestUtils.setField(service, "hashingExecutor", hashingExecutor);
+        return service;
+    }
+
+    @Test
+    void testLegacyBcryptHashesStillVerifyAndAreFlaggedForUpgrade() {
+        PasswordServiceImpl service = service(encoder(PasswordEncoderConfiguration.BCRYPT, 5, 1_000));
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        assertTrue(service.verifyPassword(PASSWORD, legacy));
+        assertFalse(service.verifyPassword("wrong", legacy));
+        assertTrue(service.needsRehash(legacy));
+
+        String current = service.hashPassword(PASSWORD);
+        assertTrue(current.startsWith("{bcrypt}"));
+        assertFalse(service.needsRehash(current));
+    }
+
+    @Test
+    void testRaisingCostKeepsOldHashesValid() {
+        String weak = service(encoder(PasswordEncoderConfiguration.PBKDF2, 4, 1_000)).hashPassword(PASSWORD);
+        assertTrue(weak.startsWith("{pbkdf2}1000$"));
+
+        PasswordServiceImpl stronger = new PasswordServiceImpl();
+        ReflectionTestUtils.setField(stronger, "passwordEncoder", encoder(PasswordEncoderConfiguration.PBKDF2, 4, 2_000));
+        ReflectionTestUtils.setField(stronger, "hashingExecutor", hashingExecutor);
+
+        assertTrue(stronger.verifyPassword(PASSWORD, weak));
+        assertTrue(stronger.needsRehash(weak));
+        assertFalse(stronger.needsRehash(stronger.hashPassword(PASSWORD)));
+    }
+
+    @Test
+    void testSuccessfulLoginUpgradesToConfiguredFormat() throws Exception {
+        PasswordServiceImpl service = service(encoder(PasswordEncoderConfiguration.ARGON2, 4, 1_000));
+        String bcrypt = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD);
+        CompletableFuture<String> upgraded = new CompletableFuture<>();
+
+        assertFalse(service.verifyPassword("wrong", bcrypt, upgraded::complete));
+        assertTrue(service.verifyPassword(PASSWORD, bcrypt, upgraded::complete));
+
+        String argon2 = upgraded.get(10, TimeUnit.SECONDS);
+        assertTrue(argon2.startsWith("{argon2}$argon2id$"));
+        assertTrue(service.verifyPassword(PASSWORD, argon2));
+        assertFalse(service.needsRehash(argon2));
+    }
+
+    @Test
+    void testBreachedPasswordsFailValidationAndCannotBeChosen() {
+        BreachedPasswordChecker checker = mock(BreachedPasswordChecker.class);
+        when(checker.isBreached(PASSWORD)).thenReturn(true);
+        PasswordServiceImpl service = service(encoder(PasswordEncoderConfiguration.BCRYPT, 4, 1_000));
+        ReflectionTestUtils.setField(service, "breachedPasswordChecker", checker);
+
+        assertFalse(service.validatePasswordComplexity(PASSWORD));
+        assertTrue(service.getPasswordValidationErrors(PASSWORD).stream().anyMatch(error -> error.contains("breach")));
+        SecurityException rejected = assertThrows(SecurityException.class,
+                () -> service.changePassword(new PasswordChangeRequest("user-1", "Old-Passw0rd!", PASSWORD)));
+        assertTrue(rejected.getMessage().contains("breach"));
+
+        assertTrue(service.validatePasswordComplexity("Unl1sted-Phr@se"));
+    }
+
+    @Test
+    void testCalibrationNeverGoesBelowMinimums() {
+        assertEquals(PasswordHashCalibrator.MIN_BCRYPT_STRENGTH, PasswordHashCalibrator.calibrateBcryptStrength(1));
+        assertEquals(PasswordHashCalibrator.MIN_PBKDF2_ITERATIONS, PasswordHashCalibrator.calibratePbkdf2Iterations(1));
+        assertTrue(PasswordHashCalibrator.calibrateArgon2Iterations(200, 1024, 1)
+                >= PasswordHashCalibrator.calibrateArgon2Iterations(20, 1024, 1));
+    }
+
+    @Test
+    void testResetTokensArePersistedOnlyAsHashes() throws Exception {
+        PasswordResetTokenRepository repository = mock(PasswordResetTokenRepository.class);
+        PasswordServiceImpl service = new PasswordServiceImpl();
+        ReflectionTestUtils.setField(service, "resetTokenRepository", repository);
+        ReflectionTestUtils.setField(service, "resetTokenExpiryMinutes", 30);
+
+        String token = service.generatePasswordResetToken("user-1");
+
+        ArgumentCaptor<PasswordResetToken> saved = ArgumentCaptor.forClass(PasswordResetToken.class);
+        verify(repository).save(saved.capture());
+        String expectedHash = HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(expectedHash, saved.getValue().getTokenHash());
+        assertNotEquals(token, saved.getValue().getTokenHash());
+        assertTrue(saved.getValue().getExpiresAt().isAfter(LocalDateTime.now().plusMinutes(29)));
+
+        when(repository.findById(expectedHash)).thenReturn(Optional.of(saved.getValue()));
+        assertTrue(service.validatePasswordResetToken(token, "user-1"));
+        assertFalse(service.validatePasswordResetToken(token, "user-2"));
+
+        saved.getValue().setUsedAt(LocalDateTime.now());
+        assertFalse(service.validatePasswordResetToken(token, "user-1"));
+    }
+
+    @Test
+    void testRedemptionIsSingleUse() {
+        PasswordResetTokenRepository repository = mock(PasswordResetTokenRepository.class);
+        PasswordServiceImpl service = new PasswordServiceImpl();
+        ReflectionTestUtils.setField(service, "resetTokenRepository", repository);
+        when(repository.redeem(anyString(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of("user-1"))
+                .thenReturn(Optional.empty());
+
+        assertEquals(Optional.of("user-1"), service.redeemPasswordResetToken("abc"));
+        assertEquals(Optional.empty(), service.redeemPasswordResetToken("abc"));
+        assertEquals(Optional.empty(), service.redeemPasswordResetToken(null));
+        verify(repository, times(2)).redeem(argThat((String hash) -> hash.length() == 64 && !hash.equals("abc")), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testExpiredTokensArePurgedInBatches() {
+        PasswordResetTokenRepository repository = mock(PasswordResetTokenRepository.class);
+        PasswordServiceImpl service = new PasswordServiceImpl();
+        ReflectionTestUtils.setField(service, "resetTokenRepository", repository);
+        ReflectionTestUtils.setField(service, "resetTokenPurgeBatchSize", 2);
+        when(repository.deleteExpiredBatch(any(LocalDateTime.class), anyInt())).thenReturn(2, 2, 1);
+
+        assertEquals(5, service.purgeExpiredResetTokens());
+        verify(repository, times(3)).deleteExpiredBatch(any(LocalDateTime.class), eq(2));
+    }
+}
@@ -0,0 +1,227 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.services.auth.entities.RateLimitResult;
+import com.cloudsuites.framework.services.auth.entities.RateLimitRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the Redis GCRA path of RedisRateLimitServiceImpl, with Redis mocked at the connection level.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RedisRateLimitServiceImplTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisScriptingCommands scriptingCommands;
+
+    @Spy
+    private InMemoryRateLimiter inMemoryRateLimiter = new InMemoryRateLimiter();
+
+    @Spy
+    private InMemoryLockoutStore inMemoryLockoutStore = new InMemoryLockoutStore();
+
+    @InjectMocks
+    private RedisRateLimitServiceImpl rateLimitService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(connection.scriptingCommands()).thenReturn(scriptingCommands);
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection));
+    }
+
+    @Test
+    void testAllowedRequestMapsRemaining() {
+        stubScriptReply(List.of(1L, 4L, 0L, 60_000L));
+
+        RateLimitResult result = rateLimitService.checkAndRecord("login:user", 5, Duration.ofMinutes(5));
+
+        assertTrue(result.isAllowed());
+        assertEquals(1, result.getCurrentCount());
+        assertEquals(4, result.getRemaining());
+    }
+
+    @Test
+    void testDeniedRequestReportsRetryAfter() {
+        stubScriptReply(List.of(0L, 0L, 59_500L, 300_000L));
+
+        RateLimitResult result = rateLimitService.checkAndRecord("login:user", 5, Duration.ofMinutes(5));
+
+        assertFalse(result.isAllowed());
+        assertEquals(60L, result.getRetryAfterSeconds());
+    }
+
+    @Test
+    void testMultipleRulesEvaluatedInOneScriptCall() {
+        stubScriptReply(List.of(1L, 9L, 0L, 6_000L, 0L, 0L, 30_000L, 300_000L));
+
+        List<RateLimitResult> results = rateLimitService.checkAndRecordAll(List.of(
+                RateLimitRule.of("login:ip:10.0.0.1", 10, Duration.ofMinutes(1)),
+                RateLimitRule.of("login:user", 5, Duration.ofMinutes(5))));
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isAllowed());
+        assertFalse(results.get(1).isAllowed());
+
+        ArgumentCaptor<byte[][]> keysAndArgs = ArgumentCaptor.forClass(byte[][].class);
+        verify(scriptingCommands, times(1)).evalSha(anyString(), eq(ReturnType.MULTI), eq(4), keysAndArgs.capture());
+        List<String> values = Arrays.stream(keysAndArgs.getValue())
+                .map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+                .toList();
+        assertEquals(List.of("rlg:login:ip:10.0.0.1", "lk:login:ip:10.0.0.1", "rlg:login:user", "lk:login:user",
+                "6000", "60000", "60000", "300000"), values);
+    }
+
+    @Test
+    void testScriptLoadedOnlyOnce() {
+        stubScriptReply(List.of(1L, 4L, 0L, 60_000L));
+
+        rateLimitService.checkAndRecord("login:user", 5, Duration.ofMinutes(5));
+        rateLimitService.checkAndRecord("login:user", 5, Duration.ofMinutes(5));
+
+        verify(scriptingCommands, times(1)).scriptLoad(any(byte[].class));
+        verify(scriptingCommands, times(2)).evalSha(anyString(), any(ReturnType.class), anyInt(), any(byte[][].class));
+    }
+
+    @Test
+    void testNoScriptErrorReloadsAndRetries() {
+        when(scriptingCommands.evalSha(anyString(), any(ReturnType.class), anyInt(), any(byte[][].class)))
+                .thenThrow(new RedisSystemException("NOSCRIPT No matching script. Please use EVAL.", null))
+                .thenReturn(List.of(1L, 4L, 0L, 60_000L));
+
+        RateLimitResult result = rateLimitService.checkAndRecord("login:user", 5, Duration.ofMinutes(5));
+
+        assertTrue(result.isAllowed());
+        verify(scriptingCommands, times(2)).scriptLoad(any(byte[].class));
+    }
+
+    @Test
+    void testReloadAfterNoScriptIsNotRepeated() {
+        when(scriptingCommands.evalSha(anyString(), any(ReturnType.class), anyInt(), any(byte[][].class)))
+                .thenThrow(new RedisSystemException("NOSCRIPT No matching script. Please use EVAL.", null))
+                .thenReturn(List.of(1L, 4L, 0L, 60_000L));
+
+        rateLimitService.checkAndRecord("login:user", 5, Duration.ofMinutes(5));
+        rateLimitService.checkAndRecord("login:user", 5, Duration.ofMinutes(5));
+
+        verify(scriptingCommands, times(2)).scriptLoad(any(byte[].class));
+        assertTrue((Boolean) ReflectionTestUtils.getField(rateLimitService, "gcraScriptLoaded"));
+    }
+
+    @Test
+    void testRedisFailureFallsBackToInMemory() {
+        when(scriptingCommands.evalSha(anyString(), any(ReturnType.class), anyInt(), any(byte[][].class)))
+                .thenThrow(new RedisSystemException("Connection refused", null));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimitService.checkAndRecord("otp_send:user", 3, Duration.ofMinutes(5)).isAllowed());
+        }
+        assertFalse(rateLimitService.checkAndRecord("otp_send:user", 3, Duration.ofMinutes(5)).isAllowed());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailedAttemptUsesLockoutScript() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(2L, 0L, 0L))
+                .thenReturn(List.of(0L, 1L, 60_000L));
+
+        RateLimitResult counted = rateLimitService.recordFailedAttempt("user-1", 3);
+        RateLimitResult locked = rateLimitService.recordFailedAttempt("user-1", 3);
+
+        assertTrue(counted.isAllowed());
+        assertEquals(2, counted.getCurrentCount());
+        assertFalse(locked.isAllowed());
+        assertTrue(locked.getRetryAfterSeconds() >= 59);
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), eq(List.of("lk:user-1")), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLockoutFallsBackToInMemoryWhenRedisFails() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisSystemException("Connection refused", null));
+
+        assertTrue(rateLimitService.recordFailedAttempt("user-1", 2).isAllowed());
+        assertFalse(rateLimitService.recordFailedAttempt("user-1", 2).isAllowed());
+        assertEquals(1, inMemoryLockoutStore.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInMemoryLockoutHonouredWhileRedisIsDown() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisSystemException("Connection refused", null));
+        when(scriptingCommands.evalSha(anyString(), any(ReturnType.class), anyInt(), any(byte[][].class)))
+                .thenThrow(new RedisSystemException("Connection refused", null));
+
+        rateLimitService.lockoutUser("login:user", 5);
+        RateLimitResult result = rateLimitService.checkAndRecord("login:user", 5, Duration.ofMinutes(5));
+
+        assertFalse(result.isAllowed());
+        assertTrue(result.getReason().startsWith("Account locked"));
+    }
+
+    @Test
+    void testUserLockedOutComparesAgainstRedisClock() {
+        long redisNowMs = 1_000_000L;
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(Arrays.asList(String.valueOf(redisNowMs + 60_000L), redisNowMs))
+                .thenReturn(Arrays.asList(String.valueOf(redisNowMs - 1L), redisNowMs));
+
+        assertTrue(rateLimitService.isUserLockedOut("user-1"));
+        assertFalse(rateLimitService.isUserLockedOut("user-1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUserLockedOutFallsBackToInMemoryWhenRedisFails() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisSystemException("Connection refused", null));
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisSystemException("Connection refused", null));
+
+        assertFalse(rateLimitService.isUserLockedOut("user-1"));
+        rateLimitService.lockoutUser("user-1", 5);
+        assertTrue(rateLimitService.isUserLockedOut("user-1"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubScriptReply(List<Long> reply) {
+        when(scriptingCommands.evalSha(anyString(), any(ReturnType.class), anyInt(), any(byte[][].class)))
+                .thenReturn((List) reply);
+    }
+}
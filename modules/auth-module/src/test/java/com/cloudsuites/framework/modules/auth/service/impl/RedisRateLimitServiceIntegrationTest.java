@@ -30,6 +30,8 @@ import static org.assertj.core.api.Assertions.*;
  */
 @SpringBootTest(classes = {
     RedisRateLimitServiceImpl.class,
+    InMemoryRateLimiter.class,
+    InMemoryLockoutStore.class,
     RateLimitingConfiguration.class,
     RateLimitingTestConfiguration.class
 })
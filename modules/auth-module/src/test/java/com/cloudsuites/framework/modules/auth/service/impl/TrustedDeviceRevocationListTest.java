@@ -0,0 +1,77 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.repository.DeviceFingerprintRepository;
+import com.cloudsuites.framework.services.auth.entities.TrustStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrustedDeviceRevocationListTest {
+
+    @Mock
+    private DeviceFingerprintRepository deviceFingerprintRepository;
+
+    @InjectMocks
+    private TrustedDeviceRevocationList revocationList;
+
+    @Test
+    void testRevokesTokensIssuedUpToRevocation() {
+        revocationList.revoke("user-1", "fp-1", 5_000L);
+
+        assertTrue(revocationList.isRevoked("user-1", "fp-1", 4_000L));
+        assertTrue(revocationList.isRevoked("user-1", "fp-1", 5_000L));
+        assertFalse(revocationList.isRevoked("user-1", "fp-1", 6_000L));
+        assertFalse(revocationList.isRevoked("user-1", "fp-2", 4_000L));
+        assertFalse(revocationList.isRevoked("user-2", "fp-1", 4_000L));
+    }
+
+    @Test
+    void testLoadsRevocationsFromOtherNodes() {
+        LocalDateTime revokedAt = LocalDateTime.now().minusMinutes(5);
+        long revokedAtMillis = revokedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        List<Object[]> rows = List.<Object[]>of(new Object[]{"user-1", "fp-1", revokedAt});
+        when(deviceFingerprintRepository.findTrustEndedSince(any(LocalDateTime.class), eq(TrustStatus.TRUSTED)))
+                .thenReturn(rows);
+
+        revocationList.load();
+
+        assertTrue(revocationList.isRevoked("user-1", "fp-1", revokedAtMillis - 1));
+        assertFalse(revocationList.isRevoked("user-1", "fp-1", revokedAtMillis + 1));
+    }
+
+    @Test
+    void testLoadFailureKeepsExistingRevocations() {
+        revocationList.revoke("user-1", "fp-1", 5_000L);
+        when(deviceFingerprintRepository.findTrustEndedSince(any(LocalDateTime.class), eq(TrustStatus.TRUSTED)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        revocationList.load();
+
+        assertTrue(revocationList.isRevoked("user-1", "fp-1", 4_000L));
+    }
+
+    @Test
+    void testPurgesRevocationsOlderThanTokenLifetime() {
+        long now = System.currentTimeMillis();
+        revocationList.revoke("user-1", "fp-1", now - 43200L * 60_000L - 1);
+        revocationList.revoke("user-1", "fp-2", now - 1_000L);
+
+        revocationList.purgeExpired(now);
+
+        assertEquals(1, revocationList.size());
+        assertTrue(revocationList.isRevoked("user-1", "fp-2", now - 2_000L));
+    }
+}
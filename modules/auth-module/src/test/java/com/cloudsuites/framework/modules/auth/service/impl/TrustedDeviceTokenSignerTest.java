@@ -0,0 +1,74 @@
+package com.cloudsuites.framework.modules.auth.service.impl;
+
+import com.cloudsuites.framework.modules.auth.service.impl.TrustedDeviceTokenSigner.TrustedDeviceClaims;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrustedDeviceTokenSignerTest {
+
+    private static final String KEY_1 = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String KEY_2 = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    private static TrustedDeviceTokenSigner signer(String key, int version, String previousKey, int previousVersion) {
+        TrustedDeviceTokenSigner signer = new TrustedDeviceTokenSigner();
+        ReflectionTestUtils.setField(signer, "signingKey", key);
+        ReflectionTestUtils.setField(signer, "keyVersion", version);
+        ReflectionTestUtils.setField(signer, "previousSigningKey", previousKey);
+        ReflectionTestUtils.setField(signer, "previousKeyVersion", previousVersion);
+        signer.init();
+        return signer;
+    }
+
+    @Test
+    void testSignAndVerifyRoundTrip() {
+        TrustedDeviceTokenSigner signer = signer(KEY_1, 1, "", 0);
+
+        String token = signer.sign("user-1", "fp-1", 1_000L, 2_000L);
+        TrustedDeviceClaims claims = signer.verify(token);
+
+        assertNotNull(claims);
+        assertEquals("user-1", claims.userId());
+        assertEquals(1_000L, claims.issuedAtMillis());
+        assertEquals(2_000L, claims.expiresAtMillis());
+        assertEquals(1, claims.keyVersion());
+        assertTrue(claims.matchesFingerprint("fp-1"));
+        assertFalse(claims.matchesFingerprint("fp-2"));
+        assertFalse(token.contains("fp-1"));
+    }
+
+    @Test
+    void testTamperedOrMalformedTokensRejected() {
+        TrustedDeviceTokenSigner signer = signer(KEY_1, 1, "", 0);
+        String token = signer.sign("user-1", "fp-1", 1_000L, 2_000L);
+        String forged = signer(KEY_2, 1, "", 0).sign("user-2", "fp-1", 1_000L, 2_000L);
+        int dot = token.indexOf('.');
+
+        assertNull(signer.verify(forged.substring(0, forged.indexOf('.')) + token.substring(dot)));
+        assertNull(signer.verify(forged));
+        assertNull(signer.verify(token.substring(0, dot)));
+        assertNull(signer.verify("not a token"));
+        assertNull(signer.verify(token + ".extra"));
+        assertNull(signer.verify(null));
+    }
+
+    @Test
+    void testPreviousKeyStillVerifiesAfterRotation() {
+        String oldToken = signer(KEY_1, 1, "", 0).sign("user-1", "fp-1", 1_000L, 2_000L);
+        TrustedDeviceTokenSigner rotated = signer(KEY_2, 2, KEY_1, 1);
+
+        assertEquals(1, rotated.verify(oldToken).keyVersion());
+        assertEquals(2, rotated.verify(rotated.sign("user-1", "fp-1", 1_000L, 2_000L)).keyVersion());
+        assertNull(signer(KEY_2, 2, "", 0).verify(oldToken));
+    }
+
+    @Test
+    void testShortKeyRejected() {
+        String shortKey = Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThrows(IllegalStateException.class, () -> signer(shortKey, 1, "", 0));
+    }
+}
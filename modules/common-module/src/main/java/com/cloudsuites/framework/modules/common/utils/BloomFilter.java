@@ -0,0 +1,236 @@
+package com.cloudsuites.framework.modules.common.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, thread-safe Bloom filter for string keys.
+ * Answers "definitely absent" or "possibly present" in constant time and memory.
+ * Bits are set with CAS so concurrent adds never lose updates and readers never block.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        long optimalBits = optimalBitCount(expectedInsertions, falsePositiveRate);
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashFunctions = optimalHashFunctions(expectedInsertions, bitCount);
+    }
+
+    /**
+     * Adds a key to the filter.
+     */
+    public void put(String key) {
+        put(hash(key));
+    }
+
+    /**
+     * Adds a key by its precomputed {@link #hash(String)}.
+     */
+    public void put(long[] hash) {
+        for (int i = 0; i < hashFunctions; i++) {
+            setBit(index(hash[0], hash[1], i, bitCount));
+        }
+    }
+
+    /**
+     * Returns false if the key was definitely never added, true if it might have been.
+     */
+    public boolean mightContain(String key) {
+        return mightContain(hash(key));
+    }
+
+    /**
+     * Membership check for a precomputed {@link #hash(String)}, so one key can be probed
+     * against several filters while hashing it only once.
+     */
+    public boolean mightContain(long[] hash) {
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = index(hash[0], hash[1], i, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the filter in the format read by {@link MappedBloomFilter}. Concurrent adds while
+     * writing may or may not be included.
+     */
+    public void writeTo(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MappedBloomFilter.MAGIC)
+                    .putInt(MappedBloomFilter.VERSION)
+                    .putLong(bitCount)
+                    .putInt(hashFunctions)
+                    .putInt(0);
+            for (int word = 0; word < bits.length(); word++) {
+                if (!buffer.hasRemaining()) {
+                    writeFully(channel, buffer);
+                }
+                buffer.putLong(bits.get(word));
+            }
+            writeFully(channel, buffer);
+        }
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * Hashes a key for use with {@link #mightContain(long[])}.
+     */
+    public static long[] hash(String key) {
+        return murmurHash128(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Computes the number of bits needed for the given capacity and false positive rate.
+     */
+    public static long optimalBitCount(long expectedInsertions, double falsePositiveRate) {
+        return (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    }
+
+    /**
+     * Computes the number of hash functions that minimises the false positive rate.
+     */
+    public static int optimalHashFunctions(long expectedInsertions, long bitCount) {
+        return Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Kirsch-Mitzenmacher double hashing: the i-th probe position derived from two base hashes.
+     */
+    public static long index(long hash1, long hash2, int i, long bitCount) {
+        return ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+    }
+
+    /**
+     * MurmurHash3 x64 128-bit hash of the input bytes, returned as two 64-bit halves.
+     */
+    @SuppressWarnings("fallthrough")
+    public static long[] murmurHash128(byte[] data) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        long h1 = 0;
+        long h2 = 0;
+        int length = data.length;
+        int blocks = length / 16;
+
+        for (int i = 0; i < blocks; i++) {
+            int offset = i * 16;
+            long k1 = getLong(data, offset);
+            long k2 = getLong(data, offset + 8);
+
+            k1 *= c1; k1 = Long.rotateLeft(k1, 31); k1 *= c2; h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27); h1 += h2; h1 = h1 * 5 + 0x52dce729;
+
+            k2 *= c2; k2 = Long.rotateLeft(k2, 33); k2 *= c1; h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31); h2 += h1; h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks * 16;
+        switch (length & 15) {
+            case 15: k2 ^= (long) (data[tail + 14] & 0xff) << 48; // fall through
+            case 14: k2 ^= (long) (data[tail + 13] & 0xff) << 40; // fall through
+            case 13: k2 ^= (long) (data[tail + 12] & 0xff) << 32; // fall through
+            case 12: k2 ^= (long) (data[tail + 11] & 0xff) << 24; // fall through
+            case 11: k2 ^= (long) (data[tail + 10] & 0xff) << 16; // fall through
+            case 10: k2 ^= (long) (data[tail + 9] & 0xff) << 8; // fall through
+            case 9:
+                k2 ^= (data[tail + 8] & 0xff);
+                k2 *= c2; k2 = Long.rotateLeft(k2, 33); k2 *= c1; h2 ^= k2;
+                // fall through
+            case 8: k1 ^= (long) (data[tail + 7] & 0xff) << 56; // fall through
+            case 7: k1 ^= (long) (data[tail + 6] & 0xff) << 48; // fall through
+            case 6: k1 ^= (long) (data[tail + 5] & 0xff) << 40; // fall through
+            case 5: k1 ^= (long) (data[tail + 4] & 0xff) << 32; // fall through
+            case 4: k1 ^= (long) (data[tail + 3] & 0xff) << 24; // fall through
+            case 3: k1 ^= (long) (data[tail + 2] & 0xff) << 16; // fall through
+            case 2: k1 ^= (long) (data[tail + 1] & 0xff) << 8; // fall through
+            case 1:
+                k1 ^= (data[tail] & 0xff);
+                k1 *= c1; k1 = Long.rotateLeft(k1, 31); k1 *= c2; h1 ^= k1;
+                // fall through
+            default:
+                break;
+        }
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[]{h1, h2};
+    }
+
+    private void setBit(long bit) {
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static long getLong(byte[] data, int offset) {
+        return (data[offset] & 0xffL)
+                | (data[offset + 1] & 0xffL) << 8
+                | (data[offset + 2] & 0xffL) << 16
+                | (data[offset + 3] & 0xffL) << 24
+                | (data[offset + 4] & 0xffL) << 32
+                | (data[offset + 5] & 0xffL) << 40
+                | (data[offset + 6] & 0xffL) << 48
+                | (data[offset + 7] & 0xffL) << 56;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb93c185a94d3L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
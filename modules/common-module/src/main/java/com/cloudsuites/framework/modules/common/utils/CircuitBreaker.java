@@ -0,0 +1,71 @@
+package com.cloudsuites.framework.modules.common.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consecutive-failure circuit breaker for calls to an external provider.
+ * After {@code failureThreshold} failures in a row the circuit opens and calls are refused for
+ * {@code openMs}. Then a single trial call is let through: success closes the circuit, failure
+ * opens it again. All state is held in atomics, so checks never block.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final int failureThreshold;
+    private final long openMs;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // Epoch millis the circuit last opened, CLOSED while closed
+    private final AtomicLong openedAtMs = new AtomicLong(CLOSED);
+    private final AtomicLong trialStartedAtMs = new AtomicLong(CLOSED);
+
+    public CircuitBreaker(int failureThreshold, long openMs) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+    }
+
+    /**
+     * Returns true if a call may be made now. While half-open only one caller per open period
+     * gets true, until that trial reports its result.
+     */
+    public boolean tryAcquire(long nowMs) {
+        long openedAt = openedAtMs.get();
+        if (openedAt == CLOSED) {
+            return true;
+        }
+        if (nowMs - openedAt < openMs) {
+            return false;
+        }
+        long trialStartedAt = trialStartedAtMs.get();
+        // A trial that never reported back is abandoned after another open period
+        if (trialStartedAt >= openedAt && nowMs - trialStartedAt < openMs) {
+            return false;
+        }
+        return trialStartedAtMs.compareAndSet(trialStartedAt, nowMs);
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        openedAtMs.set(CLOSED);
+    }
+
+    public void recordFailure(long nowMs) {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold || openedAtMs.get() != CLOSED) {
+            openedAtMs.set(nowMs);
+        }
+    }
+
+    public State getState(long nowMs) {
+        long openedAt = openedAtMs.get();
+        if (openedAt == CLOSED) {
+            return State.CLOSED;
+        }
+        return nowMs - openedAt < openMs ? State.OPEN : State.HALF_OPEN;
+    }
+}
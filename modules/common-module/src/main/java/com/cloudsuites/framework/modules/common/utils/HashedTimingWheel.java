@@ -0,0 +1,112 @@
+package com.cloudsuites.framework.modules.common.utils;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for expiring many items with coarse deadlines.
+ * Scheduling is O(1) and lock-free; each {@link #advance(long)} only visits the buckets for the
+ * ticks that have passed, so expiry cost is proportional to what expires rather than to how many
+ * items are outstanding. Items due more than one revolution ahead stay in their bucket until the
+ * revolution that reaches their deadline.
+ *
+ * Deadlines are honoured to within one tick. An item scheduled while its bucket is being swept
+ * may fire one revolution late, so owners should still check expiry on read.
+ *
+ * @param <T> the scheduled item type
+ */
+public class HashedTimingWheel<T> {
+
+    private record Timeout<T>(T item, long deadlineMs) {
+    }
+
+    private final long tickMs;
+    private final int mask;
+    private final Queue<Timeout<T>>[] buckets;
+    private final Consumer<T> onExpire;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    // Oldest tick not yet fully swept; only advanced under the advance lock
+    private volatile long nextTick = -1;
+
+    public HashedTimingWheel(long tickMs, int ticksPerWheel, Consumer<T> onExpire) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("Ticks per wheel must be positive");
+        }
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        this.tickMs = tickMs;
+        this.mask = size - 1;
+        this.buckets = newBuckets(size);
+        this.onExpire = onExpire;
+    }
+
+    /**
+     * Schedules an item to expire at the given epoch millis.
+     */
+    public void schedule(T item, long deadlineMs) {
+        long tick = deadlineMs / tickMs;
+        long sweepFrom = nextTick;
+        if (sweepFrom >= 0 && tick < sweepFrom) {
+            tick = sweepFrom;
+        }
+        buckets[(int) (tick & mask)].add(new Timeout<>(item, deadlineMs));
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Expires every item whose deadline is at or before {@code nowMs}.
+     *
+     * @return the number of items expired
+     */
+    public synchronized int advance(long nowMs) {
+        long currentTick = nowMs / tickMs;
+        if (nextTick < 0 || currentTick - nextTick >= buckets.length) {
+            // First run or a long pause: one sweep of every bucket covers all missed ticks
+            nextTick = currentTick - buckets.length + 1;
+        }
+        int expired = 0;
+        for (; nextTick < currentTick; nextTick++) {
+            expired += sweep(nextTick, nowMs);
+        }
+        // The current tick is only partly over, so it is swept again on the next advance
+        return expired + sweep(currentTick, nowMs);
+    }
+
+    private int sweep(long tick, long nowMs) {
+        int expired = 0;
+        for (var iterator = buckets[(int) (tick & mask)].iterator(); iterator.hasNext(); ) {
+            Timeout<T> timeout = iterator.next();
+            if (timeout.deadlineMs() <= nowMs) {
+                iterator.remove();
+                pending.decrementAndGet();
+                onExpire.accept(timeout.item());
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Number of scheduled items that have not expired yet.
+     */
+    public int size() {
+        return pending.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Queue<Timeout<T>>[] newBuckets(int size) {
+        Queue<Timeout<T>>[] buckets = (Queue<Timeout<T>>[]) new Queue<?>[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        return buckets;
+    }
+}
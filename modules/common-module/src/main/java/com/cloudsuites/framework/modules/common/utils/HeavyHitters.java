@@ -0,0 +1,55 @@
+package com.cloudsuites.framework.modules.common.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded top-k of keys by an externally estimated count, typically from a
+ * {@link SlidingWindowCountMinSketch}. Holds at most {@code capacity} keys: a key offered while
+ * full replaces the smallest tracked key only if its estimate is larger.
+ */
+public class HeavyHitters {
+
+    private final int capacity;
+    private final Map<String, Long> counts;
+
+    public HeavyHitters(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counts = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Offers a key with its current estimated count.
+     */
+    public synchronized void offer(String key, long estimate) {
+        if (counts.containsKey(key) || counts.size() < capacity) {
+            counts.put(key, estimate);
+            return;
+        }
+        Map.Entry<String, Long> smallest = Collections.min(counts.entrySet(), Map.Entry.comparingByValue());
+        if (estimate > smallest.getValue()) {
+            counts.remove(smallest.getKey());
+            counts.put(key, estimate);
+        }
+    }
+
+    /**
+     * Tracked keys re-estimated with {@code currentEstimate}, largest first. Keys whose estimate
+     * has dropped to zero are forgotten.
+     */
+    public synchronized List<Map.Entry<String, Long>> top(ToLongFunction<String> currentEstimate) {
+        List<Map.Entry<String, Long>> top = new ArrayList<>(counts.size());
+        counts.replaceAll((key, count) -> currentEstimate.applyAsLong(key));
+        counts.values().removeIf(count -> count <= 0);
+        counts.forEach((key, count) -> top.add(Map.entry(key, count)));
+        top.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return top;
+    }
+}
@@ -0,0 +1,94 @@
+package com.cloudsuites.framework.modules.common.utils;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only Bloom filter memory-mapped from a file written by {@link BloomFilter#writeTo(Path)}.
+ * The bits stay in the page cache rather than on the heap, so even very large filters cost no
+ * GC work and are shared between processes on the same host. Lookups hash the key once and probe
+ * the mapped words directly; they are lock-free and safe from any thread.
+ *
+ * File layout, little-endian: magic, version, bit count, hash function count, a reserved int,
+ * then the filter's 64-bit words.
+ */
+public final class MappedBloomFilter {
+
+    static final int MAGIC = 0x43534246;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+
+    private final LongBuffer bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    private MappedBloomFilter(LongBuffer bits, long bitCount, int hashFunctions) {
+        this.bits = bits;
+        this.bitCount = bitCount;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Maps a filter file. The mapping outlives the channel and is released when the filter is
+     * garbage collected.
+     *
+     * @throws IOException if the file cannot be read or is not a filter this version understands
+     */
+    public static MappedBloomFilter open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Not a Bloom filter file: " + path);
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Bloom filter file exceeds 2 GB: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported Bloom filter file: " + path);
+            }
+            long bitCount = buffer.getLong(8);
+            int hashFunctions = buffer.getInt(16);
+            if (bitCount <= 0 || bitCount % 64 != 0 || hashFunctions <= 0
+                    || HEADER_BYTES + bitCount / 8 != size) {
+                throw new IOException("Corrupt Bloom filter header: " + path);
+            }
+            LongBuffer bits = buffer.position(HEADER_BYTES).slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            return new MappedBloomFilter(bits, bitCount, hashFunctions);
+        }
+    }
+
+    /**
+     * Returns false if the key was definitely never added, true if it might have been.
+     */
+    public boolean mightContain(String key) {
+        return mightContain(BloomFilter.hash(key));
+    }
+
+    /**
+     * Membership check for a precomputed {@link BloomFilter#hash(String)}.
+     */
+    public boolean mightContain(long[] hash) {
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = BloomFilter.index(hash[0], hash[1], i, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+}
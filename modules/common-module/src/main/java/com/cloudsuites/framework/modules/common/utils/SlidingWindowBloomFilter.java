@@ -0,0 +1,71 @@
+package com.cloudsuites.framework.modules.common.utils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bloom filter over a sliding time window: answers whether a key was seen recently, in fixed
+ * memory. The window is split into buckets, each its own {@link BloomFilter}; a bucket is replaced
+ * by an empty filter when time wraps round to it, so keys are forgotten one bucket at a time.
+ * Useful for counting distinct values, by counting only keys that were not seen before.
+ */
+public class SlidingWindowBloomFilter {
+
+    private final long expectedInsertionsPerBucket;
+    private final double falsePositiveRate;
+    private final int buckets;
+    private final long bucketMillis;
+    private final AtomicReferenceArray<BloomFilter> filters;
+    private final AtomicLongArray bucketEpochs;
+
+    public SlidingWindowBloomFilter(long expectedInsertionsPerBucket, double falsePositiveRate,
+                                    Duration window, int buckets) {
+        if (buckets <= 0 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("Window must be at least one millisecond per bucket");
+        }
+        this.expectedInsertionsPerBucket = expectedInsertionsPerBucket;
+        this.falsePositiveRate = falsePositiveRate;
+        this.buckets = buckets;
+        this.bucketMillis = window.toMillis() / buckets;
+        this.filters = new AtomicReferenceArray<>(buckets);
+        this.bucketEpochs = new AtomicLongArray(buckets);
+        for (int i = 0; i < buckets; i++) {
+            filters.set(i, new BloomFilter(expectedInsertionsPerBucket, falsePositiveRate));
+            bucketEpochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Adds a key and reports whether it was absent from the window before. A false positive
+     * makes a new key look seen; a seen key is never reported as new.
+     */
+    public boolean putIfAbsent(String key, long nowMillis) {
+        long[] hash = BloomFilter.hash(key);
+        long epoch = nowMillis / bucketMillis;
+        for (int b = 0; b < buckets; b++) {
+            long bucketEpoch = bucketEpochs.get(b);
+            if (bucketEpoch <= epoch && bucketEpoch > epoch - buckets && filters.get(b).mightContain(hash)) {
+                return false;
+            }
+        }
+        filters.get(currentBucket(epoch)).put(hash);
+        return true;
+    }
+
+    private int currentBucket(long epoch) {
+        int bucket = (int) Math.floorMod(epoch, (long) buckets);
+        if (bucketEpochs.get(bucket) < epoch) {
+            advance(bucket, epoch);
+        }
+        return bucket;
+    }
+
+    private synchronized void advance(int bucket, long epoch) {
+        if (bucketEpochs.get(bucket) >= epoch) {
+            return;
+        }
+        filters.set(bucket, new BloomFilter(expectedInsertionsPerBucket, falsePositiveRate));
+        bucketEpochs.set(bucket, epoch);
+    }
+}
@@ -0,0 +1,116 @@
+package com.cloudsuites.framework.modules.common.utils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch over a sliding time window, for approximate per-key counts in fixed memory
+ * however many distinct keys are added.
+ * The window is split into buckets, each a depth x width counter matrix; a bucket is cleared when
+ * time wraps round to it, so counts expire one bucket at a time. Estimates never undercount keys
+ * added within the window and overcount by at most e/width of the window total with probability
+ * 1 - e^-depth.
+ * Counters are updated with atomic increments, so adds never block one another.
+ */
+public class SlidingWindowCountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int buckets;
+    private final long bucketMillis;
+    private final AtomicIntegerArray[] counters;
+    private final AtomicLongArray bucketEpochs;
+
+    public SlidingWindowCountMinSketch(int depth, int width, Duration window, int buckets) {
+        if (depth <= 0 || width <= 0 || buckets <= 0) {
+            throw new IllegalArgumentException("Depth, width and buckets must be positive");
+        }
+        if (window.toMillis() < buckets) {
+            throw new IllegalArgumentException("Window must be at least one millisecond per bucket");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.buckets = buckets;
+        this.bucketMillis = window.toMillis() / buckets;
+        this.counters = new AtomicIntegerArray[buckets];
+        this.bucketEpochs = new AtomicLongArray(buckets);
+        for (int i = 0; i < buckets; i++) {
+            counters[i] = new AtomicIntegerArray(depth * width);
+            bucketEpochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Counts one occurrence of a key and returns its estimated count within the window.
+     */
+    public long add(String key, long nowMillis) {
+        return add(BloomFilter.hash(key), nowMillis);
+    }
+
+    /**
+     * Counts one occurrence of a key by its precomputed {@link BloomFilter#hash(String)}.
+     */
+    public long add(long[] hash, long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        AtomicIntegerArray bucket = counters[currentBucket(epoch)];
+        for (int row = 0; row < depth; row++) {
+            bucket.incrementAndGet(cell(hash, row));
+        }
+        return estimate(hash, nowMillis);
+    }
+
+    /**
+     * Estimated count of a key within the window ending now.
+     */
+    public long estimate(String key, long nowMillis) {
+        return estimate(BloomFilter.hash(key), nowMillis);
+    }
+
+    public long estimate(long[] hash, long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int cell = cell(hash, row);
+            long sum = 0;
+            for (int b = 0; b < buckets; b++) {
+                long bucketEpoch = bucketEpochs.get(b);
+                if (bucketEpoch <= epoch && bucketEpoch > epoch - buckets) {
+                    sum += counters[b].get(cell);
+                }
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    /**
+     * Memory held by the counters, in bytes.
+     */
+    public long getCounterBytes() {
+        return (long) buckets * depth * width * Integer.BYTES;
+    }
+
+    private int cell(long[] hash, int row) {
+        return row * width + (int) BloomFilter.index(hash[0], hash[1], row, width);
+    }
+
+    private int currentBucket(long epoch) {
+        int bucket = (int) Math.floorMod(epoch, (long) buckets);
+        if (bucketEpochs.get(bucket) < epoch) {
+            advance(bucket, epoch);
+        }
+        return bucket;
+    }
+
+    private synchronized void advance(int bucket, long epoch) {
+        if (bucketEpochs.get(bucket) >= epoch) {
+            return;
+        }
+        AtomicIntegerArray cells = counters[bucket];
+        for (int i = 0; i < cells.length(); i++) {
+            cells.set(i, 0);
+        }
+        bucketEpochs.set(bucket, epoch);
+    }
+}
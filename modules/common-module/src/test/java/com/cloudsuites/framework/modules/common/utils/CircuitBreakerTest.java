@@ -0,0 +1,53 @@
+package com.cloudsuites.framework.modules.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final CircuitBreaker breaker = new CircuitBreaker(3, 1_000);
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        breaker.recordFailure(0);
+        breaker.recordFailure(0);
+        breaker.recordSuccess();
+        breaker.recordFailure(0);
+        breaker.recordFailure(0);
+        assertTrue(breaker.tryAcquire(0));
+
+        breaker.recordFailure(10);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(10));
+        assertFalse(breaker.tryAcquire(500));
+    }
+
+    @Test
+    void testHalfOpenAllowsSingleTrial() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure(0);
+        }
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(1_000));
+        assertTrue(breaker.tryAcquire(1_000));
+        assertFalse(breaker.tryAcquire(1_001));
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(1_002));
+        assertTrue(breaker.tryAcquire(1_002));
+    }
+
+    @Test
+    void testFailedTrialReopens() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure(0);
+        }
+        assertTrue(breaker.tryAcquire(1_000));
+
+        breaker.recordFailure(1_100);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(1_500));
+        assertFalse(breaker.tryAcquire(1_500));
+        assertTrue(breaker.tryAcquire(2_100));
+    }
+}
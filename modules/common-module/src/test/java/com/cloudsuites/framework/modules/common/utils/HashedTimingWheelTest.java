@@ -0,0 +1,62 @@
+package com.cloudsuites.framework.modules.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private final List<String> expired = new ArrayList<>();
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(1_000, 8, expired::add);
+
+    @Test
+    void testExpiresOnlyDueItems() {
+        wheel.advance(0);
+        wheel.schedule("a", 2_500);
+        wheel.schedule("b", 5_000);
+
+        assertEquals(0, wheel.advance(2_000));
+        assertEquals(1, wheel.advance(2_600));
+        assertEquals(List.of("a"), expired);
+        assertEquals(1, wheel.size());
+
+        wheel.advance(5_000);
+        assertEquals(List.of("a", "b"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testItemsBeyondOneRevolutionWaitForTheirDeadline() {
+        wheel.advance(0);
+        wheel.schedule("far", 20_000);
+
+        wheel.advance(12_000);
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(20_000);
+        assertEquals(List.of("far"), expired);
+    }
+
+    @Test
+    void testPastDeadlineExpiresOnNextAdvance() {
+        wheel.advance(10_000);
+        wheel.schedule("late", 3_000);
+
+        wheel.advance(10_001);
+        assertEquals(List.of("late"), expired);
+    }
+
+    @Test
+    void testLongPauseSweepsEverything() {
+        wheel.advance(0);
+        for (int i = 1; i <= 50; i++) {
+            wheel.schedule("item-" + i, i * 1_000L);
+        }
+
+        assertEquals(50, wheel.advance(1_000_000));
+        assertEquals(0, wheel.size());
+    }
+}
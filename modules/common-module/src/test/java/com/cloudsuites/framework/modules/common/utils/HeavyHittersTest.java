@@ -0,0 +1,34 @@
+package com.cloudsuites.framework.modules.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHittersTest {
+
+    @Test
+    void testKeepsLargestKeysWithinCapacity() {
+        HeavyHitters heavyHitters = new HeavyHitters(2);
+        heavyHitters.offer("a", 5);
+        heavyHitters.offer("b", 1);
+        heavyHitters.offer("c", 3);
+        heavyHitters.offer("d", 2);
+
+        List<Map.Entry<String, Long>> top = heavyHitters.top(key -> key.equals("a") ? 5 : 3);
+
+        assertEquals(List.of(Map.entry("a", 5L), Map.entry("c", 3L)), top);
+    }
+
+    @Test
+    void testForgetsKeysThatDecayToZero() {
+        HeavyHitters heavyHitters = new HeavyHitters(4);
+        heavyHitters.offer("a", 5);
+        heavyHitters.offer("b", 4);
+
+        assertEquals(List.of(Map.entry("b", 4L)), heavyHitters.top(key -> key.equals("a") ? 0 : 4));
+        assertEquals(List.of(Map.entry("b", 4L)), heavyHitters.top(key -> 4));
+    }
+}
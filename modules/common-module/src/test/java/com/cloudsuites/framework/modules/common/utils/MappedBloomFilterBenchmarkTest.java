@@ -0,0 +1,60 @@
+package com.cloudsuites.framework.modules.common.utils;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lookup latency of a large mapped Bloom filter. Excluded from the default build; run it with
+ * {@code -Dtest.excludedGroups= -Dgroups=benchmark}.
+ */
+@Tag("benchmark")
+class MappedBloomFilterBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedBloomFilterBenchmarkTest.class);
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * One million entries at 0.1%: about 1.7 MB mapped, regardless of how long the entries are.
+     */
+    @Test
+    void benchmarkLookupLatency() throws IOException {
+        BloomFilter filter = new BloomFilter(1_000_000, 0.001);
+        for (int i = 0; i < 1_000_000; i++) {
+            filter.put("breached-" + i);
+        }
+        Path file = tempDir.resolve("large.bloom");
+        filter.writeTo(file);
+        MappedBloomFilter mapped = MappedBloomFilter.open(file);
+
+        String[] keys = new String[1_024];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (i % 2 == 0 ? "breached-" : "Fresh-Passw0rd-") + i * 977;
+        }
+        int hits = 0;
+        for (int i = 0; i < 200_000; i++) {
+            hits += mapped.mightContain(keys[i & 1_023]) ? 1 : 0;
+        }
+        int lookups = 1_000_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            hits += mapped.mightContain(keys[i & 1_023]) ? 1 : 0;
+        }
+        double nanosPerLookup = (System.nanoTime() - start) / (double) lookups;
+
+        logger.info("Mapped Bloom filter: {} bytes, {} hash functions, {} ns per lookup",
+                Files.size(file), mapped.getHashFunctions(), String.format("%.0f", nanosPerLookup));
+        // Half of the keys were added, so at least their lookups must hit
+        assertTrue(hits >= 600_000);
+    }
+}
@@ -0,0 +1,58 @@
+package com.cloudsuites.framework.modules.common.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedBloomFilterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMappedFilterAnswersLikeTheOriginal() throws IOException {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("key-" + i);
+        }
+        Path file = tempDir.resolve("keys.bloom");
+        filter.writeTo(file);
+
+        MappedBloomFilter mapped = MappedBloomFilter.open(file);
+
+        assertEquals(filter.getBitCount(), mapped.getBitCount());
+        assertEquals(filter.getHashFunctions(), mapped.getHashFunctions());
+        assertEquals(24 + filter.getBitCount() / 8, Files.size(file));
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(mapped.mightContain("key-" + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(filter.mightContain("absent-" + i), mapped.mightContain("absent-" + i));
+        }
+    }
+
+    @Test
+    void testRejectsFilesThatAreNotFilters() throws IOException {
+        Path file = tempDir.resolve("passwords.txt");
+        Files.writeString(file, "password\nletmein\nqwerty\nsunshine\n");
+
+        assertThrows(IOException.class, () -> MappedBloomFilter.open(file));
+    }
+
+    @Test
+    void testRejectsTruncatedFiles() throws IOException {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        Path file = tempDir.resolve("truncated.bloom");
+        filter.writeTo(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+
+        assertThrows(IOException.class, () -> MappedBloomFilter.open(file));
+    }
+}
@@ -0,0 +1,30 @@
+package com.cloudsuites.framework.modules.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowBloomFilterTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Test
+    void testReportsKeyAsNewOncePerWindow() {
+        SlidingWindowBloomFilter filter = new SlidingWindowBloomFilter(1_000, 0.01, Duration.ofSeconds(60), 6);
+
+        assertTrue(filter.putIfAbsent("10.0.0.1|user-1", T0));
+        assertFalse(filter.putIfAbsent("10.0.0.1|user-1", T0 + 30_000));
+        assertTrue(filter.putIfAbsent("10.0.0.1|user-2", T0 + 30_000));
+    }
+
+    @Test
+    void testKeysAreForgottenAfterWindow() {
+        SlidingWindowBloomFilter filter = new SlidingWindowBloomFilter(1_000, 0.01, Duration.ofSeconds(60), 6);
+        filter.putIfAbsent("key", T0);
+
+        assertFalse(filter.putIfAbsent("key", T0 + 59_000));
+        assertTrue(filter.putIfAbsent("key", T0 + 130_000));
+    }
+}
@@ -0,0 +1,53 @@
+package com.cloudsuites.framework.modules.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCountMinSketchTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Test
+    void testCountsWithinWindow() {
+        SlidingWindowCountMinSketch sketch = new SlidingWindowCountMinSketch(4, 1024, Duration.ofSeconds(60), 6);
+
+        for (int i = 0; i < 25; i++) {
+            sketch.add("10.0.0.1", T0 + i * 1000L);
+        }
+        sketch.add("10.0.0.2", T0);
+
+        assertEquals(25, sketch.estimate("10.0.0.1", T0 + 30_000));
+        assertEquals(1, sketch.estimate("10.0.0.2", T0 + 30_000));
+        assertEquals(0, sketch.estimate("10.0.0.3", T0 + 30_000));
+    }
+
+    @Test
+    void testCountsExpireBucketByBucket() {
+        SlidingWindowCountMinSketch sketch = new SlidingWindowCountMinSketch(4, 1024, Duration.ofSeconds(60), 6);
+        sketch.add("key", T0);
+        sketch.add("key", T0 + 30_000);
+
+        assertEquals(2, sketch.estimate("key", T0 + 50_000));
+        assertEquals(1, sketch.estimate("key", T0 + 75_000));
+        assertEquals(0, sketch.estimate("key", T0 + 100_000));
+        assertEquals(1, sketch.add("key", T0 + 130_000));
+    }
+
+    @Test
+    void testNeverUndercountsAndStaysNearTrueCountsUnderManyKeys() {
+        SlidingWindowCountMinSketch sketch = new SlidingWindowCountMinSketch(4, 4096, Duration.ofSeconds(60), 6);
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add("noise-" + i, T0);
+        }
+        for (int i = 0; i < 500; i++) {
+            sketch.add("hot", T0);
+        }
+
+        long hot = sketch.estimate("hot", T0);
+        assertTrue(hot >= 500 && hot < 500 + 200, "Estimate: " + hot);
+        assertEquals(4L * 4096 * 6 * Integer.BYTES, sketch.getCounterBytes());
+    }
+}
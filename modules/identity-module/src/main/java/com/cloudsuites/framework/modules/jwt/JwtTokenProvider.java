@@ -15,6 +15,7 @@ import java.security.interfaces.RSAPublicKey;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -88,6 +89,7 @@ public class JwtTokenProvider {
         logger.info("Generating access token for subject: {}", subject);
         
         JwtBuilder builder = Jwts.builder()
+            .id(UUID.randomUUID().toString())  // Default JTI for revocation checks; a custom "jti" claim overrides it
             .subject(subject)
             .issuer(jwtIssuer)
             .audience().add(jwtAudience).and()
@@ -208,6 +210,7 @@ public class JwtTokenProvider {
     private String createToken(JwtBuilder jwtBuilder, long validityMs) {
         logger.debug("Creating deprecated token with validity: {} ms", validityMs);
         return jwtBuilder
+                .id(UUID.randomUUID().toString())  // JTI for revocation checks, as in generateAccessToken
                 .issuer(jwtIssuer)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + validityMs))
@@ -1,6 +1,8 @@
 package com.cloudsuites.framework.modules.jwt;
 
+import com.cloudsuites.framework.modules.common.utils.IdGenerator;
 import com.cloudsuites.framework.modules.user.repository.UserSessionRepository;
+import com.cloudsuites.framework.modules.user.repository.UserSessionRepository.RevokedSessionView;
 import com.cloudsuites.framework.services.common.exception.ValidationException;
 import com.cloudsuites.framework.services.user.RefreshTokenService;
 import com.cloudsuites.framework.services.user.RefreshTokenService.SessionStats;
@@ -33,6 +35,8 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     private static final Logger log = LoggerFactory.getLogger(RefreshTokenServiceImpl.class);
 
     private final UserSessionRepository userSessionRepository;
+    private final SessionActivityCoalescer sessionActivityCoalescer;
+    private final TokenRevocationIndex tokenRevocationIndex;
 
     @Value("${app.security.jwt.refresh-token.expiration-hours:720}") // 30 days default
     private int refreshTokenExpirationHours;
@@ -58,22 +62,17 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
         
         log.debug("Creating refresh token for user: {} on device: {} (trusted: {})", userId, deviceType, isTrusted);
         
-        // Check if user has reached maximum sessions limit
-        long currentSessions = userSessionRepository.countActiveSessionsByUserId(userId);
-        if (currentSessions >= maxSessionsPerUser) {
-            log.warn("User {} has reached maximum sessions limit: {}", userId, maxSessionsPerUser);
-            // Remove oldest session to make room
-            removeOldestSession(userId);
-        }
+        LocalDateTime now = LocalDateTime.now();
+        String sessionId = IdGenerator.generateULID("SES-");
 
-        // Generate a dummy refresh token hash for now (will be updated when real token is generated)
-        String tempTokenHash = generateTokenHash("temp_" + System.currentTimeMillis());
+        // Placeholder hash, unique per session (will be updated when real token is generated)
+        String tempTokenHash = generateTokenHash("temp_" + sessionId);
 
         // Determine expiration based on device type and trust level
         LocalDateTime expiresAt = calculateExpirationTime(deviceType, isTrusted);
 
-        // Create new session
         UserSession session = UserSession.builder()
+                .sessionId(sessionId)
                 .userId(userId)
                 .refreshTokenHash(tempTokenHash)
                 .deviceFingerprint(deviceFingerprint)
@@ -85,16 +84,28 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
                 .isTrustedDevice(isTrusted)
                 .active(true)
                 .expiresAt(expiresAt)
-                .lastActivityAt(LocalDateTime.now())
+                .lastActivityAt(now)
+                .createdAt(now)
                 .createdBy(userId)
                 .build();
 
-        UserSession savedSession = userSessionRepository.save(session);
-        
-        log.info("Created new session {} for user {} on {} device (expires: {})", 
-                savedSession.getSessionId(), userId, deviceType, expiresAt);
-        
-        return savedSession;
+        // Insert and enforce the session cap in one statement; the per-user lock keeps
+        // concurrent logins from each seeing a snapshot without the others' sessions
+        userSessionRepository.lockUserSessions(userId);
+        List<RevokedSessionView> evicted = userSessionRepository.insertSessionEnforcingCap(
+                sessionId, userId, tempTokenHash, deviceFingerprint, deviceName,
+                deviceType != null ? deviceType.name() : null, userAgent, ipAddress, location,
+                isTrusted, now, expiresAt, maxSessionsPerUser);
+        evicted.forEach(tokenRevocationIndex::recordRevocation);
+
+        if (!evicted.isEmpty()) {
+            log.info("User {} reached maximum sessions limit {}, revoked {} least recently active sessions",
+                    userId, maxSessionsPerUser, evicted.size());
+        }
+        log.info("Created new session {} for user {} on {} device (expires: {})",
+                sessionId, userId, deviceType, expiresAt);
+
+        return session;
     }
 
     @Override
@@ -160,8 +171,9 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     public boolean revokeRefreshToken(String refreshToken) {
         String tokenHash = generateTokenHash(refreshToken);
         
-        int updated = userSessionRepository.deactivateSessionByRefreshToken(tokenHash, LocalDateTime.now());
-        boolean revoked = updated > 0;
+        List<RevokedSessionView> revokedSessions = userSessionRepository.revokeSessionByRefreshTokenHash(tokenHash, LocalDateTime.now());
+        revokedSessions.forEach(tokenRevocationIndex::recordRevocation);
+        boolean revoked = !revokedSessions.isEmpty();
         
         if (revoked) {
             log.info("Successfully revoked refresh token");
@@ -176,7 +188,9 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     public int revokeAllUserTokens(String userId) {
         log.info("Revoking all sessions for user: {}", userId);
         
-        int revokedCount = userSessionRepository.deactivateAllUserSessions(userId, LocalDateTime.now());
+        List<RevokedSessionView> revokedSessions = userSessionRepository.revokeAllUserSessions(userId, LocalDateTime.now());
+        revokedSessions.forEach(tokenRevocationIndex::recordRevocation);
+        int revokedCount = revokedSessions.size();
         
         log.info("Successfully revoked {} sessions for user: {}", revokedCount, userId);
         return revokedCount;
@@ -184,8 +198,9 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
 
     @Override
     public boolean revokeSessionById(String sessionId) {
-        int updated = userSessionRepository.deactivateSession(sessionId, LocalDateTime.now());
-        boolean revoked = updated > 0;
+        List<RevokedSessionView> revokedSessions = userSessionRepository.revokeSession(sessionId, LocalDateTime.now());
+        revokedSessions.forEach(tokenRevocationIndex::recordRevocation);
+        boolean revoked = !revokedSessions.isEmpty();
         
         if (revoked) {
             log.info("Successfully revoked session: {}", sessionId);
@@ -210,16 +225,9 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
 
     @Override
     public void updateSessionActivity(String sessionId, String ipAddress, String userAgent, String location) {
-        Optional<UserSession> sessionOpt = userSessionRepository.findById(sessionId);
-        if (sessionOpt.isPresent()) {
-            UserSession session = sessionOpt.get();
-            session.updateSessionMetadata(ipAddress, userAgent, location);
-            userSessionRepository.save(session);
-            
-            log.debug("Updated activity for session: {} from IP: {}", sessionId, ipAddress);
-        } else {
-            log.warn("Attempted to update activity for non-existent session: {}", sessionId);
-        }
+        // Write-behind: persisted in batches by SessionActivityCoalescer
+        sessionActivityCoalescer.recordActivity(sessionId, ipAddress, userAgent, location);
+        log.debug("Recorded activity for session: {} from IP: {}", sessionId, ipAddress);
     }
 
     @Override
@@ -391,20 +399,4 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
             default -> LocalDateTime.now().plusHours(refreshTokenExpirationHours);
         };
     }
-
-    /**
-     * Removes the oldest session for a user when the session limit is reached.
-     */
-    private void removeOldestSession(String userId) {
-        List<UserSession> sessions = userSessionRepository.findActiveSessionsByUserId(userId);
-        if (!sessions.isEmpty()) {
-            // Sessions are ordered by lastActivityAt DESC, so the last one is oldest
-            UserSession oldestSession = sessions.get(sessions.size() - 1);
-            oldestSession.deactivate();
-            userSessionRepository.save(oldestSession);
-            
-            log.info("Removed oldest session {} for user {} to make room for new session", 
-                    oldestSession.getSessionId(), userId);
-        }
-    }
 }
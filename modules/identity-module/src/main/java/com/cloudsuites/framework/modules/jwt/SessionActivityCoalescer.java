@@ -0,0 +1,189 @@
+package com.cloudsuites.framework.modules.jwt;
+
+import com.cloudsuites.framework.modules.user.repository.UserSessionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind buffer for session activity updates.
+ * Activity is coalesced in memory per session and flushed periodically as a single
+ * UNNEST-based UPDATE per batch, instead of a find + save on user_sessions per request.
+ * Rows whose persisted activity is newer than the configured granularity are skipped
+ * by the update itself, so frequently active sessions do not churn their rows.
+ * Reaching {@code max-pending} hands an early flush to a background thread; the request
+ * thread never writes. Until that flush drains the buffer, activity for sessions already
+ * pending is merged and activity for new sessions is dropped.
+ */
+@Component
+@RequiredArgsConstructor
+public class SessionActivityCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionActivityCoalescer.class);
+
+    private final UserSessionRepository userSessionRepository;
+
+    private final Map<String, PendingActivity> pendingActivity = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean earlyFlushRequested = new AtomicBoolean();
+
+    private final ExecutorService earlyFlusher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("session-activity-flush").daemon(true).factory());
+
+    @Value("${app.security.session.activity.granularity-seconds:60}")
+    private int granularitySeconds;
+
+    @Value("${app.security.session.activity.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.security.session.activity.max-pending:50000}")
+    private int maxPending;
+
+    /**
+     * Records activity for a session. The most recent activity per session wins;
+     * nothing is written until the next flush.
+     */
+    public void recordActivity(String sessionId, String ipAddress, String userAgent, String location) {
+        if (sessionId == null) {
+            return;
+        }
+        PendingActivity activity = new PendingActivity(LocalDateTime.now(), ipAddress, userAgent, location);
+        if (pendingActivity.size() < maxPending) {
+            pendingActivity.merge(sessionId, activity, PendingActivity::mergeWith);
+        } else if (pendingActivity.computeIfPresent(sessionId, (id, pending) -> pending.mergeWith(activity)) == null) {
+            log.debug("Dropped activity for session {}, {} sessions already pending", sessionId, maxPending);
+        }
+
+        if (pendingActivity.size() >= maxPending) {
+            requestEarlyFlush();
+        }
+    }
+
+    /**
+     * Periodically persists coalesced activity.
+     */
+    @Scheduled(fixedDelayString = "${app.security.session.activity.flush-interval-ms:10000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * Drains all pending activity and writes it in batches.
+     * Entries from a failed batch are put back so they are retried on the next flush.
+     *
+     * @return Number of session rows actually updated
+     */
+    public int flush() {
+        if (pendingActivity.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<String, PendingActivity>> drained = new ArrayList<>();
+        for (String sessionId : pendingActivity.keySet()) {
+            PendingActivity activity = pendingActivity.remove(sessionId);
+            if (activity != null) {
+                drained.add(Map.entry(sessionId, activity));
+            }
+        }
+
+        int updated = 0;
+        for (int from = 0; from < drained.size(); from += batchSize) {
+            List<Map.Entry<String, PendingActivity>> batch = drained.subList(from, Math.min(from + batchSize, drained.size()));
+            try {
+                updated += writeBatch(batch);
+            } catch (Exception e) {
+                log.error("Failed to flush activity for {} sessions, will retry on next flush", batch.size(), e);
+                batch.forEach(entry -> pendingActivity.merge(entry.getKey(), entry.getValue(), PendingActivity::mergeWith));
+            }
+        }
+
+        log.debug("Flushed activity for {} sessions ({} rows updated)", drained.size(), updated);
+        return updated;
+    }
+
+    /**
+     * Gets the number of sessions with activity waiting to be flushed.
+     */
+    public int getPendingCount() {
+        return pendingActivity.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        earlyFlusher.shutdown();
+        log.info("Flushing {} pending session activity entries before shutdown", pendingActivity.size());
+        flush();
+    }
+
+    private void requestEarlyFlush() {
+        if (!earlyFlushRequested.compareAndSet(false, true)) {
+            return;
+        }
+        log.warn("Pending session activity reached {} entries, flushing early", maxPending);
+        try {
+            earlyFlusher.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    earlyFlushRequested.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the shutdown flush picks the activity up
+            earlyFlushRequested.set(false);
+        }
+    }
+
+    private int writeBatch(List<Map.Entry<String, PendingActivity>> batch) {
+        int size = batch.size();
+        String[] sessionIds = new String[size];
+        LocalDateTime[] activityTimes = new LocalDateTime[size];
+        String[] ipAddresses = new String[size];
+        String[] userAgents = new String[size];
+        String[] locations = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            Map.Entry<String, PendingActivity> entry = batch.get(i);
+            PendingActivity activity = entry.getValue();
+            sessionIds[i] = entry.getKey();
+            activityTimes[i] = activity.activityAt();
+            ipAddresses[i] = activity.ipAddress();
+            userAgents[i] = activity.userAgent();
+            locations[i] = activity.location();
+        }
+
+        return userSessionRepository.batchUpdateSessionActivity(
+                sessionIds, activityTimes, ipAddresses, userAgents, locations, granularitySeconds);
+    }
+
+    /**
+     * Latest known activity for a session. Metadata that was not supplied keeps the
+     * previously recorded value.
+     */
+    record PendingActivity(LocalDateTime activityAt, String ipAddress, String userAgent, String location) {
+
+        PendingActivity mergeWith(PendingActivity other) {
+            PendingActivity newer = other.activityAt.isAfter(activityAt) ? other : this;
+            PendingActivity older = newer == this ? other : this;
+            return new PendingActivity(
+                    newer.activityAt,
+                    newer.ipAddress != null ? newer.ipAddress : older.ipAddress,
+                    newer.userAgent != null ? newer.userAgent : older.userAgent,
+                    newer.location != null ? newer.location : older.location);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.cloudsuites.framework.modules.jwt;
+
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers RFC 7662 token introspection queries for other services.
+ *
+ * A token is active if its signature verifies, it has not expired and neither its JTI nor its
+ * session has been revoked. Verification goes through {@link VerifiedTokenCache} and revocation
+ * through {@link TokenRevocationIndex}, the same paths the request filter uses, so a token
+ * already seen by this node is answered without any cryptography or I/O.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenIntrospector {
+
+    public static final String ACTIVE = "active";
+
+    private static final Map<String, Object> INACTIVE = Map.of(ACTIVE, false);
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationIndex tokenRevocationIndex;
+
+    /**
+     * Introspects one token. Inactive tokens reveal nothing beyond {@code active: false}.
+     */
+    public Map<String, Object> introspect(String token) {
+        Claims claims = verifiedTokenCache.verify(token);
+        if (claims == null || isRevoked(claims)) {
+            return INACTIVE;
+        }
+        return toResponse(claims);
+    }
+
+    /**
+     * Introspects a batch of tokens, answering in request order. Repeated tokens are checked once.
+     */
+    public List<Map<String, Object>> introspect(List<String> tokens) {
+        Map<String, Map<String, Object>> answered = new HashMap<>();
+        List<Map<String, Object>> responses = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            responses.add(token == null ? INACTIVE : answered.computeIfAbsent(token, this::introspect));
+        }
+        return responses;
+    }
+
+    private boolean isRevoked(Claims claims) {
+        String sessionId = claims.get(JwtTokenProvider.CLAIM_SESSION_ID, String.class);
+        if ("refresh".equals(claims.get(JwtTokenProvider.CLAIM_TOKEN_TYPE, String.class))) {
+            return tokenRevocationIndex.isSessionRevoked(sessionId);
+        }
+        return tokenRevocationIndex.isAccessTokenRevoked(claims.getId(), sessionId);
+    }
+
+    private static Map<String, Object> toResponse(Claims claims) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put(ACTIVE, true);
+        response.put("token_type", claims.get(JwtTokenProvider.CLAIM_TOKEN_TYPE, String.class));
+        claims.forEach((name, value) -> {
+            if (value instanceof Date date) {
+                // exp, iat and nbf are NumericDate seconds on the wire
+                response.put(name, date.getTime() / 1000);
+            } else if (value instanceof Collection<?> values && values.size() == 1 && Claims.AUDIENCE.equals(name)) {
+                response.put(name, values.iterator().next());
+            } else {
+                response.put(name, value);
+            }
+        });
+        return response;
+    }
+}
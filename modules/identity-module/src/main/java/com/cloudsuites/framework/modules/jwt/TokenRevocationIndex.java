@@ -0,0 +1,213 @@
+package com.cloudsuites.framework.modules.jwt;
+
+import com.cloudsuites.framework.modules.common.utils.BloomFilter;
+import com.cloudsuites.framework.modules.user.repository.UserSessionRepository;
+import com.cloudsuites.framework.modules.user.repository.UserSessionRepository.RevokedSessionView;
+import com.cloudsuites.framework.services.user.entities.UserSession;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory index of revoked session IDs and access token JTIs.
+ *
+ * Revocations are kept in Bloom filters bucketed by the expiry time of the revoked
+ * credential, so a whole bucket can be dropped once everything in it has expired anyway.
+ * A negative answer ("definitely not revoked") needs no I/O; only possible hits are
+ * confirmed against user_sessions. The index is rebuilt from the database at startup
+ * and answers "possibly revoked" for everything until that rebuild has succeeded.
+ * Sessions revoked since the last load, including those revoked on other nodes, are
+ * picked up by a periodic delta reload.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationIndex.class);
+
+    private final UserSessionRepository userSessionRepository;
+
+    private final ConcurrentSkipListMap<Long, BloomFilter> buckets = new ConcurrentSkipListMap<>();
+
+    private volatile boolean ready = false;
+
+    // Database time of the last successful load; the next delta reload starts from here
+    private volatile LocalDateTime loadedUpTo;
+
+    @Value("${app.security.revocation.bucket-hours:24}")
+    private int bucketHours;
+
+    @Value("${app.security.revocation.expected-per-bucket:10000}")
+    private int expectedPerBucket;
+
+    @Value("${app.security.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    // Each delta reload looks back this far before the previous one, to cover clock skew between
+    // nodes and revocations committed while the previous reload was running
+    @Value("${app.security.revocation.refresh-overlap-ms:5000}")
+    private long refreshOverlapMs = 5000;
+
+    /**
+     * Loads all revoked, not yet expired sessions into the index.
+     */
+    @PostConstruct
+    public void rebuild() {
+        try {
+            buckets.clear();
+            LocalDateTime now = LocalDateTime.now();
+            List<RevokedSessionView> revoked = userSessionRepository.findRevokedUnexpiredSessions(now);
+            revoked.forEach(this::recordRevocation);
+            loadedUpTo = now;
+            ready = true;
+            log.info("Token revocation index rebuilt with {} revoked sessions in {} buckets", revoked.size(), buckets.size());
+        } catch (Exception e) {
+            ready = false;
+            log.error("Failed to rebuild token revocation index, falling back to database checks", e);
+        }
+    }
+
+    /**
+     * Adds sessions revoked since the last load, so revocations made on other nodes take effect
+     * here within one refresh interval. Falls back to a full rebuild while the index is not ready.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-interval-ms:30000}")
+    public void refreshRecentRevocations() {
+        if (!ready) {
+            rebuild();
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime since = loadedUpTo.minusNanos(refreshOverlapMs * 1_000_000);
+            List<RevokedSessionView> revoked = userSessionRepository.findSessionsRevokedSince(since, now);
+            revoked.forEach(this::recordRevocation);
+            loadedUpTo = now;
+            if (!revoked.isEmpty()) {
+                log.debug("Added {} recently revoked sessions to the token revocation index", revoked.size());
+            }
+        } catch (Exception e) {
+            // Keep answering from the current index and retry from the same point next time
+            log.warn("Failed to load recent revocations into the token revocation index", e);
+        }
+    }
+
+    /**
+     * Records a revoked session and its current access token JTI.
+     */
+    public void recordRevocation(RevokedSessionView session) {
+        revoke(session.getSessionId(), session.getExpiresAt());
+        revoke(session.getAccessTokenJti(), session.getExpiresAt());
+    }
+
+    /**
+     * Marks an identifier as revoked until the given expiry.
+     */
+    public void revoke(String id, LocalDateTime expiresAt) {
+        if (id == null) {
+            return;
+        }
+        LocalDateTime expiry = expiresAt != null ? expiresAt : LocalDateTime.now().plusHours(bucketHours);
+        buckets.computeIfAbsent(bucketOf(expiry), key -> new BloomFilter(expectedPerBucket, falsePositiveRate)).put(id);
+    }
+
+    /**
+     * Returns false only if the identifier was definitely never revoked (or has expired).
+     */
+    public boolean mightBeRevoked(String id) {
+        if (!ready) {
+            return true;
+        }
+        if (id == null || buckets.isEmpty()) {
+            return false;
+        }
+        long[] hash = BloomFilter.hash(id);
+        for (BloomFilter filter : liveBuckets().values()) {
+            if (filter.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether an access token has been revoked, either directly by JTI or through its session.
+     * Only consults the database when the filter reports a possible hit.
+     */
+    public boolean isAccessTokenRevoked(String jti, String sessionId) {
+        boolean jtiCandidate = jti != null && mightBeRevoked(jti);
+        boolean sessionCandidate = sessionId != null && mightBeRevoked(sessionId);
+        if (!jtiCandidate && !sessionCandidate) {
+            return false;
+        }
+
+        if (jtiCandidate) {
+            Optional<UserSession> byJti = userSessionRepository.findByAccessTokenJti(jti);
+            if (byJti.isPresent() && !byJti.get().isActive()) {
+                return true;
+            }
+        }
+        return sessionCandidate && isInactive(sessionId);
+    }
+
+    /**
+     * Checks whether a session has been revoked. Only consults the database on a possible hit.
+     */
+    public boolean isSessionRevoked(String sessionId) {
+        return sessionId != null && mightBeRevoked(sessionId) && isInactive(sessionId);
+    }
+
+    /**
+     * Drops buckets whose revoked credentials have all expired, and retries a failed startup rebuild.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.eviction-interval-ms:3600000}")
+    public void evictExpiredBuckets() {
+        if (!ready) {
+            rebuild();
+        }
+        ConcurrentNavigableMap<Long, BloomFilter> expired = buckets.headMap(currentBucket());
+        int evicted = expired.size();
+        expired.clear();
+        if (evicted > 0) {
+            log.debug("Evicted {} expired revocation buckets", evicted);
+        }
+    }
+
+    /**
+     * Gets the number of live revocation buckets.
+     */
+    public int getBucketCount() {
+        return buckets.size();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private boolean isInactive(String sessionId) {
+        return userSessionRepository.findById(sessionId).map(session -> !session.isActive()).orElse(false);
+    }
+
+    private ConcurrentNavigableMap<Long, BloomFilter> liveBuckets() {
+        return buckets.tailMap(currentBucket(), true);
+    }
+
+    private long currentBucket() {
+        return bucketOf(LocalDateTime.now());
+    }
+
+    private long bucketOf(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / (bucketHours * 3600L);
+    }
+}
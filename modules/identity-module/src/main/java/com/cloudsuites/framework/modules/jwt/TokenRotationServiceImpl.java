@@ -26,6 +26,7 @@ public class TokenRotationServiceImpl implements TokenRotationService {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationIndex tokenRevocationIndex;
 
     @Value("${app.security.jwt.access-token.expiration-minutes:15}")
     private int accessTokenExpirationMinutes;
@@ -86,6 +87,7 @@ public class TokenRotationServiceImpl implements TokenRotationService {
         Optional<UserSession> sessionOpt = refreshTokenService.validateRefreshToken(refreshToken);
         if (sessionOpt.isEmpty()) {
             log.warn("Token rotation failed: invalid refresh token");
+            handlePossibleTokenReuse(refreshToken);
             throw new IllegalArgumentException("Invalid refresh token");
         }
         
@@ -166,6 +168,25 @@ public class TokenRotationServiceImpl implements TokenRotationService {
         return jwtTokenProvider.generateAccessToken(userId, customClaims);
     }
 
+    /**
+     * A correctly signed refresh token that no longer matches its session was either already
+     * rotated or stolen. Unless the session is already known to be revoked, revoke it so the
+     * legitimate holder and the attacker both have to re-authenticate.
+     */
+    private void handlePossibleTokenReuse(String refreshToken) {
+        String sessionId;
+        try {
+            sessionId = jwtTokenProvider.extractSessionId(refreshToken);
+        } catch (Exception e) {
+            return;
+        }
+        if (sessionId == null || tokenRevocationIndex.isSessionRevoked(sessionId)) {
+            return;
+        }
+        log.warn("Refresh token reuse detected for session: {}, revoking session", sessionId);
+        refreshTokenService.revokeSessionById(sessionId);
+    }
+
     /**
      * Generates a refresh token.
      */
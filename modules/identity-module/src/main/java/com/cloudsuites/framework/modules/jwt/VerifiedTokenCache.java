@@ -0,0 +1,124 @@
+package com.cloudsuites.framework.modules.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of tokens whose signature has already been verified, mapped to their claims.
+ *
+ * RSA verification dominates the cost of authenticating a request, and the same access token
+ * is presented many times during its short lifetime. A verified token is kept until its own
+ * expiry, so a cached entry can never outlive the token. Only valid tokens are cached, so
+ * garbage tokens cannot fill the cache. Revocation is not cached here; callers check
+ * {@link TokenRevocationIndex} on every use.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger log = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private record CachedClaims(Claims claims, long expiresAtMillis) {
+    }
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    private final ConcurrentHashMap<String, CachedClaims> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.jwt.verified-cache.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    public VerifiedTokenCache(JwtTokenProvider jwtTokenProvider) {
+        this.jwtTokenProvider = jwtTokenProvider;
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        Gauge.builder("cloudsuites.jwt.verified.cache.entries", entries, ConcurrentHashMap::size)
+                .description("Verified tokens currently cached")
+                .register(meterRegistry);
+        FunctionCounter.builder("cloudsuites.jwt.verified.cache.requests", hits, LongAdder::sum)
+                .description("Token verifications by cache result")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cloudsuites.jwt.verified.cache.requests", misses, LongAdder::sum)
+                .description("Token verifications by cache result")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the claims of a token with a valid signature that has not expired, or null.
+     */
+    public Claims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        CachedClaims cached = entries.get(token);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                hits.increment();
+                return cached.claims();
+            }
+            entries.remove(token, cached);
+        }
+        misses.increment();
+
+        Claims claims;
+        try {
+            claims = jwtTokenProvider.extractAllClaims(token);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        Date expiration = claims.getExpiration();
+        if (expiration == null || expiration.getTime() <= now) {
+            return null;
+        }
+        if (entries.size() >= maxEntries) {
+            purgeExpired();
+        }
+        if (entries.size() < maxEntries) {
+            entries.put(token, new CachedClaims(claims, expiration.getTime()));
+        }
+        return claims;
+    }
+
+    /**
+     * Drops cached tokens that have expired.
+     */
+    @Scheduled(fixedDelayString = "${app.security.jwt.verified-cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int before = entries.size();
+        entries.values().removeIf(cached -> cached.expiresAtMillis() <= now);
+        int purged = before - entries.size();
+        if (purged > 0) {
+            log.debug("Purged {} expired tokens from the verified token cache", purged);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -15,6 +15,17 @@ import java.util.Optional;
 @Repository
 public interface UserSessionRepository extends JpaRepository<UserSession, String> {
 
+    /**
+     * Identifiers of a revoked session, as needed by the revocation index.
+     */
+    interface RevokedSessionView {
+        String getSessionId();
+
+        String getAccessTokenJti();
+
+        LocalDateTime getExpiresAt();
+    }
+
     Optional<UserSession> findByRefreshTokenHashAndActive(String refreshTokenHash, Boolean active);
 
     List<UserSession> findByUserIdAndActive(String userId, Boolean active);
@@ -68,4 +79,112 @@ public interface UserSessionRepository extends JpaRepository<UserSession, String
 
     @Query("SELECT s FROM UserSession s WHERE s.userId = :userId AND s.deviceFingerprint = :deviceFingerprint AND s.active = true")
     List<UserSession> findActiveSessionsByUserIdAndDeviceFingerprint(@Param("userId") String userId, @Param("deviceFingerprint") String deviceFingerprint);
+
+    /**
+     * Applies coalesced session activity in a single statement. Rows are only touched when the
+     * persisted activity is older than the granularity window or the client IP has changed.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE user_sessions s
+            SET last_activity_at = v.activity_at,
+                ip_address = COALESCE(v.ip_address, s.ip_address),
+                user_agent = COALESCE(v.user_agent, s.user_agent),
+                location = COALESCE(v.location, s.location)
+            FROM UNNEST(CAST(:sessionIds AS varchar[]), CAST(:activityTimes AS timestamp[]),
+                        CAST(:ipAddresses AS varchar[]), CAST(:userAgents AS text[]), CAST(:locations AS varchar[]))
+                 AS v(session_id, activity_at, ip_address, user_agent, location)
+            WHERE s.session_id = v.session_id
+              AND s.is_active = TRUE
+              AND (s.last_activity_at < v.activity_at - make_interval(secs => :granularitySeconds)
+                   OR (v.ip_address IS NOT NULL AND s.ip_address IS DISTINCT FROM v.ip_address))
+            """, nativeQuery = true)
+    int batchUpdateSessionActivity(@Param("sessionIds") String[] sessionIds,
+                                   @Param("activityTimes") LocalDateTime[] activityTimes,
+                                   @Param("ipAddresses") String[] ipAddresses,
+                                   @Param("userAgents") String[] userAgents,
+                                   @Param("locations") String[] locations,
+                                   @Param("granularitySeconds") int granularitySeconds);
+
+    @Transactional
+    @Query(value = """
+            UPDATE user_sessions SET is_active = FALSE, last_modified_at = :updatedAt
+            WHERE refresh_token_hash = :tokenHash AND is_active = TRUE
+            RETURNING session_id AS "sessionId", access_token_jti AS "accessTokenJti", expires_at AS "expiresAt"
+            """, nativeQuery = true)
+    List<RevokedSessionView> revokeSessionByRefreshTokenHash(@Param("tokenHash") String tokenHash, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Transactional
+    @Query(value = """
+            UPDATE user_sessions SET is_active = FALSE, last_modified_at = :updatedAt
+            WHERE user_id = :userId AND is_active = TRUE
+            RETURNING session_id AS "sessionId", access_token_jti AS "accessTokenJti", expires_at AS "expiresAt"
+            """, nativeQuery = true)
+    List<RevokedSessionView> revokeAllUserSessions(@Param("userId") String userId, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Transactional
+    @Query(value = """
+            UPDATE user_sessions SET is_active = FALSE, last_modified_at = :updatedAt
+            WHERE session_id = :sessionId
+            RETURNING session_id AS "sessionId", access_token_jti AS "accessTokenJti", expires_at AS "expiresAt"
+            """, nativeQuery = true)
+    List<RevokedSessionView> revokeSession(@Param("sessionId") String sessionId, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT s.sessionId AS sessionId, s.accessTokenJti AS accessTokenJti, s.expiresAt AS expiresAt " +
+           "FROM UserSession s WHERE s.active = false AND s.expiresAt > :currentTime")
+    List<RevokedSessionView> findRevokedUnexpiredSessions(@Param("currentTime") LocalDateTime currentTime);
+
+    @Query("SELECT s.sessionId AS sessionId, s.accessTokenJti AS accessTokenJti, s.expiresAt AS expiresAt " +
+           "FROM UserSession s WHERE s.active = false AND s.lastModifiedAt >= :since AND s.expiresAt > :currentTime")
+    List<RevokedSessionView> findSessionsRevokedSince(@Param("since") LocalDateTime since,
+                                                      @Param("currentTime") LocalDateTime currentTime);
+
+    /**
+     * Serializes session creation per user until the end of the current transaction, so the
+     * following cap statement sees every concurrently committed session of that user.
+     */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(hashtextextended(:userId, 0))) AS user_lock",
+           nativeQuery = true)
+    long lockUserSessions(@Param("userId") String userId);
+
+    /**
+     * Inserts a new active session and, in the same statement, revokes every active session of the
+     * user beyond the {@code maxSessions - 1} most recently active ones. Returns the revoked sessions.
+     */
+    @Transactional
+    @Query(value = """
+            WITH inserted AS (
+                INSERT INTO user_sessions (session_id, user_id, refresh_token_hash, device_fingerprint, device_name,
+                                           device_type, user_agent, ip_address, location, is_trusted_device, is_active,
+                                           last_activity_at, expires_at, created_at, created_by)
+                VALUES (:sessionId, :userId, :refreshTokenHash, :deviceFingerprint, :deviceName,
+                        :deviceType, :userAgent, :ipAddress, :location, :trusted, TRUE,
+                        :now, :expiresAt, :now, :userId)
+                RETURNING session_id
+            ), evicted AS (
+                UPDATE user_sessions SET is_active = FALSE, last_modified_at = :now
+                WHERE session_id IN (
+                    SELECT session_id FROM user_sessions
+                    WHERE user_id = :userId AND is_active = TRUE
+                    ORDER BY last_activity_at DESC, session_id DESC
+                    OFFSET GREATEST(:maxSessions - 1, 0))
+                RETURNING session_id, access_token_jti, expires_at
+            )
+            SELECT session_id AS "sessionId", access_token_jti AS "accessTokenJti", expires_at AS "expiresAt"
+            FROM evicted
+            """, nativeQuery = true)
+    List<RevokedSessionView> insertSessionEnforcingCap(@Param("sessionId") String sessionId,
+                                                       @Param("userId") String userId,
+                                                       @Param("refreshTokenHash") String refreshTokenHash,
+                                                       @Param("deviceFingerprint") String deviceFingerprint,
+                                                       @Param("deviceName") String deviceName,
+                                                       @Param("deviceType") String deviceType,
+                                                       @Param("userAgent") String userAgent,
+                                                       @Param("ipAddress") String ipAddress,
+                                                       @Param("location") String location,
+                                                       @Param("trusted") boolean trusted,
+                                                       @Param("now") LocalDateTime now,
+                                                       @Param("expiresAt") LocalDateTime expiresAt,
+                                                       @Param("maxSessions") int maxSessions);
 }
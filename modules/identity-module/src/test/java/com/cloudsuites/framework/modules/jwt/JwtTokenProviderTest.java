@@ -1,5 +1,7 @@
 package com.cloudsuites.framework.modules.jwt;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -153,6 +155,24 @@ class JwtTokenProviderTest {
         System.out.println("✅ Refresh Token Generation Test Passed");
     }
 
+    @Test
+    @SuppressWarnings("deprecation")
+    void testBuilderTokensCarryJtiAndSession() {
+        // Tokens built by callers still need a JTI and session ID for revocation checks
+        String first = jwtTokenProvider.generateToken(Jwts.builder().subject("ADMIN-1")
+                .claim(JwtTokenProvider.CLAIM_SESSION_ID, "SESSION-1"));
+        String second = jwtTokenProvider.generateRefreshToken(Jwts.builder().subject("ADMIN-1")
+                .claim(JwtTokenProvider.CLAIM_SESSION_ID, "SESSION-1"));
+
+        Claims firstClaims = jwtTokenProvider.extractAllClaims(first);
+        Claims secondClaims = jwtTokenProvider.extractAllClaims(second);
+        assertNotNull(firstClaims.getId());
+        assertNotNull(secondClaims.getId());
+        assertNotEquals(firstClaims.getId(), secondClaims.getId());
+        assertEquals("SESSION-1", jwtTokenProvider.extractSessionId(first));
+        assertEquals("SESSION-1", jwtTokenProvider.extractSessionId(second));
+    }
+
     @Test
     void testTokenValidation() {
         // Test token validation
@@ -1,6 +1,7 @@
 package com.cloudsuites.framework.modules.jwt;
 
 import com.cloudsuites.framework.modules.user.repository.UserSessionRepository;
+import com.cloudsuites.framework.modules.user.repository.UserSessionRepository.RevokedSessionView;
 import com.cloudsuites.framework.services.common.exception.ValidationException;
 import com.cloudsuites.framework.services.user.entities.DeviceType;
 import com.cloudsuites.framework.services.user.entities.UserSession;
@@ -26,6 +27,12 @@ class RefreshTokenServiceTest {
     @Mock
     private UserSessionRepository userSessionRepository;
 
+    @Mock
+    private SessionActivityCoalescer sessionActivityCoalescer;
+
+    @Mock
+    private TokenRevocationIndex tokenRevocationIndex;
+
     @InjectMocks
     private RefreshTokenServiceImpl refreshTokenService;
 
@@ -50,9 +57,8 @@ class RefreshTokenServiceTest {
 
     @Test
     void testCreateRefreshToken_SuccessfulCreation() {
-        when(userSessionRepository.countActiveSessionsByUserId(TEST_USER_ID)).thenReturn(5L);
-        UserSession expectedSession = createTestUserSession();
-        when(userSessionRepository.save(any(UserSession.class))).thenReturn(expectedSession);
+        when(userSessionRepository.insertSessionEnforcingCap(anyString(), eq(TEST_USER_ID), anyString(), any(), any(),
+                any(), any(), any(), any(), anyBoolean(), any(), any(), anyInt())).thenReturn(List.of());
 
         UserSession result = refreshTokenService.createRefreshToken(
                 TEST_USER_ID, TEST_DEVICE_FINGERPRINT, TEST_DEVICE_NAME,
@@ -66,17 +72,38 @@ class RefreshTokenServiceTest {
         assertEquals(DeviceType.DESKTOP, result.getDeviceType());
         assertTrue(result.isActive());
         assertFalse(result.getIsTrustedDevice());
+        assertTrue(result.getSessionId().startsWith("SES-"));
+
+        // Cap is enforced by the insert statement itself, after taking the per-user lock
+        var inOrder = inOrder(userSessionRepository);
+        inOrder.verify(userSessionRepository).lockUserSessions(TEST_USER_ID);
+        inOrder.verify(userSessionRepository).insertSessionEnforcingCap(eq(result.getSessionId()), eq(TEST_USER_ID),
+                anyString(), eq(TEST_DEVICE_FINGERPRINT), eq(TEST_DEVICE_NAME), eq("DESKTOP"), eq(TEST_USER_AGENT),
+                eq(TEST_IP_ADDRESS), eq(TEST_LOCATION), eq(false), any(LocalDateTime.class), any(LocalDateTime.class), eq(10));
+        verify(userSessionRepository, never()).countActiveSessionsByUserId(anyString());
+        verify(userSessionRepository, never()).save(any(UserSession.class));
+        verifyNoInteractions(tokenRevocationIndex);
+    }
+
+    @Test
+    void testCreateRefreshToken_CapExceeded_RecordsEvictedSessions() {
+        RevokedSessionView evicted = mock(RevokedSessionView.class);
+        when(userSessionRepository.insertSessionEnforcingCap(anyString(), eq(TEST_USER_ID), anyString(), any(), any(),
+                any(), any(), any(), any(), anyBoolean(), any(), any(), eq(10))).thenReturn(List.of(evicted));
+
+        UserSession result = refreshTokenService.createRefreshToken(
+                TEST_USER_ID, TEST_DEVICE_FINGERPRINT, TEST_DEVICE_NAME,
+                DeviceType.WEB, TEST_USER_AGENT, TEST_IP_ADDRESS, TEST_LOCATION, false
+        );
 
-        verify(userSessionRepository).countActiveSessionsByUserId(TEST_USER_ID);
-        verify(userSessionRepository).save(any(UserSession.class));
+        assertNotNull(result);
+        verify(tokenRevocationIndex).recordRevocation(evicted);
     }
 
     @Test
     void testCreateRefreshToken_TrustedDevice_ExtendsExpiration() {
-        when(userSessionRepository.countActiveSessionsByUserId(TEST_USER_ID)).thenReturn(3L);
-        UserSession expectedSession = createTestUserSession();
-        expectedSession.setIsTrustedDevice(true);
-        when(userSessionRepository.save(any(UserSession.class))).thenReturn(expectedSession);
+        when(userSessionRepository.insertSessionEnforcingCap(anyString(), eq(TEST_USER_ID), anyString(), any(), any(),
+                any(), any(), any(), any(), eq(true), any(), any(), anyInt())).thenReturn(List.of());
 
         UserSession result = refreshTokenService.createRefreshToken(
                 TEST_USER_ID, TEST_DEVICE_FINGERPRINT, TEST_DEVICE_NAME,
@@ -85,7 +112,7 @@ class RefreshTokenServiceTest {
 
         assertNotNull(result);
         assertTrue(result.getIsTrustedDevice());
-        verify(userSessionRepository).save(any(UserSession.class));
+        assertTrue(result.getExpiresAt().isAfter(LocalDateTime.now().plusDays(300)));
     }
 
     @Test
@@ -181,14 +208,16 @@ class RefreshTokenServiceTest {
 
     @Test
     void testRevokeRefreshToken_Success() {
-        // Service now issues a direct UPDATE via repository
-        when(userSessionRepository.deactivateSessionByRefreshToken(anyString(), any(LocalDateTime.class)))
-                .thenReturn(1);
+        // Service now issues a direct UPDATE ... RETURNING via repository
+        RevokedSessionView revokedSession = mock(RevokedSessionView.class);
+        when(userSessionRepository.revokeSessionByRefreshTokenHash(anyString(), any(LocalDateTime.class)))
+                .thenReturn(List.of(revokedSession));
 
         boolean result = refreshTokenService.revokeRefreshToken(TEST_REFRESH_TOKEN);
 
         assertTrue(result);
-        verify(userSessionRepository).deactivateSessionByRefreshToken(anyString(), any(LocalDateTime.class));
+        verify(userSessionRepository).revokeSessionByRefreshTokenHash(anyString(), any(LocalDateTime.class));
+        verify(tokenRevocationIndex).recordRevocation(revokedSession);
         // no entity load/save anymore
         verify(userSessionRepository, never()).findByRefreshTokenHashAndActive(anyString(), anyBoolean());
         verify(userSessionRepository, never()).save(any());
@@ -196,25 +225,29 @@ class RefreshTokenServiceTest {
 
     @Test
     void testRevokeRefreshToken_TokenNotFound() {
-        when(userSessionRepository.deactivateSessionByRefreshToken(anyString(), any(LocalDateTime.class)))
-                .thenReturn(0);
+        when(userSessionRepository.revokeSessionByRefreshTokenHash(anyString(), any(LocalDateTime.class)))
+                .thenReturn(List.of());
 
         boolean result = refreshTokenService.revokeRefreshToken(TEST_REFRESH_TOKEN);
 
         assertFalse(result);
-        verify(userSessionRepository).deactivateSessionByRefreshToken(anyString(), any(LocalDateTime.class));
+        verify(userSessionRepository).revokeSessionByRefreshTokenHash(anyString(), any(LocalDateTime.class));
+        verifyNoInteractions(tokenRevocationIndex);
         verify(userSessionRepository, never()).save(any());
     }
 
     @Test
     void testRevokeAllUserTokens() {
-        when(userSessionRepository.deactivateAllUserSessions(eq(TEST_USER_ID), any(LocalDateTime.class)))
-                .thenReturn(3);
+        List<RevokedSessionView> revokedSessions = List.of(
+                mock(RevokedSessionView.class), mock(RevokedSessionView.class), mock(RevokedSessionView.class));
+        when(userSessionRepository.revokeAllUserSessions(eq(TEST_USER_ID), any(LocalDateTime.class)))
+                .thenReturn(revokedSessions);
 
         int result = refreshTokenService.revokeAllUserTokens(TEST_USER_ID);
 
         assertEquals(3, result);
-        verify(userSessionRepository).deactivateAllUserSessions(eq(TEST_USER_ID), any(LocalDateTime.class));
+        verify(userSessionRepository).revokeAllUserSessions(eq(TEST_USER_ID), any(LocalDateTime.class));
+        revokedSessions.forEach(revoked -> verify(tokenRevocationIndex).recordRevocation(revoked));
     }
 
     @Test
@@ -241,6 +274,14 @@ class RefreshTokenServiceTest {
         verify(userSessionRepository).findByAccessTokenJti(TEST_ACCESS_TOKEN_JTI);
     }
 
+    @Test
+    void testUpdateSessionActivity_IsWriteBehind() {
+        refreshTokenService.updateSessionActivity(TEST_SESSION_ID, TEST_IP_ADDRESS, TEST_USER_AGENT, TEST_LOCATION);
+
+        verify(sessionActivityCoalescer).recordActivity(TEST_SESSION_ID, TEST_IP_ADDRESS, TEST_USER_AGENT, TEST_LOCATION);
+        verifyNoInteractions(userSessionRepository);
+    }
+
     @Test
     void testTokenHashGeneration_ConsistentHashing() {
         UserSession session = createTestUserSession();
@@ -261,18 +302,18 @@ class RefreshTokenServiceTest {
 @Test
 void testRefreshTokenLifecycle_CreateRotateValidateRevoke() {
     // Setup
-    UserSession createdSession = createTestUserSession();
     UserSession rotatedSession = createTestUserSession();
     String newRefreshToken = "new-refresh-token-456";
 
-    // 1) Create
-    when(userSessionRepository.countActiveSessionsByUserId(TEST_USER_ID)).thenReturn(5L);
-    when(userSessionRepository.save(any(UserSession.class))).thenReturn(createdSession);
+    // 1) Create (single insert statement, no save)
+    when(userSessionRepository.insertSessionEnforcingCap(anyString(), eq(TEST_USER_ID), anyString(), any(), any(),
+            any(), any(), any(), any(), anyBoolean(), any(), any(), anyInt())).thenReturn(List.of());
     UserSession created = refreshTokenService.createRefreshToken(
             TEST_USER_ID, TEST_DEVICE_FINGERPRINT, TEST_DEVICE_NAME,
             DeviceType.DESKTOP, TEST_USER_AGENT, TEST_IP_ADDRESS, TEST_LOCATION, false
     );
     assertNotNull(created);
+    UserSession createdSession = created;
 
     // 2) Rotate (find active + save)
     createdSession.setExpiresAt(LocalDateTime.now().plusDays(30));
@@ -292,20 +333,20 @@ void testRefreshTokenLifecycle_CreateRotateValidateRevoke() {
     assertTrue(validated.isPresent());
 
     // 4) Revoke refresh token - direct update (no save)
-    when(userSessionRepository.deactivateSessionByRefreshToken(anyString(), any(LocalDateTime.class)))
-            .thenReturn(1);
+    when(userSessionRepository.revokeSessionByRefreshTokenHash(anyString(), any(LocalDateTime.class)))
+            .thenReturn(List.of(mock(RevokedSessionView.class)));
 
     boolean revoked = refreshTokenService.revokeRefreshToken(newRefreshToken);
     assertTrue(revoked);
 
     // Verify interactions:
-    // - 2 saves total: create + rotate
-    verify(userSessionRepository, times(2)).save(any(UserSession.class));
+    // - 1 save total: rotate (create goes through the cap-enforcing insert)
+    verify(userSessionRepository, times(1)).save(any(UserSession.class));
     // - validation did one lookup
     verify(userSessionRepository, atLeast(1)).findByRefreshTokenHashAndActive(anyString(), eq(true));
     // - revoke used the bulk update method (no save)
     verify(userSessionRepository, times(1))
-            .deactivateSessionByRefreshToken(anyString(), any(LocalDateTime.class));
+            .revokeSessionByRefreshTokenHash(anyString(), any(LocalDateTime.class));
 }
 
     private UserSession createTestUserSession() {
@@ -0,0 +1,140 @@
+package com.cloudsuites.framework.modules.jwt;
+
+import com.cloudsuites.framework.modules.user.repository.UserSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionActivityCoalescerTest {
+
+    @Mock
+    private UserSessionRepository userSessionRepository;
+
+    @InjectMocks
+    private SessionActivityCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        // match @Value defaults in impl
+        ReflectionTestUtils.setField(coalescer, "granularitySeconds", 60);
+        ReflectionTestUtils.setField(coalescer, "batchSize", 2);
+        ReflectionTestUtils.setField(coalescer, "maxPending", 50000);
+    }
+
+    @Test
+    void testFlush_CoalescesRepeatedActivityPerSession() {
+        coalescer.recordActivity("SES-1", "10.0.0.1", "agent", "Toronto");
+        coalescer.recordActivity("SES-1", "10.0.0.2", null, null);
+        when(userSessionRepository.batchUpdateSessionActivity(any(), any(), any(), any(), any(), eq(60))).thenReturn(1);
+
+        int updated = coalescer.flush();
+
+        ArgumentCaptor<String[]> ids = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<String[]> ips = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<String[]> agents = ArgumentCaptor.forClass(String[].class);
+        verify(userSessionRepository).batchUpdateSessionActivity(
+                ids.capture(), any(LocalDateTime[].class), ips.capture(), agents.capture(), any(), eq(60));
+        assertEquals(1, updated);
+        assertArrayEquals(new String[]{"SES-1"}, ids.getValue());
+        assertArrayEquals(new String[]{"10.0.0.2"}, ips.getValue());
+        assertArrayEquals(new String[]{"agent"}, agents.getValue());
+        assertEquals(0, coalescer.getPendingCount());
+    }
+
+    @Test
+    void testFlush_SplitsIntoBatches() {
+        coalescer.recordActivity("SES-1", "10.0.0.1", null, null);
+        coalescer.recordActivity("SES-2", "10.0.0.1", null, null);
+        coalescer.recordActivity("SES-3", "10.0.0.1", null, null);
+        when(userSessionRepository.batchUpdateSessionActivity(any(), any(), any(), any(), any(), anyInt())).thenReturn(1);
+
+        coalescer.flush();
+
+        verify(userSessionRepository, times(2)).batchUpdateSessionActivity(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testFlush_NothingPending_NoWrite() {
+        assertEquals(0, coalescer.flush());
+        verifyNoInteractions(userSessionRepository);
+    }
+
+    @Test
+    void testFlush_FailedBatchIsRetained() {
+        coalescer.recordActivity("SES-1", "10.0.0.1", null, null);
+        when(userSessionRepository.batchUpdateSessionActivity(any(), any(), any(), any(), any(), anyInt()))
+                .thenThrow(new RuntimeException("database unavailable"));
+
+        coalescer.flush();
+
+        assertEquals(1, coalescer.getPendingCount());
+    }
+
+    @Test
+    void testMaxPending_FlushesOffTheCallingThread() {
+        ReflectionTestUtils.setField(coalescer, "maxPending", 2);
+        AtomicReference<String> flushThread = new AtomicReference<>();
+        when(userSessionRepository.batchUpdateSessionActivity(any(), any(), any(), any(), any(), anyInt()))
+                .thenAnswer(invocation -> {
+                    flushThread.set(Thread.currentThread().getName());
+                    return 2;
+                });
+
+        coalescer.recordActivity("SES-1", "10.0.0.1", null, null);
+        coalescer.recordActivity("SES-2", "10.0.0.1", null, null);
+
+        verify(userSessionRepository, timeout(2000)).batchUpdateSessionActivity(any(), any(), any(), any(), any(), anyInt());
+        assertEquals("session-activity-flush", flushThread.get());
+    }
+
+    @Test
+    void testMaxPending_MergesPendingSessionsAndDropsNewOnes() {
+        ReflectionTestUtils.setField(coalescer, "maxPending", 2);
+        // An early flush is already under way
+        ReflectionTestUtils.setField(coalescer, "earlyFlushRequested", new AtomicBoolean(true));
+
+        coalescer.recordActivity("SES-1", "10.0.0.1", null, null);
+        coalescer.recordActivity("SES-2", "10.0.0.1", null, null);
+        coalescer.recordActivity("SES-3", "10.0.0.1", null, null);
+        coalescer.recordActivity("SES-1", "10.0.0.9", null, null);
+
+        assertEquals(2, coalescer.getPendingCount());
+        verifyNoInteractions(userSessionRepository);
+
+        when(userSessionRepository.batchUpdateSessionActivity(any(), any(), any(), any(), any(), anyInt())).thenReturn(2);
+        ReflectionTestUtils.setField(coalescer, "batchSize", 10);
+        coalescer.flush();
+
+        ArgumentCaptor<String[]> ids = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<String[]> ips = ArgumentCaptor.forClass(String[].class);
+        verify(userSessionRepository).batchUpdateSessionActivity(
+                ids.capture(), any(LocalDateTime[].class), ips.capture(), any(), any(), anyInt());
+        assertEquals("10.0.0.9", ips.getValue()[Arrays.asList(ids.getValue()).indexOf("SES-1")]);
+        assertFalse(Arrays.asList(ids.getValue()).contains("SES-3"));
+    }
+
+    @Test
+    void testShutdown_FlushesPendingActivity() {
+        coalescer.recordActivity("SES-1", "10.0.0.1", null, null);
+
+        coalescer.shutdown();
+
+        verify(userSessionRepository).batchUpdateSessionActivity(any(), any(), any(), any(), any(), anyInt());
+        assertEquals(0, coalescer.getPendingCount());
+    }
+}
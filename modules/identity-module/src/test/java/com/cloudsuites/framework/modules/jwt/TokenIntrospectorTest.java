@@ -0,0 +1,99 @@
+package com.cloudsuites.framework.modules.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenIntrospectorTest {
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private TokenRevocationIndex tokenRevocationIndex;
+
+    @InjectMocks
+    private TokenIntrospector introspector;
+
+    private static Claims accessClaims(String jti, String sessionId) {
+        return Jwts.claims()
+                .id(jti)
+                .subject("PERSONA-1")
+                .audience().add("CloudSuites").and()
+                .issuedAt(new Date(1_700_000_000_000L))
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .add(JwtTokenProvider.CLAIM_TOKEN_TYPE, "access")
+                .add(JwtTokenProvider.CLAIM_SESSION_ID, sessionId)
+                .add(JwtTokenProvider.CLAIM_USER_ID, "USR-1")
+                .build();
+    }
+
+    @Test
+    void testActiveTokenReturnsClaims() {
+        when(verifiedTokenCache.verify("token-1")).thenReturn(accessClaims("jti-1", "SES-1"));
+
+        Map<String, Object> response = introspector.introspect("token-1");
+
+        assertEquals(true, response.get("active"));
+        assertEquals("access", response.get("token_type"));
+        assertEquals("PERSONA-1", response.get("sub"));
+        assertEquals("CloudSuites", response.get("aud"));
+        assertEquals(1_700_000_000L, response.get("iat"));
+        assertEquals("USR-1", response.get("userId"));
+        verify(tokenRevocationIndex).isAccessTokenRevoked("jti-1", "SES-1");
+    }
+
+    @Test
+    void testInvalidOrRevokedTokensAreInactiveWithoutClaims() {
+        when(verifiedTokenCache.verify("invalid")).thenReturn(null);
+        when(verifiedTokenCache.verify("revoked")).thenReturn(accessClaims("jti-2", "SES-2"));
+        when(tokenRevocationIndex.isAccessTokenRevoked("jti-2", "SES-2")).thenReturn(true);
+
+        assertEquals(Map.of("active", false), introspector.introspect("invalid"));
+        assertEquals(Map.of("active", false), introspector.introspect("revoked"));
+    }
+
+    @Test
+    void testRefreshTokenCheckedBySession() {
+        Claims refresh = Jwts.claims()
+                .subject("PERSONA-1")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .add(JwtTokenProvider.CLAIM_TOKEN_TYPE, "refresh")
+                .add(JwtTokenProvider.CLAIM_SESSION_ID, "SES-3")
+                .build();
+        when(verifiedTokenCache.verify("refresh-1")).thenReturn(refresh);
+        when(tokenRevocationIndex.isSessionRevoked("SES-3")).thenReturn(true);
+
+        assertEquals(false, introspector.introspect("refresh-1").get("active"));
+        verify(tokenRevocationIndex, never()).isAccessTokenRevoked(any(), any());
+    }
+
+    @Test
+    void testBatchAnswersInOrderAndChecksRepeatsOnce() {
+        when(verifiedTokenCache.verify("token-1")).thenReturn(accessClaims("jti-1", "SES-1"));
+        when(verifiedTokenCache.verify("invalid")).thenReturn(null);
+
+        List<Map<String, Object>> responses = introspector.introspect(Arrays.asList("token-1", "invalid", null, "token-1"));
+
+        assertEquals(4, responses.size());
+        assertEquals(true, responses.get(0).get("active"));
+        assertEquals(false, responses.get(1).get("active"));
+        assertEquals(false, responses.get(2).get("active"));
+        assertSame(responses.get(0), responses.get(3));
+        verify(verifiedTokenCache, times(1)).verify("token-1");
+    }
+}
@@ -0,0 +1,166 @@
+package com.cloudsuites.framework.modules.jwt;
+
+import com.cloudsuites.framework.modules.user.repository.UserSessionRepository;
+import com.cloudsuites.framework.modules.user.repository.UserSessionRepository.RevokedSessionView;
+import com.cloudsuites.framework.services.user.entities.UserSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationIndexTest {
+
+    @Mock
+    private UserSessionRepository userSessionRepository;
+
+    @InjectMocks
+    private TokenRevocationIndex revocationIndex;
+
+    @BeforeEach
+    void setUp() {
+        // match @Value defaults in impl
+        ReflectionTestUtils.setField(revocationIndex, "bucketHours", 24);
+        ReflectionTestUtils.setField(revocationIndex, "expectedPerBucket", 10000);
+        ReflectionTestUtils.setField(revocationIndex, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.setField(revocationIndex, "refreshOverlapMs", 5000L);
+        ReflectionTestUtils.setField(revocationIndex, "ready", true);
+    }
+
+    @Test
+    void testRevokedIdIsReported() {
+        revocationIndex.revoke("SES-1", LocalDateTime.now().plusDays(30));
+
+        assertTrue(revocationIndex.mightBeRevoked("SES-1"));
+        assertFalse(revocationIndex.mightBeRevoked("SES-2"));
+    }
+
+    @Test
+    void testUnknownToken_NoDatabaseLookup() {
+        revocationIndex.revoke("SES-1", LocalDateTime.now().plusDays(30));
+
+        assertFalse(revocationIndex.isAccessTokenRevoked("jti-unknown", "SES-unknown"));
+        verifyNoInteractions(userSessionRepository);
+    }
+
+    @Test
+    void testNotReady_TreatsEverythingAsCandidate() {
+        ReflectionTestUtils.setField(revocationIndex, "ready", false);
+
+        assertTrue(revocationIndex.mightBeRevoked("SES-1"));
+    }
+
+    @Test
+    void testPossibleHit_ConfirmedAgainstDatabase() {
+        revocationIndex.revoke("SES-1", LocalDateTime.now().plusDays(30));
+        UserSession inactive = UserSession.builder().sessionId("SES-1").active(false).build();
+        when(userSessionRepository.findById("SES-1")).thenReturn(Optional.of(inactive));
+
+        assertTrue(revocationIndex.isAccessTokenRevoked(null, "SES-1"));
+        assertTrue(revocationIndex.isSessionRevoked("SES-1"));
+    }
+
+    @Test
+    void testFalsePositive_ActiveSessionNotRevoked() {
+        revocationIndex.revoke("SES-1", LocalDateTime.now().plusDays(30));
+        UserSession active = UserSession.builder().sessionId("SES-1").active(true).build();
+        when(userSessionRepository.findById("SES-1")).thenReturn(Optional.of(active));
+
+        assertFalse(revocationIndex.isSessionRevoked("SES-1"));
+    }
+
+    @Test
+    void testRebuild_LoadsRevokedSessions() {
+        ReflectionTestUtils.setField(revocationIndex, "ready", false);
+        RevokedSessionView revoked = mock(RevokedSessionView.class);
+        when(revoked.getSessionId()).thenReturn("SES-1");
+        when(revoked.getAccessTokenJti()).thenReturn("jti-1");
+        when(revoked.getExpiresAt()).thenReturn(LocalDateTime.now().plusDays(30));
+        when(userSessionRepository.findRevokedUnexpiredSessions(any(LocalDateTime.class))).thenReturn(List.of(revoked));
+
+        revocationIndex.rebuild();
+
+        assertTrue(revocationIndex.isReady());
+        assertTrue(revocationIndex.mightBeRevoked("SES-1"));
+        assertTrue(revocationIndex.mightBeRevoked("jti-1"));
+        assertFalse(revocationIndex.mightBeRevoked("SES-2"));
+    }
+
+    @Test
+    void testRebuildFailure_StaysNotReady() {
+        ReflectionTestUtils.setField(revocationIndex, "ready", false);
+        when(userSessionRepository.findRevokedUnexpiredSessions(any(LocalDateTime.class)))
+                .thenThrow(new RuntimeException("database unavailable"));
+
+        revocationIndex.rebuild();
+
+        assertFalse(revocationIndex.isReady());
+    }
+
+    @Test
+    void testRefresh_AddsSessionsRevokedSinceLastLoad() {
+        LocalDateTime lastLoad = LocalDateTime.now().minusSeconds(30);
+        ReflectionTestUtils.setField(revocationIndex, "loadedUpTo", lastLoad);
+        RevokedSessionView revoked = mock(RevokedSessionView.class);
+        when(revoked.getSessionId()).thenReturn("SES-remote");
+        when(revoked.getExpiresAt()).thenReturn(LocalDateTime.now().plusDays(30));
+        when(userSessionRepository.findSessionsRevokedSince(eq(lastLoad.minusSeconds(5)), any(LocalDateTime.class)))
+                .thenReturn(List.of(revoked));
+
+        revocationIndex.refreshRecentRevocations();
+
+        assertTrue(revocationIndex.mightBeRevoked("SES-remote"));
+        LocalDateTime loadedUpTo = (LocalDateTime) ReflectionTestUtils.getField(revocationIndex, "loadedUpTo");
+        assertTrue(loadedUpTo.isAfter(lastLoad));
+    }
+
+    @Test
+    void testRefreshFailure_KeepsIndexAndRetriesFromSamePoint() {
+        LocalDateTime lastLoad = LocalDateTime.now().minusSeconds(30);
+        ReflectionTestUtils.setField(revocationIndex, "loadedUpTo", lastLoad);
+        revocationIndex.revoke("SES-1", LocalDateTime.now().plusDays(30));
+        when(userSessionRepository.findSessionsRevokedSince(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenThrow(new RuntimeException("database unavailable"));
+
+        revocationIndex.refreshRecentRevocations();
+
+        assertTrue(revocationIndex.isReady());
+        assertTrue(revocationIndex.mightBeRevoked("SES-1"));
+        assertEquals(lastLoad, ReflectionTestUtils.getField(revocationIndex, "loadedUpTo"));
+    }
+
+    @Test
+    void testRefreshWhenNotReady_RebuildsInstead() {
+        ReflectionTestUtils.setField(revocationIndex, "ready", false);
+        when(userSessionRepository.findRevokedUnexpiredSessions(any(LocalDateTime.class))).thenReturn(List.of());
+
+        revocationIndex.refreshRecentRevocations();
+
+        assertTrue(revocationIndex.isReady());
+        verify(userSessionRepository, never()).findSessionsRevokedSince(any(), any());
+    }
+
+    @Test
+    void testEvictExpiredBuckets() {
+        revocationIndex.revoke("SES-old", LocalDateTime.now().minusDays(3));
+        revocationIndex.revoke("SES-live", LocalDateTime.now().plusDays(3));
+        assertEquals(2, revocationIndex.getBucketCount());
+
+        revocationIndex.evictExpiredBuckets();
+
+        assertEquals(1, revocationIndex.getBucketCount());
+        assertFalse(revocationIndex.mightBeRevoked("SES-old"));
+        assertTrue(revocationIndex.mightBeRevoked("SES-live"));
+    }
+}
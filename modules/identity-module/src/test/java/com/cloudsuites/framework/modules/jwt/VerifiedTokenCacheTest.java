@@ -0,0 +1,75 @@
+package com.cloudsuites.framework.modules.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @InjectMocks
+    private VerifiedTokenCache cache;
+
+    private static Claims claimsExpiringIn(long millis) {
+        return Jwts.claims().subject("PERSONA-1").expiration(new Date(System.currentTimeMillis() + millis)).build();
+    }
+
+    @Test
+    void testVerifiesSignatureOncePerToken() {
+        Claims claims = claimsExpiringIn(60_000);
+        when(jwtTokenProvider.extractAllClaims("token-1")).thenReturn(claims);
+
+        assertSame(claims, cache.verify("token-1"));
+        assertSame(claims, cache.verify("token-1"));
+
+        verify(jwtTokenProvider, times(1)).extractAllClaims("token-1");
+    }
+
+    @Test
+    void testInvalidTokensAreNotCached() {
+        when(jwtTokenProvider.extractAllClaims("bad")).thenThrow(new MalformedJwtException("Invalid token"));
+
+        assertNull(cache.verify("bad"));
+        assertNull(cache.verify("bad"));
+        assertNull(cache.verify(null));
+
+        verify(jwtTokenProvider, times(2)).extractAllClaims("bad");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testExpiredTokensAreRejected() {
+        when(jwtTokenProvider.extractAllClaims("token-1")).thenReturn(claimsExpiringIn(-5_000));
+
+        assertNull(cache.verify("token-1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testFullCacheStillVerifies() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 1);
+        when(jwtTokenProvider.extractAllClaims("token-1")).thenReturn(claimsExpiringIn(60_000));
+        when(jwtTokenProvider.extractAllClaims("token-2")).thenReturn(claimsExpiringIn(60_000));
+
+        assertNotNull(cache.verify("token-1"));
+        assertNotNull(cache.verify("token-2"));
+        assertNotNull(cache.verify("token-2"));
+
+        assertEquals(1, cache.size());
+        verify(jwtTokenProvider, times(2)).extractAllClaims("token-2");
+    }
+}
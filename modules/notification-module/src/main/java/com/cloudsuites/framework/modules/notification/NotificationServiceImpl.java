@@ -8,6 +8,7 @@ import com.google.firebase.messaging.Message;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Component;
@@ -25,9 +26,9 @@ public class NotificationServiceImpl {
     private final RestTemplate restTemplate; // For sending SMS
 
     @Autowired
-    public NotificationServiceImpl(JavaMailSender mailSender, RestTemplate restTemplate) {
+    public NotificationServiceImpl(JavaMailSender mailSender, RestTemplateBuilder restTemplateBuilder) {
         this.mailSender = mailSender;
-        this.restTemplate = restTemplate;
+        this.restTemplate = restTemplateBuilder.build();
     }
 
     public void sendPushNotification(PushNotificationRequest request) {
@@ -46,7 +47,10 @@ public class NotificationServiceImpl {
         }
     }
 
-    public void sendEmailNotification(EmailNotificationRequest request) {
+    /**
+     * @return false if the mail server did not accept the message
+     */
+    public boolean sendEmailNotification(EmailNotificationRequest request) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(request.getTo());
         message.setSubject(request.getSubject());
@@ -55,9 +59,11 @@ public class NotificationServiceImpl {
         try {
             mailSender.send(message);
             logger.info("Email sent successfully to: {}", request.getTo());
+            return true;
         } catch (Exception e) {
             logger.error("Failed to send email to {}: {}", request.getTo(), e.getMessage());
             // Handle specific exceptions as needed
+            return false;
         }
     }
 
@@ -1,6 +1,7 @@
 package com.cloudsuites.framework.services.auth;
 
 import com.cloudsuites.framework.services.auth.entities.AuditEvent;
+import com.cloudsuites.framework.services.auth.entities.AuditEventPage;
 import com.cloudsuites.framework.services.auth.entities.AuditEventRequest;
 import com.cloudsuites.framework.services.auth.entities.AuditEventResponse;
 import com.cloudsuites.framework.services.auth.entities.AuditQueryRequest;
@@ -10,6 +11,7 @@ import org.springframework.data.domain.Pageable;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Service interface for comprehensive audit logging of authentication events.
@@ -128,6 +130,27 @@ public interface AuditService {
      */
     Page<AuditEventResponse> getSecurityEvents(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
 
+    /**
+     * Retrieves one page of matching audit events, newest first, positioned by cursor rather
+     * than offset so that deep pages cost the same as the first.
+     *
+     * @param request query filters; paging and sort fields are ignored
+     * @param cursor cursor from the previous page, or null for the first page
+     * @param limit maximum events to return
+     * @return the page and the cursor for the next one
+     */
+    AuditEventPage findAuditEvents(AuditQueryRequest request, String cursor, int limit);
+
+    /**
+     * Streams every matching audit event, newest first, to the consumer. Events are read in
+     * bounded chunks, so exports of any size run in constant memory.
+     *
+     * @param request query filters; paging and sort fields are ignored
+     * @param consumer receives each event in order
+     * @return number of events exported
+     */
+    long exportAuditEvents(AuditQueryRequest request, Consumer<AuditEventResponse> consumer);
+
     /**
      * Gets audit statistics for reporting and monitoring.
      * 
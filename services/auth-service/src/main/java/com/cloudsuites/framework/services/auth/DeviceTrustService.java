@@ -84,6 +84,20 @@ public interface DeviceTrustService {
      */
     boolean validateTrustedDeviceToken(String token, String deviceFingerprint);
 
+    /**
+     * Validate a trusted device token for a specific user.
+     *
+     * Verified statelessly from the token signature, expiry and in-memory
+     * revocation and risk flags, without a database lookup, so a valid
+     * token can stand in for OTP on repeat logins from the same device.
+     *
+     * @param token Trusted device token to validate
+     * @param userId User the token must have been issued to
+     * @param deviceFingerprint Current device fingerprint for verification
+     * @return true if token is valid for the user and device is still trusted
+     */
+    boolean validateTrustedDeviceToken(String token, String userId, String deviceFingerprint);
+
     /**
      * Revoke trust for a specific device.
      * 
@@ -127,6 +141,40 @@ public interface DeviceTrustService {
      */
     void updateDeviceActivity(String deviceFingerprint);
 
+    /**
+     * Update last activity timestamp and last seen IP address for a trusted device.
+     * 
+     * Activity is buffered and persisted asynchronously, so it may take a flush
+     * interval before it is visible in the device record.
+     * 
+     * @param deviceFingerprint Device fingerprint to update
+     * @param ipAddress IP address the device was used from, or null if unknown
+     */
+    void updateDeviceActivity(String deviceFingerprint, String ipAddress);
+
+    /**
+     * Record a failed authentication attempt from a device.
+     * 
+     * Feeds device risk scoring; a device whose score crosses the risk
+     * threshold is flagged immediately.
+     * 
+     * @param userId User the attempt was for, or null if unknown
+     * @param deviceFingerprint Device fingerprint the attempt came from
+     * @param ipAddress IP address the attempt came from, or null if unknown
+     */
+    void recordFailedAttempt(String userId, String deviceFingerprint, String ipAddress);
+
+    /**
+     * Check whether a device is flagged as high risk.
+     * 
+     * Answered from memory without a database lookup, so it is safe to
+     * call on every login.
+     * 
+     * @param deviceFingerprint Device fingerprint to check
+     * @return true if the device's risk score is at or above the risk threshold
+     */
+    boolean isHighRiskDevice(String deviceFingerprint);
+
     /**
      * Clean up expired or unused trusted devices.
      * 
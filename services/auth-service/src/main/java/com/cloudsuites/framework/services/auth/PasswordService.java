@@ -3,6 +3,9 @@ package com.cloudsuites.framework.services.auth;
 import com.cloudsuites.framework.services.auth.entities.PasswordChangeRequest;
 import com.cloudsuites.framework.services.auth.entities.PasswordResetRequest;
 
+import java.util.Optional;
+import java.util.function.Consumer;
+
 /**
  * Service interface for password management operations.
  * 
@@ -12,10 +15,10 @@ import com.cloudsuites.framework.services.auth.entities.PasswordResetRequest;
 public interface PasswordService {
     
     /**
-     * Hashes a plain text password using BCrypt.
+     * Hashes a plain text password with the configured encoder.
      * 
      * @param plainTextPassword the plain text password to hash
-     * @return BCrypt hashed password
+     * @return hashed password, prefixed with its format (e.g. {bcrypt}, {argon2})
      * @throws IllegalArgumentException if password is null or empty
      */
     String hashPassword(String plainTextPassword);
@@ -28,12 +31,32 @@ public interface PasswordService {
      * @return true if passwords match, false otherwise
      */
     boolean verifyPassword(String plainTextPassword, String hashedPassword);
+
+    /**
+     * Verifies a password and, if it matches a hash made with outdated settings, rehashes it
+     * in the background with the current settings.
+     * 
+     * @param plainTextPassword the plain text password to verify
+     * @param hashedPassword the stored hash
+     * @param onRehash receives the upgraded hash to store; called later, on another thread
+     * @return true if passwords match, false otherwise
+     */
+    boolean verifyPassword(String plainTextPassword, String hashedPassword, Consumer<String> onRehash);
+
+    /**
+     * Checks whether a stored hash uses an outdated format or cost.
+     * 
+     * @param hashedPassword the stored hash
+     * @return true if the hash should be replaced on the next successful login
+     */
+    boolean needsRehash(String hashedPassword);
     
     /**
      * Validates password complexity according to security policies.
+     * A password that appears in a known breach fails validation.
      * 
      * @param password the password to validate
-     * @return true if password meets complexity requirements
+     * @return true if password meets complexity requirements and is not breached
      */
     boolean validatePasswordComplexity(String password);
     
@@ -62,6 +85,15 @@ public interface PasswordService {
      */
     boolean validatePasswordResetToken(String token, String userId);
     
+    /**
+     * Redeems a password reset token. A token can be redeemed once; later attempts,
+     * on this node or any other, fail.
+     * 
+     * @param token the reset token sent to the user
+     * @return the user ID the token was issued for, empty if unknown, used or expired
+     */
+    Optional<String> redeemPasswordResetToken(String token);
+    
     /**
      * Changes a user's password with proper validation.
      * 
@@ -1,8 +1,9 @@
 package com.cloudsuites.framework.services.auth;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 /**
  * Utility class for password validation according to security policies.
@@ -10,8 +11,10 @@ import java.util.regex.Pattern;
  * Implements comprehensive password complexity rules including:
  * - Minimum length requirements
  * - Character diversity requirements
- * - Common password pattern detection
  * - Sequential character detection
+ *
+ * Rejecting common and breached passwords needs the breach corpus, so it is left to
+ * {@link PasswordService#isPasswordBreached}.
  */
 public class PasswordValidator {
     
@@ -23,23 +26,15 @@ public class PasswordValidator {
     public static final int MIN_DIGITS = 1;
     public static final int MIN_SPECIAL_CHARS = 1;
     
-    // Regex patterns for validation
-    private static final Pattern UPPERCASE_PATTERN = Pattern.compile("[A-Z]");
-    private static final Pattern LOWERCASE_PATTERN = Pattern.compile("[a-z]");
-    private static final Pattern DIGIT_PATTERN = Pattern.compile("[0-9]");
-    private static final Pattern SPECIAL_CHAR_PATTERN = Pattern.compile("[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>/?]");
+    // Characters counted as special, as in the former [!@#$%^&*()_+\-=\[\]{};':"\\|,.<>/?] pattern
+    private static final String SPECIAL_CHARS = "!@#$%^&*()_+-=[]{};':\"\\|,.<>/?";
     
-    // Common weak passwords and patterns
-    private static final String[] COMMON_PASSWORDS = {
-        "password", "123456", "12345678", "qwerty", "abc123", "password123",
-        "admin", "letmein", "welcome", "monkey", "dragon", "master",
-        "trustno1", "111111", "iloveyou", "sunshine", "princess"
-    };
-    
-    private static final String[] SEQUENTIAL_PATTERNS = {
-        "123", "234", "345", "456", "567", "678", "789", "890",
-        "abc", "bcd", "cde", "def", "efg", "fgh", "ghi", "hij"
-    };
+    /**
+     * Every rule result for one password, gathered in a single pass over its characters.
+     */
+    private record Analysis(int length, int uppercase, int lowercase, int digits, int special,
+                            int uniqueChars, boolean sequential, boolean repetitive) {
+    }
     
     /**
      * Validates password complexity according to security policies.
@@ -65,44 +60,41 @@ public class PasswordValidator {
             return errors;
         }
         
+        Analysis analysis = analyze(password);
+        
         // Length validation
-        if (password.length() < MIN_LENGTH) {
+        if (analysis.length() < MIN_LENGTH) {
             errors.add(String.format("Password must be at least %d characters long", MIN_LENGTH));
         }
         
-        if (password.length() > MAX_LENGTH) {
+        if (analysis.length() > MAX_LENGTH) {
             errors.add(String.format("Password cannot exceed %d characters", MAX_LENGTH));
         }
         
         // Character diversity validation
-        if (countMatches(password, UPPERCASE_PATTERN) < MIN_UPPERCASE) {
+        if (analysis.uppercase() < MIN_UPPERCASE) {
             errors.add(String.format("Password must contain at least %d uppercase letter(s)", MIN_UPPERCASE));
         }
         
-        if (countMatches(password, LOWERCASE_PATTERN) < MIN_LOWERCASE) {
+        if (analysis.lowercase() < MIN_LOWERCASE) {
             errors.add(String.format("Password must contain at least %d lowercase letter(s)", MIN_LOWERCASE));
         }
         
-        if (countMatches(password, DIGIT_PATTERN) < MIN_DIGITS) {
+        if (analysis.digits() < MIN_DIGITS) {
             errors.add(String.format("Password must contain at least %d digit(s)", MIN_DIGITS));
         }
         
-        if (countMatches(password, SPECIAL_CHAR_PATTERN) < MIN_SPECIAL_CHARS) {
+        if (analysis.special() < MIN_SPECIAL_CHARS) {
             errors.add(String.format("Password must contain at least %d special character(s)", MIN_SPECIAL_CHARS));
         }
         
-        // Common password validation
-        if (isCommonPassword(password)) {
-            errors.add("Password is too common and easily guessable");
-        }
-        
         // Sequential pattern validation
-        if (containsSequentialPattern(password)) {
+        if (analysis.sequential()) {
             errors.add("Password contains sequential characters (e.g., 123, abc)");
         }
         
         // Repetitive character validation
-        if (hasRepetitivePattern(password)) {
+        if (analysis.repetitive()) {
             errors.add("Password contains too many repetitive characters");
         }
         
@@ -120,26 +112,25 @@ public class PasswordValidator {
             return 0;
         }
         
+        Analysis analysis = analyze(password);
         int score = 0;
         
         // Length scoring (0-25 points)
-        if (password.length() >= 8) score += 10;
-        if (password.length() >= 12) score += 10;
-        if (password.length() >= 16) score += 5;
+        if (analysis.length() >= 8) score += 10;
+        if (analysis.length() >= 12) score += 10;
+        if (analysis.length() >= 16) score += 5;
         
         // Character diversity scoring (0-40 points)
-        if (UPPERCASE_PATTERN.matcher(password).find()) score += 10;
-        if (LOWERCASE_PATTERN.matcher(password).find()) score += 10;
-        if (DIGIT_PATTERN.matcher(password).find()) score += 10;
-        if (SPECIAL_CHAR_PATTERN.matcher(password).find()) score += 10;
+        if (analysis.uppercase() > 0) score += 10;
+        if (analysis.lowercase() > 0) score += 10;
+        if (analysis.digits() > 0) score += 10;
+        if (analysis.special() > 0) score += 10;
         
         // Complexity bonus (0-35 points)
-        int uniqueChars = (int) password.chars().distinct().count();
-        score += Math.min(15, uniqueChars * 2);
+        score += Math.min(15, analysis.uniqueChars() * 2);
         
-        if (!isCommonPassword(password)) score += 10;
-        if (!containsSequentialPattern(password)) score += 5;
-        if (!hasRepetitivePattern(password)) score += 5;
+        if (!analysis.sequential()) score += 5;
+        if (!analysis.repetitive()) score += 5;
         
         return Math.min(100, score);
     }
@@ -162,41 +153,66 @@ public class PasswordValidator {
     
     // Helper methods
     
-    private static int countMatches(String text, Pattern pattern) {
-        return (int) pattern.matcher(text).results().count();
-    }
-    
-    private static boolean isCommonPassword(String password) {
-        String lowerPassword = password.toLowerCase();
-        for (String common : COMMON_PASSWORDS) {
-            if (lowerPassword.contains(common)) {
-                return true;
+    /**
+     * Classifies every character and tracks runs in one pass.
+     * Sequences are the ascending runs 123 to 890 and abc to hij, case-insensitively;
+     * repetition is three identical characters in a row.
+     */
+    private static Analysis analyze(String password) {
+        int length = password.length();
+        long[] seenAscii = new long[2];
+        Set<Character> seenOther = null;
+        int uppercase = 0;
+        int lowercase = 0;
+        int digits = 0;
+        int special = 0;
+        int uniqueChars = 0;
+        boolean sequential = false;
+        boolean repetitive = false;
+        
+        for (int i = 0; i < length; i++) {
+            char c = password.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                uppercase++;
+            } else if (c >= 'a' && c <= 'z') {
+                lowercase++;
+            } else if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (SPECIAL_CHARS.indexOf(c) >= 0) {
+                special++;
             }
-        }
-        return false;
-    }
-    
-    private static boolean containsSequentialPattern(String password) {
-        String lowerPassword = password.toLowerCase();
-        for (String pattern : SEQUENTIAL_PATTERNS) {
-            if (lowerPassword.contains(pattern)) {
-                return true;
+            
+            if (c < 128) {
+                long bit = 1L << c;
+                if ((seenAscii[c >> 6] & bit) == 0) {
+                    seenAscii[c >> 6] |= bit;
+                    uniqueChars++;
+                }
+            } else {
+                if (seenOther == null) {
+                    seenOther = new HashSet<>();
+                }
+                if (seenOther.add(c)) {
+                    uniqueChars++;
+                }
+            }
+            
+            if (i >= 2) {
+                sequential |= isSequence(Character.toLowerCase(password.charAt(i - 2)),
+                        Character.toLowerCase(password.charAt(i - 1)), Character.toLowerCase(c));
+                repetitive |= c == password.charAt(i - 1) && c == password.charAt(i - 2);
             }
         }
-        return false;
+        
+        return new Analysis(length, uppercase, lowercase, digits, special, uniqueChars,
+                sequential, repetitive);
     }
     
-    private static boolean hasRepetitivePattern(String password) {
-        if (password.length() < 3) return false;
-        
-        // Check for 3+ consecutive identical characters
-        for (int i = 0; i < password.length() - 2; i++) {
-            if (password.charAt(i) == password.charAt(i + 1) && 
-                password.charAt(i) == password.charAt(i + 2)) {
-                return true;
-            }
+    private static boolean isSequence(char first, char second, char third) {
+        if (first >= '1' && first <= '8' && second == first + 1) {
+            // 8, 9 continues only with 0, not with the ':' that follows '9' in ASCII
+            return second == '9' ? third == '0' : third == second + 1;
         }
-        
-        return false;
+        return first >= 'a' && first <= 'h' && second == first + 1 && third == second + 1;
     }
 }
@@ -2,12 +2,14 @@ package com.cloudsuites.framework.services.auth;
 
 import com.cloudsuites.framework.services.auth.entities.RateLimitResult;
 import com.cloudsuites.framework.services.auth.entities.RateLimitConfig;
+import com.cloudsuites.framework.services.auth.entities.RateLimitRule;
 
 import java.time.Duration;
+import java.util.List;
 
 /**
  * Redis-based rate limiting service for authentication operations.
- * Implements sliding window rate limiting with account lockout functionality.
+ * Implements GCRA (token bucket) rate limiting with account lockout functionality.
  * 
  * @author CloudSuites Development Team
  * @since 1.0.0
@@ -16,7 +18,7 @@ public interface RateLimitService {
 
     /**
      * Checks if a rate limit is exceeded for a given key.
-     * Uses sliding window algorithm for accurate rate limiting.
+     * Uses the generic cell rate algorithm (GCRA), which keeps one timestamp per key.
      * 
      * @param key unique identifier (e.g., "auth:login:user@example.com", "otp:send:+1234567890")
      * @param limit maximum number of requests allowed
@@ -48,8 +50,19 @@ public interface RateLimitService {
     RateLimitResult checkAndRecord(String key, int limit, Duration window);
 
     /**
-     * Implements account lockout logic for failed authentication attempts.
-     * Uses exponential backoff: 1min, 5min, 15min, 1hour, 24hours.
+     * Checks and records a request against several rate limits at once (e.g. per IP, per user
+     * and per endpoint) in a single round trip. The request is only recorded if every rule
+     * allows it, so a denied rule does not consume the budget of the others.
+     * 
+     * @param rules the rate limits to evaluate
+     * @return one RateLimitResult per rule, in the same order as the rules
+     */
+    List<RateLimitResult> checkAndRecordAll(List<RateLimitRule> rules);
+
+    /**
+     * Locks a user account immediately, as the next step of its lockout escalation.
+     * Each successive lockout lasts longer (base duration times the multiplier per lockout),
+     * capped at the configured maximum.
      * 
      * @param userId user identifier
      * @param failedAttempts current number of failed attempts
@@ -57,6 +70,18 @@ public interface RateLimitService {
      */
     RateLimitResult lockoutUser(String userId, int failedAttempts);
 
+    /**
+     * Records a failed authentication attempt and locks the account once the threshold is reached.
+     * The increment, threshold check and lockout are applied atomically, so parallel attempts
+     * are never lost. Attempts made while the account is locked are not counted.
+     * 
+     * @param userId user identifier
+     * @param lockoutThreshold failed attempts that trigger a lockout
+     * @return locked result when the account is (or becomes) locked, otherwise an allowed result
+     *         whose current count is the number of failed attempts so far
+     */
+    RateLimitResult recordFailedAttempt(String userId, int lockoutThreshold);
+
     /**
      * Checks if a user account is currently locked out.
      * 
@@ -6,6 +6,8 @@ import com.cloudsuites.framework.services.auth.RiskLevel;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -19,16 +21,17 @@ import java.util.Map;
  */
 @Entity
 @Table(name = "auth_audit_events", indexes = {
-    @Index(name = "idx_audit_user_id", columnList = "user_id"),
-    @Index(name = "idx_audit_event_type", columnList = "event_type"),
-    @Index(name = "idx_audit_timestamp", columnList = "timestamp"),
-    @Index(name = "idx_audit_ip_address", columnList = "ip_address"),
-    @Index(name = "idx_audit_risk_level", columnList = "risk_level")
+    @Index(name = "idx_auth_audit_keyset", columnList = "event_timestamp DESC, audit_id DESC"),
+    @Index(name = "idx_auth_audit_user_keyset", columnList = "user_id, event_timestamp DESC, audit_id DESC"),
+    @Index(name = "idx_auth_audit_user_type_keyset", columnList = "user_id, event_type, event_timestamp DESC, audit_id DESC"),
+    @Index(name = "idx_auth_audit_type_keyset", columnList = "event_type, event_timestamp DESC, audit_id DESC"),
+    @Index(name = "idx_auth_audit_category_keyset", columnList = "event_category, event_timestamp DESC, audit_id DESC"),
+    @Index(name = "idx_auth_audit_ip_keyset", columnList = "ip_address, event_timestamp DESC, audit_id DESC")
 })
 public class AuditEvent {
 
     @Id
-    @Column(name = "event_id")
+    @Column(name = "audit_id")
     private String eventId;
 
     @Column(name = "user_id")
@@ -41,7 +44,7 @@ public class AuditEvent {
 
     @NotNull
     @Enumerated(EnumType.STRING)
-    @Column(name = "category", nullable = false)
+    @Column(name = "event_category", nullable = false)
     private AuthEventCategory category;
 
     @NotNull
@@ -50,7 +53,7 @@ public class AuditEvent {
     private RiskLevel riskLevel;
 
     @NotNull
-    @Column(name = "timestamp", nullable = false)
+    @Column(name = "event_timestamp", nullable = false)
     private LocalDateTime timestamp;
 
     @Size(max = 45)
@@ -65,7 +68,7 @@ public class AuditEvent {
     private String sessionId;
 
     @Size(max = 1000)
-    @Column(name = "description", length = 1000)
+    @Column(name = "event_description", length = 1000)
     private String description;
 
     @Column(name = "success")
@@ -83,14 +86,14 @@ public class AuditEvent {
     @Column(name = "device_type", length = 50)
     private String deviceType;
 
-    @Column(name = "metadata", columnDefinition = "TEXT")
-    @Convert(converter = com.cloudsuites.framework.services.auth.converter.JsonMapConverter.class)
+    @Column(name = "additional_data", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
     private Map<String, Object> metadata;
 
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
-    @Column(name = "created_by")
+    @Column(name = "recorded_by")
     private String createdBy;
 
     /**
@@ -0,0 +1,36 @@
+package com.cloudsuites.framework.services.auth.entities;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated audit query.
+ * The cursor is opaque to callers: pass {@link #getNextCursor()} back to fetch the next page.
+ * It stays valid while new events are recorded, because pages are positioned after the last
+ * event seen rather than at a row offset.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+public class AuditEventPage {
+
+    /**
+     * Events on this page, newest first.
+     */
+    private final List<AuditEventResponse> events;
+
+    /**
+     * Cursor for the next page, or null when this is the last page.
+     */
+    private final String nextCursor;
+
+    public AuditEventPage(List<AuditEventResponse> events, String nextCursor) {
+        this.events = events;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<AuditEventResponse> getEvents() { return events; }
+
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,75 @@
+package com.cloudsuites.framework.services.auth.entities;
+
+import com.cloudsuites.framework.services.auth.AuthEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Count of audit events in one hourly or daily bucket for an event type, outcome and building.
+ * Rows are only ever incremented, in the same transaction that records the events.
+ *
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "audit_event_rollups")
+@IdClass(AuditEventRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEventRollup {
+
+    public enum Granularity { HOUR, DAY }
+
+    public enum Outcome { SUCCESS, FAILURE, UNKNOWN }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", length = 5)
+    private Granularity granularity;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 50)
+    private AuthEventType eventType;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "outcome", length = 10)
+    private Outcome outcome;
+
+    /**
+     * Building the event belongs to, or empty when it has none.
+     */
+    @Id
+    @Column(name = "building_id")
+    private String buildingId;
+
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+
+    /**
+     * Composite key of a rollup bucket.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Granularity granularity;
+        private LocalDateTime bucketStart;
+        private AuthEventType eventType;
+        private Outcome outcome;
+        private String buildingId;
+    }
+}
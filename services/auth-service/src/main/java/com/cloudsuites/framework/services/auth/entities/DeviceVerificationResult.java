@@ -76,6 +76,16 @@ public class DeviceVerificationResult {
         return result;
     }
 
+    public static DeviceVerificationResult highRisk(DeviceFingerprint deviceInfo) {
+        DeviceVerificationResult result = new DeviceVerificationResult();
+        result.trusted = false;
+        result.trustStatus = deviceInfo.getTrustStatus();
+        result.deviceInfo = deviceInfo;
+        result.message = "Device flagged as high risk";
+        result.requiresVerification = true;
+        return result;
+    }
+
     public static DeviceVerificationResult newDevice() {
         DeviceVerificationResult result = new DeviceVerificationResult();
         result.trusted = false;
@@ -25,6 +25,11 @@ public class OtpRequest {
      */
     private String recipient;
 
+    /**
+     * Email address to fail over to when SMS delivery is unavailable (optional).
+     */
+    private String fallbackRecipient;
+
     /**
      * Channel to send the OTP through.
      */
@@ -73,4 +78,7 @@ public class OtpRequest {
 
     public String getRecipient() { return recipient; }
     public void setRecipient(String recipient) { this.recipient = recipient; }
+
+    public String getFallbackRecipient() { return fallbackRecipient; }
+    public void setFallbackRecipient(String fallbackRecipient) { this.fallbackRecipient = fallbackRecipient; }
 }
@@ -0,0 +1,57 @@
+package com.cloudsuites.framework.services.auth.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing an issued password reset token.
+ * 
+ * Only the SHA-256 hash of the token is stored, so a database leak does not reveal
+ * usable tokens. The hash is the primary key, which makes lookup a single index probe.
+ * A token is redeemed at most once: redemption sets {@code usedAt} atomically.
+ * 
+ * @author CloudSuites Development Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "password_reset_tokens",
+       indexes = {
+           @Index(name = "idx_password_reset_tokens_expires_at", columnList = "expires_at"),
+           @Index(name = "idx_password_reset_tokens_user_id", columnList = "user_id")
+       })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordResetToken {
+
+    /**
+     * Hex-encoded SHA-256 hash of the token sent to the user.
+     */
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    /**
+     * User the token resets the password for.
+     */
+    @Column(name = "user_id", nullable = false, length = 36)
+    private String userId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * When the token was redeemed, null while it is still usable.
+     */
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+}
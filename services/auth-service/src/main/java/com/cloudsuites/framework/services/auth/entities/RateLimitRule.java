@@ -0,0 +1,83 @@
+package com.cloudsuites.framework.services.auth.entities;
+
+import java.time.Duration;
+
+/**
+ * A single rate limit to evaluate: a key, the number of operations allowed and the window.
+ * Several rules (e.g. per IP, per user, per endpoint) can be evaluated together
+ * in one call to {@code RateLimitService.checkAndRecordAll}.
+ *
+ * @author CloudSuites Platform Team
+ * @since 1.0.0
+ */
+public class RateLimitRule {
+
+    /**
+     * Unique identifier of the limited subject (e.g., "login:ip:10.0.0.1").
+     */
+    private final String key;
+
+    /**
+     * Maximum number of operations allowed in the window.
+     */
+    private final int limit;
+
+    /**
+     * Time window for the rate limit.
+     */
+    private final Duration window;
+
+    /**
+     * Fraction of the limit a node may admit from its local view between reconciliations
+     * with the shared store; 0 (the default) checks the shared store on every request.
+     */
+    private final double tolerance;
+
+    public RateLimitRule(String key, int limit, Duration window) {
+        this(key, limit, window, 0);
+    }
+
+    public RateLimitRule(String key, int limit, Duration window, double tolerance) {
+        this.key = key;
+        this.limit = limit;
+        this.window = window;
+        this.tolerance = tolerance;
+    }
+
+    public static RateLimitRule of(String key, int limit, Duration window) {
+        return new RateLimitRule(key, limit, window);
+    }
+
+    /**
+     * Builds a rule for a key from an operation configuration.
+     */
+    public static RateLimitRule of(String key, RateLimitConfig config) {
+        return new RateLimitRule(key, (int) config.getMaxOperations(), Duration.ofSeconds(config.getWindowSeconds()));
+    }
+
+    public String getKey() { return key; }
+
+    public int getLimit() { return limit; }
+
+    public Duration getWindow() { return window; }
+
+    public double getTolerance() { return tolerance; }
+
+    /**
+     * Returns a copy of this rule that may be enforced approximately, over-admitting by at most
+     * {@code tolerance * limit} requests per node between reconciliations.
+     */
+    public RateLimitRule withTolerance(double tolerance) {
+        return new RateLimitRule(key, limit, window, tolerance);
+    }
+
+    public boolean isApproximate() {
+        return (int) (tolerance * limit) >= 1;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitRule{key='" + key + "', limit=" + limit + ", window=" + window
+                + (tolerance > 0 ? ", tolerance=" + tolerance : "") + "}";
+    }
+}
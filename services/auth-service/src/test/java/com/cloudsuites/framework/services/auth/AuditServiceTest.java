@@ -13,6 +13,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -364,6 +365,16 @@ class AuditServiceTest {
             return Page.empty();
         }
 
+        @Override
+        public AuditEventPage findAuditEvents(AuditQueryRequest request, String cursor, int limit) {
+            return new AuditEventPage(List.of(), null);
+        }
+
+        @Override
+        public long exportAuditEvents(AuditQueryRequest request, Consumer<AuditEventResponse> consumer) {
+            return 0;
+        }
+
         @Override
         public Map<String, Object> getAuditStatistics(LocalDateTime startDate, LocalDateTime endDate) {
             return Map.of(
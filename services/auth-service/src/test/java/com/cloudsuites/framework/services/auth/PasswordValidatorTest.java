@@ -15,7 +15,6 @@ import static org.junit.jupiter.api.Assertions.*;
  * Tests cover:
  * - Password strength scoring (0-100)
  * - Complexity validation rules
- * - Common password detection
  * - Sequential character detection
  * - Edge cases and input validation
  */
@@ -151,17 +150,6 @@ class PasswordValidatorTest {
         assertTrue(errors.stream().anyMatch(error -> error.contains("special character")));
     }
     
-    @ParameterizedTest
-    @ValueSource(strings = {"password", "admin", "letmein", "welcome", "monkey", "dragon"})
-    @DisplayName("Should detect common passwords")
-    void testCommonPasswordDetection(String commonPassword) {
-        // Create a password that contains the common word but has complexity
-        String complexPassword = "My" + commonPassword.substring(0, 1).toUpperCase() + 
-                                commonPassword.substring(1) + "987!";
-        assertFalse(PasswordValidator.isValidPassword(complexPassword), 
-                   "Should reject password containing common word: " + commonPassword);
-    }
-    
     @Test
     @DisplayName("Should detect sequential characters")
     void testSequentialCharacterDetection() {
@@ -297,4 +285,32 @@ class PasswordValidatorTest {
                       "Strength should be 0-100: " + password + " (scored: " + strength + ")");
         }
     }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"Kq!9ABCz7w", "Kq!9zw7HiJ", "Kq!z8w7890", "Zq!w5678Kx"})
+    @DisplayName("Should detect ascending runs in any case and across the 9-0 boundary")
+    void testSequentialRunsAreCaseInsensitive(String password) {
+        assertTrue(PasswordValidator.getValidationErrors(password).stream()
+                .anyMatch(error -> error.contains("sequential")), password);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"Kq!9Xyzw7m", "Kq!9rstw7m", "Kq!z0129wM", "Kq!z9cbaWM", "Kq!z89:wM"})
+    @DisplayName("Should not flag runs outside 123-890 and abc-hij")
+    void testOnlyKnownRunsAreSequential(String password) {
+        assertFalse(PasswordValidator.getValidationErrors(password).stream()
+                .anyMatch(error -> error.contains("sequential")), password);
+    }
+    
+    @Test
+    @DisplayName("Should report every failed rule from one evaluation")
+    void testAllRuleResultsReported() {
+        List<String> errors = PasswordValidator.getValidationErrors("aaa123password");
+        
+        assertTrue(errors.stream().anyMatch(error -> error.contains("uppercase letter")));
+        assertTrue(errors.stream().anyMatch(error -> error.contains("special character")));
+        assertTrue(errors.stream().anyMatch(error -> error.contains("sequential")));
+        assertTrue(errors.stream().anyMatch(error -> error.contains("repetitive")));
+        assertEquals(4, errors.size());
+    }
 }
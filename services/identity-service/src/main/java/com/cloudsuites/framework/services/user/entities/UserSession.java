@@ -26,6 +26,7 @@ import java.time.LocalDateTime;
     @Index(name = "idx_user_sessions_active", columnList = "user_id, is_active"),
     @Index(name = "idx_user_sessions_expires_at", columnList = "expires_at"),
     @Index(name = "idx_user_sessions_last_activity", columnList = "last_activity_at"),
+    @Index(name = "idx_user_sessions_user_last_activity", columnList = "user_id, last_activity_at DESC"),
     @Index(name = "idx_user_sessions_device_fingerprint", columnList = "device_fingerprint"),
     @Index(name = "idx_user_sessions_refresh_token_hash", columnList = "refresh_token_hash")
 })
@@ -71,7 +72,8 @@ public class UserSession {
     @Column(name = "user_agent", columnDefinition = "TEXT")
     private String userAgent;
 
-    @Column(name = "ip_address")
+    @Size(max = 45, message = "IP address must not exceed 45 characters")
+    @Column(name = "ip_address", length = 45)
     private String ipAddress;
 
     @Size(max = 200, message = "Location must not exceed 200 characters")